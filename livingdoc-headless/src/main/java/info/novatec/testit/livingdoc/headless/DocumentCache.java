@@ -0,0 +1,101 @@
+package info.novatec.testit.livingdoc.headless;
+
+import info.novatec.testit.livingdoc.document.Document;
+import info.novatec.testit.livingdoc.repository.DocumentRepository;
+import info.novatec.testit.livingdoc.server.domain.Repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Specification documents of a headless execution, downloaded once and written in the output directory.<br>
+ * The downloads run in the given pool, so the documents of the next specifications are downloaded while the previous
+ * ones are executing. The {@link DocumentRepository} instances are shared by repository UID.
+ */
+public class DocumentCache {
+
+    private static final String SPECIFICATION = "specification";
+
+    private final File directory;
+    private final ExecutorService downloadPool;
+    private final String user;
+    private final String password;
+
+    private final Map<String, CompletableFuture<File>> documents = new ConcurrentHashMap<>();
+    private final Map<String, DocumentRepository> documentRepositories = new ConcurrentHashMap<>();
+
+
+    /**
+     * @param directory    Directory of the specification files.
+     * @param downloadPool Threads of the downloads.
+     * @param user         User of the document repositories. Null for the credentials of the repository.
+     * @param password     Password of the user.
+     */
+    public DocumentCache(final File directory, final ExecutorService downloadPool, final String user, final String password) {
+        this.directory = directory;
+        this.downloadPool = downloadPool;
+        this.user = user;
+        this.password = password;
+    }
+
+    /**
+     * @param task Specification to execute.
+     * @return The specification file once it is downloaded. The same download is returned for the same task.
+     */
+    public CompletableFuture<File> fetch(final SpecificationTask task) {
+
+        return documents.computeIfAbsent(task.getKey(), key -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return download(task);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, downloadPool));
+    }
+
+    private File download(final SpecificationTask task) throws Exception {
+
+        Repository repository = task.getRepository();
+        Document document = getDocumentRepository(repository).loadDocument(
+                SpecificationTask.buildLocation(task.getSpecificationName(), task.isCurrentVersion()));
+        if (document == null) {
+            throw new IOException("Document is null: " + task.getKey());
+        }
+
+        File specificationFile = new File(directory, SpecificationFiles.buildFileName(repository.getUid(),
+                task.getSpecificationName(), SPECIFICATION, SpecificationFiles.HTML));
+        try (Writer fileWriter = new OutputStreamWriter(Files.newOutputStream(specificationFile.toPath()), StandardCharsets.UTF_8)) {
+            PrintWriter printWriter = new PrintWriter(fileWriter);
+            document.print(printWriter);
+            printWriter.flush();
+        }
+        return specificationFile;
+    }
+
+    private DocumentRepository getDocumentRepository(final Repository repository) throws Exception {
+
+        DocumentRepository documentRepository = documentRepositories.get(repository.getUid());
+        if (documentRepository == null) {
+
+            documentRepository = user == null || user.trim().isEmpty()
+                    ? repository.asDocumentRepository(getClass().getClassLoader())
+                    : repository.asDocumentRepository(getClass().getClassLoader(), user, password);
+
+            DocumentRepository previous = documentRepositories.putIfAbsent(repository.getUid(), documentRepository);
+            if (previous != null) {
+                documentRepository = previous;
+            }
+        }
+        return documentRepository;
+    }
+}
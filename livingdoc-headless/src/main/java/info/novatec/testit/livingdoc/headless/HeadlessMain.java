@@ -0,0 +1,197 @@
+package info.novatec.testit.livingdoc.headless;
+
+import info.novatec.testit.livingdoc.server.domain.DocumentNode;
+import info.novatec.testit.livingdoc.server.domain.Project;
+import info.novatec.testit.livingdoc.server.domain.Repository;
+import info.novatec.testit.livingdoc.server.domain.SystemUnderTest;
+import info.novatec.testit.livingdoc.server.rest.LivingDocRestClient;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Command line of the headless executions (used by the <code>livingdocRun</code> Gradle task):<br>
+ * <code>--url URL --project PROJECT --sut SUT --classpath CLASSPATH [options]</code>
+ * <ul>
+ * <li><code>--repository NAME</code>: executes only the specifications of the repository (name or UID).
+ * All the repositories of the system under test by default.</li>
+ * <li><code>--user USER --password PASSWORD</code>: credentials of the LivingDoc server and the repositories.</li>
+ * <li><code>--sud CLASS;ARGS</code>: system under development of the runner.</li>
+ * <li><code>--workers N</code>: worker processes at the same time (the number of available processors by default).</li>
+ * <li><code>--timeout SECONDS</code>: timeout of every specification (0 without timeout, by default).</li>
+ * <li><code>--shard-index I --shard-count N</code>: executes only the shard I of N (See {@link Shard}).</li>
+ * <li><code>--current-version</code>: executes the current (working) version instead of the implemented one.</li>
+ * <li><code>--output DIRECTORY</code>: directory of the documents and the reports (<code>livingdoc</code> by default).</li>
+ * <li><code>--java EXECUTABLE</code>: Java executable of the workers (the current one by default).</li>
+ * </ul>
+ * The exit code is 0 whether all the specifications succeed, 1 whether any fails and 2 for invalid arguments or errors
+ * of the LivingDoc server.
+ *
+ * @see HeadlessRunner
+ */
+public final class HeadlessMain {
+
+    private static final int FAILURES = 1;
+    private static final int ERROR = 2;
+
+    private HeadlessMain() {
+    }
+
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(final String[] args) {
+
+        Map<String, String> options;
+        int workers;
+        long timeout;
+        Shard shard;
+        try {
+            options = parseOptions(args);
+            for (String required : new String[]{"url", "project", "sut", "classpath"}) {
+                if (!options.containsKey(required)) {
+                    throw new IllegalArgumentException("Missing option --" + required);
+                }
+            }
+            workers = (int) parseNumber(options, "workers", Runtime.getRuntime().availableProcessors(), 1, Integer.MAX_VALUE);
+            timeout = parseNumber(options, "timeout", 0, 0, Long.MAX_VALUE);
+            shard = new Shard((int) parseNumber(options, "shard-index", 0, 0, Integer.MAX_VALUE),
+                    (int) parseNumber(options, "shard-count", 1, 1, Integer.MAX_VALUE));
+        } catch (IllegalArgumentException iae) {
+            System.err.println(iae.getMessage());
+            return ERROR;
+        }
+
+        File outputDirectory = new File(options.getOrDefault("output", "livingdoc"));
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            System.err.println("The folder " + outputDirectory.getPath() + " has not been created.");
+            return ERROR;
+        }
+
+        ExecutorService downloadPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "LivingDoc Download");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<SpecificationTask> tasks = shard.select(loadTasks(options), SpecificationTask::getKey);
+            System.out.println("LivingDoc shard " + shard + ": " + tasks.size() + " specifications");
+
+            DocumentCache documentCache = new DocumentCache(outputDirectory, downloadPool, options.get("user"), options.get("password"));
+            HeadlessRunner headlessRunner = new HeadlessRunner(
+                    options.getOrDefault("java", System.getProperty("java.home") + File.separator + "bin" + File.separator + "java"),
+                    options.get("classpath"), options.get("sud"), workers,
+                    timeout, outputDirectory, documentCache);
+
+            List<SpecificationResult> results = headlessRunner.run(tasks);
+
+            ReportAggregator reportAggregator = new ReportAggregator(options.get("sut") + " " + shard, results);
+            reportAggregator.writeJUnitReport(new File(outputDirectory, "TEST-livingdoc-" + shard.getIndex() + SpecificationFiles.XML));
+            System.out.println(reportAggregator.getSummary());
+
+            return reportAggregator.hasFailures() ? FAILURES : 0;
+
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return ERROR;
+        } catch (Exception e) {
+            System.err.println("LivingDoc headless execution failed: " + e.getMessage());
+            e.printStackTrace();
+            return ERROR;
+        } finally {
+            downloadPool.shutdownNow();
+        }
+    }
+
+    /**
+     * @return The executable specifications of the repositories of the system under test.
+     */
+    private static List<SpecificationTask> loadTasks(final Map<String, String> options) throws Exception {
+
+        LivingDocRestClient restClient = new LivingDocRestClient(options.get("url"), options.get("user"), options.get("password"));
+
+        SystemUnderTest systemUnderTest = SystemUnderTest.newInstance(options.get("sut"));
+        systemUnderTest.setProject(Project.newInstance(options.get("project")));
+
+        String repositoryName = options.get("repository");
+        boolean currentVersion = options.containsKey("current-version");
+
+        List<SpecificationTask> tasks = new ArrayList<>();
+        for (Repository repository : restClient.getAllRepositoriesForSystemUnderTest(systemUnderTest, null)) {
+
+            if (repositoryName != null && !repositoryName.equals(repository.getName()) && !repositoryName.equals(repository.getUid())) {
+                continue;
+            }
+            DocumentNode hierarchy = restClient.getSpecificationHierarchy(repository, systemUnderTest, null);
+            addTasks(hierarchy.getChildren(), repository, currentVersion, tasks);
+        }
+        return tasks;
+    }
+
+    private static void addTasks(final List<DocumentNode> documentNodes, final Repository repository, final boolean currentVersion,
+                                 final List<SpecificationTask> tasks) {
+
+        for (DocumentNode documentNode : documentNodes) {
+            if (documentNode.isExecutable()) {
+                tasks.add(new SpecificationTask(repository, documentNode.getTitle(), currentVersion));
+            }
+            if (documentNode.hasChildren()) {
+                addTasks(documentNode.getChildren(), repository, currentVersion, tasks);
+            }
+        }
+    }
+
+    /**
+     * @param options      Options of the command line.
+     * @param name         Name of the numeric option.
+     * @param defaultValue Value without the option.
+     * @param minimum      Minimum value.
+     * @param maximum      Maximum value.
+     * @return The value of the option.
+     * @throws IllegalArgumentException If the value is not a number between the minimum and the maximum.
+     */
+    static long parseNumber(final Map<String, String> options, final String name, final long defaultValue,
+                            final long minimum, final long maximum) {
+
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number >= minimum && number <= maximum) {
+                return number;
+            }
+        } catch (NumberFormatException nfe) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid option --" + name + " " + value);
+    }
+
+    /**
+     * @return The value of every <code>--name value</code> option (an empty value for the flags).
+     */
+    static Map<String, String> parseOptions(final String[] args) {
+
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(name, args[++i]);
+            } else {
+                options.put(name, "");
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,195 @@
+package info.novatec.testit.livingdoc.headless;
+
+import info.novatec.testit.livingdoc.runner.Main;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executes specifications without IDE, in parallel worker processes (one LivingDoc runner process per specification):
+ * <br>
+ * <code>java -cp CLASSPATH info.novatec.testit.livingdoc.runner.Main --xml [-f CLASS;ARGS] input output</code><br>
+ * The documents are downloaded once by the {@link DocumentCache} while the previous specifications are executing.
+ * At most <code>workers</code> processes run at the same time and a process is destroyed after the timeout. The
+ * statistics printed by every runner (See {@link RunnerStatistics}) and its report are collected as a
+ * {@link SpecificationResult}.
+ *
+ * @see HeadlessMain
+ * @see ReportAggregator
+ */
+public class HeadlessRunner {
+
+    private static final Logger LOG = Logger.getLogger(HeadlessRunner.class.getName());
+
+    private static final String REPORT = "report";
+    private static final String OUTPUT = "output";
+
+    private final String javaExecutable;
+    private final String classPath;
+    private final String systemUnderDevelopment;
+    private final int workers;
+    private final long timeoutSeconds;
+    private final File outputDirectory;
+    private final DocumentCache documentCache;
+
+
+    /**
+     * @param javaExecutable         Java executable of the worker processes.
+     * @param classPath              Classpath of the worker processes: LivingDoc runner, fixtures and their dependencies.
+     * @param systemUnderDevelopment System under development (<code>CLASS;ARGS</code>). Null for the default one.
+     * @param workers                Maximum number of worker processes at the same time.
+     * @param timeoutSeconds         Timeout of every process (0 without timeout).
+     * @param outputDirectory        Directory of the reports and the outputs of the processes.
+     * @param documentCache          Downloads of the specification documents.
+     */
+    public HeadlessRunner(final String javaExecutable, final String classPath, final String systemUnderDevelopment,
+                          final int workers, final long timeoutSeconds, final File outputDirectory,
+                          final DocumentCache documentCache) {
+
+        this.javaExecutable = javaExecutable;
+        this.classPath = classPath;
+        this.systemUnderDevelopment = systemUnderDevelopment;
+        this.workers = Math.max(1, workers);
+        this.timeoutSeconds = timeoutSeconds;
+        this.outputDirectory = outputDirectory;
+        this.documentCache = documentCache;
+    }
+
+    /**
+     * Downloads and executes the specifications, waiting for all of them.
+     *
+     * @param tasks Specifications to execute.
+     * @return The results, in the order of the tasks.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public List<SpecificationResult> run(final List<SpecificationTask> tasks) throws InterruptedException {
+
+        AtomicInteger workerNumber = new AtomicInteger();
+        ExecutorService workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "LivingDoc Worker " + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<SpecificationResult>> futures = new ArrayList<>(tasks.size());
+            for (SpecificationTask task : tasks) {
+                Future<File> specificationFile = documentCache.fetch(task);
+                futures.add(workerPool.submit(() -> execute(task, specificationFile)));
+            }
+
+            List<SpecificationResult> results = new ArrayList<>(tasks.size());
+            for (Future<SpecificationResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException ee) {
+                    throw new IllegalStateException(ee.getCause());
+                }
+            }
+            return results;
+
+        } finally {
+            workerPool.shutdownNow();
+        }
+    }
+
+    private SpecificationResult execute(final SpecificationTask task, final Future<File> specificationFile) throws InterruptedException {
+
+        String repositoryUID = task.getRepository().getUid();
+        File reportFile = new File(outputDirectory, SpecificationFiles.buildFileName(repositoryUID, task.getSpecificationName(),
+                REPORT, SpecificationFiles.XML));
+        File outputFile = new File(outputDirectory, SpecificationFiles.buildFileName(repositoryUID, task.getSpecificationName(),
+                OUTPUT, SpecificationFiles.TXT));
+
+        File inputFile;
+        try {
+            inputFile = specificationFile.get();
+        } catch (ExecutionException ee) {
+            LOG.log(Level.WARNING, "Specification not downloaded: " + task.getKey(), ee.getCause());
+            return new SpecificationResult(task, null, 0L, false, String.valueOf(ee.getCause().getMessage()), reportFile);
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(Main.class.getName());
+        command.addAll(buildRunnerArguments(systemUnderDevelopment, inputFile, reportFile));
+
+        long startTime = System.currentTimeMillis();
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(outputFile).start();
+
+            boolean timedOut = false;
+            if (timeoutSeconds > 0 && !process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                timedOut = true;
+                process.destroyForcibly().waitFor();
+            } else {
+                process.waitFor();
+            }
+            long wallTime = System.currentTimeMillis() - startTime;
+
+            String error = null;
+            if (timedOut) {
+                error = "Timed out after " + timeoutSeconds + " seconds";
+            } else if (process.exitValue() != 0) {
+                error = "Exit code " + process.exitValue();
+            }
+            return new SpecificationResult(task, readStatistics(outputFile), wallTime, timedOut, error, reportFile);
+
+        } catch (IOException ioe) {
+            LOG.log(Level.WARNING, "Specification not executed: " + task.getKey(), ioe);
+            return new SpecificationResult(task, null, System.currentTimeMillis() - startTime, false, ioe.getMessage(), reportFile);
+        }
+    }
+
+    /**
+     * Arguments of the LivingDoc runner, shared by the IDE plugin: <code>--xml [-f CLASS;ARGS] input output</code>
+     *
+     * @param systemUnderDevelopment System under development (<code>CLASS;ARGS</code>). Null for the default one.
+     * @param inputFile              Specification file.
+     * @param reportFile             XML report file.
+     * @return The arguments of the runner main class.
+     */
+    public static List<String> buildRunnerArguments(final String systemUnderDevelopment, final File inputFile,
+                                                    final File reportFile) {
+
+        List<String> arguments = new ArrayList<>();
+        // Generate XML report (defaults to plain)
+        arguments.add("--xml");
+        if (systemUnderDevelopment != null && !systemUnderDevelopment.trim().isEmpty()) {
+            arguments.add("-f");
+            arguments.add(systemUnderDevelopment);
+        }
+        arguments.add(inputFile.getAbsolutePath());
+        arguments.add(reportFile.getAbsolutePath());
+        return arguments;
+    }
+
+    /**
+     * @return The last statistics printed by the runner. Null whether it has not printed them.
+     */
+    private static RunnerStatistics readStatistics(final File outputFile) throws IOException {
+
+        RunnerStatistics statistics = null;
+        for (String line : new String(Files.readAllBytes(outputFile.toPath()), Charset.defaultCharset()).split("\\R")) {
+            RunnerStatistics lineStatistics = RunnerStatistics.parse(line);
+            if (lineStatistics != null) {
+                statistics = lineStatistics;
+            }
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,122 @@
+package info.novatec.testit.livingdoc.headless;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Aggregated report of the results of a headless execution:
+ * <ul>
+ * <li>A JUnit XML report, read by the CI servers: one test case per specification, failed whether it has wrong tests or
+ * exceptions, or the execution did not finish (See {@link SpecificationResult#isFailed()})</li>
+ * <li>A summary line with the totals: <code>S specifications (F failed): R right, W wrong, I ignored, E exception(s)</code></li>
+ * </ul>
+ */
+public class ReportAggregator {
+
+    private final String suiteName;
+    private final List<SpecificationResult> results;
+
+    private int right;
+    private int wrong;
+    private int ignored;
+    private int exceptions;
+    private int failed;
+    private long wallTime;
+
+
+    /**
+     * @param suiteName Name of the test suite (e.g. the system under test and the shard).
+     * @param results   Results of the specifications.
+     */
+    public ReportAggregator(final String suiteName, final List<SpecificationResult> results) {
+
+        this.suiteName = suiteName;
+        this.results = results;
+
+        for (SpecificationResult result : results) {
+            RunnerStatistics statistics = result.getStatistics();
+            if (statistics != null) {
+                right += statistics.getRight();
+                wrong += statistics.getWrong();
+                ignored += statistics.getIgnored();
+                exceptions += statistics.getExceptions();
+            }
+            if (result.isFailed()) {
+                failed++;
+            }
+            wallTime += result.getWallTime();
+        }
+    }
+
+    /**
+     * @return The summary line with the totals.
+     */
+    public String getSummary() {
+        return String.format("%d specifications (%d failed): %d right, %d wrong, %d ignored, %d exception(s)",
+                results.size(), failed, right, wrong, ignored, exceptions);
+    }
+
+    /**
+     * @return True whether any specification failed.
+     */
+    public boolean hasFailures() {
+        return failed > 0;
+    }
+
+    /**
+     * Writes the JUnit XML report.
+     *
+     * @param reportFile Report file.
+     * @throws IOException If an I/O error occurred
+     */
+    public void writeJUnitReport(final File reportFile) throws IOException {
+        Files.write(reportFile.toPath(), toJUnitXml().getBytes(StandardCharsets.UTF_8));
+    }
+
+    String toJUnitXml() {
+
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<testsuite name=\"").append(escape(suiteName))
+                .append("\" tests=\"").append(results.size())
+                .append("\" failures=\"").append(failed)
+                .append("\" errors=\"0\" skipped=\"0\" time=\"").append(seconds(wallTime)).append("\">\n");
+
+        for (SpecificationResult result : results) {
+            SpecificationTask task = result.getTask();
+            xml.append("  <testcase classname=\"").append(escape(task.getRepository().getUid()))
+                    .append("\" name=\"").append(escape(task.getSpecificationName()))
+                    .append("\" time=\"").append(seconds(result.getWallTime())).append('"');
+
+            if (result.isFailed()) {
+                xml.append(">\n    <failure message=\"").append(escape(getFailureMessage(result))).append("\">")
+                        .append(escape(result.getReportFile().getPath())).append("</failure>\n  </testcase>\n");
+            } else {
+                xml.append("/>\n");
+            }
+        }
+        return xml.append("</testsuite>\n").toString();
+    }
+
+    private static String getFailureMessage(final SpecificationResult result) {
+
+        if (result.getError() != null) {
+            return result.getError();
+        }
+        if (result.getStatistics() == null) {
+            return "No statistics printed by the runner";
+        }
+        return result.getStatistics().getWrong() + " wrong, " + result.getStatistics().getExceptions() + " exception(s)";
+    }
+
+    private static String seconds(final long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000d);
+    }
+
+    private static String escape(final String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
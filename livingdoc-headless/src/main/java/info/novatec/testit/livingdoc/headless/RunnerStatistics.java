@@ -0,0 +1,68 @@
+package info.novatec.testit.livingdoc.headless;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Statistics printed by the LivingDoc runner in the standard output once a specification is executed:<br>
+ * <code>N tests: R right, W wrong, I ignored, E exception(s)</code>
+ *
+ * @see HeadlessRunner
+ */
+public final class RunnerStatistics {
+
+    private static final Pattern STATISTICS_PATTERN =
+            Pattern.compile("(\\d+) right, (\\d+) wrong, (\\d+) ignored, (\\d+) exception");
+
+    private final int right;
+    private final int wrong;
+    private final int ignored;
+    private final int exceptions;
+
+
+    /**
+     * @param right      Right tests.
+     * @param wrong      Wrong tests.
+     * @param ignored    Ignored tests.
+     * @param exceptions Tests with exceptions.
+     */
+    public RunnerStatistics(final int right, final int wrong, final int ignored, final int exceptions) {
+        this.right = right;
+        this.wrong = wrong;
+        this.ignored = ignored;
+        this.exceptions = exceptions;
+    }
+
+    /**
+     * @param line Line of the process output.
+     * @return The statistics of the line. Null whether it is not a statistics line.
+     */
+    public static RunnerStatistics parse(final String line) {
+
+        if (line == null) {
+            return null;
+        }
+        Matcher matcher = STATISTICS_PATTERN.matcher(line);
+        if (!matcher.find()) {
+            return null;
+        }
+        return new RunnerStatistics(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(4)));
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    public int getWrong() {
+        return wrong;
+    }
+
+    public int getIgnored() {
+        return ignored;
+    }
+
+    public int getExceptions() {
+        return exceptions;
+    }
+}
@@ -0,0 +1,70 @@
+package info.novatec.testit.livingdoc.headless;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Share of the specifications executed by a CI node: the specifications are sorted by key and the node with the shard
+ * index <code>I</code> of <code>N</code> executes the ones at the positions <code>I, I + N, I + 2N...</code><br>
+ * Every node gets the same sort, so the shards are disjoint and they cover all the specifications.
+ */
+public final class Shard {
+
+    private final int index;
+    private final int count;
+
+
+    /**
+     * @param index Shard index, from 0 to count - 1.
+     * @param count Number of shards (CI nodes).
+     * @throws IllegalArgumentException If the index or the count are not valid.
+     */
+    public Shard(final int index, final int count) {
+
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * @return The single shard with all the specifications.
+     */
+    public static Shard all() {
+        return new Shard(0, 1);
+    }
+
+    /**
+     * @param items Items to share out.
+     * @param key   Sort key of an item.
+     * @param <T>   Item type.
+     * @return The items of this shard, sorted by key.
+     */
+    public <T> List<T> select(final List<T> items, final Function<T, String> key) {
+
+        List<T> sortedItems = new ArrayList<>(items);
+        sortedItems.sort(Comparator.comparing(key));
+
+        List<T> selectedItems = new ArrayList<>();
+        for (int position = index; position < sortedItems.size(); position += count) {
+            selectedItems.add(sortedItems.get(position));
+        }
+        return selectedItems;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
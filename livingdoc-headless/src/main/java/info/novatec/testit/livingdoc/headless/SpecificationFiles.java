@@ -0,0 +1,34 @@
+package info.novatec.testit.livingdoc.headless;
+
+/**
+ * Names of the files of a specification execution (specification, report, results...), shared by the IDE plugin and
+ * the {@link HeadlessRunner}:<br>
+ * <code>REPOSITORY-UID_SPECIFICATION-NAME_FILE-TYPE.EXTENSION</code>
+ */
+public final class SpecificationFiles {
+
+    public static final String HTML = ".html";
+    public static final String XML = ".xml";
+    public static final String TXT = ".txt";
+
+    private static final String SEPARATOR = "_";
+
+    private SpecificationFiles() {
+    }
+
+    /**
+     * @param repositoryUID     Repository UID.
+     * @param specificationName Specification name.
+     * @param fileType          Kind of file (e.g. report).
+     * @param extension         File extension, with the dot.
+     * @return The file name. The slashes and backslashes are replaced by underscores (and the hyphens of the repository
+     * UID too), and the double quotes of the specification name by two single quotes. Other characters are kept.
+     */
+    public static String buildFileName(final String repositoryUID, final String specificationName, final String fileType,
+                                       final String extension) {
+
+        String prefix = repositoryUID.replaceAll("\\\\", SEPARATOR).replaceAll("/", SEPARATOR).replaceAll("-", SEPARATOR);
+        String altName = specificationName.replaceAll("\\\\", SEPARATOR).replaceAll("/", SEPARATOR).replaceAll("\"", "''");
+        return String.format("%s_%s_%s%s", prefix, altName, fileType, extension);
+    }
+}
@@ -0,0 +1,66 @@
+package info.novatec.testit.livingdoc.headless;
+
+import java.io.File;
+
+/**
+ * Result of a {@link SpecificationTask} executed by the {@link HeadlessRunner}.
+ */
+public class SpecificationResult {
+
+    private final SpecificationTask task;
+    private final RunnerStatistics statistics;
+    private final long wallTime;
+    private final boolean timedOut;
+    private final String error;
+    private final File reportFile;
+
+
+    /**
+     * @param task       Executed specification.
+     * @param statistics Statistics printed by the runner. Null whether the execution has not printed them.
+     * @param wallTime   Time (ms) from the start of the process to its end.
+     * @param timedOut   True whether the process was destroyed after the timeout.
+     * @param error      Error of the execution (e.g. the document was not downloaded). Null without error.
+     * @param reportFile XML report of the runner (it may not exist).
+     */
+    public SpecificationResult(final SpecificationTask task, final RunnerStatistics statistics, final long wallTime,
+                               final boolean timedOut, final String error, final File reportFile) {
+        this.task = task;
+        this.statistics = statistics;
+        this.wallTime = wallTime;
+        this.timedOut = timedOut;
+        this.error = error;
+        this.reportFile = reportFile;
+    }
+
+    /**
+     * @return True whether the specification has wrong tests or exceptions, or the execution did not finish.
+     */
+    public boolean isFailed() {
+        return statistics == null || timedOut || error != null || statistics.getWrong() > 0 || statistics.getExceptions() > 0;
+    }
+
+    public SpecificationTask getTask() {
+        return task;
+    }
+
+    public RunnerStatistics getStatistics() {
+        return statistics;
+    }
+
+    public long getWallTime() {
+        return wallTime;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public File getReportFile() {
+        return reportFile;
+    }
+}
@@ -0,0 +1,72 @@
+package info.novatec.testit.livingdoc.headless;
+
+import info.novatec.testit.livingdoc.server.domain.Repository;
+
+/**
+ * Specification to execute by the {@link HeadlessRunner}.
+ */
+public class SpecificationTask {
+
+    private final Repository repository;
+    private final String specificationName;
+    private final boolean currentVersion;
+
+
+    /**
+     * @param repository        Document repository of the specification.
+     * @param specificationName Specification name.
+     * @param currentVersion    True for the current (working) version. False for the implemented version.
+     */
+    public SpecificationTask(final Repository repository, final String specificationName, final boolean currentVersion) {
+        this.repository = repository;
+        this.specificationName = specificationName;
+        this.currentVersion = currentVersion;
+    }
+
+    /**
+     * @return Key of the task: repository UID and specification name (with its version).
+     */
+    public String getKey() {
+        return buildKey(repository.getUid(), specificationName, currentVersion);
+    }
+
+    /**
+     * @param repositoryUID     Repository UID.
+     * @param specificationName Specification name.
+     * @param currentVersion    True for the current (working) version. False for the implemented version.
+     * @return Key of the specification document: repository UID and specification name (with its version).
+     */
+    public static String buildKey(final String repositoryUID, final String specificationName, final boolean currentVersion) {
+        return buildKey(repositoryUID, buildLocation(specificationName, currentVersion));
+    }
+
+    /**
+     * @param repositoryUID     Repository UID.
+     * @param specificationName Specification name.
+     * @return Key of the specification, whatever its version: repository UID and specification name.
+     */
+    public static String buildKey(final String repositoryUID, final String specificationName) {
+        return repositoryUID + "/" + specificationName;
+    }
+
+    /**
+     * @param specificationName Specification name.
+     * @param currentVersion    True for the current (working) version. False for the implemented version.
+     * @return Location of the specification document in its document repository.
+     */
+    public static String buildLocation(final String specificationName, final boolean currentVersion) {
+        return specificationName + (currentVersion ? "?implemented=false" : "");
+    }
+
+    public Repository getRepository() {
+        return repository;
+    }
+
+    public String getSpecificationName() {
+        return specificationName;
+    }
+
+    public boolean isCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,50 @@
+package info.novatec.testit.livingdoc.headless;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class HeadlessMainTest {
+
+    private static final String[] REQUIRED = {"--url", "http://localhost", "--project", "Bank", "--sut", "Bank", "--classpath", "bank.jar"};
+
+    @Test
+    public void parseNumber() {
+
+        Map<String, String> options = Collections.singletonMap("workers", "4");
+
+        Assert.assertEquals(4L, HeadlessMain.parseNumber(options, "workers", 1, 1, Integer.MAX_VALUE));
+        Assert.assertEquals(30L, HeadlessMain.parseNumber(options, "timeout", 30, 0, Long.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseNumberNotNumeric() {
+        HeadlessMain.parseNumber(Collections.singletonMap("timeout", "ten"), "timeout", 0, 0, Long.MAX_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseNumberUnderMinimum() {
+        HeadlessMain.parseNumber(Collections.singletonMap("workers", "0"), "workers", 1, 1, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void invalidNumericOptions() {
+
+        Assert.assertEquals(2, HeadlessMain.run(withOption("--workers", "four")));
+        Assert.assertEquals(2, HeadlessMain.run(withOption("--workers", "")));
+        Assert.assertEquals(2, HeadlessMain.run(withOption("--timeout", "-1")));
+        Assert.assertEquals(2, HeadlessMain.run(withOption("--shard-index", "x")));
+        Assert.assertEquals(2, HeadlessMain.run(withOption("--shard-index", "3")));
+    }
+
+    private static String[] withOption(final String name, final String value) {
+
+        String[] args = new String[REQUIRED.length + 2];
+        System.arraycopy(REQUIRED, 0, args, 0, REQUIRED.length);
+        args[REQUIRED.length] = name;
+        args[REQUIRED.length + 1] = value;
+        return args;
+    }
+}
@@ -0,0 +1,26 @@
+package info.novatec.testit.livingdoc.headless;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RunnerStatisticsTest {
+
+    @Test
+    public void parse() {
+
+        RunnerStatistics statistics = RunnerStatistics.parse("12 tests: 9 right, 1 wrong, 2 ignored, 0 exception(s)");
+
+        Assert.assertNotNull(statistics);
+        Assert.assertEquals(9, statistics.getRight());
+        Assert.assertEquals(1, statistics.getWrong());
+        Assert.assertEquals(2, statistics.getIgnored());
+        Assert.assertEquals(0, statistics.getExceptions());
+    }
+
+    @Test
+    public void parseOtherLines() {
+
+        Assert.assertNull(RunnerStatistics.parse(null));
+        Assert.assertNull(RunnerStatistics.parse("Running specification.html"));
+    }
+}
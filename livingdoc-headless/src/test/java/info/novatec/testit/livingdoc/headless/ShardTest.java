@@ -0,0 +1,39 @@
+package info.novatec.testit.livingdoc.headless;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+public class ShardTest {
+
+    private static final List<String> SPECIFICATIONS = Arrays.asList("e", "b", "a", "d", "c");
+
+    @Test
+    public void selectSortedPositions() {
+
+        Assert.assertEquals(Arrays.asList("a", "c", "e"), new Shard(0, 2).select(SPECIFICATIONS, Function.identity()));
+        Assert.assertEquals(Arrays.asList("b", "d"), new Shard(1, 2).select(SPECIFICATIONS, Function.identity()));
+    }
+
+    @Test
+    public void shardsCoverAllTheItems() {
+
+        List<String> selected = new ArrayList<>();
+        for (int index = 0; index < 3; index++) {
+            selected.addAll(new Shard(index, 3).select(SPECIFICATIONS, Function.identity()));
+        }
+        selected.sort(String::compareTo);
+
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d", "e"), selected);
+        Assert.assertEquals(Shard.all().select(SPECIFICATIONS, Function.identity()), selected);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidIndex() {
+        new Shard(2, 2);
+    }
+}
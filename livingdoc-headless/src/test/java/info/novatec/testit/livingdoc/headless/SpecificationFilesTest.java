@@ -0,0 +1,14 @@
+package info.novatec.testit.livingdoc.headless;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpecificationFilesTest {
+
+    @Test
+    public void buildFileName() {
+
+        Assert.assertEquals("repo_uid_folder_Spec ''one''_report.xml",
+                SpecificationFiles.buildFileName("repo-uid", "folder/Spec \"one\"", "report", SpecificationFiles.XML));
+    }
+}
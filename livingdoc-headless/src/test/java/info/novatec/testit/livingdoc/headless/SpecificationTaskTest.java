@@ -0,0 +1,22 @@
+package info.novatec.testit.livingdoc.headless;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpecificationTaskTest {
+
+    @Test
+    public void buildKey() {
+
+        Assert.assertEquals("repo-uid/Bank", SpecificationTask.buildKey("repo-uid", "Bank", false));
+        Assert.assertEquals("repo-uid/Bank?implemented=false", SpecificationTask.buildKey("repo-uid", "Bank", true));
+        Assert.assertEquals("repo-uid/Bank", SpecificationTask.buildKey("repo-uid", "Bank"));
+    }
+
+    @Test
+    public void buildLocation() {
+
+        Assert.assertEquals("Bank", SpecificationTask.buildLocation("Bank", false));
+        Assert.assertEquals("Bank?implemented=false", SpecificationTask.buildLocation("Bank", true));
+    }
+}
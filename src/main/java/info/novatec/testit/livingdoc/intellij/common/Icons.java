@@ -1,5 +1,6 @@
 package info.novatec.testit.livingdoc.intellij.common;
 
+import com.intellij.icons.AllIcons;
 import com.intellij.openapi.util.IconLoader;
 
 import javax.swing.*;
@@ -16,6 +17,9 @@ public final class Icons {
     public static final Icon SUCCESS = IconLoader.getIcon("/icons/success.png");
     public static final Icon SUCCESS_DIFF = IconLoader.getIcon("/icons/success_diff.png");
     public static final Icon SUCCESS_WORKING = IconLoader.getIcon("/icons/success_working.png");
+    public static final Icon TIMEOUT = AllIcons.RunConfigurations.TestTerminated;
+    public static final Icon PROFILE = AllIcons.Actions.Lightning;
+    public static final Icon MATRIX = AllIcons.Nodes.ModuleGroup;
 
     private Icons() {
         // Utility class.
@@ -8,8 +8,9 @@ package info.novatec.testit.livingdoc.intellij.common;
  * <li>{@link #REPOSITORY} LivingDoc repository</li>
  * <li>{@link #SPECIFICATION} LivingDoc specification</li>
  * <li>{@link #ERROR}</li>
+ * <li>{@link #LOADING} Placeholder of a module while its repositories are loading</li>
  * </ul>
  */
 public enum NodeType {
-    PROJECT, MODULE, REPOSITORY, SPECIFICATION, ERROR
+    PROJECT, MODULE, REPOSITORY, SPECIFICATION, ERROR, LOADING
 }
@@ -7,7 +7,9 @@ import java.io.InputStream;
 import java.util.Properties;
 
 /**
- * Use {@link #getValue(String)} to get a property defined in {@link #PROPERTIES_PATH}
+ * Use {@link #getValue(String)} to get a property defined in {@link #PROPERTIES_PATH}<br>
+ * A system property with the same key (<code>-Dkey=value</code> in the VM options of the IDE) overrides the bundled
+ * value, so the timeouts, retries and thresholds can be changed without rebuilding the plugin.
  */
 public class PluginProperties {
 
@@ -20,7 +22,7 @@ public class PluginProperties {
         if (properties == null) {
             loadProperties();
         }
-        return properties.getProperty(key);
+        return System.getProperty(key, properties.getProperty(key));
     }
 
     private static void loadProperties() {
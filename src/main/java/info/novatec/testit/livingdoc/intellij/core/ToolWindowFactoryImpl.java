@@ -5,8 +5,15 @@ import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowFactory;
 import com.intellij.ui.content.Content;
 import com.intellij.ui.content.ContentFactory;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
 import info.novatec.testit.livingdoc.intellij.common.Icons;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.DurationsPanel;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.HotSpotsPanel;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.MatrixPanel;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.ResultsPanel;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.ProfilePanel;
 import info.novatec.testit.livingdoc.intellij.gui.toolwindows.ToolWindowPanel;
+import info.novatec.testit.livingdoc.intellij.rest.ExecutionUploader;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -14,6 +21,11 @@ import org.jetbrains.annotations.NotNull;
  *
  * @see ToolWindowFactory
  * @see ToolWindowPanel
+ * @see ResultsPanel
+ * @see DurationsPanel
+ * @see HotSpotsPanel
+ * @see ProfilePanel
+ * @see MatrixPanel
  */
 public class ToolWindowFactoryImpl implements ToolWindowFactory {
 
@@ -24,9 +36,48 @@ public class ToolWindowFactoryImpl implements ToolWindowFactory {
 
         ContentFactory contentFactory = ContentFactory.SERVICE.getInstance();
         Content content = contentFactory.createContent(toolWindowPanel, project.getName(), false);
+        content.setDisposer(toolWindowPanel);
         content.setIcon(Icons.LIVINGDOC);
         content.putUserData(ToolWindow.SHOW_CONTENT_ICON, Boolean.TRUE);
         content.setCloseable(true);
         toolWindow.getContentManager().addContent(content);
+
+        final ResultsPanel resultsPanel = new ResultsPanel(project);
+
+        Content resultsContent = contentFactory.createContent(resultsPanel, I18nSupport.getValue("toolwindows.results.title"), false);
+        resultsContent.setDisposer(resultsPanel);
+        resultsContent.setCloseable(false);
+        toolWindow.getContentManager().addContent(resultsContent);
+
+        final DurationsPanel durationsPanel = new DurationsPanel(project);
+
+        Content durationsContent = contentFactory.createContent(durationsPanel, I18nSupport.getValue("toolwindows.durations.title"), false);
+        durationsContent.setDisposer(durationsPanel);
+        durationsContent.setCloseable(false);
+        toolWindow.getContentManager().addContent(durationsContent);
+
+        final HotSpotsPanel hotSpotsPanel = new HotSpotsPanel(project);
+
+        Content hotSpotsContent = contentFactory.createContent(hotSpotsPanel, I18nSupport.getValue("toolwindows.hotspots.title"), false);
+        hotSpotsContent.setDisposer(hotSpotsPanel);
+        hotSpotsContent.setCloseable(false);
+        toolWindow.getContentManager().addContent(hotSpotsContent);
+
+        final ProfilePanel profilePanel = new ProfilePanel(project);
+
+        Content profileContent = contentFactory.createContent(profilePanel, I18nSupport.getValue("toolwindows.profile.title"), false);
+        profileContent.setDisposer(profilePanel);
+        profileContent.setCloseable(false);
+        toolWindow.getContentManager().addContent(profileContent);
+
+        final MatrixPanel matrixPanel = new MatrixPanel(project);
+
+        Content matrixContent = contentFactory.createContent(matrixPanel, I18nSupport.getValue("toolwindows.matrix.title"), false);
+        matrixContent.setDisposer(matrixPanel);
+        matrixContent.setCloseable(false);
+        toolWindow.getContentManager().addContent(matrixContent);
+
+        // The executions queued for upload in previous sessions
+        ExecutionUploader.getInstance(project).resume();
     }
 }
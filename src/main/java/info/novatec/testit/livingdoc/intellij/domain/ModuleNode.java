@@ -8,6 +8,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 public class ModuleNode extends Node {
 
     private String moduleName;
+    private long staleSince;
 
     public ModuleNode() {
         super();
@@ -23,6 +24,7 @@ public class ModuleNode extends Node {
     public String toString() {
         return new ToStringBuilder(this)
                 .append("moduleName", moduleName)
+                .append("staleSince", staleSince)
                 .toString();
     }
 
@@ -33,4 +35,16 @@ public class ModuleNode extends Node {
     public void setModuleName(final String moduleName) {
         this.moduleName = moduleName;
     }
+
+    /**
+     * @return Time (ms) the repositories of the module were cached, whether they are shown in offline mode. 0 whether
+     * they are loaded from the server.
+     */
+    public long getStaleSince() {
+        return staleSince;
+    }
+
+    public void setStaleSince(final long staleSince) {
+        this.staleSince = staleSince;
+    }
 }
@@ -8,6 +8,7 @@ import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.components.State;
 import com.intellij.openapi.project.Project;
 import com.intellij.util.xmlb.XmlSerializerUtil;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -19,6 +20,9 @@ import org.jetbrains.annotations.Nullable;
  * Passwords are stored in encrypted form using
  * <a href="https://github.com/JetBrains/intellij-community/blob/master/platform/credential-store/readme.md">
  * IntelliJ Platform Credentials Store API</a>
+ * <br/><br/>
+ * The timeouts (s) of a specification execution and of a group of executions (0 without timeout) default to
+ * <code>livingdoc.timeout.specification.seconds</code> and <code>livingdoc.timeout.batch.seconds</code>.
  *
  * @see PersistentStateComponent
  */
@@ -31,6 +35,14 @@ public final class ProjectSettings implements PersistentStateComponent<ProjectSe
     private String urlServer;
     private String user;
     private boolean isConnected;
+    private boolean prefetchEnabled = true;
+    private boolean prefetchSiblings;
+    private boolean classDataSharing;
+    private boolean instrumentedRun;
+    private boolean inProcessExecution;
+    private boolean uploadResults;
+    private int specificationTimeoutSeconds = Integer.parseInt(PluginProperties.getValue("livingdoc.timeout.specification.seconds"));
+    private int batchTimeoutSeconds = Integer.parseInt(PluginProperties.getValue("livingdoc.timeout.batch.seconds"));
 
     @NotNull
     public static ProjectSettings getInstance(@NotNull final Project project) {
@@ -72,6 +84,70 @@ public final class ProjectSettings implements PersistentStateComponent<ProjectSe
         isConnected = connected;
     }
 
+    public boolean isPrefetchEnabled() {
+        return prefetchEnabled;
+    }
+
+    public void setPrefetchEnabled(final boolean prefetchEnabled) {
+        this.prefetchEnabled = prefetchEnabled;
+    }
+
+    public boolean isPrefetchSiblings() {
+        return prefetchSiblings;
+    }
+
+    public void setPrefetchSiblings(final boolean prefetchSiblings) {
+        this.prefetchSiblings = prefetchSiblings;
+    }
+
+    public boolean isClassDataSharing() {
+        return classDataSharing;
+    }
+
+    public void setClassDataSharing(final boolean classDataSharing) {
+        this.classDataSharing = classDataSharing;
+    }
+
+    public boolean isInstrumentedRun() {
+        return instrumentedRun;
+    }
+
+    public void setInstrumentedRun(final boolean instrumentedRun) {
+        this.instrumentedRun = instrumentedRun;
+    }
+
+    public boolean isInProcessExecution() {
+        return inProcessExecution;
+    }
+
+    public void setInProcessExecution(final boolean inProcessExecution) {
+        this.inProcessExecution = inProcessExecution;
+    }
+
+    public boolean isUploadResults() {
+        return uploadResults;
+    }
+
+    public void setUploadResults(final boolean uploadResults) {
+        this.uploadResults = uploadResults;
+    }
+
+    public int getSpecificationTimeoutSeconds() {
+        return specificationTimeoutSeconds;
+    }
+
+    public void setSpecificationTimeoutSeconds(final int specificationTimeoutSeconds) {
+        this.specificationTimeoutSeconds = specificationTimeoutSeconds;
+    }
+
+    public int getBatchTimeoutSeconds() {
+        return batchTimeoutSeconds;
+    }
+
+    public void setBatchTimeoutSeconds(final int batchTimeoutSeconds) {
+        this.batchTimeoutSeconds = batchTimeoutSeconds;
+    }
+
     public String getPassword() {
 
         if (StringUtils.isBlank(user)) {
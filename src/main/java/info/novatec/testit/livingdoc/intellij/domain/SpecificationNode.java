@@ -17,17 +17,28 @@ public class SpecificationNode extends Node {
     private boolean executable;
     private boolean canBeImplemented;
     private boolean usingCurrentVersion;
+    private double durationRegression;
 
     public SpecificationNode() {
         super();
     }
 
     public SpecificationNode(final DocumentNode node, final Node parentNode) {
+        this(node.getTitle(), node.isExecutable(), node.isCanBeImplemented(), parentNode);
+    }
+
+    /**
+     * @param title            Specification title.
+     * @param executable       True whether the specification can be executed.
+     * @param canBeImplemented True whether the specification has a working version.
+     * @param parentNode       Parent node.
+     */
+    public SpecificationNode(final String title, final boolean executable, final boolean canBeImplemented, final Node parentNode) {
 
-        super(node.getTitle(), Icons.EXECUTABLE, NodeType.SPECIFICATION, parentNode);
+        super(title, Icons.EXECUTABLE, NodeType.SPECIFICATION, parentNode);
 
-        this.executable = node.isExecutable();
-        this.canBeImplemented = node.isCanBeImplemented() && node.isExecutable();
+        this.executable = executable;
+        this.canBeImplemented = canBeImplemented && executable;
         this.usingCurrentVersion = false;
     }
 
@@ -37,6 +48,7 @@ public class SpecificationNode extends Node {
                 .append("executable", executable)
                 .append("isCanBeImplemented", canBeImplemented)
                 .append("usingCurrentVersion", usingCurrentVersion)
+                .append("durationRegression", durationRegression)
                 .toString();
     }
 
@@ -63,4 +75,16 @@ public class SpecificationNode extends Node {
     public void setUsingCurrentVersion(final boolean usingCurrentVersion) {
         this.usingCurrentVersion = usingCurrentVersion;
     }
+
+    /**
+     * @return Slowdown of the last execution relative to its baseline (e.g. 0.5 for 50% slower) whether it is a
+     * significant regression. 0 otherwise.
+     */
+    public double getDurationRegression() {
+        return durationRegression;
+    }
+
+    public void setDurationRegression(final double durationRegression) {
+        this.durationRegression = durationRegression;
+    }
 }
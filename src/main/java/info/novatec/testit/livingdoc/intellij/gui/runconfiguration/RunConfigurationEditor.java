@@ -19,7 +19,10 @@ import com.intellij.ui.PanelWithAnchor;
 import com.intellij.ui.components.JBCheckBox;
 import com.intellij.ui.components.JBTextField;
 import com.intellij.util.ui.UIUtil;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
 import info.novatec.testit.livingdoc.intellij.run.RemoteRunConfiguration;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -45,6 +48,7 @@ public class RunConfigurationEditor extends SettingsEditor<RemoteRunConfiguratio
     private LabeledComponent<JBTextField> repositoryClassField;
     private LabeledComponent<JBTextField> specificationsField;
     private LabeledComponent<JBCheckBox> workingVersionCheckBox;
+    private LabeledComponent<JBTextField> timeoutField;
     private LabeledComponent<EditorTextFieldWithBrowseButton> myMainClass;
 
 
@@ -57,7 +61,7 @@ public class RunConfigurationEditor extends SettingsEditor<RemoteRunConfiguratio
         ClassBrowser.createApplicationClassBrowser(project, myModuleSelector).setField(myMainClass.getComponent());
 
         myAnchor = UIUtil.mergeComponentsWithAnchor(repositoryUIDField, repositoryURLField, repositoryClassField,
-                specificationsField, workingVersionCheckBox, myMainClass, myModule, myCommonProgramParameters);
+                specificationsField, workingVersionCheckBox, myMainClass, myModule, myCommonProgramParameters, timeoutField);
     }
 
     @Override
@@ -73,6 +77,8 @@ public class RunConfigurationEditor extends SettingsEditor<RemoteRunConfiguratio
         repositoryClassField.getComponent().setText(remoteRunConfiguration.getRepositoryClass());
         specificationsField.getComponent().setText(remoteRunConfiguration.getSpecificationName());
         workingVersionCheckBox.getComponent().setSelected(remoteRunConfiguration.isCurrentVersion());
+        timeoutField.getComponent().setText(remoteRunConfiguration.getTimeoutSeconds() == RemoteRunConfiguration.PROJECT_TIMEOUT
+                ? "" : String.valueOf(remoteRunConfiguration.getTimeoutSeconds()));
     }
 
     @Override
@@ -90,6 +96,22 @@ public class RunConfigurationEditor extends SettingsEditor<RemoteRunConfiguratio
         remoteRunConfiguration.setRepositoryClass(repositoryClassField.getComponent().getText());
         remoteRunConfiguration.setSpecificationName(specificationsField.getComponent().getText());
         remoteRunConfiguration.setCurrentVersion(workingVersionCheckBox.getComponent().isSelected());
+        remoteRunConfiguration.setTimeoutSeconds(parseTimeout(timeoutField.getComponent().getText()));
+    }
+
+    /**
+     * @return The timeout (s) of the field, or {@link RemoteRunConfiguration#PROJECT_TIMEOUT} whether it is blank.
+     */
+    private static int parseTimeout(final String text) throws ConfigurationException {
+
+        if (StringUtils.isBlank(text)) {
+            return RemoteRunConfiguration.PROJECT_TIMEOUT;
+        }
+        int timeout = NumberUtils.toInt(text.trim(), RemoteRunConfiguration.PROJECT_TIMEOUT);
+        if (timeout < 0) {
+            throw new ConfigurationException(I18nSupport.getValue("run.configuration.error.timeout"));
+        }
+        return timeout;
     }
 
     @NotNull
@@ -114,6 +136,7 @@ public class RunConfigurationEditor extends SettingsEditor<RemoteRunConfiguratio
         repositoryClassField.setAnchor(anchor);
         specificationsField.setAnchor(anchor);
         workingVersionCheckBox.setAnchor(anchor);
+        timeoutField.setAnchor(anchor);
     }
 
     private void createUIComponents() {
@@ -2,19 +2,30 @@ package info.novatec.testit.livingdoc.intellij.gui.settings;
 
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.options.ConfigurationException;
 import info.novatec.testit.livingdoc.intellij.domain.ModuleSettings;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUtils;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.ToolWindowPanel;
+import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
+
 /**
- * Controller for {@link ModuleSettingsEditor}
+ * Controller for {@link ModuleSettingsEditor}<br>
+ * Once the settings are applied, only the module is reloaded in the repository view, whether its repositories have
+ * changed (See {@link ToolWindowPanel#refreshModules(java.util.Collection)}).
  *
  * @see Configurable
  * @see ModuleSettingsEditor
  */
 public class ModuleConfigurableImpl extends AbstractConfigurableImpl<ModuleSettings> {
 
+    private final Module module;
+
     public ModuleConfigurableImpl(@NotNull final Module module) {
         super(module.getProject(), ModuleSettings.getInstance(module));
+        this.module = module;
     }
 
     @Override
@@ -22,4 +33,25 @@ public class ModuleConfigurableImpl extends AbstractConfigurableImpl<ModuleSetti
         return new ModuleSettingsEditor(project);
     }
 
+    @Override
+    public void apply() throws ConfigurationException {
+
+        ModuleSettings moduleSettings = ModuleSettings.getInstance(module);
+        String repositoriesKey = getRepositoriesKey(moduleSettings);
+
+        super.apply();
+
+        ToolWindowPanel toolWindowPanel = RepositoryViewUtils.getToolWindowPanel(project);
+        if (toolWindowPanel != null && !repositoriesKey.equals(getRepositoriesKey(moduleSettings))) {
+            toolWindowPanel.refreshModules(Collections.singleton(module.getName()));
+        }
+    }
+
+    /**
+     * @return The settings of the module that select its repositories. The system under development does not.
+     */
+    private static String getRepositoriesKey(final ModuleSettings moduleSettings) {
+        return moduleSettings.isLivingDocEnabled() + "|" + StringUtils.defaultString(moduleSettings.getProject())
+                + "|" + StringUtils.defaultString(moduleSettings.getSud());
+    }
 }
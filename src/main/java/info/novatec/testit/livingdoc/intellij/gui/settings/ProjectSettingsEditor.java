@@ -5,6 +5,7 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.ui.components.JBCheckBox;
 import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBPasswordField;
 import com.intellij.ui.components.JBTextField;
@@ -15,6 +16,8 @@ import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
 import info.novatec.testit.livingdoc.intellij.domain.ProjectSettings;
 import info.novatec.testit.livingdoc.intellij.gui.GuiUtils;
 import info.novatec.testit.livingdoc.intellij.gui.toolwindows.ToolWindowPanel;
+import info.novatec.testit.livingdoc.intellij.rest.DocumentRepositoryCache;
+import info.novatec.testit.livingdoc.intellij.rest.ExecutionUploader;
 import info.novatec.testit.livingdoc.intellij.rest.PluginLivingDocRestClient;
 import info.novatec.testit.livingdoc.server.LivingDocServerException;
 import org.apache.commons.lang3.StringUtils;
@@ -41,6 +44,15 @@ public class ProjectSettingsEditor extends SettingsEditor<ProjectSettings> {
     private JBPasswordField passField;
     private JButton testButton;
     private JBLabel infoLabel;
+    private JPanel executionPanel;
+    private JBCheckBox prefetchCheck;
+    private JBCheckBox prefetchSiblingsCheck;
+    private JBCheckBox classDataSharingCheck;
+    private JBCheckBox instrumentedRunCheck;
+    private JBCheckBox inProcessExecutionCheck;
+    private JBCheckBox uploadResultsCheck;
+    private JSpinner specificationTimeoutSpinner;
+    private JSpinner batchTimeoutSpinner;
 
     public ProjectSettingsEditor(@NotNull final Project project) {
 
@@ -49,8 +61,12 @@ public class ProjectSettingsEditor extends SettingsEditor<ProjectSettings> {
 
         northPanel.setBorder(GuiUtils.createTitledBorder(I18nSupport.getValue("global.settings.title")));
         centerPanel.setBorder(GuiUtils.createTitledBorder(I18nSupport.getValue("global.settings.subtitle")));
+        executionPanel.setBorder(GuiUtils.createTitledBorder(I18nSupport.getValue("global.settings.execution.title")));
 
         testButton.addActionListener(actionEvent -> testConnectionAction());
+        prefetchCheck.addItemListener(itemEvent -> prefetchSiblingsCheck.setEnabled(prefetchCheck.isSelected()));
+        specificationTimeoutSpinner.setModel(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 60));
+        batchTimeoutSpinner.setModel(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 60));
 
         defaultServer = PluginProperties.getValue("livingdoc.url.default");
     }
@@ -58,7 +74,11 @@ public class ProjectSettingsEditor extends SettingsEditor<ProjectSettings> {
     @Override
     public void apply(@NotNull final ProjectSettings projectSettings) {
 
+        boolean connectionModified = isConnectionModified(projectSettings);
+
         applyChanges(projectSettings);
+        DocumentRepositoryCache.getInstance(project).invalidate();
+        ExecutionUploader.getInstance(project).resume();
 
         try {
             projectSettings.setConnected(testConnection(projectSettings));
@@ -66,7 +86,20 @@ public class ProjectSettingsEditor extends SettingsEditor<ProjectSettings> {
             LOG.warn(ldse);
         }
 
-        refreshToolWindows();
+        // The execution settings do not change the repositories.
+        if (connectionModified) {
+            refreshToolWindows();
+        }
+    }
+
+    private boolean isConnectionModified(@NotNull final ProjectSettings projectSettings) {
+
+        // The unset settings (null) and the empty fields are the same value.
+        return !StringUtils.equals(StringUtils.defaultString(projectSettings.getUrlServer()),
+                StringUtils.defaultString(StringUtils.defaultIfBlank(urlField.getText(), defaultServer)))
+                || !StringUtils.equals(StringUtils.defaultString(projectSettings.getUser()), StringUtils.defaultString(userField.getText()))
+                || !StringUtils.equals(StringUtils.defaultString(projectSettings.getPassword()),
+                StringUtils.defaultString(String.valueOf(passField.getPassword())));
     }
 
     private void refreshToolWindows() {
@@ -90,8 +123,17 @@ public class ProjectSettingsEditor extends SettingsEditor<ProjectSettings> {
         boolean credentialsModified = !StringUtils.equals(projectSettings.getUser(), userField.getText())
                 || !StringUtils.equals(projectSettings.getPassword(), String.valueOf(passField.getPassword()));
 
+        boolean executionModified = projectSettings.isPrefetchEnabled() != prefetchCheck.isSelected()
+                || projectSettings.isPrefetchSiblings() != prefetchSiblingsCheck.isSelected()
+                || projectSettings.isClassDataSharing() != classDataSharingCheck.isSelected()
+                || projectSettings.isInstrumentedRun() != instrumentedRunCheck.isSelected()
+                || projectSettings.isInProcessExecution() != inProcessExecutionCheck.isSelected()
+                || projectSettings.isUploadResults() != uploadResultsCheck.isSelected()
+                || projectSettings.getSpecificationTimeoutSeconds() != (Integer) specificationTimeoutSpinner.getValue()
+                || projectSettings.getBatchTimeoutSeconds() != (Integer) batchTimeoutSpinner.getValue();
+
         return !StringUtils.equals(StringUtils.defaultString(projectSettings.getUrlServer(), ""), urlField.getText())
-                || credentialsModified;
+                || credentialsModified || executionModified;
     }
 
     @Override
@@ -103,6 +145,16 @@ public class ProjectSettingsEditor extends SettingsEditor<ProjectSettings> {
         urlField.setText(StringUtils.defaultIfBlank(projectSettings.getUrlServer(), defaultServer));
         userField.setText(projectSettings.getUser());
         passField.setText(projectSettings.getPassword());
+
+        prefetchCheck.setSelected(projectSettings.isPrefetchEnabled());
+        prefetchSiblingsCheck.setSelected(projectSettings.isPrefetchSiblings());
+        prefetchSiblingsCheck.setEnabled(projectSettings.isPrefetchEnabled());
+        classDataSharingCheck.setSelected(projectSettings.isClassDataSharing());
+        instrumentedRunCheck.setSelected(projectSettings.isInstrumentedRun());
+        inProcessExecutionCheck.setSelected(projectSettings.isInProcessExecution());
+        uploadResultsCheck.setSelected(projectSettings.isUploadResults());
+        specificationTimeoutSpinner.setValue(projectSettings.getSpecificationTimeoutSeconds());
+        batchTimeoutSpinner.setValue(projectSettings.getBatchTimeoutSeconds());
     }
 
     private void enableOrDisableTestButton() {
@@ -115,6 +167,14 @@ public class ProjectSettingsEditor extends SettingsEditor<ProjectSettings> {
                 StringUtils.defaultIfBlank(urlField.getText(), defaultServer));
         projectSettings.setUser(userField.getText());
         projectSettings.setPassword(String.valueOf(passField.getPassword()));
+        projectSettings.setPrefetchEnabled(prefetchCheck.isSelected());
+        projectSettings.setPrefetchSiblings(prefetchSiblingsCheck.isSelected());
+        projectSettings.setClassDataSharing(classDataSharingCheck.isSelected());
+        projectSettings.setInstrumentedRun(instrumentedRunCheck.isSelected());
+        projectSettings.setInProcessExecution(inProcessExecutionCheck.isSelected());
+        projectSettings.setUploadResults(uploadResultsCheck.isSelected());
+        projectSettings.setSpecificationTimeoutSeconds((Integer) specificationTimeoutSpinner.getValue());
+        projectSettings.setBatchTimeoutSeconds((Integer) batchTimeoutSpinner.getValue());
     }
 
     private boolean testConnection(@NotNull ProjectSettings projectSettings) throws LivingDocServerException {
@@ -0,0 +1,171 @@
+package info.novatec.testit.livingdoc.intellij.gui.toolwindows;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.*;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.table.TableView;
+import com.intellij.util.ui.ColumnInfo;
+import com.intellij.util.ui.ListTableModel;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.run.ExecutionHistory;
+import info.novatec.testit.livingdoc.intellij.run.SpecificationDuration;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * User interface for the durations of the executed specifications: the last wall time of every specification version
+ * compared with its baseline, sorted from the most regressed (any column can be sorted, e.g. by the last wall time
+ * for the slowest ones).<br>
+ * The table is reloaded whenever an execution is recorded in the {@link ExecutionHistory}. The history is read in a
+ * pooled thread, and only the table is updated in the Event Dispatch Thread.
+ *
+ * @see SimpleToolWindowPanel
+ */
+public class DurationsPanel extends SimpleToolWindowPanel implements Disposable {
+
+    private static final int SLOWDOWN_COLUMN = 5;
+
+    private final transient Project project;
+    private final ListTableModel<SpecificationDuration> tableModel;
+
+
+    public DurationsPanel(Project project) {
+        super(false);
+
+        this.project = project;
+
+        tableModel = new ListTableModel<>(createColumns(), new ArrayList<>(), SLOWDOWN_COLUMN, SortOrder.DESCENDING);
+        tableModel.setSortable(true);
+
+        TableView<SpecificationDuration> table = new TableView<>(tableModel);
+        setContent(ScrollPaneFactory.createScrollPane(table));
+
+        createActionToolBar(table);
+
+        project.getMessageBus().connect(this).subscribe(ExecutionHistory.TOPIC, () ->
+                reload());
+
+        reload();
+    }
+
+    @Override
+    public void dispose() {
+        // The subscription to the execution history is disposed with the panel.
+    }
+
+    private void reload() {
+
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            List<SpecificationDuration> specificationDurations = ExecutionHistory.getInstance(project).getSpecificationDurations();
+            ApplicationManager.getApplication().invokeLater(() -> tableModel.setItems(specificationDurations),
+                    project.getDisposed());
+        });
+    }
+
+    private void createActionToolBar(JComponent table) {
+
+        AnAction reloadAction = new AnAction(I18nSupport.getValue("toolwindows.durations.action.reload.tooltip"),
+                I18nSupport.getValue("toolwindows.durations.action.reload.tooltip"), AllIcons.Actions.Refresh) {
+
+            @Override
+            public void actionPerformed(AnActionEvent anActionEvent) {
+                reload();
+            }
+        };
+
+        ActionToolbar toolBar = ActionManager.getInstance().createActionToolbar("LivingDoc.DurationsToolbar",
+                new DefaultActionGroup(reloadAction), false);
+        toolBar.setTargetComponent(table);
+        setToolbar(toolBar.getComponent());
+    }
+
+    private static ColumnInfo[] createColumns() {
+
+        return new ColumnInfo[]{
+                new ColumnInfo<SpecificationDuration, String>(I18nSupport.getValue("toolwindows.durations.column.specification")) {
+                    @Override
+                    public String valueOf(SpecificationDuration specificationDuration) {
+                        return specificationDuration.getSpecificationName();
+                    }
+
+                    @Override
+                    public Comparator<SpecificationDuration> getComparator() {
+                        return Comparator.comparing(SpecificationDuration::getSpecificationName, String.CASE_INSENSITIVE_ORDER);
+                    }
+                },
+                new ColumnInfo<SpecificationDuration, String>(I18nSupport.getValue("toolwindows.durations.column.repository")) {
+                    @Override
+                    public String valueOf(SpecificationDuration specificationDuration) {
+                        return specificationDuration.getRepositoryUID();
+                    }
+
+                    @Override
+                    public Comparator<SpecificationDuration> getComparator() {
+                        return Comparator.comparing(SpecificationDuration::getRepositoryUID);
+                    }
+                },
+                new ColumnInfo<SpecificationDuration, String>(I18nSupport.getValue("toolwindows.durations.column.version")) {
+                    @Override
+                    public String valueOf(SpecificationDuration specificationDuration) {
+                        return I18nSupport.getValue(specificationDuration.isCurrentVersion()
+                                ? "toolwindows.durations.version.current" : "toolwindows.durations.version.implemented");
+                    }
+
+                    @Override
+                    public Comparator<SpecificationDuration> getComparator() {
+                        return Comparator.comparing(SpecificationDuration::isCurrentVersion);
+                    }
+                },
+                new ColumnInfo<SpecificationDuration, String>(I18nSupport.getValue("toolwindows.durations.column.last")) {
+                    @Override
+                    public String valueOf(SpecificationDuration specificationDuration) {
+                        return StringUtil.formatDuration(specificationDuration.getLastWallTime());
+                    }
+
+                    @Override
+                    public Comparator<SpecificationDuration> getComparator() {
+                        return Comparator.comparingLong(SpecificationDuration::getLastWallTime);
+                    }
+                },
+                new ColumnInfo<SpecificationDuration, String>(I18nSupport.getValue("toolwindows.durations.column.baseline")) {
+                    @Override
+                    public String valueOf(SpecificationDuration specificationDuration) {
+                        return specificationDuration.getBaselineWallTime() > 0
+                                ? StringUtil.formatDuration(specificationDuration.getBaselineWallTime()) : "";
+                    }
+
+                    @Override
+                    public Comparator<SpecificationDuration> getComparator() {
+                        return Comparator.comparingLong(SpecificationDuration::getBaselineWallTime);
+                    }
+                },
+                new ColumnInfo<SpecificationDuration, String>(I18nSupport.getValue("toolwindows.durations.column.slowdown")) {
+                    @Override
+                    public String valueOf(SpecificationDuration specificationDuration) {
+                        if (specificationDuration.getBaselineWallTime() == 0) {
+                            return "";
+                        }
+                        return I18nSupport.getValue(specificationDuration.isRegression()
+                                        ? "toolwindows.durations.slowdown.regression" : "toolwindows.durations.slowdown",
+                                Math.round(specificationDuration.getRatio() * 100));
+                    }
+
+                    @Nullable
+                    @Override
+                    public Comparator<SpecificationDuration> getComparator() {
+                        return Comparator.comparing(SpecificationDuration::isRegression)
+                                .thenComparingDouble(SpecificationDuration::getRatio);
+                    }
+                }
+        };
+    }
+}
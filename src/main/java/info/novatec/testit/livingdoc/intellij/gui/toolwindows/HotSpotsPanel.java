@@ -0,0 +1,144 @@
+package info.novatec.testit.livingdoc.intellij.gui.toolwindows;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBPanel;
+import com.intellij.ui.table.TableView;
+import com.intellij.util.ui.ColumnInfo;
+import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.ListTableModel;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.runner.TimingEntry;
+import info.novatec.testit.livingdoc.intellij.run.TimingReport;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * User interface for the hot spots of the last instrumented execution: the time of the fixture instantiations, the
+ * tables and the fixture methods called by the rows, sorted from the slowest (any column can be sorted).
+ *
+ * @see TimingReport
+ */
+public class HotSpotsPanel extends SimpleToolWindowPanel implements Disposable {
+
+    private static final int TOTAL_COLUMN = 4;
+
+    private final JBLabel specificationLabel;
+    private final ListTableModel<TimingEntry> tableModel;
+    private long totalTableNanos;
+
+
+    public HotSpotsPanel(Project project) {
+        super(false);
+
+        tableModel = new ListTableModel<>(createColumns(), new ArrayList<>(), TOTAL_COLUMN, SortOrder.DESCENDING);
+        tableModel.setSortable(true);
+
+        specificationLabel = new JBLabel(I18nSupport.getValue("toolwindows.hotspots.empty"));
+        specificationLabel.setBorder(JBUI.Borders.empty(2, 4));
+
+        JBPanel mainContent = new JBPanel(new BorderLayout());
+        mainContent.add(specificationLabel, BorderLayout.NORTH);
+        mainContent.add(ScrollPaneFactory.createScrollPane(new TableView<>(tableModel)), BorderLayout.CENTER);
+        setContent(mainContent);
+
+        project.getMessageBus().connect(this).subscribe(TimingReport.TOPIC, timingReport ->
+                ApplicationManager.getApplication().invokeLater(() -> show(timingReport), project.getDisposed()));
+    }
+
+    @Override
+    public void dispose() {
+        // The subscription to the timing reports is disposed with the panel.
+    }
+
+    private void show(TimingReport timingReport) {
+
+        totalTableNanos = timingReport.getTotalTableNanos();
+        specificationLabel.setText(I18nSupport.getValue("toolwindows.hotspots.specification",
+                timingReport.getSpecificationName(), formatNanos(totalTableNanos)));
+        tableModel.setItems(new ArrayList<>(timingReport.getTimingEntries()));
+    }
+
+    private static String formatNanos(long nanos) {
+        return I18nSupport.getValue("toolwindows.hotspots.millis", (double) nanos / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private ColumnInfo[] createColumns() {
+
+        return new ColumnInfo[]{
+                textColumn("toolwindows.hotspots.column.kind", timingEntry -> timingEntry.getKind().name()),
+                textColumn("toolwindows.hotspots.column.fixture", TimingEntry::getFixture),
+                textColumn("toolwindows.hotspots.column.message", TimingEntry::getMessage),
+                new ColumnInfo<TimingEntry, Integer>(I18nSupport.getValue("toolwindows.hotspots.column.count")) {
+                    @Override
+                    public Integer valueOf(TimingEntry timingEntry) {
+                        return timingEntry.getCount();
+                    }
+
+                    @Override
+                    public Comparator<TimingEntry> getComparator() {
+                        return Comparator.comparingInt(TimingEntry::getCount);
+                    }
+                },
+                new ColumnInfo<TimingEntry, String>(I18nSupport.getValue("toolwindows.hotspots.column.total")) {
+                    @Override
+                    public String valueOf(TimingEntry timingEntry) {
+                        return formatNanos(timingEntry.getTotalNanos());
+                    }
+
+                    @Override
+                    public Comparator<TimingEntry> getComparator() {
+                        return Comparator.comparingLong(TimingEntry::getTotalNanos);
+                    }
+                },
+                new ColumnInfo<TimingEntry, String>(I18nSupport.getValue("toolwindows.hotspots.column.max")) {
+                    @Override
+                    public String valueOf(TimingEntry timingEntry) {
+                        return formatNanos(timingEntry.getMaxNanos());
+                    }
+
+                    @Override
+                    public Comparator<TimingEntry> getComparator() {
+                        return Comparator.comparingLong(TimingEntry::getMaxNanos);
+                    }
+                },
+                new ColumnInfo<TimingEntry, String>(I18nSupport.getValue("toolwindows.hotspots.column.share")) {
+                    @Override
+                    public String valueOf(TimingEntry timingEntry) {
+                        return totalTableNanos > 0
+                                ? I18nSupport.getValue("toolwindows.hotspots.share", Math.round(100d * timingEntry.getTotalNanos() / totalTableNanos))
+                                : "";
+                    }
+
+                    @Override
+                    public Comparator<TimingEntry> getComparator() {
+                        return Comparator.comparingLong(TimingEntry::getTotalNanos);
+                    }
+                }
+        };
+    }
+
+    private static ColumnInfo<TimingEntry, String> textColumn(String nameKey, Function<TimingEntry, String> value) {
+
+        return new ColumnInfo<TimingEntry, String>(I18nSupport.getValue(nameKey)) {
+            @Override
+            public String valueOf(TimingEntry timingEntry) {
+                return value.apply(timingEntry);
+            }
+
+            @Override
+            public Comparator<TimingEntry> getComparator() {
+                return Comparator.comparing(value, String.CASE_INSENSITIVE_ORDER);
+            }
+        };
+    }
+}
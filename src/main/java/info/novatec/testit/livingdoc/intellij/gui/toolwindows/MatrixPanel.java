@@ -0,0 +1,115 @@
+package info.novatec.testit.livingdoc.intellij.gui.toolwindows;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.ui.ColoredTableCellRenderer;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.ui.table.TableView;
+import com.intellij.util.ui.ColumnInfo;
+import com.intellij.util.ui.ListTableModel;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.common.Icons;
+import info.novatec.testit.livingdoc.intellij.run.MatrixResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.table.TableCellRenderer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * User interface for the last matrix execution: a grid with a row per specification and a column per system under
+ * test, with the counters of every finished execution.<br>
+ * The grid is rebuilt when a matrix execution starts and repainted whenever a cell of the {@link MatrixResult} is
+ * updated.
+ *
+ * @see SimpleToolWindowPanel
+ */
+public class MatrixPanel extends SimpleToolWindowPanel implements Disposable {
+
+    private static final TableCellRenderer CELL_RENDERER = new CellRenderer();
+
+    private final ListTableModel<MatrixResult.Row> tableModel;
+    private transient MatrixResult matrixResult;
+
+
+    public MatrixPanel(Project project) {
+        super(false);
+
+        tableModel = new ListTableModel<>();
+
+        TableView<MatrixResult.Row> table = new TableView<>(tableModel);
+        table.getEmptyText().setText(I18nSupport.getValue("toolwindows.matrix.empty"));
+        setContent(ScrollPaneFactory.createScrollPane(table));
+
+        project.getMessageBus().connect(this).subscribe(MatrixResult.TOPIC, changedResult ->
+                ApplicationManager.getApplication().invokeLater(() -> show(changedResult), project.getDisposed()));
+    }
+
+    @Override
+    public void dispose() {
+        // The subscription to the matrix results is disposed with the panel.
+    }
+
+    private void show(final MatrixResult changedResult) {
+
+        if (changedResult == matrixResult) {
+            tableModel.fireTableDataChanged();
+            return;
+        }
+        matrixResult = changedResult;
+        tableModel.setColumnInfos(createColumns(changedResult));
+        tableModel.setItems(new ArrayList<>(changedResult.getRows()));
+    }
+
+    private static ColumnInfo[] createColumns(final MatrixResult matrixResult) {
+
+        List<ColumnInfo> columns = new ArrayList<>();
+        columns.add(new ColumnInfo<MatrixResult.Row, String>(I18nSupport.getValue("toolwindows.matrix.column.specification")) {
+            @Override
+            public String valueOf(MatrixResult.Row row) {
+                return row.getSpecificationName();
+            }
+        });
+
+        for (MatrixResult.Column column : matrixResult.getColumns()) {
+            columns.add(new ColumnInfo<MatrixResult.Row, MatrixResult.Cell>(column.getTitle()) {
+                @Nullable
+                @Override
+                public MatrixResult.Cell valueOf(MatrixResult.Row row) {
+                    return matrixResult.getCell(row, column);
+                }
+
+                @Nullable
+                @Override
+                public TableCellRenderer getRenderer(MatrixResult.Row row) {
+                    return CELL_RENDERER;
+                }
+            });
+        }
+        return columns.toArray(new ColumnInfo[columns.size()]);
+    }
+
+    /**
+     * Result of a cell: the counters with the result icon, or pending.
+     */
+    private static final class CellRenderer extends ColoredTableCellRenderer {
+
+        @Override
+        protected void customizeCellRenderer(@NotNull JTable table, Object value, boolean selected, boolean hasFocus,
+                                             int row, int column) {
+
+            if (value instanceof MatrixResult.Cell) {
+                MatrixResult.Cell cell = (MatrixResult.Cell) value;
+                setIcon(cell.isSuccessful() ? Icons.SUCCESS : Icons.ERROR);
+                append(cell.getText(), cell.isSuccessful() ? SimpleTextAttributes.REGULAR_ATTRIBUTES : SimpleTextAttributes.ERROR_ATTRIBUTES);
+            } else {
+                append(I18nSupport.getValue("toolwindows.matrix.cell.pending"), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+            }
+        }
+    }
+}
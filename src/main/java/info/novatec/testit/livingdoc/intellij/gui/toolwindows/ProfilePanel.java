@@ -0,0 +1,126 @@
+package info.novatec.testit.livingdoc.intellij.gui.toolwindows;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBPanel;
+import com.intellij.ui.components.JBTabbedPane;
+import com.intellij.ui.table.TableView;
+import com.intellij.util.ui.ColumnInfo;
+import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.ListTableModel;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.run.FlightRecorder;
+import info.novatec.testit.livingdoc.intellij.run.FlightRecordingSummary;
+import info.novatec.testit.livingdoc.intellij.run.FlightRecordingSummary.Item;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * User interface for the summary of the last profiled execution: top methods, allocation hot spots and GC pauses.
+ *
+ * @see FlightRecorder
+ */
+public class ProfilePanel extends SimpleToolWindowPanel implements Disposable {
+
+    private static final int TOTAL_COLUMN = 2;
+
+    private final JBLabel summaryLabel;
+    private final ListTableModel<Item> topMethodsModel;
+    private final ListTableModel<Item> allocationsModel;
+    private final ListTableModel<Item> gcPausesModel;
+
+
+    public ProfilePanel(Project project) {
+        super(false);
+
+        topMethodsModel = createModel("toolwindows.profile.column.method", "toolwindows.profile.column.samples", String::valueOf);
+        allocationsModel = createModel("toolwindows.profile.column.class", "toolwindows.profile.column.allocated", StringUtil::formatFileSize);
+        gcPausesModel = createModel("toolwindows.profile.column.collector", "toolwindows.profile.column.pauses",
+                nanos -> StringUtil.formatDuration(TimeUnit.NANOSECONDS.toMillis(nanos)));
+
+        JBTabbedPane tabbedPane = new JBTabbedPane();
+        tabbedPane.addTab(I18nSupport.getValue("toolwindows.profile.methods"), ScrollPaneFactory.createScrollPane(new TableView<>(topMethodsModel)));
+        tabbedPane.addTab(I18nSupport.getValue("toolwindows.profile.allocations"), ScrollPaneFactory.createScrollPane(new TableView<>(allocationsModel)));
+        tabbedPane.addTab(I18nSupport.getValue("toolwindows.profile.gc"), ScrollPaneFactory.createScrollPane(new TableView<>(gcPausesModel)));
+
+        summaryLabel = new JBLabel(I18nSupport.getValue("toolwindows.profile.empty"));
+        summaryLabel.setBorder(JBUI.Borders.empty(2, 4));
+
+        JBPanel mainContent = new JBPanel(new BorderLayout());
+        mainContent.add(summaryLabel, BorderLayout.NORTH);
+        mainContent.add(tabbedPane, BorderLayout.CENTER);
+        setContent(mainContent);
+
+        project.getMessageBus().connect(this).subscribe(FlightRecorder.TOPIC, summary ->
+                ApplicationManager.getApplication().invokeLater(() -> show(summary), project.getDisposed()));
+    }
+
+    @Override
+    public void dispose() {
+        // The subscription to the recordings is disposed with the panel.
+    }
+
+    private void show(FlightRecordingSummary summary) {
+
+        summaryLabel.setText(summary.getError() == null
+                ? I18nSupport.getValue("toolwindows.profile.specification", summary.getSpecificationName(), summary.getRecordingPath())
+                : summary.getError());
+
+        topMethodsModel.setItems(summary.getTopMethods());
+        allocationsModel.setItems(summary.getAllocations());
+        gcPausesModel.setItems(summary.getGcPauses());
+    }
+
+    private static ListTableModel<Item> createModel(String nameKey, String totalKey, Function<Long, String> totalFormat) {
+
+        ColumnInfo[] columns = new ColumnInfo[]{
+                new ColumnInfo<Item, String>(I18nSupport.getValue(nameKey)) {
+                    @Override
+                    public String valueOf(Item item) {
+                        return item.getName();
+                    }
+
+                    @Override
+                    public Comparator<Item> getComparator() {
+                        return Comparator.comparing(Item::getName);
+                    }
+                },
+                new ColumnInfo<Item, Integer>(I18nSupport.getValue("toolwindows.profile.column.events")) {
+                    @Override
+                    public Integer valueOf(Item item) {
+                        return item.getCount();
+                    }
+
+                    @Override
+                    public Comparator<Item> getComparator() {
+                        return Comparator.comparingInt(Item::getCount);
+                    }
+                },
+                new ColumnInfo<Item, String>(I18nSupport.getValue(totalKey)) {
+                    @Override
+                    public String valueOf(Item item) {
+                        return totalFormat.apply(item.getTotal());
+                    }
+
+                    @Override
+                    public Comparator<Item> getComparator() {
+                        return Comparator.comparingLong(Item::getTotal);
+                    }
+                }
+        };
+
+        ListTableModel<Item> model = new ListTableModel<>(columns, new ArrayList<>(), TOTAL_COLUMN, SortOrder.DESCENDING);
+        model.setSortable(true);
+        return model;
+    }
+}
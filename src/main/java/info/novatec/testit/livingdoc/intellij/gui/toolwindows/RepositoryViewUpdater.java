@@ -0,0 +1,129 @@
+package info.novatec.testit.livingdoc.intellij.gui.toolwindows;
+
+import com.intellij.execution.testframework.ui.TestStatusLine;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.treeStructure.SimpleTree;
+import com.intellij.util.ui.update.MergingUpdateQueue;
+import com.intellij.util.ui.update.Update;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import info.novatec.testit.livingdoc.intellij.domain.SpecificationNode;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeNode;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces the updates of the repository view (status line and specification nodes) requested from any thread.<br>
+ * The pending updates are applied in the Event Dispatch Thread at most once every
+ * <code>livingdoc.ui.refresh.millis</code>: only the last status line update is applied and the tree model is
+ * notified once per parent node with all its changed children.
+ *
+ * @see MergingUpdateQueue
+ */
+public class RepositoryViewUpdater {
+
+    private final SimpleTree tree;
+    private final TestStatusLine statusLine;
+    private final MergingUpdateQueue updateQueue;
+
+    private final Map<SpecificationNode, Consumer<DefaultMutableTreeNode>> nodeChanges = new LinkedHashMap<>();
+    private Consumer<TestStatusLine> statusLineChange;
+
+
+    /**
+     * @param project    Project owning the repository view.
+     * @param tree       LivingDoc repository tree.
+     * @param statusLine Status line of the repository view.
+     */
+    public RepositoryViewUpdater(@NotNull final Project project, @NotNull final SimpleTree tree,
+                                 @NotNull final TestStatusLine statusLine) {
+
+        this.tree = tree;
+        this.statusLine = statusLine;
+        this.updateQueue = new MergingUpdateQueue("LivingDoc Repository View",
+                Integer.parseInt(PluginProperties.getValue("livingdoc.ui.refresh.millis")), true, null, project);
+    }
+
+    /**
+     * Requests an update of the status line. It replaces the pending one, if any.
+     *
+     * @param change Update of the status line (applied in the Event Dispatch Thread).
+     */
+    public void updateStatusLine(@NotNull final Consumer<TestStatusLine> change) {
+
+        synchronized (this) {
+            statusLineChange = change;
+        }
+        queueFlush();
+    }
+
+    /**
+     * Requests an update of the tree node of a specification. It is applied after the pending ones of the same node.
+     *
+     * @param specificationNode Specification node (user object of the tree node).
+     * @param change            Update of the tree node (applied in the Event Dispatch Thread).
+     */
+    public void updateNode(@NotNull final SpecificationNode specificationNode, @NotNull final Consumer<DefaultMutableTreeNode> change) {
+
+        synchronized (this) {
+            nodeChanges.merge(specificationNode, change, Consumer::andThen);
+        }
+        queueFlush();
+    }
+
+    private void queueFlush() {
+
+        updateQueue.queue(new Update("flush") {
+            @Override
+            public void run() {
+                flush();
+            }
+        });
+    }
+
+    private void flush() {
+
+        Consumer<TestStatusLine> pendingStatusLineChange;
+        Map<SpecificationNode, Consumer<DefaultMutableTreeNode>> pendingNodeChanges;
+
+        synchronized (this) {
+            pendingStatusLineChange = statusLineChange;
+            statusLineChange = null;
+            pendingNodeChanges = new HashMap<>(nodeChanges);
+            nodeChanges.clear();
+        }
+
+        if (pendingStatusLineChange != null) {
+            pendingStatusLineChange.accept(statusLine);
+        }
+        if (pendingNodeChanges.isEmpty()) {
+            return;
+        }
+
+        DefaultTreeModel treeModel = (DefaultTreeModel) tree.getModel();
+        Map<TreeNode, List<Integer>> changedChildren = new LinkedHashMap<>();
+
+        Enumeration<?> treeNodes = ((DefaultMutableTreeNode) treeModel.getRoot()).depthFirstEnumeration();
+        while (treeNodes.hasMoreElements()) {
+            DefaultMutableTreeNode treeNode = (DefaultMutableTreeNode) treeNodes.nextElement();
+
+            Consumer<DefaultMutableTreeNode> change = pendingNodeChanges.get(treeNode.getUserObject());
+            if (change != null) {
+                change.accept(treeNode);
+
+                TreeNode parentNode = treeNode.getParent();
+                if (parentNode == null) {
+                    treeModel.nodeChanged(treeNode);
+                } else {
+                    changedChildren.computeIfAbsent(parentNode, key -> new ArrayList<>()).add(parentNode.getIndex(treeNode));
+                }
+            }
+        }
+
+        changedChildren.forEach((parentNode, indices) ->
+                treeModel.nodesChanged(parentNode, indices.stream().mapToInt(Integer::intValue).toArray()));
+    }
+}
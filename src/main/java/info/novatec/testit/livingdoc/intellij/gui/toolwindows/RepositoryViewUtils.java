@@ -2,13 +2,21 @@ package info.novatec.testit.livingdoc.intellij.gui.toolwindows;
 
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.actionSystem.Presentation;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.ui.content.Content;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
 import info.novatec.testit.livingdoc.intellij.common.Icons;
 import info.novatec.testit.livingdoc.intellij.common.NodeType;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
 import info.novatec.testit.livingdoc.intellij.domain.ModuleNode;
 import info.novatec.testit.livingdoc.intellij.domain.Node;
 import info.novatec.testit.livingdoc.intellij.domain.RepositoryNode;
 import info.novatec.testit.livingdoc.intellij.domain.SpecificationNode;
 import org.apache.commons.lang3.ArrayUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
 import javax.swing.tree.DefaultMutableTreeNode;
@@ -31,10 +39,38 @@ public class RepositoryViewUtils {
         }
     }
 
+    /**
+     * Returns the repository view of the project.
+     *
+     * @param project {@link Project}
+     * @return {@link ToolWindowPanel} or null whether the tool window content has not been created yet.
+     */
+    @Nullable
+    public static ToolWindowPanel getToolWindowPanel(@NotNull final Project project) {
+
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(PluginProperties.getValue("toolwindows.id"));
+        if (toolWindow == null) {
+            return null;
+        }
+        for (Content content : toolWindow.getContentManager().getContents()) {
+            if (content.getComponent() instanceof ToolWindowPanel) {
+                return (ToolWindowPanel) content.getComponent();
+            }
+        }
+        return null;
+    }
+
     public static Node getErrorNode(final String descError) {
         return new Node(descError, Icons.ERROR, NodeType.ERROR, null);
     }
 
+    /**
+     * @return Placeholder of a module while its repositories are loading.
+     */
+    public static Node getLoadingNode() {
+        return new Node(I18nSupport.getValue("toolwindows.node.loading"), AllIcons.Actions.Refresh, NodeType.LOADING, null);
+    }
+
     /**
      * Recursive method to find the specificationNode's repository through specificationNode's parent.
      *
@@ -0,0 +1,301 @@
+package info.novatec.testit.livingdoc.intellij.gui.toolwindows;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.ide.browsers.BrowserLauncher;
+import com.intellij.ide.browsers.BrowserLauncherImpl;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.*;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.ui.ColoredTableCellRenderer;
+import com.intellij.ui.JBSplitter;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBPanel;
+import com.intellij.ui.table.TableView;
+import com.intellij.util.ui.ColumnInfo;
+import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.ListTableModel;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.common.Icons;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import info.novatec.testit.livingdoc.intellij.run.ExecutionBatch;
+import info.novatec.testit.livingdoc.intellij.run.ExecutionReport;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.table.TableCellRenderer;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+
+/**
+ * User interface for the aggregated report of the last batch with several executions: the summary of the batch and a
+ * row per finished specification with its counters.<br>
+ * The result of a specification is only loaded when its row is selected, in a background thread. The results larger
+ * than <code>livingdoc.results.preview.max.kilobytes</code> are not previewed and they can be opened in the browser.
+ *
+ * @see ExecutionReport
+ */
+public class ResultsPanel extends SimpleToolWindowPanel implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(ResultsPanel.class);
+
+    private static final TableCellRenderer SPECIFICATION_RENDERER = new SpecificationRenderer();
+
+    private final JBLabel summaryLabel;
+    private final ListTableModel<ExecutionReport> tableModel;
+    private final TableView<ExecutionReport> table;
+    private final JEditorPane resultPane;
+    private final long maxPreviewBytes;
+
+    private transient ExecutionBatch executionBatch;
+    private int totalExecutions;
+
+
+    public ResultsPanel(Project project) {
+        super(false);
+
+        maxPreviewBytes = Long.parseLong(PluginProperties.getValue("livingdoc.results.preview.max.kilobytes")) * 1024;
+
+        tableModel = new ListTableModel<>(createColumns(), new ArrayList<>());
+        tableModel.setSortable(true);
+
+        table = new TableView<>(tableModel);
+        table.getEmptyText().setText(I18nSupport.getValue("toolwindows.results.empty"));
+        table.getSelectionModel().addListSelectionListener(event -> {
+            if (!event.getValueIsAdjusting()) {
+                showResult(table.getSelectedObject());
+            }
+        });
+
+        resultPane = new JEditorPane();
+        resultPane.setEditable(false);
+        resultPane.setContentType("text/html");
+
+        summaryLabel = new JBLabel(I18nSupport.getValue("toolwindows.results.empty"));
+        summaryLabel.setBorder(JBUI.Borders.empty(2, 4));
+
+        JBSplitter splitter = new JBSplitter(false, 0.4f);
+        splitter.setFirstComponent(ScrollPaneFactory.createScrollPane(table));
+        splitter.setSecondComponent(ScrollPaneFactory.createScrollPane(resultPane));
+
+        JBPanel mainContent = new JBPanel(new BorderLayout());
+        mainContent.add(summaryLabel, BorderLayout.NORTH);
+        mainContent.add(splitter, BorderLayout.CENTER);
+        setContent(mainContent);
+
+        createActionToolBar();
+
+        project.getMessageBus().connect(this).subscribe(ExecutionReport.TOPIC, new ExecutionReport.Listener() {
+
+            @Override
+            public void batchStarted(@NotNull ExecutionBatch startedBatch, int executions) {
+                ApplicationManager.getApplication().invokeLater(() -> reset(startedBatch, executions), project.getDisposed());
+            }
+
+            @Override
+            public void reportAvailable(@NotNull ExecutionReport executionReport) {
+                ApplicationManager.getApplication().invokeLater(() -> addReport(executionReport), project.getDisposed());
+            }
+        });
+    }
+
+    @Override
+    public void dispose() {
+        // The subscription to the execution reports is disposed with the panel.
+    }
+
+    private void reset(final ExecutionBatch startedBatch, final int executions) {
+
+        executionBatch = startedBatch;
+        totalExecutions = executions;
+        tableModel.setItems(new ArrayList<>());
+        resultPane.setText("");
+        updateSummary();
+    }
+
+    private void addReport(final ExecutionReport executionReport) {
+
+        if (executionReport.getExecutionBatch() != executionBatch) {
+            return;
+        }
+        tableModel.addRow(executionReport);
+        updateSummary();
+    }
+
+    private void updateSummary() {
+
+        int right = 0;
+        int wrong = 0;
+        int ignored = 0;
+        int exceptions = 0;
+        int failed = 0;
+        for (ExecutionReport executionReport : tableModel.getItems()) {
+            right += executionReport.getRight();
+            wrong += executionReport.getWrong();
+            ignored += executionReport.getIgnored();
+            exceptions += executionReport.getExceptions();
+            failed += executionReport.isFailed() ? 1 : 0;
+        }
+        summaryLabel.setText(I18nSupport.getValue("toolwindows.results.summary", tableModel.getRowCount(), totalExecutions,
+                failed, right, wrong, ignored, exceptions));
+    }
+
+    /**
+     * Loads the result of the selected specification in a background thread.
+     */
+    private void showResult(@Nullable final ExecutionReport executionReport) {
+
+        if (executionReport == null) {
+            resultPane.setText("");
+            return;
+        }
+        File resultFile = executionReport.getResultFile();
+        if (resultFile == null) {
+            resultPane.setText(StringUtil.escapeXml(StringUtil.notNullize(executionReport.getError())));
+            return;
+        }
+        if (resultFile.length() > maxPreviewBytes) {
+            resultPane.setText(StringUtil.escapeXml(I18nSupport.getValue("toolwindows.results.large",
+                    StringUtil.formatFileSize(resultFile.length()))));
+            return;
+        }
+
+        resultPane.setText(StringUtil.escapeXml(I18nSupport.getValue("toolwindows.results.loading")));
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            String content;
+            try {
+                content = new String(Files.readAllBytes(resultFile.toPath()), StandardCharsets.UTF_8);
+            } catch (IOException ioe) {
+                LOG.warn(ioe);
+                content = StringUtil.escapeXml(ioe.getMessage());
+            }
+            String result = content;
+            ApplicationManager.getApplication().invokeLater(() -> {
+                if (table.getSelectedObject() == executionReport) {
+                    resultPane.setText(result);
+                    resultPane.setCaretPosition(0);
+                }
+            });
+        });
+    }
+
+    private void createActionToolBar() {
+
+        AnAction openAction = new AnAction(I18nSupport.getValue("toolwindows.results.action.open.tooltip"),
+                I18nSupport.getValue("toolwindows.results.action.open.tooltip"), AllIcons.General.Web) {
+
+            @Override
+            public void actionPerformed(AnActionEvent anActionEvent) {
+                ExecutionReport executionReport = table.getSelectedObject();
+                if (executionReport != null && executionReport.getResultFile() != null) {
+                    BrowserLauncher browser = new BrowserLauncherImpl();
+                    browser.open(executionReport.getResultFile().getPath());
+                }
+            }
+
+            @Override
+            public void update(AnActionEvent anActionEvent) {
+                ExecutionReport executionReport = table.getSelectedObject();
+                anActionEvent.getPresentation().setEnabled(executionReport != null && executionReport.getResultFile() != null);
+            }
+        };
+
+        ActionToolbar toolBar = ActionManager.getInstance().createActionToolbar("LivingDoc.ResultsToolbar",
+                new DefaultActionGroup(openAction), false);
+        toolBar.setTargetComponent(table);
+        setToolbar(toolBar.getComponent());
+    }
+
+    private static ColumnInfo[] createColumns() {
+
+        return new ColumnInfo[]{
+                new ColumnInfo<ExecutionReport, ExecutionReport>(I18nSupport.getValue("toolwindows.results.column.specification")) {
+                    @Override
+                    public ExecutionReport valueOf(ExecutionReport executionReport) {
+                        return executionReport;
+                    }
+
+                    @Override
+                    public Comparator<ExecutionReport> getComparator() {
+                        return Comparator.comparing(ExecutionReport::isFailed).reversed()
+                                .thenComparing(ExecutionReport::getSpecificationName, String.CASE_INSENSITIVE_ORDER);
+                    }
+
+                    @Override
+                    public TableCellRenderer getRenderer(ExecutionReport executionReport) {
+                        return SPECIFICATION_RENDERER;
+                    }
+                },
+                new ColumnInfo<ExecutionReport, String>(I18nSupport.getValue("toolwindows.results.column.module")) {
+                    @Override
+                    public String valueOf(ExecutionReport executionReport) {
+                        return executionReport.getModuleName();
+                    }
+
+                    @Override
+                    public Comparator<ExecutionReport> getComparator() {
+                        return Comparator.comparing(ExecutionReport::getModuleName);
+                    }
+                },
+                counterColumn("toolwindows.results.column.right", ExecutionReport::getRight),
+                counterColumn("toolwindows.results.column.wrong", ExecutionReport::getWrong),
+                counterColumn("toolwindows.results.column.ignored", ExecutionReport::getIgnored),
+                counterColumn("toolwindows.results.column.exceptions", ExecutionReport::getExceptions),
+                new ColumnInfo<ExecutionReport, String>(I18nSupport.getValue("toolwindows.results.column.duration")) {
+                    @Override
+                    public String valueOf(ExecutionReport executionReport) {
+                        return StringUtil.formatDuration(executionReport.getWallTime());
+                    }
+
+                    @Override
+                    public Comparator<ExecutionReport> getComparator() {
+                        return Comparator.comparingLong(ExecutionReport::getWallTime);
+                    }
+                }
+        };
+    }
+
+    private static ColumnInfo<ExecutionReport, Integer> counterColumn(final String key, final ToIntFunction<ExecutionReport> counter) {
+
+        return new ColumnInfo<ExecutionReport, Integer>(I18nSupport.getValue(key)) {
+            @Override
+            public Integer valueOf(ExecutionReport executionReport) {
+                return counter.applyAsInt(executionReport);
+            }
+
+            @Override
+            public Comparator<ExecutionReport> getComparator() {
+                return Comparator.comparingInt(counter);
+            }
+        };
+    }
+
+    /**
+     * Specification name with the result icon.
+     */
+    private static final class SpecificationRenderer extends ColoredTableCellRenderer {
+
+        @Override
+        protected void customizeCellRenderer(@NotNull JTable table, Object value, boolean selected, boolean hasFocus,
+                                             int row, int column) {
+
+            if (value instanceof ExecutionReport) {
+                ExecutionReport executionReport = (ExecutionReport) value;
+                setIcon(executionReport.isFailed() ? Icons.ERROR : Icons.SUCCESS);
+                append(executionReport.getSpecificationName(), SimpleTextAttributes.REGULAR_ATTRIBUTES);
+            }
+        }
+    }
+}
@@ -2,7 +2,9 @@ package info.novatec.testit.livingdoc.intellij.gui.toolwindows;
 
 import com.intellij.execution.testframework.ui.TestStatusLine;
 import com.intellij.icons.AllIcons;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.actionSystem.*;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleManager;
@@ -10,40 +12,79 @@ import com.intellij.openapi.progress.util.ColorProgressBar;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.SimpleToolWindowPanel;
 import com.intellij.ui.PopupHandler;
+import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBPanel;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.ui.treeStructure.SimpleTree;
+import com.intellij.util.text.DateFormatUtil;
+import info.novatec.testit.livingdoc.headless.SpecificationTask;
 import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
 import info.novatec.testit.livingdoc.intellij.common.NodeType;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
 import info.novatec.testit.livingdoc.intellij.domain.*;
 import info.novatec.testit.livingdoc.intellij.gui.toolwindows.action.ExecuteDocumentAction;
 import info.novatec.testit.livingdoc.intellij.gui.toolwindows.action.OpenRemoteDocumentAction;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.action.RefreshNodeAction;
 import info.novatec.testit.livingdoc.intellij.gui.toolwindows.action.SwitchVersionAction;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.action.MatrixExecuteAction;
 import info.novatec.testit.livingdoc.intellij.gui.toolwindows.action.TagImplementedAction;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.action.WatchModeAction;
+import info.novatec.testit.livingdoc.intellij.rest.CircuitBreaker;
+import info.novatec.testit.livingdoc.intellij.rest.OfflineCache;
+import info.novatec.testit.livingdoc.intellij.rest.OfflineMode;
 import info.novatec.testit.livingdoc.intellij.rest.PluginLivingDocRestClient;
-import info.novatec.testit.livingdoc.server.LivingDocServerException;
+import info.novatec.testit.livingdoc.intellij.rest.ServerCircuitBreakers;
+import info.novatec.testit.livingdoc.intellij.rest.SpecificationHierarchy;
+import info.novatec.testit.livingdoc.intellij.run.ExecutionHistory;
+import info.novatec.testit.livingdoc.intellij.run.SpecificationDocumentLoader;
+import info.novatec.testit.livingdoc.intellij.run.SpecificationDuration;
+import info.novatec.testit.livingdoc.intellij.run.SpecificationLauncher;
 import info.novatec.testit.livingdoc.server.domain.DocumentNode;
 import info.novatec.testit.livingdoc.server.domain.Repository;
 import info.novatec.testit.livingdoc.server.domain.SystemUnderTest;
 import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreePath;
 import javax.swing.tree.TreeSelectionModel;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 
 /**
  * User interface for LivingDoc Repository View.<br>
+ * Every module and every repository is loaded in the background with its own timeout, and a failed one gets its own
+ * error node without discarding the rest of the view.<br>
+ * The hierarchies loaded from the server are cached. When the server cannot be reached, the cached hierarchies are
+ * shown as stale in offline mode, and the view is refreshed once the server is reachable again (See {@link OfflineMode}).<br>
+ * The state of the circuit breaker of the server is shown under the tree (See {@link ServerCircuitBreakers}).<br>
+ * Besides the global refresh, a module or a repository can be reloaded alone (See {@link #refreshModules(Collection)}
+ * and {@link #refreshRepository(DefaultMutableTreeNode)}).
  *
  * @see SimpleToolWindowPanel
  */
-public class ToolWindowPanel extends SimpleToolWindowPanel {
+public class ToolWindowPanel extends SimpleToolWindowPanel implements Disposable {
 
     private static final Logger LOG = Logger.getInstance(ToolWindowPanel.class);
 
@@ -56,7 +97,13 @@ public class ToolWindowPanel extends SimpleToolWindowPanel {
     private transient DefaultActionGroup actionGroup;
     private SimpleTree tree;
     private TestStatusLine statusLine;
+    private JBLabel circuitBreakerLabel;
     private transient AnAction refreshAction;
+    private transient RepositoryViewUpdater repositoryViewUpdater;
+    private transient SpecificationLauncher specificationLauncher;
+    private int loadGeneration;
+    private final Map<String, Integer> moduleGenerations = new HashMap<>();
+    private final Set<String> pendingModules = new HashSet<>();
 
 
     public ToolWindowPanel(Project project) {
@@ -73,12 +120,30 @@ public class ToolWindowPanel extends SimpleToolWindowPanel {
         createRepositoryTree();
         createActionToolBar();
         createStatusLine();
+        createCircuitBreakerLabel();
+
+        repositoryViewUpdater = new RepositoryViewUpdater(project, tree, statusLine);
+        specificationLauncher = new SpecificationLauncher(project, repositoryViewUpdater);
 
         configureActions();
 
+        project.getMessageBus().connect(this).subscribe(OfflineMode.TOPIC, offline -> {
+            if (!offline) {
+                ApplicationManager.getApplication().invokeLater(() -> refreshAction.actionPerformed(null), project.getDisposed());
+            }
+        });
+        ApplicationManager.getApplication().getMessageBus().connect(this).subscribe(ServerCircuitBreakers.TOPIC,
+                (serverUrl, circuitBreaker) -> ApplicationManager.getApplication().invokeLater(
+                        () -> updateCircuitBreakerLabel(serverUrl, circuitBreaker), project.getDisposed()));
+
         loadRepositories();
     }
 
+    @Override
+    public void dispose() {
+        // The message bus connection is disposed with the panel.
+    }
+
     public SimpleTree getRepositoryTree() {
         return this.tree;
     }
@@ -91,6 +156,14 @@ public class ToolWindowPanel extends SimpleToolWindowPanel {
         return this.refreshAction;
     }
 
+    public RepositoryViewUpdater getRepositoryViewUpdater() {
+        return this.repositoryViewUpdater;
+    }
+
+    public SpecificationLauncher getSpecificationLauncher() {
+        return this.specificationLauncher;
+    }
+
     private void createActionToolBar() {
 
         ActionManager actionManager = ActionManager.getInstance();
@@ -109,6 +182,7 @@ public class ToolWindowPanel extends SimpleToolWindowPanel {
         tree.setRootVisible(true);
 
         tree.getSelectionModel().setSelectionMode(TreeSelectionModel.DISCONTIGUOUS_TREE_SELECTION);
+        tree.addTreeSelectionListener(treeSelectionEvent -> prefetchSelectedSpecifications());
 
         treeModel = new DefaultTreeModel(rootNode, true);
         tree.setModel(treeModel);
@@ -125,6 +199,71 @@ public class ToolWindowPanel extends SimpleToolWindowPanel {
         mainContent.add(statusLine, BorderLayout.NORTH);
     }
 
+    private void createCircuitBreakerLabel() {
+
+        circuitBreakerLabel = new JBLabel(AllIcons.General.Warning);
+        circuitBreakerLabel.setVisible(false);
+        mainContent.add(circuitBreakerLabel, BorderLayout.SOUTH);
+
+        String serverUrl = ProjectSettings.getInstance(project).getUrlServer();
+        updateCircuitBreakerLabel(StringUtils.defaultString(serverUrl), ServerCircuitBreakers.get(serverUrl));
+    }
+
+    /**
+     * Shows the state of the circuit breaker whether it belongs to the server of the project and it is not closed.
+     */
+    private void updateCircuitBreakerLabel(final String serverUrl, final CircuitBreaker circuitBreaker) {
+
+        if (!StringUtils.equals(serverUrl, StringUtils.defaultString(ProjectSettings.getInstance(project).getUrlServer()))) {
+            return;
+        }
+
+        CircuitBreaker.State state = circuitBreaker.getState();
+        if (state == CircuitBreaker.State.OPEN) {
+            circuitBreakerLabel.setText(I18nSupport.getValue("toolwindows.circuit.open",
+                    DateFormatUtil.formatTime(circuitBreaker.getRetryTime())));
+        } else if (state == CircuitBreaker.State.HALF_OPEN) {
+            circuitBreakerLabel.setText(I18nSupport.getValue("toolwindows.circuit.half.open"));
+        }
+        circuitBreakerLabel.setVisible(state != CircuitBreaker.State.CLOSED);
+    }
+
+    /**
+     * Downloads in the background the documents of the selected specifications (and optionally, the specifications
+     * in the same folder), so they are already available when the user runs them.
+     *
+     * @see SpecificationDocumentLoader#prefetch(java.util.Collection)
+     */
+    private void prefetchSelectedSpecifications() {
+
+        ProjectSettings projectSettings = ProjectSettings.getInstance(project);
+        if (!projectSettings.isPrefetchEnabled() || tree.getSelectionPaths() == null) {
+            return;
+        }
+
+        Set<SpecificationNode> specificationNodes = new LinkedHashSet<>();
+
+        for (TreePath selectionPath : tree.getSelectionPaths()) {
+            DefaultMutableTreeNode selectedNode = (DefaultMutableTreeNode) selectionPath.getLastPathComponent();
+            addExecutableSpecification(selectedNode, specificationNodes);
+
+            DefaultMutableTreeNode parentNode = (DefaultMutableTreeNode) selectedNode.getParent();
+            if (projectSettings.isPrefetchSiblings() && parentNode != null && selectedNode.getUserObject() instanceof SpecificationNode) {
+                for (int i = 0; i < parentNode.getChildCount(); i++) {
+                    addExecutableSpecification((DefaultMutableTreeNode) parentNode.getChildAt(i), specificationNodes);
+                }
+            }
+        }
+        SpecificationDocumentLoader.getInstance(project).prefetch(specificationNodes);
+    }
+
+    private static void addExecutableSpecification(DefaultMutableTreeNode treeNode, Set<SpecificationNode> specificationNodes) {
+
+        if (treeNode.getUserObject() instanceof SpecificationNode && ((SpecificationNode) treeNode.getUserObject()).isExecutable()) {
+            specificationNodes.add((SpecificationNode) treeNode.getUserObject());
+        }
+    }
+
     private void resetStatusLine() {
         statusLine.setText("");
         statusLine.setStatusColor(ColorProgressBar.GREEN);
@@ -150,13 +289,18 @@ public class ToolWindowPanel extends SimpleToolWindowPanel {
 
         toolBar.updateActionsImmediately();
 
-        // Context menu with the plugin actions.
+        // Context menu with the plugin actions, and the refresh of the selected modules and repositories.
+        DefaultActionGroup popupGroup = new DefaultActionGroup();
+        popupGroup.add(new RefreshNodeAction(this));
+        popupGroup.addSeparator();
+        popupGroup.addAll(actionGroup);
+
         getRepositoryTree().addMouseListener(new PopupHandler() {
 
             @Override
             public void invokePopup(final Component comp, final int x, final int y) {
 
-                ActionPopupMenu actionPopupMenu = ActionManager.getInstance().createActionPopupMenu("LivingDoc.RepositoryViewToolbar", actionGroup);
+                ActionPopupMenu actionPopupMenu = ActionManager.getInstance().createActionPopupMenu("LivingDoc.RepositoryViewToolbar", popupGroup);
                 actionPopupMenu.getComponent().show(comp, x, y);
             }
         });
@@ -169,7 +313,7 @@ public class ToolWindowPanel extends SimpleToolWindowPanel {
         // Current (working) version
         actionGroup.add(new SwitchVersionAction(tree, true));
 
-        actionGroup.add(new TagImplementedAction(tree));
+        actionGroup.add(new TagImplementedAction(this));
     }
 
     private void createOpenDocumentAction() {
@@ -178,10 +322,19 @@ public class ToolWindowPanel extends SimpleToolWindowPanel {
 
     private void createExecuteDocumentAction() {
 
-        actionGroup.add(new ExecuteDocumentAction(this, false));
+        actionGroup.add(new ExecuteDocumentAction(this, ExecuteDocumentAction.Mode.RUN));
 
         // With debug mode
-        actionGroup.add(new ExecuteDocumentAction(this, true));
+        actionGroup.add(new ExecuteDocumentAction(this, ExecuteDocumentAction.Mode.DEBUG));
+
+        // With Flight Recorder
+        actionGroup.add(new ExecuteDocumentAction(this, ExecuteDocumentAction.Mode.PROFILE));
+
+        // With the systems under test of several modules
+        actionGroup.add(new MatrixExecuteAction(this));
+
+        // Re-execution of the affected specifications after compiling the module
+        actionGroup.add(new WatchModeAction(tree));
     }
 
     private void createRefreshRepositoryAction() {
@@ -202,62 +355,518 @@ public class ToolWindowPanel extends SimpleToolWindowPanel {
         actionGroup.add(refreshAction);
     }
 
+    /**
+     * Loads the repositories of every module with LivingDoc enabled. Every module is loaded in the background and
+     * painted once it is loaded, so a slow or broken module does not block the others (See {@link #loadSystemUnderTests}).
+     */
     private void loadRepositories() {
 
+        moduleGenerations.clear();
+        pendingModules.clear();
+        List<Runnable> moduleLoads = new ArrayList<>();
+
         for (Module module : ModuleManager.getInstance(project).getModules()) {
 
             ModuleSettings moduleSettings = ModuleSettings.getInstance(module);
             if (moduleSettings.isLivingDocEnabled()) {
 
-                ModuleNode moduleNode = new ModuleNode(
-                        module.getName() + " [" + StringUtils.defaultIfBlank(moduleSettings.getSud(),
-                                I18nSupport.getValue("toolwindows.error.loading.repositories.noproject")) + "]",
-                        module.getName());
-                DefaultMutableTreeNode moduleTreeNode = new DefaultMutableTreeNode(moduleNode);
+                DefaultMutableTreeNode moduleTreeNode = createModuleTreeNode(module, moduleSettings);
                 rootNode.add(moduleTreeNode);
-
-                loadSystemUnderTests(moduleSettings, moduleNode, moduleTreeNode);
+                moduleLoads.add(prepareModuleLoad(moduleSettings, moduleTreeNode));
             }
         }
         treeModel.reload();
+
+        if (moduleLoads.isEmpty()) {
+            removeStaleConfigurations();
+        }
+        moduleLoads.forEach(Runnable::run);
+    }
+
+    /**
+     * Reloads the given modules without touching the rest of the view: the node of every module is replaced by a new
+     * one, loaded in the background (See {@link #loadSystemUnderTests}). The modules with LivingDoc disabled are
+     * removed from the view and the newly enabled ones are added.
+     *
+     * @param moduleNames Names of the modules.
+     */
+    public void refreshModules(@NotNull final Collection<String> moduleNames) {
+
+        List<Runnable> moduleLoads = new ArrayList<>();
+
+        for (String moduleName : moduleNames) {
+
+            moduleGenerations.remove(moduleName);
+            pendingModules.remove(moduleName);
+
+            DefaultMutableTreeNode currentTreeNode = findModuleTreeNode(moduleName);
+            int index = rootNode.getChildCount();
+            if (currentTreeNode != null) {
+                index = rootNode.getIndex(currentTreeNode);
+                treeModel.removeNodeFromParent(currentTreeNode);
+            }
+
+            Module module = ModuleManager.getInstance(project).findModuleByName(moduleName);
+            ModuleSettings moduleSettings = module == null ? null : ModuleSettings.getInstance(module);
+            if (moduleSettings != null && moduleSettings.isLivingDocEnabled()) {
+
+                DefaultMutableTreeNode moduleTreeNode = createModuleTreeNode(module, moduleSettings);
+                treeModel.insertNodeInto(moduleTreeNode, rootNode, index);
+                moduleLoads.add(prepareModuleLoad(moduleSettings, moduleTreeNode));
+            }
+        }
+
+        if (moduleLoads.isEmpty() && pendingModules.isEmpty()) {
+            removeStaleConfigurations();
+        }
+        moduleLoads.forEach(Runnable::run);
+    }
+
+    /**
+     * Reloads the specification hierarchy of a repository in the background, without touching the rest of its module.
+     * In offline mode, or whether the module shows its cached repositories, the whole module is reloaded instead.<br>
+     * A failed reload replaces the specifications of the repository with an error node, and its run configurations are
+     * kept.
+     *
+     * @param repositoryTreeNode Tree node of the repository.
+     */
+    public void refreshRepository(@NotNull final DefaultMutableTreeNode repositoryTreeNode) {
+
+        RepositoryNode repositoryNode = (RepositoryNode) repositoryTreeNode.getUserObject();
+        ModuleNode moduleNode = RepositoryViewUtils.getModuleNode(repositoryNode);
+
+        Module module = ModuleManager.getInstance(project).findModuleByName(moduleNode.getModuleName());
+        if (module == null || OfflineMode.getInstance(project).isOffline() || moduleNode.getStaleSince() > 0) {
+            refreshModules(Collections.singleton(moduleNode.getModuleName()));
+            return;
+        }
+
+        ModuleSettings moduleSettings = ModuleSettings.getInstance(module);
+        Repository repository = repositoryNode.getRepository();
+
+        repositoryTreeNode.removeAllChildren();
+        repositoryTreeNode.add(new DefaultMutableTreeNode(RepositoryViewUtils.getLoadingNode(), false));
+        treeModel.reload(repositoryTreeNode);
+
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+
+            PluginLivingDocRestClient service = new PluginLivingDocRestClient(ProjectSettings.getInstance(project));
+            SystemUnderTest systemUnderTest = createSystemUnderTest(moduleSettings);
+
+            SpecificationHierarchy hierarchy = new SpecificationHierarchy();
+            Exception error = null;
+            try {
+                hierarchy.addRepository(repository, repositoryNode.getName(),
+                        callWithTimeout(() -> service.getSpecificationHierarchy(repository, systemUnderTest),
+                                Long.parseLong(PluginProperties.getValue("livingdoc.load.repository.timeout.seconds"))));
+            } catch (Exception e) {
+                error = e;
+            }
+
+            Exception repositoryError = error;
+            ApplicationManager.getApplication().invokeLater(() -> {
+                // The module has been reloaded in the meantime.
+                if (repositoryTreeNode.getRoot() != rootNode) {
+                    return;
+                }
+                repositoryTreeNode.removeAllChildren();
+
+                if (repositoryError == null) {
+                    paintDocumentNode(hierarchy.getRepositories().get(0).getChildren(), repositoryTreeNode);
+                    decorateDurationRegressions(repository, repositoryTreeNode);
+                } else {
+                    LOG.warn("The hierarchy of the repository " + repository.getUid() + " cannot be loaded.", repositoryError);
+                    addErrorNode(repositoryTreeNode, getErrorMessage(repositoryError));
+                }
+                treeModel.reload(repositoryTreeNode);
+
+                if (repositoryError == null && pendingModules.isEmpty()) {
+                    removeStaleConfigurations();
+                }
+            }, project.getDisposed());
+        });
+    }
+
+    /**
+     * @return The tree node of the module, with a loading node as child.
+     */
+    private static DefaultMutableTreeNode createModuleTreeNode(Module module, ModuleSettings moduleSettings) {
+
+        ModuleNode moduleNode = new ModuleNode(
+                module.getName() + " [" + StringUtils.defaultIfBlank(moduleSettings.getSud(),
+                        I18nSupport.getValue("toolwindows.error.loading.repositories.noproject")) + "]",
+                module.getName());
+        DefaultMutableTreeNode moduleTreeNode = new DefaultMutableTreeNode(moduleNode);
+        moduleTreeNode.add(new DefaultMutableTreeNode(RepositoryViewUtils.getLoadingNode(), false));
+        return moduleTreeNode;
+    }
+
+    /**
+     * Registers a new load of the module: the results of its previous loads will be ignored.
+     *
+     * @return The load of the module, to run once the tree model is updated.
+     */
+    private Runnable prepareModuleLoad(ModuleSettings moduleSettings, DefaultMutableTreeNode moduleTreeNode) {
+
+        ModuleNode moduleNode = (ModuleNode) moduleTreeNode.getUserObject();
+        int generation = ++loadGeneration;
+
+        moduleGenerations.put(moduleNode.getModuleName(), generation);
+        pendingModules.add(moduleNode.getModuleName());
+
+        return () -> loadSystemUnderTests(moduleSettings, moduleNode, moduleTreeNode, generation);
     }
 
-    private void loadSystemUnderTests(ModuleSettings moduleSettings, ModuleNode moduleNode, DefaultMutableTreeNode moduleTreeNode) {
+    private DefaultMutableTreeNode findModuleTreeNode(String moduleName) {
+
+        for (int i = 0; i < rootNode.getChildCount(); i++) {
+            DefaultMutableTreeNode moduleTreeNode = (DefaultMutableTreeNode) rootNode.getChildAt(i);
+            if (moduleTreeNode.getUserObject() instanceof ModuleNode
+                    && moduleName.equals(((ModuleNode) moduleTreeNode.getUserObject()).getModuleName())) {
+                return moduleTreeNode;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A module has been painted. Once all the pending ones are painted, the stale run configurations are removed.
+     */
+    private void moduleLoaded(final ModuleNode moduleNode, final DefaultMutableTreeNode moduleTreeNode) {
+
+        treeModel.reload(moduleTreeNode);
+
+        pendingModules.remove(moduleNode.getModuleName());
+        if (pendingModules.isEmpty()) {
+            if (OfflineMode.getInstance(project).isOffline()) {
+                statusLine.setText(I18nSupport.getValue("toolwindows.offline.status"));
+            }
+            removeStaleConfigurations();
+        }
+    }
+
+    /**
+     * Removes the run configurations of the specifications that are not in the loaded repositories anymore. The
+     * repositories showing an error node (a failed refresh) are not loaded, so their run configurations are kept.
+     *
+     * @see SpecificationLauncher#removeStaleConfigurations(Set, Set)
+     */
+    private void removeStaleConfigurations() {
+
+        Set<String> loadedRepositories = new HashSet<>();
+        Set<String> loadedSpecifications = new HashSet<>();
+
+        Enumeration<?> treeNodes = rootNode.depthFirstEnumeration();
+        while (treeNodes.hasMoreElements()) {
+            DefaultMutableTreeNode treeNode = (DefaultMutableTreeNode) treeNodes.nextElement();
+            Object userObject = treeNode.getUserObject();
+
+            if (userObject instanceof RepositoryNode) {
+                if (hasErrorNode(treeNode)) {
+                    continue;
+                }
+                loadedRepositories.add(((RepositoryNode) userObject).getRepository().getUid());
+
+            } else if (userObject instanceof SpecificationNode && ((SpecificationNode) userObject).isExecutable()) {
+                SpecificationNode specificationNode = (SpecificationNode) userObject;
+                loadedSpecifications.add(SpecificationTask.buildKey(
+                        RepositoryViewUtils.getRepositoryNode(specificationNode).getRepository().getUid(), specificationNode.getName()));
+            }
+        }
+        specificationLauncher.removeStaleConfigurations(loadedRepositories, loadedSpecifications);
+    }
+
+    private static boolean hasErrorNode(DefaultMutableTreeNode treeNode) {
+
+        for (int i = 0; i < treeNode.getChildCount(); i++) {
+            Object userObject = ((DefaultMutableTreeNode) treeNode.getChildAt(i)).getUserObject();
+            if (userObject instanceof Node && ((Node) userObject).getType() == NodeType.ERROR) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Loads the repositories of the module in a pooled thread and paints them in the Event Dispatch Thread.<br>
+     * The cached hierarchy of the module (See {@link OfflineCache}) is also written or read in the pooled thread.
+     * The repositories of the system under test are requested within <code>livingdoc.load.module.timeout.seconds</code>
+     * and the hierarchy of every repository, in parallel, within <code>livingdoc.load.repository.timeout.seconds</code>.
+     * A failed repository gets an error node in the module, and a failed module an error node, without discarding the
+     * other repositories and modules. The results of a previous load of the module (<code>generation</code>) are ignored.
+     */
+    private void loadSystemUnderTests(ModuleSettings moduleSettings, ModuleNode moduleNode, DefaultMutableTreeNode moduleTreeNode,
+                                      final int generation) {
+
+        if (OfflineMode.getInstance(project).isOffline()) {
+            ApplicationManager.getApplication().executeOnPooledThread(() -> {
+
+                SpecificationHierarchy cachedHierarchy = loadCachedHierarchy(moduleSettings);
+
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    if (Integer.valueOf(generation).equals(moduleGenerations.get(moduleNode.getModuleName()))) {
+                        moduleTreeNode.removeAllChildren();
+                        if (!paintCachedHierarchy(cachedHierarchy, moduleNode, moduleTreeNode)) {
+                            addErrorNode(moduleTreeNode, I18nSupport.getValue("toolwindows.error.loading.repositories.offline")
+                                    + moduleSettings.getSud());
+                        }
+                        moduleLoaded(moduleNode, moduleTreeNode);
+                    }
+                }, project.getDisposed());
+            });
+            return;
+        }
+
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+
+            ModuleHierarchy moduleHierarchy = fetchModuleHierarchy(moduleSettings);
+
+            if (moduleHierarchy.error == null && moduleHierarchy.repositoryErrors.isEmpty()) {
+                // A partial hierarchy would hide the cached repositories that failed.
+                OfflineCache.getInstance(project).saveHierarchy(StringUtils.defaultString(moduleSettings.getProject()),
+                        StringUtils.defaultString(moduleSettings.getSud()), moduleHierarchy.hierarchy);
+            } else if (moduleHierarchy.unreachable) {
+                moduleHierarchy.cachedHierarchy = loadCachedHierarchy(moduleSettings);
+            }
+
+            ApplicationManager.getApplication().invokeLater(() -> {
+                if (Integer.valueOf(generation).equals(moduleGenerations.get(moduleNode.getModuleName()))) {
+                    paintModuleHierarchy(moduleSettings, moduleNode, moduleTreeNode, moduleHierarchy);
+                    moduleLoaded(moduleNode, moduleTreeNode);
+                }
+            }, project.getDisposed());
+        });
+    }
+
+    /**
+     * Requests the repositories of the module and their hierarchies (in a pooled thread).
+     */
+    private ModuleHierarchy fetchModuleHierarchy(ModuleSettings moduleSettings) {
 
         PluginLivingDocRestClient service = new PluginLivingDocRestClient(ProjectSettings.getInstance(project));
 
+        SystemUnderTest systemUnderTest = createSystemUnderTest(moduleSettings);
+
+        ModuleHierarchy moduleHierarchy = new ModuleHierarchy();
+
+        Set<Repository> repositories;
+        try {
+            repositories = callWithTimeout(() -> service.getAllRepositoriesForSystemUnderTest(systemUnderTest),
+                    Long.parseLong(PluginProperties.getValue("livingdoc.load.module.timeout.seconds")));
+        } catch (Exception e) {
+            moduleHierarchy.failed(e);
+            return moduleHierarchy;
+        }
+
+        long repositoryTimeout = TimeUnit.SECONDS.toMillis(Long.parseLong(PluginProperties.getValue("livingdoc.load.repository.timeout.seconds")));
+        long deadline = System.currentTimeMillis() + repositoryTimeout;
+
+        Map<Repository, Future<DocumentNode>> documentNodes = new LinkedHashMap<>();
+        for (Repository repository : repositories) {
+            documentNodes.put(repository, ApplicationManager.getApplication().executeOnPooledThread(
+                    () -> service.getSpecificationHierarchy(repository, systemUnderTest)));
+        }
+
+        for (Map.Entry<Repository, Future<DocumentNode>> documentNode : documentNodes.entrySet()) {
+
+            Repository repository = documentNode.getKey();
+            try {
+                moduleHierarchy.hierarchy.addRepository(repository, repository.getProject().getName(),
+                        getWithTimeout(documentNode.getValue(), Math.max(0L, deadline - System.currentTimeMillis()), repositoryTimeout));
+                moduleHierarchy.repositories.put(repository.getUid(), repository);
+
+            } catch (Exception e) {
+                LOG.warn("The hierarchy of the repository " + repository.getUid() + " cannot be loaded.", e);
+                moduleHierarchy.repositoryErrors.add(I18nSupport.getValue("toolwindows.error.loading.repository",
+                        repository.getProject().getName(), getErrorMessage(e)));
+            }
+        }
+        return moduleHierarchy;
+    }
+
+    private static SystemUnderTest createSystemUnderTest(ModuleSettings moduleSettings) {
+
         SystemUnderTest systemUnderTest = SystemUnderTest.newInstance(moduleSettings.getSud());
         systemUnderTest.setProject(info.novatec.testit.livingdoc.server.domain.Project.newInstance(moduleSettings.getProject()));
+        return systemUnderTest;
+    }
+
+    private void paintModuleHierarchy(ModuleSettings moduleSettings, ModuleNode moduleNode, DefaultMutableTreeNode moduleTreeNode,
+                                      ModuleHierarchy moduleHierarchy) {
+
+        moduleTreeNode.removeAllChildren();
+
+        if (moduleHierarchy.error != null) {
+            if (moduleHierarchy.unreachable && enterOfflineMode(moduleHierarchy.cachedHierarchy, moduleNode, moduleTreeNode)) {
+                return;
+            }
+            LOG.warn("The repositories of the module " + moduleNode.getModuleName() + " cannot be loaded.", moduleHierarchy.error);
+            addErrorNode(moduleTreeNode, getErrorMessage(moduleHierarchy.error));
+            return;
+        }
+
+        paintHierarchy(moduleHierarchy.hierarchy, repositoryEntry -> moduleHierarchy.repositories.get(repositoryEntry.getUid()),
+                moduleNode, moduleTreeNode);
+
+        moduleHierarchy.repositoryErrors.forEach(message -> addErrorNode(moduleTreeNode, message));
+    }
+
+    private static void addErrorNode(DefaultMutableTreeNode parentNode, String message) {
+        parentNode.add(new DefaultMutableTreeNode(RepositoryViewUtils.getErrorNode(message), false));
+    }
+
+    /**
+     * @return The result of the call, in a pooled thread, within the timeout.
+     */
+    private static <T> T callWithTimeout(Callable<T> call, long timeoutSeconds) throws Exception {
+
+        long timeout = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        return getWithTimeout(ApplicationManager.getApplication().executeOnPooledThread(call), timeout, timeout);
+    }
+
+    /**
+     * @param future      Pending call.
+     * @param waitMillis  Remaining time (ms) of the call.
+     * @param timeoutMillis Timeout (ms) shown whether the call times out.
+     * @return The result of the call. A timed out call is cancelled.
+     */
+    private static <T> T getWithTimeout(Future<T> future, long waitMillis, long timeoutMillis) throws Exception {
 
         try {
-            Set<Repository> repositories = service.getAllRepositoriesForSystemUnderTest(systemUnderTest);
+            return future.get(waitMillis, TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException te) {
+            future.cancel(true);
+            throw new TimeoutException(I18nSupport.getValue("toolwindows.error.loading.timeout",
+                    TimeUnit.MILLISECONDS.toSeconds(timeoutMillis)));
+
+        } catch (ExecutionException ee) {
+            throw ee.getCause() instanceof Exception ? (Exception) ee.getCause() : ee;
+        }
+    }
+
+    private static String getErrorMessage(Exception error) {
 
-            for (Repository repository : repositories) {
+        if (error instanceof TimeoutException) {
+            return error.getMessage();
+        }
+        if (error instanceof HttpClientErrorException) {
+            return I18nSupport.getValue("toolwindows.error.loading.repositories.unauthorized") + error.getMessage();
+        }
+        if (error instanceof HttpServerErrorException) {
+            return I18nSupport.getValue("toolwindows.error.loading.repositories.internal") + error.getMessage();
+        }
+        return I18nSupport.getValue("toolwindows.error.loading.repositories") + error.getMessage();
+    }
 
-                RepositoryNode repositoryNode;
-                repositoryNode = new RepositoryNode(repository.getProject().getName(), moduleNode);
-                repositoryNode.setRepository(repository);
-                DefaultMutableTreeNode childNode = new DefaultMutableTreeNode(repositoryNode);
-                moduleTreeNode.add(childNode);
+    /**
+     * The server cannot be reached: the cached hierarchy of the module is shown and the offline mode starts, whether
+     * the hierarchy has been cached.
+     *
+     * @return True whether the cached hierarchy is shown.
+     */
+    private boolean enterOfflineMode(SpecificationHierarchy cachedHierarchy, ModuleNode moduleNode, DefaultMutableTreeNode moduleTreeNode) {
+
+        moduleTreeNode.removeAllChildren();
+        if (!paintCachedHierarchy(cachedHierarchy, moduleNode, moduleTreeNode)) {
+            return false;
+        }
+        OfflineMode.getInstance(project).enter();
+        return true;
+    }
+
+    /**
+     * @return The cached hierarchy of the module (read in a pooled thread). Null whether it is not cached.
+     */
+    private SpecificationHierarchy loadCachedHierarchy(ModuleSettings moduleSettings) {
+        return OfflineCache.getInstance(project).loadHierarchy(
+                StringUtils.defaultString(moduleSettings.getProject()), StringUtils.defaultString(moduleSettings.getSud()));
+    }
+
+    /**
+     * @param hierarchy Cached hierarchy of the module (null whether it is not cached).
+     * @return True whether the module has a cached hierarchy, now shown as stale.
+     */
+    private boolean paintCachedHierarchy(SpecificationHierarchy hierarchy, ModuleNode moduleNode, DefaultMutableTreeNode moduleTreeNode) {
+
+        if (hierarchy == null) {
+            return false;
+        }
+        moduleNode.setStaleSince(hierarchy.getCachedTime());
+        paintHierarchy(hierarchy, SpecificationHierarchy.RepositoryEntry::toRepository, moduleNode, moduleTreeNode);
+        return true;
+    }
 
-                DocumentNode documentNode = service.getSpecificationHierarchy(repository, systemUnderTest);
-                paintDocumentNode(documentNode.getChildren(), childNode);
+    private void paintHierarchy(SpecificationHierarchy hierarchy, Function<SpecificationHierarchy.RepositoryEntry, Repository> repositories,
+                                ModuleNode moduleNode, DefaultMutableTreeNode moduleTreeNode) {
+
+        for (SpecificationHierarchy.RepositoryEntry repositoryEntry : hierarchy.getRepositories()) {
+
+            Repository repository = repositories.apply(repositoryEntry);
+
+            RepositoryNode repositoryNode = new RepositoryNode(repositoryEntry.getName(), moduleNode);
+            repositoryNode.setRepository(repository);
+            DefaultMutableTreeNode childNode = new DefaultMutableTreeNode(repositoryNode);
+            moduleTreeNode.add(childNode);
+
+            paintDocumentNode(repositoryEntry.getChildren(), childNode);
+            decorateDurationRegressions(repository, childNode);
+        }
+    }
+
+    /**
+     * Marks the specifications of the repository whose last execution is a significant slowdown.<br>
+     * The execution history is read in a pooled thread (it may still be loading its file, or writing a record), and
+     * only the marks are painted in the Event Dispatch Thread.
+     *
+     * @param repository         Loaded repository.
+     * @param repositoryTreeNode Tree node of the repository, with its specifications.
+     * @see ExecutionHistory#getSpecificationDuration(String, String, boolean)
+     */
+    private void decorateDurationRegressions(Repository repository, DefaultMutableTreeNode repositoryTreeNode) {
+
+        Map<DefaultMutableTreeNode, SpecificationNode> specificationTreeNodes = new LinkedHashMap<>();
+
+        Enumeration<?> treeNodes = repositoryTreeNode.depthFirstEnumeration();
+        while (treeNodes.hasMoreElements()) {
+            DefaultMutableTreeNode treeNode = (DefaultMutableTreeNode) treeNodes.nextElement();
+            Object userObject = treeNode.getUserObject();
+
+            if (userObject instanceof SpecificationNode && ((SpecificationNode) userObject).isExecutable()) {
+                specificationTreeNodes.put(treeNode, (SpecificationNode) userObject);
             }
-        } catch (LivingDocServerException ldse) {
-            LOG.error(ldse);
-            resetTree(RepositoryViewUtils.getErrorNode(I18nSupport.getValue("toolwindows.error.loading.repositories")
-                    + ldse.getMessage()));
-
-        } catch (HttpClientErrorException hcee) {
-            LOG.warn(hcee);
-            resetTree(RepositoryViewUtils.getErrorNode(I18nSupport.getValue("toolwindows.error.loading.repositories.unauthorized")
-                    + hcee.getMessage()));
-
-        } catch (HttpServerErrorException hsee) {
-            LOG.error(hsee);
-            resetTree(RepositoryViewUtils.getErrorNode(I18nSupport.getValue("toolwindows.error.loading.repositories.internal")
-                    + hsee.getMessage()));
         }
+        if (specificationTreeNodes.isEmpty()) {
+            return;
+        }
+
+        String repositoryUID = repository.getUid();
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+
+            ExecutionHistory executionHistory = ExecutionHistory.getInstance(project);
+            Map<DefaultMutableTreeNode, Double> regressions = new LinkedHashMap<>();
+
+            specificationTreeNodes.forEach((treeNode, specificationNode) -> {
+                SpecificationDuration specificationDuration = executionHistory.getSpecificationDuration(
+                        repositoryUID, specificationNode.getName(), specificationNode.isUsingCurrentVersion());
+
+                if (specificationDuration != null && specificationDuration.isRegression()) {
+                    regressions.put(treeNode, specificationDuration.getRatio());
+                }
+            });
+            if (regressions.isEmpty()) {
+                return;
+            }
+
+            ApplicationManager.getApplication().invokeLater(() -> regressions.forEach((treeNode, ratio) -> {
+                // The repository has been reloaded in the meantime.
+                if (treeNode.getRoot() != rootNode) {
+                    return;
+                }
+                ((SpecificationNode) treeNode.getUserObject()).setDurationRegression(ratio);
+                treeModel.nodeChanged(treeNode);
+            }), project.getDisposed());
+        });
     }
 
     private Node getDefaultRootNode() {
@@ -266,13 +875,14 @@ public class ToolWindowPanel extends SimpleToolWindowPanel {
     }
 
     /**
-     * @param childNode  {@link DocumentNode}
+     * @param childNode  {@link SpecificationHierarchy.Entry}
      * @param userObject {@link Node}
      * @return {@link SpecificationNode}
      */
-    private SpecificationNode convertDocumentNodeToLDNode(final DocumentNode childNode, final Node userObject) {
+    private SpecificationNode convertDocumentNodeToLDNode(final SpecificationHierarchy.Entry childNode, final Node userObject) {
 
-        SpecificationNode specificationNode = new SpecificationNode(childNode, userObject);
+        SpecificationNode specificationNode = new SpecificationNode(childNode.getTitle(), childNode.isExecutable(),
+                childNode.isCanBeImplemented(), userObject);
         if (specificationNode.isCanBeImplemented()) {
             specificationNode.setUsingCurrentVersion(true);
         }
@@ -282,21 +892,21 @@ public class ToolWindowPanel extends SimpleToolWindowPanel {
 
     /**
      * This recursive method adds a node into the repository tree.<br>
-     * Only the executable nodes or nodes with children will be painted.
+     * Only the executable nodes or nodes with children are in the hierarchy (See {@link SpecificationHierarchy}).
      *
      * @param children   {@link java.util.List}
      * @param parentNode {@link DefaultMutableTreeNode} Parent node of children nodes indicated in the first parameter.
      * @see DocumentNode
      */
-    private void paintDocumentNode(java.util.List<DocumentNode> children, DefaultMutableTreeNode parentNode) {
+    private void paintDocumentNode(java.util.List<SpecificationHierarchy.Entry> children, DefaultMutableTreeNode parentNode) {
 
-        children.stream().filter(child -> child.isExecutable() || (!child.isExecutable() && child.hasChildren())).forEach(child -> {
+        children.forEach(child -> {
 
             SpecificationNode ldNode = convertDocumentNodeToLDNode(child, (Node) parentNode.getUserObject());
             DefaultMutableTreeNode childNode = new DefaultMutableTreeNode(ldNode);
             parentNode.add(childNode);
 
-            if (child.hasChildren()) {
+            if (!child.getChildren().isEmpty()) {
                 paintDocumentNode(child.getChildren(), childNode);
             }
         });
@@ -313,4 +923,26 @@ public class ToolWindowPanel extends SimpleToolWindowPanel {
         node.removeAllChildren();
         childrenList.forEach(node::add);
     }
+
+    /**
+     * Repositories of a module loaded in a pooled thread, with the errors of the failed ones.
+     */
+    private static final class ModuleHierarchy {
+
+        private final SpecificationHierarchy hierarchy = new SpecificationHierarchy();
+        private final Map<String, Repository> repositories = new HashMap<>();
+        private final List<String> repositoryErrors = new ArrayList<>();
+        private Exception error;
+        private boolean unreachable;
+        private SpecificationHierarchy cachedHierarchy;
+
+        /**
+         * @param exception Error requesting the repositories of the module. The server is only considered unreachable
+         *                  whether it has not answered (connection failure, open breaker or timeout).
+         */
+        private void failed(final Exception exception) {
+            this.error = exception;
+            this.unreachable = exception instanceof ResourceAccessException || exception instanceof TimeoutException;
+        }
+    }
 }
@@ -1,6 +1,10 @@
 package info.novatec.testit.livingdoc.intellij.gui.toolwindows;
 
+import com.intellij.util.text.DateFormatUtil;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.domain.ModuleNode;
 import info.novatec.testit.livingdoc.intellij.domain.Node;
+import info.novatec.testit.livingdoc.intellij.domain.SpecificationNode;
 
 import javax.swing.*;
 import javax.swing.tree.DefaultMutableTreeNode;
@@ -9,7 +13,8 @@ import java.awt.*;
 
 /**
  * Custom tree cell renderer for {@link ToolWindowPanel}.
- * It uses the {@link Node} properties to render.
+ * It uses the {@link Node} properties to render. The specifications whose last execution is a significant slowdown
+ * show it next to the name, and the modules loaded from the offline cache show the time they were cached.
  *
  * @see DefaultTreeCellRenderer
  */
@@ -29,6 +34,15 @@ public class TreeCellRendererLivingDoc extends DefaultTreeCellRenderer {
 
             setText(node.getName());
             setIcon(node.getIcon());
+
+            if (node instanceof SpecificationNode && ((SpecificationNode) node).getDurationRegression() > 0d) {
+                setText(I18nSupport.getValue("toolwindows.node.regression", node.getName(),
+                        Math.round(((SpecificationNode) node).getDurationRegression() * 100)));
+            }
+            if (node instanceof ModuleNode && ((ModuleNode) node).getStaleSince() > 0) {
+                setText(I18nSupport.getValue("toolwindows.node.stale", node.getName(),
+                        DateFormatUtil.formatPrettyDateTime(((ModuleNode) node).getStaleSince())));
+            }
         }
         return component;
     }
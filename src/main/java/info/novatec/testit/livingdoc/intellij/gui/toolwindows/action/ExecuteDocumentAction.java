@@ -1,66 +1,70 @@
 package info.novatec.testit.livingdoc.intellij.gui.toolwindows.action;
 
-import com.intellij.execution.*;
+import com.intellij.execution.Executor;
 import com.intellij.execution.executors.DefaultDebugExecutor;
 import com.intellij.execution.executors.DefaultRunExecutor;
-import com.intellij.execution.runners.ExecutionEnvironment;
-import com.intellij.execution.runners.ExecutionEnvironmentBuilder;
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.actionSystem.*;
-import com.intellij.openapi.diagnostic.Logger;
-import com.intellij.openapi.project.Project;
 import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
-import info.novatec.testit.livingdoc.intellij.core.ConfigurationTypeLivingDoc;
-import info.novatec.testit.livingdoc.intellij.domain.ModuleNode;
-import info.novatec.testit.livingdoc.intellij.domain.ModuleSettings;
-import info.novatec.testit.livingdoc.intellij.domain.RepositoryNode;
+import info.novatec.testit.livingdoc.intellij.common.Icons;
 import info.novatec.testit.livingdoc.intellij.domain.SpecificationNode;
 import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUtils;
 import info.novatec.testit.livingdoc.intellij.gui.toolwindows.ToolWindowPanel;
-import info.novatec.testit.livingdoc.intellij.run.ProcessListenerLivingDoc;
+import info.novatec.testit.livingdoc.intellij.run.FlightRecorder;
 import info.novatec.testit.livingdoc.intellij.run.RemoteRunConfiguration;
-import info.novatec.testit.livingdoc.runner.Main;
-import info.novatec.testit.livingdoc.server.domain.Repository;
-import org.apache.commons.lang.StringUtils;
-import org.jetbrains.annotations.NotNull;
+import info.novatec.testit.livingdoc.intellij.run.SpecificationLauncher;
 
 import javax.swing.*;
 import javax.swing.tree.DefaultMutableTreeNode;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * LivingDoc execution on selected node (specification).
+ * LivingDoc execution on selected node (specification): run, debug or profile (run with Flight Recorder, see
+ * {@link FlightRecorder}).
  * See {@link #update(AnActionEvent)} for the display restrictions.
  *
  * @see AnAction
  * @see RemoteRunConfiguration
+ * @see SpecificationLauncher
  */
 public class ExecuteDocumentAction extends AnAction {
-    private static final Logger LOG = Logger.getInstance(ExecuteDocumentAction.class);
+
+    /**
+     * Kind of execution.
+     */
+    public enum Mode {RUN, DEBUG, PROFILE}
+
     private final ToolWindowPanel toolWindowPanel;
-    private boolean debugMode = false;
+    private final Mode mode;
 
     /**
      * Creates the action with its text, description and icon.
      *
      * @param toolWindowPanel {@link ToolWindowPanel} User interface fot Repository View.
-     * @param isDebugMode     Kind of execution: <ul>
-     *                        <li>true to activate debug mode</li>
-     *                        <li>false otherwise. In this case, you will see the run configuration user interface.</li></ul>
+     * @param mode            Kind of execution: <ul>
+     *                        <li>RUN</li>
+     *                        <li>DEBUG. In this case, you will see the run configuration user interface.</li>
+     *                        <li>PROFILE: run with Flight Recorder (JDK 11 or later).</li></ul>
      */
-    public ExecuteDocumentAction(final ToolWindowPanel toolWindowPanel, final boolean isDebugMode) {
+    public ExecuteDocumentAction(final ToolWindowPanel toolWindowPanel, final Mode mode) {
 
         super();
 
         this.toolWindowPanel = toolWindowPanel;
-        this.debugMode = isDebugMode;
+        this.mode = mode;
 
         String text;
         Icon icon;
 
-        if (debugMode) {
+        if (mode == Mode.DEBUG) {
             text = I18nSupport.getValue("toolwindows.action.debug.tooltip");
             icon = AllIcons.Actions.StartDebugger;
 
+        } else if (mode == Mode.PROFILE) {
+            text = I18nSupport.getValue("toolwindows.action.profile.tooltip");
+            icon = Icons.PROFILE;
+
         } else {
             text = I18nSupport.getValue("toolwindows.action.execute.tooltip");
             icon = AllIcons.Actions.Execute;
@@ -79,65 +83,20 @@ public class ExecuteDocumentAction extends AnAction {
      */
     @Override
     public void actionPerformed(AnActionEvent actionEvent) {
-        ProcessListenerLivingDoc.resetCounters();
-        DefaultMutableTreeNode[] nodes = toolWindowPanel.getRepositoryTree().getSelectedNodes(DefaultMutableTreeNode.class, null);
-        Project project = actionEvent.getProject();
-        assert project != null;
-
-        RunManager runManager = RunManager.getInstance(project);
-        ConfigurationTypeLivingDoc livingDocConfigurationType = ConfigurationTypeLivingDoc.getInstance();
 
+        DefaultMutableTreeNode[] nodes = toolWindowPanel.getRepositoryTree().getSelectedNodes(DefaultMutableTreeNode.class, null);
 
+        List<SpecificationNode> specificationNodes = new ArrayList<>();
         for (DefaultMutableTreeNode selectedNode : nodes) {
-            RunnerAndConfigurationSettings runnerAndConfigurationSettings = runManager.createRunConfiguration(project.getName(),livingDocConfigurationType.getConfigurationFactories()[0]);
             Object userObject = selectedNode.getUserObject();
-
             if (userObject instanceof SpecificationNode) {
-
-                SpecificationNode specificationNode = (SpecificationNode) userObject;
-
-                runnerAndConfigurationSettings.setName(specificationNode.getName());
-                runnerAndConfigurationSettings.setTemporary(false);
-
-                // True to active the "Run" ToolWindow
-                runnerAndConfigurationSettings.setActivateToolWindowBeforeRun(false);
-
-                // True to show the "run configuration UI" before launching LivingDoc
-                runnerAndConfigurationSettings.setEditBeforeRun(false);
-
-                RemoteRunConfiguration runConfiguration =
-                        (RemoteRunConfiguration) runnerAndConfigurationSettings.getConfiguration();
-                fillRunConfiguration(runConfiguration, specificationNode);
-                Executor executor ;
-                if (debugMode) {
-                    runnerAndConfigurationSettings.setEditBeforeRun(true);
-                    executor = DefaultDebugExecutor.getDebugExecutorInstance();
-                }else{
-                    executor = DefaultRunExecutor.getRunExecutorInstance();
-                }
-
-                ExecutionEnvironmentBuilder builder;
-                try {
-                    builder = ExecutionEnvironmentBuilder.create(executor, runnerAndConfigurationSettings);
-                    performAction( builder);
-                }
-                catch (ExecutionException e) {
-                    LOG.error(e);
-                    return;
-                }
+                specificationNodes.add((SpecificationNode) userObject);
             }
         }
-    }
 
+        Executor executor = mode == Mode.DEBUG ? DefaultDebugExecutor.getDebugExecutorInstance() : DefaultRunExecutor.getRunExecutorInstance();
 
-    private static void performAction(@NotNull ExecutionEnvironmentBuilder builder) {
-        ExecutionEnvironment environment = builder.build();
-        try {
-            environment.getRunner().execute(environment);
-        }
-        catch (ExecutionException e) {
-            LOG.error(e);
-        }
+        toolWindowPanel.getSpecificationLauncher().launch(specificationNodes, executor, mode == Mode.PROFILE);
     }
 
     /**
@@ -154,40 +113,4 @@ public class ExecuteDocumentAction extends AnAction {
 
         RepositoryViewUtils.setEnabledForExecutableNode(selectedNodes, actionEvent.getPresentation());
     }
-
-    private void fillRunConfiguration(RemoteRunConfiguration runConfiguration, final SpecificationNode specificationNode) {
-
-        ModuleNode moduleNode = RepositoryViewUtils.getModuleNode(specificationNode);
-        runConfiguration.getAllModules().stream().filter(
-                module -> StringUtils.equals(module.getName(), moduleNode.getModuleName())).forEach(runConfiguration::setModule);
-
-        RepositoryNode repositoryNode = RepositoryViewUtils.getRepositoryNode(specificationNode);
-        Repository repository = repositoryNode.getRepository();
-
-        runConfiguration.setRepositoryUID(repository.getUid());
-        runConfiguration.setRepositoryURL(repository.getBaseTestUrl());
-        runConfiguration.setSpecificationName(specificationNode.getName());
-        runConfiguration.setRepositoryClass(repository.getType().getClassName());
-        runConfiguration.setCurrentVersion(specificationNode.isUsingCurrentVersion());
-        runConfiguration.setRepositoryName(repository.getName());
-
-        runConfiguration.MAIN_CLASS_NAME = Main.class.getName();
-
-        runConfiguration.setStatusLine(toolWindowPanel.getStatusLine());
-        runConfiguration.setSelectedNode(specificationNode);
-
-        runConfiguration.setShowConsoleOnStdOut(true);
-        runConfiguration.setShowConsoleOnStdErr(true);
-
-        ModuleSettings moduleSettings = ModuleSettings.getInstance(runConfiguration.getConfigurationModule().getModule());
-        String programParameter = "";
-        if (StringUtils.isNotBlank(moduleSettings.getSudClassName())) {
-            programParameter = "-f " + moduleSettings.getSudClassName();
-
-            if (StringUtils.isNotBlank(moduleSettings.getSudArgs())) {
-                programParameter = programParameter + ";" + moduleSettings.getSudArgs();
-            }
-        }
-        runConfiguration.setProgramParameters(programParameter);
-    }
 }
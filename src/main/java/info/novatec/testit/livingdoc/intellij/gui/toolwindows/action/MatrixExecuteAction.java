@@ -0,0 +1,117 @@
+package info.novatec.testit.livingdoc.intellij.gui.toolwindows.action;
+
+import com.intellij.ide.util.ChooseModulesDialog;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.ui.content.Content;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.common.Icons;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import info.novatec.testit.livingdoc.intellij.domain.ModuleSettings;
+import info.novatec.testit.livingdoc.intellij.domain.SpecificationNode;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.MatrixPanel;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUtils;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.ToolWindowPanel;
+import info.novatec.testit.livingdoc.intellij.run.MatrixResult;
+import info.novatec.testit.livingdoc.intellij.run.SpecificationLauncher;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matrix execution of the selected specifications: they are executed with the system under test of every chosen module
+ * (the modules with LivingDoc enabled), in parallel. The results are shown in the {@link MatrixPanel}.<br>
+ * See {@link #update(AnActionEvent)} for the display restrictions.
+ *
+ * @see AnAction
+ * @see SpecificationLauncher#launchMatrix
+ */
+public class MatrixExecuteAction extends AnAction {
+
+    private final ToolWindowPanel toolWindowPanel;
+
+
+    /**
+     * @param toolWindowPanel {@link ToolWindowPanel} User interface for Repository View.
+     */
+    public MatrixExecuteAction(final ToolWindowPanel toolWindowPanel) {
+
+        super(I18nSupport.getValue("toolwindows.action.matrix.tooltip"),
+                I18nSupport.getValue("toolwindows.action.matrix.tooltip"),
+                Icons.MATRIX);
+
+        this.toolWindowPanel = toolWindowPanel;
+    }
+
+    /**
+     * Action handler. Only specification nodes will be executed.
+     *
+     * @param actionEvent Carries information on the invocation place
+     */
+    @Override
+    public void actionPerformed(AnActionEvent actionEvent) {
+
+        Project project = actionEvent.getProject();
+        if (project == null) {
+            return;
+        }
+
+        List<SpecificationNode> specificationNodes = new ArrayList<>();
+        for (DefaultMutableTreeNode selectedNode : toolWindowPanel.getRepositoryTree().getSelectedNodes(DefaultMutableTreeNode.class, null)) {
+            if (selectedNode.getUserObject() instanceof SpecificationNode) {
+                specificationNodes.add((SpecificationNode) selectedNode.getUserObject());
+            }
+        }
+
+        List<Module> livingDocModules = new ArrayList<>();
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            ModuleSettings moduleSettings = ModuleSettings.getInstance(module);
+            if (moduleSettings.isLivingDocEnabled() && StringUtils.isNotBlank(moduleSettings.getSud())) {
+                livingDocModules.add(module);
+            }
+        }
+
+        ChooseModulesDialog chooseModulesDialog = new ChooseModulesDialog(project, livingDocModules,
+                I18nSupport.getValue("toolwindows.matrix.dialog.title"), I18nSupport.getValue("toolwindows.matrix.dialog.description"));
+        List<Module> modules = chooseModulesDialog.showAndGetResult();
+        if (modules.isEmpty()) {
+            return;
+        }
+
+        toolWindowPanel.getSpecificationLauncher().launchMatrix(specificationNodes, modules);
+        selectMatrixContent(project);
+    }
+
+    /**
+     * This action will be enabled only for executable nodes
+     *
+     * @param actionEvent Carries information on the invocation place
+     */
+    @Override
+    public void update(AnActionEvent actionEvent) {
+
+        super.update(actionEvent);
+
+        DefaultMutableTreeNode[] selectedNodes = toolWindowPanel.getRepositoryTree().getSelectedNodes(DefaultMutableTreeNode.class, null);
+        RepositoryViewUtils.setEnabledForExecutableNode(selectedNodes, actionEvent.getPresentation());
+    }
+
+    /**
+     * Shows the grid of the {@link MatrixResult}.
+     */
+    private static void selectMatrixContent(final Project project) {
+
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(PluginProperties.getValue("toolwindows.id"));
+        Content content = toolWindow.getContentManager().findContent(I18nSupport.getValue("toolwindows.matrix.title"));
+        if (content != null) {
+            toolWindow.getContentManager().setSelectedContent(content);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package info.novatec.testit.livingdoc.intellij.gui.toolwindows.action;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.ui.treeStructure.SimpleTree;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.common.NodeType;
+import info.novatec.testit.livingdoc.intellij.domain.ModuleNode;
+import info.novatec.testit.livingdoc.intellij.domain.Node;
+import info.novatec.testit.livingdoc.intellij.domain.RepositoryNode;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUtils;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.ToolWindowPanel;
+import org.apache.commons.lang3.ArrayUtils;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reloads the selected modules and repositories from the server, without reloading the rest of the repository view.
+ * <br>
+ * See {@link #update(AnActionEvent)} for the display restrictions.
+ *
+ * @see ToolWindowPanel#refreshModules(java.util.Collection)
+ * @see ToolWindowPanel#refreshRepository(DefaultMutableTreeNode)
+ */
+public class RefreshNodeAction extends AnAction {
+
+    private final ToolWindowPanel toolWindowPanel;
+    private final SimpleTree repositoryTree;
+
+
+    /**
+     * @param toolWindowPanel {@link ToolWindowPanel} User interface for Repository View.
+     */
+    public RefreshNodeAction(final ToolWindowPanel toolWindowPanel) {
+
+        super(I18nSupport.getValue("toolwindows.action.refresh.node.tooltip"),
+                I18nSupport.getValue("toolwindows.action.refresh.node.tooltip"),
+                AllIcons.Actions.Refresh);
+
+        this.toolWindowPanel = toolWindowPanel;
+        this.repositoryTree = toolWindowPanel.getRepositoryTree();
+    }
+
+    /**
+     * Action handler. The repositories of a selected module are reloaded with the module.
+     *
+     * @param anActionEvent Carries information on the invocation place
+     */
+    @Override
+    public void actionPerformed(AnActionEvent anActionEvent) {
+
+        DefaultMutableTreeNode[] nodes = repositoryTree.getSelectedNodes(DefaultMutableTreeNode.class, null);
+
+        Set<String> moduleNames = new LinkedHashSet<>();
+        List<DefaultMutableTreeNode> repositoryTreeNodes = new ArrayList<>();
+
+        for (DefaultMutableTreeNode selectedNode : nodes) {
+            Node node = (Node) selectedNode.getUserObject();
+
+            if (node.getType() == NodeType.MODULE) {
+                moduleNames.add(((ModuleNode) node).getModuleName());
+            } else if (node.getType() == NodeType.REPOSITORY) {
+                repositoryTreeNodes.add(selectedNode);
+            }
+        }
+
+        toolWindowPanel.refreshModules(moduleNames);
+
+        for (DefaultMutableTreeNode repositoryTreeNode : repositoryTreeNodes) {
+            ModuleNode moduleNode = RepositoryViewUtils.getModuleNode((RepositoryNode) repositoryTreeNode.getUserObject());
+            if (!moduleNames.contains(moduleNode.getModuleName())) {
+                toolWindowPanel.refreshRepository(repositoryTreeNode);
+            }
+        }
+    }
+
+    /**
+     * This action will be enabled only whether all the selected nodes are modules or repositories.
+     *
+     * @param actionEvent Carries information on the invocation place
+     */
+    @Override
+    public void update(AnActionEvent actionEvent) {
+
+        super.update(actionEvent);
+
+        DefaultMutableTreeNode[] selectedNodes = repositoryTree.getSelectedNodes(DefaultMutableTreeNode.class, null);
+
+        boolean enabled = ArrayUtils.isNotEmpty(selectedNodes);
+        if (enabled) {
+            for (DefaultMutableTreeNode selectedNode : selectedNodes) {
+                NodeType nodeType = ((Node) selectedNode.getUserObject()).getType();
+                enabled &= nodeType == NodeType.MODULE || nodeType == NodeType.REPOSITORY;
+            }
+        }
+        actionEvent.getPresentation().setEnabled(enabled);
+    }
+}
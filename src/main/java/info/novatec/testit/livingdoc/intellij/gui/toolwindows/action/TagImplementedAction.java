@@ -4,17 +4,36 @@ import com.intellij.icons.AllIcons;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.progress.util.ColorProgressBar;
+import com.intellij.openapi.project.Project;
 import com.intellij.ui.treeStructure.SimpleTree;
+import com.intellij.util.ConcurrencyUtil;
 import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
 import info.novatec.testit.livingdoc.intellij.common.Icons;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
 import info.novatec.testit.livingdoc.intellij.domain.SpecificationNode;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUpdater;
 import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUtils;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.ToolWindowPanel;
+import info.novatec.testit.livingdoc.intellij.rest.DocumentRepositoryCache;
 import info.novatec.testit.livingdoc.repository.DocumentRepository;
+import info.novatec.testit.livingdoc.server.domain.Repository;
+import org.jetbrains.annotations.NotNull;
 
 import javax.swing.tree.DefaultMutableTreeNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
 
 /**
  * The action sets the selected(s) document as implemented in the remote server.<br>
+ * The documents are tagged in a background task with at most <code>livingdoc.tag.parallel.requests</code> requests
+ * at the same time, using the cached {@link DocumentRepository} of each repository with its own credentials. The tree nodes are updated through
+ * the {@link RepositoryViewUpdater} and a failure only affects its own node. The status line summarizes the failed
+ * documents once the task finishes.<br>
  * See {@link #update(AnActionEvent)} for the display restrictions.
  *
  * @see AnAction
@@ -23,19 +42,26 @@ public class TagImplementedAction extends AnAction {
 
     private static final Logger LOG = Logger.getInstance(TagImplementedAction.class);
 
+    /**
+     * Time (ms) waiting for the next finished request before checking the cancellation of the task.
+     */
+    private static final long POLL_TIMEOUT = 200L;
+
     private final SimpleTree repositoryTree;
+    private final RepositoryViewUpdater repositoryViewUpdater;
 
 
     /**
-     * @param tree LivingDoc repository tree.
+     * @param toolWindowPanel {@link ToolWindowPanel} User interface for Repository View.
      */
-    public TagImplementedAction(final SimpleTree tree) {
+    public TagImplementedAction(final ToolWindowPanel toolWindowPanel) {
 
         super(I18nSupport.getValue("toolwindows.action.tag.tooltip"),
                 I18nSupport.getValue("toolwindows.action.tag.tooltip"),
                 AllIcons.Actions.GroupByPackage);
 
-        this.repositoryTree = tree;
+        this.repositoryTree = toolWindowPanel.getRepositoryTree();
+        this.repositoryViewUpdater = toolWindowPanel.getRepositoryViewUpdater();
     }
 
     /**
@@ -47,27 +73,14 @@ public class TagImplementedAction extends AnAction {
     public void actionPerformed(AnActionEvent anActionEvent) {
 
         DefaultMutableTreeNode[] nodes = repositoryTree.getSelectedNodes(DefaultMutableTreeNode.class, null);
+        repositoryTree.getSelectionModel().clearSelection();
 
+        List<TagResult> tagResults = new ArrayList<>();
         for (DefaultMutableTreeNode selectedNode : nodes) {
-            Object userObject = selectedNode.getUserObject();
-            SpecificationNode specificationNode = (SpecificationNode) userObject;
-
-            try {
-                DocumentRepository documentRepository =
-                        RepositoryViewUtils.getRepositoryNode(specificationNode)
-                                .getRepository().asDocumentRepository(getClass().getClassLoader());
-                documentRepository.setDocumentAsImplemented(specificationNode.getName());
-
-                specificationNode.setUsingCurrentVersion(false);
-                specificationNode.setCanBeImplemented(false);
-                specificationNode.setIcon(Icons.EXECUTABLE);
-
-            } catch (Exception e) {
-                LOG.error(e);
-                selectedNode.setUserObject(RepositoryViewUtils.getErrorNode(specificationNode.getName() + " (" + e.getMessage() + ")"));
-            }
+            tagResults.add(new TagResult((SpecificationNode) selectedNode.getUserObject()));
         }
-        repositoryTree.getSelectionModel().clearSelection();
+
+        ProgressManager.getInstance().run(new TagImplementedTask(anActionEvent.getProject(), tagResults));
     }
 
     /**
@@ -83,4 +96,126 @@ public class TagImplementedAction extends AnAction {
         DefaultMutableTreeNode[] selectedNodes = repositoryTree.getSelectedNodes(DefaultMutableTreeNode.class, null);
         RepositoryViewUtils.setEnabledForNodeVersion(selectedNodes, anActionEvent.getPresentation(), false);
     }
+
+    /**
+     * Applies the result in the repository tree (Event Dispatch Thread).
+     *
+     * @param tagResult Finished request.
+     * @param treeNode  Tree node of the specification.
+     */
+    private static void applyResult(final TagResult tagResult, final DefaultMutableTreeNode treeNode) {
+
+        SpecificationNode specificationNode = tagResult.specificationNode;
+
+        if (tagResult.error == null) {
+            specificationNode.setUsingCurrentVersion(false);
+            specificationNode.setCanBeImplemented(false);
+            specificationNode.setIcon(Icons.EXECUTABLE);
+        } else {
+            treeNode.setUserObject(RepositoryViewUtils.getErrorNode(
+                    specificationNode.getName() + " (" + tagResult.error.getMessage() + ")"));
+        }
+    }
+
+    /**
+     * Background task tagging the documents in parallel.
+     */
+    private final class TagImplementedTask extends Task.Backgroundable {
+
+        private final List<TagResult> tagResults;
+
+        private TagImplementedTask(final Project project, final List<TagResult> tagResults) {
+            super(project, I18nSupport.getValue("toolwindows.action.tag.tooltip"), true);
+            this.tagResults = tagResults;
+        }
+
+        @Override
+        public void run(@NotNull final ProgressIndicator indicator) {
+
+            ExecutorService requestPool = Executors.newFixedThreadPool(
+                    Integer.parseInt(PluginProperties.getValue("livingdoc.tag.parallel.requests")),
+                    ConcurrencyUtil.newNamedThreadFactory("LivingDoc Tag Implemented", true, Thread.NORM_PRIORITY));
+            CompletionService<TagResult> completionService = new ExecutorCompletionService<>(requestPool);
+
+            try {
+                for (TagResult tagResult : tagResults) {
+                    completionService.submit(() -> tag(tagResult));
+                }
+
+                List<TagResult> finishedResults = new ArrayList<>();
+                for (int finished = 0; finished < tagResults.size() && !indicator.isCanceled(); ) {
+
+                    Future<TagResult> result = completionService.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    if (result != null) {
+                        TagResult tagResult = result.get();
+                        repositoryViewUpdater.updateNode(tagResult.specificationNode, treeNode -> applyResult(tagResult, treeNode));
+                        finishedResults.add(tagResult);
+
+                        finished++;
+                        indicator.setFraction((double) finished / tagResults.size());
+                    }
+                }
+                summarizeFailures(finishedResults);
+
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            } catch (java.util.concurrent.ExecutionException ee) {
+                LOG.warn(ee.getCause());
+            } finally {
+                requestPool.shutdownNow();
+            }
+        }
+
+        private TagResult tag(final TagResult tagResult) {
+
+            try {
+                Repository repository = RepositoryViewUtils.getRepositoryNode(tagResult.specificationNode).getRepository();
+
+                DocumentRepository documentRepository = DocumentRepositoryCache.getInstance(myProject)
+                        .getDocumentRepositoryWithRepositoryCredentials(repository);
+                documentRepository.setDocumentAsImplemented(tagResult.specificationNode.getName());
+
+            } catch (Exception e) {
+                // Expected failure of the server (e.g. permissions): reported in its node and in the summary.
+                LOG.warn("The document " + tagResult.specificationNode.getName() + " cannot be tagged as implemented.", e);
+                tagResult.error = e;
+            }
+            return tagResult;
+        }
+
+        /**
+         * Shows the failed documents in the status line, whether any.
+         */
+        private void summarizeFailures(final List<TagResult> finishedResults) {
+
+            List<String> failedNames = new ArrayList<>();
+            for (TagResult tagResult : finishedResults) {
+                if (tagResult.error != null) {
+                    failedNames.add(tagResult.specificationNode.getName());
+                }
+            }
+            if (failedNames.isEmpty()) {
+                return;
+            }
+            repositoryViewUpdater.updateStatusLine(statusLine -> {
+                statusLine.setText(I18nSupport.getValue("toolwindows.action.tag.failed", failedNames.size(),
+                        finishedResults.size(), String.join(", ", failedNames)));
+                statusLine.setStatusColor(ColorProgressBar.RED);
+                statusLine.setFraction(1d);
+            });
+        }
+    }
+
+    /**
+     * Tag request of a tree node and its result.
+     */
+    private static final class TagResult {
+
+        private final SpecificationNode specificationNode;
+        private Exception error;
+
+        private TagResult(final SpecificationNode specificationNode) {
+            this.specificationNode = specificationNode;
+        }
+    }
 }
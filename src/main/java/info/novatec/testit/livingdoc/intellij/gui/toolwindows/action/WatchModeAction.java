@@ -0,0 +1,91 @@
+package info.novatec.testit.livingdoc.intellij.gui.toolwindows.action;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.ToggleAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.treeStructure.SimpleTree;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.domain.ModuleNode;
+import info.novatec.testit.livingdoc.intellij.run.WatchModeManager;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Switches on/off the watch mode for the selected module(s).<br>
+ * See {@link #update(AnActionEvent)} for the display restrictions.
+ *
+ * @see WatchModeManager
+ */
+public class WatchModeAction extends ToggleAction {
+
+    private final SimpleTree repositoryTree;
+
+    /**
+     * Creates the action with its text, description and icon.
+     *
+     * @param tree LivingDoc repository tree.
+     */
+    public WatchModeAction(final SimpleTree tree) {
+
+        super(I18nSupport.getValue("toolwindows.action.watch.tooltip"),
+                I18nSupport.getValue("toolwindows.action.watch.tooltip"),
+                AllIcons.Debugger.Watch);
+
+        this.repositoryTree = tree;
+    }
+
+    @Override
+    public boolean isSelected(AnActionEvent anActionEvent) {
+
+        Project project = anActionEvent.getProject();
+        List<ModuleNode> moduleNodes = getSelectedModuleNodes();
+
+        if (project == null || moduleNodes.isEmpty()) {
+            return false;
+        }
+        WatchModeManager watchModeManager = WatchModeManager.getInstance(project);
+        return moduleNodes.stream().allMatch(moduleNode -> watchModeManager.isWatching(moduleNode.getModuleName()));
+    }
+
+    @Override
+    public void setSelected(AnActionEvent anActionEvent, boolean state) {
+
+        Project project = anActionEvent.getProject();
+        if (project == null) {
+            return;
+        }
+        WatchModeManager watchModeManager = WatchModeManager.getInstance(project);
+        for (ModuleNode moduleNode : getSelectedModuleNodes()) {
+            watchModeManager.setWatching(moduleNode.getModuleName(), state);
+        }
+    }
+
+    /**
+     * This action will be enabled only for module nodes.
+     *
+     * @param anActionEvent Carries information on the invocation place
+     */
+    @Override
+    public void update(AnActionEvent anActionEvent) {
+
+        super.update(anActionEvent);
+
+        anActionEvent.getPresentation().setEnabled(!getSelectedModuleNodes().isEmpty());
+    }
+
+    private List<ModuleNode> getSelectedModuleNodes() {
+
+        List<ModuleNode> moduleNodes = new ArrayList<>();
+
+        DefaultMutableTreeNode[] selectedNodes = repositoryTree.getSelectedNodes(DefaultMutableTreeNode.class, null);
+        for (DefaultMutableTreeNode selectedNode : selectedNodes) {
+            if (selectedNode.getUserObject() instanceof ModuleNode) {
+                moduleNodes.add((ModuleNode) selectedNode.getUserObject());
+            }
+        }
+        return moduleNodes;
+    }
+}
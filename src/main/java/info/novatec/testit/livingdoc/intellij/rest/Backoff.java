@@ -0,0 +1,43 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import java.util.Random;
+
+/**
+ * Exponential backoff with jitter of the retried requests to the LivingDoc server.<br>
+ * The delay of the attempt <code>n</code> (from 1) is a random value between the half and the whole of
+ * <code>base * 2^(n-1)</code>, capped to the maximum delay, so the clients retrying at the same time spread their
+ * requests.
+ */
+public final class Backoff {
+
+    private final long baseMillis;
+    private final long maxMillis;
+    private final Random random;
+
+
+    /**
+     * @param baseMillis Delay (ms) of the first retry.
+     * @param maxMillis  Maximum delay (ms) of a retry.
+     * @param random     Source of the jitter.
+     */
+    public Backoff(final long baseMillis, final long maxMillis, final Random random) {
+        this.baseMillis = baseMillis;
+        this.maxMillis = maxMillis;
+        this.random = random;
+    }
+
+    /**
+     * @param attempt Number of the failed attempts in a row (from 1).
+     * @return The delay (ms) before the next attempt.
+     */
+    public long delayMillis(final int attempt) {
+
+        int exponent = Math.min(Math.max(attempt, 1) - 1, 30);
+        long delay = Math.min(maxMillis, baseMillis << exponent);
+        if (delay <= 0) {
+            delay = maxMillis;
+        }
+        long half = delay / 2;
+        return half + (long) (random.nextDouble() * (delay - half));
+    }
+}
@@ -0,0 +1,125 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker of a LivingDoc server (See {@link ServerCircuitBreakers}):
+ * <ul>
+ * <li>{@link State#CLOSED}: the requests are sent. After <code>failureThreshold</code> failures in a row the
+ * breaker opens.</li>
+ * <li>{@link State#OPEN}: the requests fail fast, without reaching the server, for <code>openMillis</code>.</li>
+ * <li>{@link State#HALF_OPEN}: a single trial request is sent. Its success closes the breaker and its failure opens
+ * it again.</li>
+ * </ul>
+ * Only the failures to reach the server are recorded: an error answered by the server is a success of the breaker.
+ */
+public final class CircuitBreaker {
+
+    /**
+     * State of the breaker.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+    private final Consumer<CircuitBreaker> listener;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedTime;
+    private boolean trialRunning;
+
+
+    /**
+     * @param failureThreshold Failures in a row opening the breaker.
+     * @param openMillis       Time (ms) the breaker is open before a trial request.
+     * @param clock            Current time (ms).
+     * @param listener         Notified after every change of state.
+     */
+    CircuitBreaker(final int failureThreshold, final long openMillis, final LongSupplier clock,
+                   final Consumer<CircuitBreaker> listener) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+        this.listener = listener;
+    }
+
+    /**
+     * @return True whether a request can be sent now. In half-open state, only the first caller can send it.
+     */
+    boolean allowRequest() {
+
+        boolean allowed;
+        boolean changed = false;
+
+        synchronized (this) {
+            if (state == State.OPEN && clock.getAsLong() - openedTime >= openMillis) {
+                state = State.HALF_OPEN;
+                trialRunning = false;
+                changed = true;
+            }
+            if (state == State.HALF_OPEN && !trialRunning) {
+                trialRunning = true;
+                allowed = true;
+            } else {
+                allowed = state == State.CLOSED;
+            }
+        }
+        notifyChange(changed);
+        return allowed;
+    }
+
+    /**
+     * The server has answered.
+     */
+    void recordSuccess() {
+
+        boolean changed;
+        synchronized (this) {
+            failures = 0;
+            trialRunning = false;
+            changed = state != State.CLOSED;
+            state = State.CLOSED;
+        }
+        notifyChange(changed);
+    }
+
+    /**
+     * The server could not be reached.
+     */
+    void recordFailure() {
+
+        boolean changed = false;
+        synchronized (this) {
+            failures++;
+            trialRunning = false;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+                state = State.OPEN;
+                openedTime = clock.getAsLong();
+                changed = true;
+            }
+        }
+        notifyChange(changed);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return Time (ms) of the next trial request whether the breaker is open.
+     */
+    public synchronized long getRetryTime() {
+        return openedTime + openMillis;
+    }
+
+    private void notifyChange(final boolean changed) {
+        if (changed) {
+            listener.accept(this);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import info.novatec.testit.livingdoc.intellij.domain.ProjectSettings;
+import info.novatec.testit.livingdoc.repository.DocumentRepository;
+import info.novatec.testit.livingdoc.server.domain.Repository;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Project service with the {@link DocumentRepository} instances of the project (Registered in <b>plugin.xml</b>).<br>
+ * The instances are shared by the downloads of the specifications and the "Tag as implemented" requests, keyed by
+ * repository UID, repository type class and user. The downloads use the user of the project settings, while the
+ * "Tag as implemented" requests keep the credentials of the repository. The project settings editor invalidates the cache whenever the
+ * settings are applied.
+ *
+ * @see ProjectSettings
+ */
+public class DocumentRepositoryCache {
+
+    private final Project project;
+    private final Map<String, DocumentRepository> documentRepositories = new ConcurrentHashMap<>();
+
+
+    public DocumentRepositoryCache(@NotNull final Project project) {
+        this.project = project;
+    }
+
+    public static DocumentRepositoryCache getInstance(@NotNull final Project project) {
+        return ServiceManager.getService(project, DocumentRepositoryCache.class);
+    }
+
+    /**
+     * Returns the {@link DocumentRepository} of the repository for the user of the project settings.<br>
+     * Without user, the credentials of the repository are used.
+     *
+     * @param repository LivingDoc repository.
+     * @return The cached instance or a new one whether it does not exist yet.
+     * @throws Exception If the document repository cannot be instantiated.
+     */
+    @NotNull
+    public DocumentRepository getDocumentRepository(@NotNull final Repository repository) throws Exception {
+
+        ProjectSettings projectSettings = ProjectSettings.getInstance(project);
+        return getDocumentRepository(repository, StringUtils.defaultString(projectSettings.getUser()), projectSettings.getPassword());
+    }
+
+    /**
+     * Returns the {@link DocumentRepository} of the repository with the credentials of the repository itself.
+     *
+     * @param repository LivingDoc repository.
+     * @return The cached instance or a new one whether it does not exist yet.
+     * @throws Exception If the document repository cannot be instantiated.
+     */
+    @NotNull
+    public DocumentRepository getDocumentRepositoryWithRepositoryCredentials(@NotNull final Repository repository) throws Exception {
+        return getDocumentRepository(repository, "", null);
+    }
+
+    /**
+     * @param user     User of the requests. Blank for the credentials of the repository.
+     * @param password Password of the user.
+     */
+    private DocumentRepository getDocumentRepository(final Repository repository, final String user, final String password)
+            throws Exception {
+
+        String key = repository.getUid() + "|" + repository.getType().getClassName() + "|" + user;
+
+        DocumentRepository documentRepository = documentRepositories.get(key);
+        if (documentRepository == null) {
+
+            documentRepository = StringUtils.isBlank(user)
+                    ? repository.asDocumentRepository(getClass().getClassLoader())
+                    : repository.asDocumentRepository(getClass().getClassLoader(), user, password);
+
+            DocumentRepository previous = documentRepositories.putIfAbsent(key, documentRepository);
+            if (previous != null) {
+                documentRepository = previous;
+            }
+        }
+        return documentRepository;
+    }
+
+    /**
+     * Discards all the instances, so they are created again with the current project settings.
+     */
+    public void invalidate() {
+        documentRepositories.clear();
+    }
+}
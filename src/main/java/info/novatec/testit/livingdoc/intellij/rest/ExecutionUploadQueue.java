@@ -0,0 +1,141 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Disk-backed queue of the execution results waiting to be uploaded to the LivingDoc server
+ * (See {@link ExecutionUploader}).<br>
+ * Every entry is a properties file in the queue directory, with the execution data and the XML report. The file is
+ * written under a temporal name and renamed, so an entry is never read before being complete. The names start with
+ * the time of creation, so the entries are read in order, and they survive the restarts of the IDE.<br>
+ * The entries rejected by the server ({@link #REJECTED}) or whose upload timed out ({@link #UNANSWERED}) are parked in
+ * a subdirectory, out of the queue, so they can be inspected without blocking or duplicating the next ones.
+ */
+final class ExecutionUploadQueue {
+
+    static final String REPORT = "report";
+    static final String REJECTED = "rejected";
+    static final String UNANSWERED = "unanswered";
+
+    private static final String ENTRY_EXTENSION = ".properties";
+    private static final String TEMPORAL_EXTENSION = ".tmp";
+
+    private final Path directory;
+    private final AtomicLong sequence = new AtomicLong();
+
+
+    /**
+     * @param directory Queue directory. It is created with the first entry.
+     */
+    ExecutionUploadQueue(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Adds an entry at the end of the queue.
+     *
+     * @param data   Execution data (e.g. specification and system under test).
+     * @param report XML report of the execution.
+     * @return The file of the entry.
+     * @throws IOException If the entry cannot be written.
+     */
+    Path add(final Properties data, final String report) throws IOException {
+
+        Files.createDirectories(directory);
+
+        String name = String.format("%013d-%06d", System.currentTimeMillis(), sequence.incrementAndGet() % 1000000);
+        Path temporalFile = directory.resolve(name + TEMPORAL_EXTENSION);
+        Path entryFile = directory.resolve(name + ENTRY_EXTENSION);
+
+        Properties entry = new Properties();
+        entry.putAll(data);
+        entry.setProperty(REPORT, report);
+
+        try (Writer writer = Files.newBufferedWriter(temporalFile, StandardCharsets.UTF_8)) {
+            entry.store(writer, null);
+        }
+        Files.move(temporalFile, entryFile, StandardCopyOption.ATOMIC_MOVE);
+        return entryFile;
+    }
+
+    /**
+     * @param maxEntries Maximum number of entries.
+     * @return The files of the first entries of the queue, oldest first.
+     * @throws IOException If the queue directory cannot be read.
+     */
+    List<Path> peek(final int maxEntries) throws IOException {
+
+        List<Path> entries = list();
+        return entries.size() > maxEntries ? new ArrayList<>(entries.subList(0, maxEntries)) : entries;
+    }
+
+    /**
+     * @return The number of entries of the queue.
+     * @throws IOException If the queue directory cannot be read.
+     */
+    int size() throws IOException {
+        return list().size();
+    }
+
+    /**
+     * @param entryFile File of an entry.
+     * @return The execution data and the XML report ({@link #REPORT}) of the entry.
+     * @throws IOException If the entry cannot be read.
+     */
+    static Properties read(final Path entryFile) throws IOException {
+
+        Properties entry = new Properties();
+        try (Reader reader = Files.newBufferedReader(entryFile, StandardCharsets.UTF_8)) {
+            entry.load(reader);
+        }
+        return entry;
+    }
+
+    /**
+     * Removes an entry, once uploaded or discarded.
+     *
+     * @param entryFile File of the entry.
+     * @throws IOException If the entry cannot be deleted.
+     */
+    void remove(final Path entryFile) throws IOException {
+        Files.deleteIfExists(entryFile);
+    }
+
+    /**
+     * Moves an entry out of the queue, to a subdirectory of the queue directory.
+     *
+     * @param entryFile    File of the entry.
+     * @param subdirectory {@link #REJECTED} or {@link #UNANSWERED}.
+     * @return The parked file.
+     * @throws IOException If the entry cannot be moved.
+     */
+    Path park(final Path entryFile, final String subdirectory) throws IOException {
+
+        Path parkDirectory = Files.createDirectories(directory.resolve(subdirectory));
+        return Files.move(entryFile, parkDirectory.resolve(entryFile.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private List<Path> list() throws IOException {
+
+        List<Path> entries = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return entries;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + ENTRY_EXTENSION)) {
+            files.forEach(entries::add);
+        }
+        entries.sort(null);
+        return entries;
+    }
+}
@@ -0,0 +1,240 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.ConcurrencyUtil;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import info.novatec.testit.livingdoc.intellij.domain.ProjectSettings;
+import info.novatec.testit.livingdoc.report.XmlReport;
+import info.novatec.testit.livingdoc.server.LivingDocServerException;
+import info.novatec.testit.livingdoc.server.domain.Execution;
+import info.novatec.testit.livingdoc.server.domain.Repository;
+import info.novatec.testit.livingdoc.server.domain.Specification;
+import info.novatec.testit.livingdoc.server.domain.SystemUnderTest;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Project service uploading the results of the local executions to the LivingDoc server (Registered in
+ * <b>plugin.xml</b>), whether it is enabled in the {@link ProjectSettings}.<br>
+ * The finished executions are added to a disk-backed queue (See {@link ExecutionUploadQueue}) in the IDE system
+ * directory, and a single background thread uploads up to <code>livingdoc.upload.batch.size</code> of them per round,
+ * <code>livingdoc.upload.delay.millis</code> after the first pending one. The server has no batch call, so every
+ * execution is saved with its own request. Whether the server cannot be reached or fails, the upload is retried with
+ * exponential backoff (See {@link Backoff}) and the queue is kept on disk until the next session, so the executions
+ * never wait on the network. The executions rejected by the server are parked out of the queue (See
+ * {@link ExecutionUploadQueue#park(Path, String)}), so they do not block the next ones. The timed out uploads are
+ * parked too: the server may have saved them, and they are not sent again to avoid duplicated executions.
+ *
+ * @see PluginLivingDocRestClient#saveExecution(Execution)
+ */
+public class ExecutionUploader implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(ExecutionUploader.class);
+
+    private static final String REPOSITORY = "repository";
+    private static final String SPECIFICATION = "specification";
+    private static final String PROJECT = "project";
+    private static final String SYSTEM_UNDER_TEST = "sut";
+
+    private final Project project;
+    private final ExecutionUploadQueue queue;
+    private final ScheduledExecutorService uploadThread;
+    private final int batchSize;
+    private final long delayMillis;
+    private final Backoff backoff;
+
+    private ScheduledFuture<?> scheduledUpload;
+    private int failures;
+
+
+    public ExecutionUploader(@NotNull final Project project) {
+
+        this.project = project;
+        this.queue = new ExecutionUploadQueue(
+                Paths.get(PathManager.getSystemPath(), "livingdoc", "uploads", project.getLocationHash()));
+        this.uploadThread = Executors.newSingleThreadScheduledExecutor(
+                ConcurrencyUtil.newNamedThreadFactory("LivingDoc Upload", true, Thread.MIN_PRIORITY));
+        this.batchSize = Integer.parseInt(PluginProperties.getValue("livingdoc.upload.batch.size"));
+        this.delayMillis = Long.parseLong(PluginProperties.getValue("livingdoc.upload.delay.millis"));
+        this.backoff = new Backoff(Long.parseLong(PluginProperties.getValue("livingdoc.upload.retry.base.millis")),
+                Long.parseLong(PluginProperties.getValue("livingdoc.upload.retry.max.millis")), new Random());
+    }
+
+    public static ExecutionUploader getInstance(@NotNull final Project project) {
+        return ServiceManager.getService(project, ExecutionUploader.class);
+    }
+
+    /**
+     * Adds the results of an execution to the upload queue. The queue is written in the upload thread.
+     *
+     * @param repositoryUID       UID of the repository of the specification.
+     * @param specificationName   Specification name.
+     * @param projectName         LivingDoc project of the module.
+     * @param systemUnderTestName System under test of the module.
+     * @param xmlReport           Report of the execution.
+     */
+    public void enqueue(@NotNull final String repositoryUID, @NotNull final String specificationName,
+                        @NotNull final String projectName, @NotNull final String systemUnderTestName,
+                        @NotNull final XmlReport xmlReport) {
+
+        Properties data = new Properties();
+        data.setProperty(REPOSITORY, repositoryUID);
+        data.setProperty(SPECIFICATION, specificationName);
+        data.setProperty(PROJECT, projectName);
+        data.setProperty(SYSTEM_UNDER_TEST, systemUnderTestName);
+
+        StringWriter report = new StringWriter();
+        try {
+            xmlReport.printTo(report);
+        } catch (IOException ioe) {
+            LOG.warn("The execution of " + specificationName + " has not been queued for upload.", ioe);
+            return;
+        }
+
+        uploadThread.execute(() -> {
+            try {
+                queue.add(data, report.toString());
+            } catch (IOException ioe) {
+                LOG.warn("The execution of " + specificationName + " has not been queued for upload.", ioe);
+                return;
+            }
+            scheduleUpload(delayMillis);
+        });
+    }
+
+    /**
+     * Schedules the upload of the executions queued in previous sessions, if any.
+     */
+    public void resume() {
+
+        if (ProjectSettings.getInstance(project).isUploadResults()) {
+            scheduleUpload(delayMillis);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        uploadThread.shutdownNow();
+    }
+
+    /**
+     * Schedules an upload, unless there is a pending one (e.g. the next retry).
+     */
+    private synchronized void scheduleUpload(final long delay) {
+
+        if (uploadThread.isShutdown() || (scheduledUpload != null && !scheduledUpload.isDone())) {
+            return;
+        }
+        scheduledUpload = uploadThread.schedule(this::upload, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void upload() {
+
+        ProjectSettings projectSettings = ProjectSettings.getInstance(project);
+        if (!projectSettings.isUploadResults()) {
+            return;
+        }
+
+        List<Path> entries;
+        try {
+            entries = queue.peek(batchSize);
+        } catch (IOException ioe) {
+            LOG.warn(ioe);
+            return;
+        }
+        if (entries.isEmpty()) {
+            failures = 0;
+            return;
+        }
+
+        PluginLivingDocRestClient restClient = new PluginLivingDocRestClient(projectSettings);
+
+        for (Path entry : entries) {
+            try {
+                Execution execution;
+                try {
+                    execution = buildExecution(ExecutionUploadQueue.read(entry));
+                } catch (Exception e) {
+                    LOG.warn("Discarded execution upload: " + entry, e);
+                    queue.remove(entry);
+                    continue;
+                }
+
+                try {
+                    restClient.saveExecution(execution);
+                    queue.remove(entry);
+
+                } catch (LivingDocServerException | HttpClientErrorException e) {
+                    // The server has answered: the same execution would be rejected again.
+                    LOG.warn("Execution upload rejected by the server, parked in "
+                            + queue.park(entry, ExecutionUploadQueue.REJECTED) + ": " + e.getMessage());
+
+                } catch (UnansweredRequestException ure) {
+                    // The server may have saved it: it is not sent again, and the next ones wait for the server.
+                    LOG.warn("Execution upload timed out (it may have been saved), parked in "
+                            + queue.park(entry, ExecutionUploadQueue.UNANSWERED) + ": " + ure.getMessage());
+                    throw ure;
+                }
+
+            } catch (RuntimeException e) {
+                // The server cannot be reached or has failed (e.g. ResourceAccessException, HttpServerErrorException).
+                failures++;
+                long retryDelay = backoff.delayMillis(failures);
+                LOG.info("Execution upload failed (attempt " + failures + "), retrying in " + retryDelay + " ms: " + e.getMessage());
+                scheduleRetry(retryDelay);
+                return;
+
+            } catch (IOException ioe) {
+                LOG.warn(ioe);
+                return;
+            }
+        }
+
+        failures = 0;
+        if (entries.size() == batchSize) {
+            scheduleRetry(0);
+        }
+    }
+
+    /**
+     * Called from the upload thread, so the running upload is still the scheduled one.
+     */
+    private synchronized void scheduleRetry(final long delay) {
+
+        if (!uploadThread.isShutdown()) {
+            scheduledUpload = uploadThread.schedule(this::upload, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Execution buildExecution(final Properties entry) throws Exception {
+
+        Specification specification = Specification.newInstance(entry.getProperty(SPECIFICATION));
+        specification.setRepository(Repository.newInstance(entry.getProperty(REPOSITORY)));
+
+        SystemUnderTest systemUnderTest = SystemUnderTest.newInstance(entry.getProperty(SYSTEM_UNDER_TEST));
+        systemUnderTest.setProject(info.novatec.testit.livingdoc.server.domain.Project.newInstance(entry.getProperty(PROJECT)));
+
+        XmlReport xmlReport = XmlReport.parse(new StringReader(entry.getProperty(ExecutionUploadQueue.REPORT)));
+
+        Execution execution = Execution.newInstance(specification, systemUnderTest, xmlReport);
+        execution.setResults(xmlReport.getResults(0));
+        return execution;
+    }
+}
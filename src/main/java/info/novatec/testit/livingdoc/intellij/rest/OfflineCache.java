@@ -0,0 +1,207 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Project service with the last specification hierarchies and documents loaded from the LivingDoc server (Registered
+ * in <b>plugin.xml</b>), used by the offline mode (See {@link OfflineMode}).<br>
+ * The hierarchies are cached by system under test and the documents by repository, specification and version, in the
+ * IDE system directory. Every file is written under a temporal name and renamed, so a cached file is always complete.
+ * <br>
+ * The old cached documents are deleted with the run directories (See {@link #getDocumentsDirectory()}), except the
+ * ones of the specifications of the cached hierarchies (See {@link #getReferencedDocuments()}).
+ */
+public class OfflineCache {
+
+    private static final Logger LOG = Logger.getInstance(OfflineCache.class);
+
+    private final Path hierarchiesDirectory;
+    private final Path documentsDirectory;
+
+
+    public OfflineCache(@NotNull final Project project) {
+
+        Path cacheDirectory = Paths.get(PathManager.getSystemPath(), "livingdoc", "offline", project.getLocationHash());
+        this.hierarchiesDirectory = cacheDirectory.resolve("hierarchies");
+        this.documentsDirectory = cacheDirectory.resolve("documents");
+    }
+
+    public static OfflineCache getInstance(@NotNull final Project project) {
+        return ServiceManager.getService(project, OfflineCache.class);
+    }
+
+    /**
+     * @param projectName         LivingDoc project of the module.
+     * @param systemUnderTestName System under test of the module.
+     * @param hierarchy           Repositories of the system under test loaded from the server.
+     */
+    public void saveHierarchy(@NotNull final String projectName, @NotNull final String systemUnderTestName,
+                              @NotNull final SpecificationHierarchy hierarchy) {
+
+        try {
+            Path temporalFile = createTemporalFile(hierarchiesDirectory);
+            try (Writer writer = Files.newBufferedWriter(temporalFile, StandardCharsets.UTF_8)) {
+                hierarchy.write(writer);
+            }
+            Files.move(temporalFile, hierarchiesDirectory.resolve(buildFileName(projectName + "|" + systemUnderTestName, ".txt")),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (IOException ioe) {
+            LOG.warn("The hierarchy of " + systemUnderTestName + " has not been cached.", ioe);
+        }
+    }
+
+    /**
+     * @param projectName         LivingDoc project of the module.
+     * @param systemUnderTestName System under test of the module.
+     * @return The last hierarchy of the system under test loaded from the server, with its cached time. Null whether
+     * it is not cached.
+     */
+    @Nullable
+    public SpecificationHierarchy loadHierarchy(@NotNull final String projectName, @NotNull final String systemUnderTestName) {
+
+        Path hierarchyFile = hierarchiesDirectory.resolve(buildFileName(projectName + "|" + systemUnderTestName, ".txt"));
+        if (!Files.isRegularFile(hierarchyFile)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(hierarchyFile, StandardCharsets.UTF_8)) {
+            SpecificationHierarchy hierarchy = SpecificationHierarchy.read(reader);
+            hierarchy.setCachedTime(Files.getLastModifiedTime(hierarchyFile).toMillis());
+            return hierarchy;
+
+        } catch (IOException ioe) {
+            LOG.warn("The cached hierarchy of " + systemUnderTestName + " cannot be read.", ioe);
+            return null;
+        }
+    }
+
+    /**
+     * @param repositoryUID     Repository UID.
+     * @param specificationName Specification name.
+     * @param currentVersion    True for the current (working) version. False for the implemented version.
+     * @param content           The document in HTML format loaded from the repository.
+     */
+    public void saveDocument(@NotNull final String repositoryUID, @NotNull final String specificationName,
+                             final boolean currentVersion, @NotNull final String content) {
+
+        try {
+            Path temporalFile = createTemporalFile(documentsDirectory);
+            Files.write(temporalFile, content.getBytes(StandardCharsets.UTF_8));
+            Files.move(temporalFile, documentsDirectory.resolve(buildDocumentFileName(repositoryUID, specificationName, currentVersion)),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (IOException ioe) {
+            LOG.warn("The document " + specificationName + " has not been cached.", ioe);
+        }
+    }
+
+    /**
+     * @param repositoryUID     Repository UID.
+     * @param specificationName Specification name.
+     * @param currentVersion    True for the current (working) version. False for the implemented version.
+     * @return The last document in HTML format loaded from the repository. Null whether it is not cached.
+     */
+    @Nullable
+    public String loadDocument(@NotNull final String repositoryUID, @NotNull final String specificationName,
+                               final boolean currentVersion) {
+
+        Path documentFile = documentsDirectory.resolve(buildDocumentFileName(repositoryUID, specificationName, currentVersion));
+        if (!Files.isRegularFile(documentFile)) {
+            return null;
+        }
+        try {
+            return new String(Files.readAllBytes(documentFile), StandardCharsets.UTF_8);
+        } catch (IOException ioe) {
+            LOG.warn("The cached document " + specificationName + " cannot be read.", ioe);
+            return null;
+        }
+    }
+
+    /**
+     * @return The cached document files (of both versions) of the executable specifications of every cached hierarchy,
+     * whether they exist or not. The unreadable hierarchies are skipped.
+     * @throws IOException If the cached hierarchies cannot be listed.
+     */
+    @NotNull
+    public Set<Path> getReferencedDocuments() throws IOException {
+
+        Set<Path> documentFiles = new HashSet<>();
+        if (!Files.isDirectory(hierarchiesDirectory)) {
+            return documentFiles;
+        }
+        try (DirectoryStream<Path> hierarchyFiles = Files.newDirectoryStream(hierarchiesDirectory, "*.txt")) {
+            for (Path hierarchyFile : hierarchyFiles) {
+                try (Reader reader = Files.newBufferedReader(hierarchyFile, StandardCharsets.UTF_8)) {
+                    for (SpecificationHierarchy.RepositoryEntry repositoryEntry : SpecificationHierarchy.read(reader).getRepositories()) {
+                        addDocumentFiles(repositoryEntry.getUid(), repositoryEntry.getChildren(), documentFiles);
+                    }
+                } catch (IOException ioe) {
+                    LOG.warn("The cached hierarchy " + hierarchyFile + " cannot be read.", ioe);
+                }
+            }
+        }
+        return documentFiles;
+    }
+
+    private void addDocumentFiles(final String repositoryUID, final List<SpecificationHierarchy.Entry> entries,
+                                  final Set<Path> documentFiles) {
+
+        for (SpecificationHierarchy.Entry entry : entries) {
+            if (entry.isExecutable()) {
+                documentFiles.add(documentsDirectory.resolve(buildDocumentFileName(repositoryUID, entry.getTitle(), true)));
+                documentFiles.add(documentsDirectory.resolve(buildDocumentFileName(repositoryUID, entry.getTitle(), false)));
+            }
+            addDocumentFiles(repositoryUID, entry.getChildren(), documentFiles);
+        }
+    }
+
+    /**
+     * @return Directory of the cached documents, with the retention policy of the run directories.
+     */
+    @NotNull
+    public Path getDocumentsDirectory() {
+        return documentsDirectory;
+    }
+
+    private static Path createTemporalFile(final Path directory) throws IOException {
+
+        Files.createDirectories(directory);
+        return Files.createTempFile(directory, "cache", ".tmp");
+    }
+
+    private static String buildDocumentFileName(final String repositoryUID, final String specificationName,
+                                                final boolean currentVersion) {
+        return buildFileName(repositoryUID + "|" + specificationName + (currentVersion ? "|current" : "|implemented"), ".html");
+    }
+
+    /**
+     * @return A file name with the readable characters of the key and its hash, to tell apart the keys with the same
+     * readable characters.
+     */
+    static String buildFileName(final String key, final String extension) {
+
+        String readable = key.replaceAll("[^A-Za-z0-9._-]", "_");
+        if (readable.length() > 100) {
+            readable = readable.substring(0, 100);
+        }
+        return readable + "-" + Integer.toHexString(key.hashCode()) + extension;
+    }
+}
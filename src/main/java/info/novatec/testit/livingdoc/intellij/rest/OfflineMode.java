@@ -0,0 +1,117 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.ConcurrencyUtil;
+import com.intellij.util.messages.Topic;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import info.novatec.testit.livingdoc.intellij.domain.ProjectSettings;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Project service with the connectivity mode of the repository view (Registered in <b>plugin.xml</b>).<br>
+ * When the LivingDoc server cannot be reached, the repository view enters the offline mode: the hierarchies and the
+ * documents are served from the {@link OfflineCache} and they are marked as stale. Meanwhile, a background probe tests
+ * the connection every <code>livingdoc.offline.probe.seconds</code> and switches back to the live mode when the
+ * server answers. The subscribers of {@link #TOPIC} are notified on every switch, so the repository view revalidates
+ * the cached hierarchies.
+ */
+public class OfflineMode implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(OfflineMode.class);
+
+    public static final Topic<Listener> TOPIC = Topic.create("LivingDoc Offline Mode", Listener.class);
+
+    private final Project project;
+    private final ScheduledExecutorService probeThread;
+    private final long probeSeconds;
+
+    private volatile boolean offline;
+    private ScheduledFuture<?> probe;
+
+
+    public OfflineMode(@NotNull final Project project) {
+
+        this.project = project;
+        this.probeThread = Executors.newSingleThreadScheduledExecutor(
+                ConcurrencyUtil.newNamedThreadFactory("LivingDoc Offline Probe", true, Thread.MIN_PRIORITY));
+        this.probeSeconds = Long.parseLong(PluginProperties.getValue("livingdoc.offline.probe.seconds"));
+    }
+
+    public static OfflineMode getInstance(@NotNull final Project project) {
+        return ServiceManager.getService(project, OfflineMode.class);
+    }
+
+    /**
+     * @return True whether the server cannot be reached and the cached hierarchies and documents are used.
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Switches to the offline mode, whether it is not already, and starts the probe of the connection.
+     */
+    public void enter() {
+
+        synchronized (this) {
+            if (offline || probeThread.isShutdown()) {
+                return;
+            }
+            offline = true;
+            probe = probeThread.scheduleWithFixedDelay(this::probe, probeSeconds, probeSeconds, TimeUnit.SECONDS);
+        }
+        LOG.info("LivingDoc server unreachable: offline mode.");
+        project.getMessageBus().syncPublisher(TOPIC).offlineModeChanged(true);
+    }
+
+    /**
+     * Switches to the live mode, whether it is not already (e.g. the project settings have changed).
+     */
+    public void leave() {
+
+        synchronized (this) {
+            if (!offline) {
+                return;
+            }
+            offline = false;
+            probe.cancel(false);
+        }
+        LOG.info("LivingDoc server reachable: live mode.");
+        project.getMessageBus().syncPublisher(TOPIC).offlineModeChanged(false);
+    }
+
+    @Override
+    public void dispose() {
+        probeThread.shutdownNow();
+    }
+
+    private void probe() {
+
+        try {
+            if (new PluginLivingDocRestClient(ProjectSettings.getInstance(project)).testConnection()) {
+                leave();
+            }
+        } catch (Exception e) {
+            LOG.debug(e);
+        }
+    }
+
+    /**
+     * Listener of the connectivity mode.
+     */
+    public interface Listener {
+
+        /**
+         * @param offline True whether the offline mode has started. False whether the server is reachable again.
+         */
+        void offlineModeChanged(boolean offline);
+    }
+}
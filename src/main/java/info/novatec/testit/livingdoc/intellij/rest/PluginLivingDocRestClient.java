@@ -1,44 +1,194 @@
 package info.novatec.testit.livingdoc.intellij.rest;
 
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.text.DateFormatUtil;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
 import info.novatec.testit.livingdoc.intellij.domain.ProjectSettings;
 import info.novatec.testit.livingdoc.server.LivingDocServerException;
 import info.novatec.testit.livingdoc.server.domain.DocumentNode;
+import info.novatec.testit.livingdoc.server.domain.Execution;
 import info.novatec.testit.livingdoc.server.domain.Project;
 import info.novatec.testit.livingdoc.server.domain.Repository;
 import info.novatec.testit.livingdoc.server.domain.SystemUnderTest;
 import info.novatec.testit.livingdoc.server.rest.LivingDocRestClient;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
+import java.security.SecureRandom;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /***
+ * Every request to the server goes through the {@link CircuitBreaker} of the server and is bounded by a deadline per
+ * attempt (<code>livingdoc.server.attempt.timeout.seconds</code>) and a total deadline
+ * (<code>livingdoc.server.total.timeout.seconds</code>). The read requests are idempotent: they are retried up to
+ * <code>livingdoc.server.retries</code> times with an exponential {@link Backoff} while the server cannot be reached.<br>
+ * The failures to reach the server, the open breaker and the exceeded deadlines are thrown as
+ * {@link ResourceAccessException} ({@link UnansweredRequestException} whether the request may have been processed).<br>
+ * {@link LivingDocRestClient} creates its HTTP client internally and does not expose its request factory, so the
+ * connections have no socket timeouts of their own: the attempt deadline bounds the wait of the caller, a timed out
+ * attempt is abandoned (its pooled thread is released when the socket returns) and reported as unanswered.
+ *
  * @see LivingDocRestClient
+ * @see ServerCircuitBreakers
  */
 public class PluginLivingDocRestClient extends LivingDocRestClient {
 
+    private static final Logger LOG = Logger.getInstance(PluginLivingDocRestClient.class);
+
+    private final String serverUrl;
+    private final long attemptTimeoutMillis;
+    private final long totalTimeoutMillis;
+    private final int retries;
+    private final Backoff backoff;
+
 
     public PluginLivingDocRestClient(@NotNull final ProjectSettings projectSettings) {
 
         super(projectSettings.getUrlServer(), projectSettings.getUser(), projectSettings.getPassword());
+
+        this.serverUrl = projectSettings.getUrlServer();
+        this.attemptTimeoutMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(PluginProperties.getValue("livingdoc.server.attempt.timeout.seconds")));
+        this.totalTimeoutMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(PluginProperties.getValue("livingdoc.server.total.timeout.seconds")));
+        this.retries = Integer.parseInt(PluginProperties.getValue("livingdoc.server.retries"));
+        this.backoff = new Backoff(Long.parseLong(PluginProperties.getValue("livingdoc.server.retry.base.millis")),
+                Long.parseLong(PluginProperties.getValue("livingdoc.server.retry.max.millis")), new SecureRandom());
     }
 
+    /**
+     * The connection test reports the first failure: it is not retried.
+     */
     public boolean testConnection() throws LivingDocServerException {
-        return super.testConnection(null, null);
+        return call(() -> super.testConnection(null, null), false);
     }
 
     public Set<Project> getAllProjects() throws LivingDocServerException {
-        return super.getAllProjects(null);
+        return call(() -> super.getAllProjects(null), true);
     }
 
     public Set<SystemUnderTest> getSystemUnderTestsOfProject(@NotNull final String projectName) throws LivingDocServerException {
-        return super.getSystemUnderTestsOfProject(projectName, null);
+        return call(() -> super.getSystemUnderTestsOfProject(projectName, null), true);
     }
 
     public Set<Repository> getAllRepositoriesForSystemUnderTest(final SystemUnderTest systemUnderTest) throws LivingDocServerException {
-        return super.getAllRepositoriesForSystemUnderTest(systemUnderTest, null);
+        return call(() -> super.getAllRepositoriesForSystemUnderTest(systemUnderTest, null), true);
     }
 
     public DocumentNode getSpecificationHierarchy(final Repository repository, final SystemUnderTest systemUnderTest) throws LivingDocServerException {
-        return super.getSpecificationHierarchy(repository, systemUnderTest, null);
+        return call(() -> super.getSpecificationHierarchy(repository, systemUnderTest, null), true);
+    }
+
+    /**
+     * Saves the results of a local execution in the server (See {@link ExecutionUploader}).<br>
+     * It is not idempotent: it is not retried here, the {@link ExecutionUploader} retries it later, unless it has
+     * timed out ({@link UnansweredRequestException}): the server may have saved it.
+     *
+     * @param execution Execution with its specification and system under test.
+     * @throws LivingDocServerException If the server rejects the execution (The failures to reach the server are
+     *                                  thrown as {@link ResourceAccessException}).
+     */
+    public void saveExecution(final Execution execution) throws LivingDocServerException {
+        call(() -> {
+            super.saveExecution(execution, null);
+            return null;
+        }, false);
+    }
+
+    /**
+     * @param serverCall Request to the server.
+     * @param idempotent True whether the request can be retried.
+     */
+    private <T> T call(final ServerCall<T> serverCall, final boolean idempotent) throws LivingDocServerException {
+
+        CircuitBreaker circuitBreaker = ServerCircuitBreakers.get(serverUrl);
+        long deadline = System.currentTimeMillis() + totalTimeoutMillis;
+
+        for (int attempt = 1; ; attempt++) {
+
+            if (!circuitBreaker.allowRequest()) {
+                throw new ResourceAccessException(I18nSupport.getValue("rest.error.circuit.open", serverUrl,
+                        DateFormatUtil.formatTime(circuitBreaker.getRetryTime())));
+            }
+
+            try {
+                T result = attempt(serverCall, Math.min(attemptTimeoutMillis, deadline - System.currentTimeMillis()));
+                circuitBreaker.recordSuccess();
+                return result;
+
+            } catch (HttpClientErrorException | LivingDocServerException e) {
+                // The server has answered: the request is wrong, a retry would fail again.
+                circuitBreaker.recordSuccess();
+                throw e;
+
+            } catch (RuntimeException e) {
+                circuitBreaker.recordFailure();
+
+                long delay = backoff.delayMillis(attempt);
+                if (!idempotent || attempt > retries || System.currentTimeMillis() + delay >= deadline) {
+                    throw e;
+                }
+                LOG.info("Retrying a request to " + serverUrl + " in " + delay + " ms: " + e.getMessage());
+                sleep(delay, e);
+            }
+        }
+    }
+
+    private static <T> T attempt(final ServerCall<T> serverCall, final long timeoutMillis) throws LivingDocServerException {
+
+        if (timeoutMillis <= 0) {
+            throw new ResourceAccessException(I18nSupport.getValue("rest.error.timeout"));
+        }
+
+        Future<T> future = ApplicationManager.getApplication().executeOnPooledThread(serverCall::call);
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException te) {
+            future.cancel(true);
+            throw new UnansweredRequestException(I18nSupport.getValue("rest.error.timeout"));
+
+        } catch (InterruptedException ie) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException(I18nSupport.getValue("rest.error.interrupted"));
+
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof LivingDocServerException) {
+                throw (LivingDocServerException) cause;
+            }
+            if (UnansweredRequestException.isUnanswered(cause)) {
+                throw new UnansweredRequestException(I18nSupport.getValue("rest.error.timeout"));
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ResourceAccessException(cause == null ? ee.getMessage() : cause.getMessage());
+        }
+    }
+
+    private static void sleep(final long delay, final RuntimeException failure) {
+
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    /**
+     * Request to the server.
+     */
+    @FunctionalInterface
+    private interface ServerCall<T> {
+
+        T call() throws LivingDocServerException;
     }
 }
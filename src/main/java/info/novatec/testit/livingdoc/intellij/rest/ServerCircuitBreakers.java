@@ -0,0 +1,61 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.messages.Topic;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link CircuitBreaker} of every LivingDoc server, shared by all the projects of the IDE.<br>
+ * A breaker opens after <code>livingdoc.server.breaker.failures</code> failed requests in a row and stays open for
+ * <code>livingdoc.server.breaker.open.seconds</code>. Every change of state is published in the {@link #TOPIC} of the
+ * application.
+ */
+public final class ServerCircuitBreakers {
+
+    private static final Logger LOG = Logger.getInstance(ServerCircuitBreakers.class);
+
+    public static final Topic<Listener> TOPIC = Topic.create("LivingDoc Server Circuit Breaker", Listener.class);
+
+    private static final Map<String, CircuitBreaker> CIRCUIT_BREAKERS = new ConcurrentHashMap<>();
+
+    private ServerCircuitBreakers() {
+        // Utility class
+    }
+
+    /**
+     * @param serverUrl URL of the LivingDoc server.
+     * @return The breaker of the server.
+     */
+    @NotNull
+    public static CircuitBreaker get(final String serverUrl) {
+
+        String url = StringUtils.defaultString(serverUrl);
+        return CIRCUIT_BREAKERS.computeIfAbsent(url, key -> new CircuitBreaker(
+                Integer.parseInt(PluginProperties.getValue("livingdoc.server.breaker.failures")),
+                TimeUnit.SECONDS.toMillis(Long.parseLong(PluginProperties.getValue("livingdoc.server.breaker.open.seconds"))),
+                System::currentTimeMillis,
+                circuitBreaker -> {
+                    LOG.info("Circuit breaker of " + url + ": " + circuitBreaker.getState());
+                    ApplicationManager.getApplication().getMessageBus().syncPublisher(TOPIC).stateChanged(url, circuitBreaker);
+                }));
+    }
+
+    /**
+     * Listener of the circuit breakers.
+     */
+    public interface Listener {
+
+        /**
+         * @param serverUrl      URL of the LivingDoc server.
+         * @param circuitBreaker Breaker of the server, with its new state.
+         */
+        void stateChanged(@NotNull String serverUrl, @NotNull CircuitBreaker circuitBreaker);
+    }
+}
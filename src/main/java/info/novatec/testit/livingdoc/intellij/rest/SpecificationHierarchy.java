@@ -0,0 +1,244 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import info.novatec.testit.livingdoc.server.domain.DocumentNode;
+import info.novatec.testit.livingdoc.server.domain.Repository;
+import info.novatec.testit.livingdoc.server.domain.RepositoryType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Repositories of a system under test with their specification hierarchies, as shown in the repository view.<br>
+ * It is the form of the hierarchies cached for the offline mode (See {@link OfflineCache}): only the executable nodes
+ * and the nodes with children are kept, like in the repository view. The text format has a line per repository
+ * (<code>R</code>, UID, shown name, name, test URL and class, separated by tabs) followed by a line per node with its
+ * depth, flags and title.
+ */
+public final class SpecificationHierarchy {
+
+    private static final String REPOSITORY = "R";
+    private static final char EXECUTABLE = 'E';
+    private static final char CAN_BE_IMPLEMENTED = 'I';
+    private static final char NO_FLAGS = '-';
+
+    private final List<RepositoryEntry> repositories = new ArrayList<>();
+    private long cachedTime;
+
+
+    public List<RepositoryEntry> getRepositories() {
+        return repositories;
+    }
+
+    /**
+     * @param repository Repository of the system under test.
+     * @param name       Name shown in the repository view.
+     * @param rootNode   Root of the specification hierarchy returned by the server.
+     * @return The added repository.
+     */
+    public RepositoryEntry addRepository(final Repository repository, final String name, final DocumentNode rootNode) {
+
+        RepositoryEntry repositoryEntry = new RepositoryEntry(repository.getUid(), name, repository.getName(),
+                repository.getBaseTestUrl(), repository.getType() == null ? null : repository.getType().getClassName());
+        addChildren(rootNode.getChildren(), repositoryEntry.children);
+        repositories.add(repositoryEntry);
+        return repositoryEntry;
+    }
+
+    /**
+     * @return Time (ms) the hierarchy was cached. 0 for a hierarchy loaded from the server.
+     */
+    public long getCachedTime() {
+        return cachedTime;
+    }
+
+    void setCachedTime(final long cachedTime) {
+        this.cachedTime = cachedTime;
+    }
+
+    /**
+     * @param writer Destination of the hierarchy in text format.
+     */
+    void write(final Writer writer) {
+
+        PrintWriter printWriter = new PrintWriter(writer);
+        for (RepositoryEntry repositoryEntry : repositories) {
+            printWriter.print(REPOSITORY + '\t' + clean(repositoryEntry.uid) + '\t' + clean(repositoryEntry.name) + '\t'
+                    + clean(repositoryEntry.repositoryName) + '\t' + clean(repositoryEntry.baseTestUrl) + '\t'
+                    + clean(repositoryEntry.repositoryClass) + '\n');
+            writeNodes(printWriter, repositoryEntry.children, 1);
+        }
+        printWriter.flush();
+    }
+
+    /**
+     * @param reader Hierarchy in text format.
+     * @return The read hierarchy.
+     * @throws IOException If the hierarchy cannot be read or its format is invalid.
+     */
+    static SpecificationHierarchy read(final Reader reader) throws IOException {
+
+        SpecificationHierarchy hierarchy = new SpecificationHierarchy();
+        Deque<List<Entry>> levels = new ArrayDeque<>();
+
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
+
+            if (line.startsWith(REPOSITORY + '\t')) {
+                String[] fields = line.split("\t", 6);
+                if (fields.length != 6) {
+                    throw new IOException("Invalid hierarchy line: " + line);
+                }
+                RepositoryEntry repositoryEntry = new RepositoryEntry(fields[1], fields[2], fields[3], fields[4], fields[5]);
+                hierarchy.repositories.add(repositoryEntry);
+                levels.clear();
+                levels.push(repositoryEntry.children);
+                continue;
+            }
+
+            String[] fields = line.split("\t", 3);
+            if (fields.length != 3) {
+                throw new IOException("Invalid hierarchy line: " + line);
+            }
+            int depth;
+            try {
+                depth = Integer.parseInt(fields[0]);
+            } catch (NumberFormatException nfe) {
+                throw new IOException("Invalid hierarchy line: " + line, nfe);
+            }
+            if (depth < 1 || depth > levels.size()) {
+                throw new IOException("Invalid hierarchy line: " + line);
+            }
+            while (levels.size() > depth) {
+                levels.pop();
+            }
+            Entry entry = new Entry(fields[2], fields[1].indexOf(EXECUTABLE) >= 0, fields[1].indexOf(CAN_BE_IMPLEMENTED) >= 0);
+            levels.peek().add(entry);
+            levels.push(entry.children);
+        }
+        return hierarchy;
+    }
+
+    private static void addChildren(final List<DocumentNode> documentNodes, final List<Entry> entries) {
+
+        for (DocumentNode documentNode : documentNodes) {
+            if (documentNode.isExecutable() || documentNode.hasChildren()) {
+                Entry entry = new Entry(documentNode.getTitle(), documentNode.isExecutable(), documentNode.isCanBeImplemented());
+                if (documentNode.hasChildren()) {
+                    addChildren(documentNode.getChildren(), entry.children);
+                }
+                entries.add(entry);
+            }
+        }
+    }
+
+    private static void writeNodes(final PrintWriter printWriter, final List<Entry> entries, final int depth) {
+
+        for (Entry entry : entries) {
+            StringBuilder flags = new StringBuilder();
+            if (entry.executable) {
+                flags.append(EXECUTABLE);
+            }
+            if (entry.canBeImplemented) {
+                flags.append(CAN_BE_IMPLEMENTED);
+            }
+            if (flags.length() == 0) {
+                flags.append(NO_FLAGS);
+            }
+            printWriter.print(String.valueOf(depth) + '\t' + flags + '\t' + clean(entry.title) + '\n');
+            writeNodes(printWriter, entry.children, depth + 1);
+        }
+    }
+
+    private static String clean(final String value) {
+        return value == null ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    /**
+     * Repository of the system under test with its first level specifications.
+     */
+    public static final class RepositoryEntry {
+
+        private final String uid;
+        private final String name;
+        private final String repositoryName;
+        private final String baseTestUrl;
+        private final String repositoryClass;
+        private final List<Entry> children = new ArrayList<>();
+
+        RepositoryEntry(final String uid, final String name, final String repositoryName, final String baseTestUrl,
+                        final String repositoryClass) {
+            this.uid = uid;
+            this.name = name;
+            this.repositoryName = repositoryName;
+            this.baseTestUrl = baseTestUrl;
+            this.repositoryClass = repositoryClass;
+        }
+
+        /**
+         * @return The repository with the data used to execute its specifications.
+         */
+        public Repository toRepository() {
+
+            Repository repository = Repository.newInstance(uid);
+            repository.setName(repositoryName);
+            repository.setBaseTestUrl(baseTestUrl);
+            RepositoryType repositoryType = new RepositoryType();
+            repositoryType.setClassName(repositoryClass);
+            repository.setType(repositoryType);
+            return repository;
+        }
+
+        public String getUid() {
+            return uid;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<Entry> getChildren() {
+            return children;
+        }
+    }
+
+    /**
+     * Specification or folder of specifications.
+     */
+    public static final class Entry {
+
+        private final String title;
+        private final boolean executable;
+        private final boolean canBeImplemented;
+        private final List<Entry> children = new ArrayList<>();
+
+        Entry(final String title, final boolean executable, final boolean canBeImplemented) {
+            this.title = title;
+            this.executable = executable;
+            this.canBeImplemented = canBeImplemented;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public boolean isExecutable() {
+            return executable;
+        }
+
+        public boolean isCanBeImplemented() {
+            return canBeImplemented;
+        }
+
+        public List<Entry> getChildren() {
+            return children;
+        }
+    }
+}
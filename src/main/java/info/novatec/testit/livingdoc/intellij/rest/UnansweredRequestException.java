@@ -0,0 +1,31 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+
+/**
+ * The answer of the server did not arrive in time (See {@link PluginLivingDocRestClient}): the request may have been
+ * processed by the server, so a request that is not idempotent must not be sent again (See {@link ExecutionUploader}).
+ */
+final class UnansweredRequestException extends ResourceAccessException {
+
+    UnansweredRequestException(final String message) {
+        super(message);
+    }
+
+    /**
+     * @param failure Failure of a request.
+     * @return True whether the request timed out: the failure or its causes is an {@link UnansweredRequestException} or
+     * a socket timeout.
+     */
+    static boolean isUnanswered(final Throwable failure) {
+
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof UnansweredRequestException || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,296 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.execution.ExecutionException;
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.execution.configurations.JavaParameters;
+import com.intellij.execution.process.CapturingProcessHandler;
+import com.intellij.execution.process.ProcessOutput;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.projectRoots.JavaSdkType;
+import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.openapi.util.io.FileUtil;
+import info.novatec.testit.livingdoc.headless.HeadlessRunner;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import info.novatec.testit.livingdoc.intellij.domain.ProjectSettings;
+import info.novatec.testit.livingdoc.runner.Main;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+/**
+ * Project service for the opt-in Application Class-Data Sharing (AppCDS) of the LivingDoc executions
+ * (Registered in <b>plugin.xml</b>).<br>
+ * For every module, a dynamic archive (JDK 13 or later) is created by a training run of {@link Main} with an empty
+ * specification and the jar files of the module runtime classpath, in their order. The output directories cannot be
+ * archived, so the executions with archive put them after the jar files: the module order allows it whether no file of
+ * the output directories is also in the archived jar files, so the classes and resources resolved with and without
+ * archive are the same. Otherwise the execution runs without archive.<br>
+ * The fingerprint of an archive covers the JDK and the path, size and modification time of every archived jar file,
+ * so a change of the jar files (e.g. a rebuilt snapshot) or the JDK creates a new archive, replacing the previous one
+ * of the module. The execution creating it runs without archive.<br>
+ * The reason why an execution runs without archive is printed in its console (See {@link #configure}).
+ *
+ * @see ProjectSettings#isClassDataSharing()
+ */
+public class ClassDataSharingArchives {
+
+    private static final Logger LOG = Logger.getInstance(ClassDataSharingArchives.class);
+
+    private static final int DYNAMIC_ARCHIVE_VERSION = 13;
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+)(?:\\.(\\d+))?");
+    private static final String ARCHIVE_EXTENSION = ".jsa";
+    private static final String FINGERPRINT_PATTERN = "-[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}";
+    private static final String MANIFEST = "META-INF/MANIFEST.MF";
+
+    private final Project project;
+    private final File archiveDir;
+    private final Set<String> archivesInProgress = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Entries of the archived jar files, by archive path.
+     */
+    private final Map<String, Set<String>> archivedEntries = new ConcurrentHashMap<>();
+
+
+    public ClassDataSharingArchives(@NotNull final Project project) {
+        this.project = project;
+        this.archiveDir = new File(PathManager.getSystemPath(), "livingdoc" + File.separator + "cds");
+    }
+
+    public static ClassDataSharingArchives getInstance(@NotNull final Project project) {
+        return ServiceManager.getService(project, ClassDataSharingArchives.class);
+    }
+
+    /**
+     * Adds the archive of the module to the Java parameters, with the output directories after the archived jar files,
+     * or prepares the archive in a pooled thread whether it does not exist yet.
+     *
+     * @param javaParameters Java parameters of the execution, with the module JDK and classpath.
+     * @param moduleName     Module of the execution.
+     * @return The reason why the enabled class data sharing is not used by the execution, to print in its console.
+     * Null whether it is used or disabled.
+     */
+    @Nullable
+    String configure(@NotNull final JavaParameters javaParameters, @NotNull final String moduleName) {
+
+        Sdk jdk = javaParameters.getJdk();
+        if (!ProjectSettings.getInstance(project).isClassDataSharing() || jdk == null) {
+            return null;
+        }
+        if (getMajorVersion(jdk.getVersionString()) < DYNAMIC_ARCHIVE_VERSION) {
+            return I18nSupport.getValue("run.execution.cds.jdk", DYNAMIC_ARCHIVE_VERSION);
+        }
+
+        List<String> classPath = javaParameters.getClassPath().getPathList();
+        List<String> jarFiles = new ArrayList<>();
+        List<String> directories = new ArrayList<>();
+        for (String classPathEntry : classPath) {
+            if (isJarFile(classPathEntry)) {
+                jarFiles.add(classPathEntry);
+            } else {
+                directories.add(classPathEntry);
+            }
+        }
+        if (jarFiles.isEmpty()) {
+            return I18nSupport.getValue("run.execution.cds.jars", moduleName);
+        }
+
+        File archive = new File(archiveDir, FileUtil.sanitizeFileName(moduleName) + "-"
+                + buildFingerprint(jdk.getHomePath(), jarFiles) + ARCHIVE_EXTENSION);
+        Set<String> entries = archivedEntries.get(archive.getAbsolutePath());
+
+        if (entries == null || !archive.isFile()) {
+            if (archivesInProgress.add(archive.getAbsolutePath())) {
+                ApplicationManager.getApplication().executeOnPooledThread(() -> {
+                    try {
+                        prepareArchive(jdk, jarFiles, archive, FileUtil.sanitizeFileName(moduleName));
+                    } finally {
+                        archivesInProgress.remove(archive.getAbsolutePath());
+                    }
+                });
+            }
+            return I18nSupport.getValue("run.execution.cds.training", moduleName);
+        }
+
+        String shadowedEntry = findShadowedEntry(directories, entries);
+        if (shadowedEntry != null) {
+            return I18nSupport.getValue("run.execution.cds.shadowed", shadowedEntry);
+        }
+
+        javaParameters.getClassPath().clear();
+        javaParameters.getClassPath().addAll(jarFiles);
+        javaParameters.getClassPath().addAll(directories);
+        javaParameters.getVMParametersList().add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        return null;
+    }
+
+    private static boolean isJarFile(@NotNull final String classPathEntry) {
+        return StringUtils.endsWithIgnoreCase(classPathEntry, ".jar");
+    }
+
+    /**
+     * @param jdkHomePath JDK of the execution.
+     * @param jarFiles    Archived jar files, in their order.
+     * @return The fingerprint of the archive: a name based UUID of the JDK and the path, size and modification time of
+     * every jar file.
+     */
+    static String buildFingerprint(@Nullable final String jdkHomePath, @NotNull final List<String> jarFiles) {
+
+        StringBuilder fingerprint = new StringBuilder(StringUtils.defaultString(jdkHomePath));
+        for (String jarFile : jarFiles) {
+            File file = new File(jarFile);
+            fingerprint.append(File.pathSeparator).append(jarFile)
+                    .append('@').append(file.length()).append('@').append(file.lastModified());
+        }
+        return UUID.nameUUIDFromBytes(fingerprint.toString().getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * @param directories Output directories of the classpath.
+     * @param entries     Entries of the archived jar files.
+     * @return The first file of the directories (relative path) that is also an entry of the jar files: the directories
+     * cannot be put after them. Null whether there is none.
+     */
+    @Nullable
+    static String findShadowedEntry(@NotNull final List<String> directories, @NotNull final Set<String> entries) {
+
+        for (String directory : directories) {
+            Path root = Paths.get(directory);
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                Optional<String> shadowedEntry = files.filter(Files::isRegularFile)
+                        .map(file -> FileUtil.toSystemIndependentName(root.relativize(file).toString()))
+                        .filter(entry -> !MANIFEST.equals(entry) && entries.contains(entry))
+                        .findFirst();
+                if (shadowedEntry.isPresent()) {
+                    return shadowedEntry.get();
+                }
+            } catch (IOException | UncheckedIOException e) {
+                LOG.warn(e);
+                return directory;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param fileName      Name of a file of the archive directory.
+     * @param archivePrefix Sanitized module name.
+     * @return True whether the file is an archive of the module: <code>&lt;module&gt;-&lt;uuid&gt;.jsa</code>
+     */
+    static boolean isArchiveOf(@NotNull final String fileName, @NotNull final String archivePrefix) {
+        return fileName.matches(Pattern.quote(archivePrefix) + FINGERPRINT_PATTERN + Pattern.quote(ARCHIVE_EXTENSION));
+    }
+
+    /**
+     * @param versionString JDK version (e.g. <code>java version "1.8.0_152"</code> or <code>13.0.2</code>).
+     * @return The major version of the JDK. 0 whether it is unknown.
+     */
+    static int getMajorVersion(@Nullable final String versionString) {
+
+        if (versionString == null) {
+            return 0;
+        }
+        Matcher matcher = VERSION_PATTERN.matcher(versionString);
+        if (!matcher.find()) {
+            return 0;
+        }
+        int major = Integer.parseInt(matcher.group(1));
+        return major == 1 && matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : major;
+    }
+
+    /**
+     * Creates the archive whether it does not exist yet and reads the entries of its jar files.
+     */
+    private void prepareArchive(final Sdk jdk, final List<String> jarFiles, final File archive, final String archivePrefix) {
+
+        if (!archive.isFile()) {
+            createArchive(jdk, jarFiles, archive, archivePrefix);
+        }
+        if (!archive.isFile()) {
+            return;
+        }
+        try {
+            Set<String> entries = new HashSet<>();
+            for (String jarFile : jarFiles) {
+                try (ZipFile zipFile = new ZipFile(jarFile)) {
+                    zipFile.stream().filter(entry -> !entry.isDirectory()).forEach(entry -> entries.add(entry.getName()));
+                }
+            }
+            archivedEntries.put(archive.getAbsolutePath(), entries);
+
+        } catch (IOException ioe) {
+            LOG.warn(ioe);
+        }
+    }
+
+    private void createArchive(final Sdk jdk, final List<String> jarFiles, final File archive, final String archivePrefix) {
+
+        File trainingDir = null;
+        try {
+            FileUtil.createDirectory(archiveDir);
+            File[] previousArchives = archiveDir.listFiles((dir, name) -> isArchiveOf(name, archivePrefix));
+            if (previousArchives != null) {
+                for (File previousArchive : previousArchives) {
+                    FileUtil.delete(previousArchive);
+                }
+            }
+
+            trainingDir = FileUtil.createTempDirectory("livingdoc-cds", null);
+            File specificationFile = new File(trainingDir, PluginProperties.getValue("livingdoc.file.specification") + ".html");
+            FileUtil.writeToFile(specificationFile, "<html><body><table><tr><td>comment</td></tr></table></body></html>");
+            File trainingArchive = new File(trainingDir, archive.getName());
+
+            GeneralCommandLine commandLine = new GeneralCommandLine(((JavaSdkType) jdk.getSdkType()).getVMExecutablePath(jdk));
+            commandLine.addParameter("-XX:ArchiveClassesAtExit=" + trainingArchive.getAbsolutePath());
+            commandLine.addParameters("-cp", StringUtils.join(jarFiles, File.pathSeparator));
+            commandLine.addParameter(Main.class.getName());
+            commandLine.addParameters(HeadlessRunner.buildRunnerArguments(null, specificationFile,
+                    new File(trainingDir, PluginProperties.getValue("livingdoc.file.report") + ".xml")));
+
+            ProcessOutput output = new CapturingProcessHandler(commandLine).runProcess(
+                    Integer.parseInt(PluginProperties.getValue("livingdoc.cds.training.timeout.millis")));
+
+            if (output.getExitCode() == 0 && trainingArchive.isFile()) {
+                FileUtil.rename(trainingArchive, archive);
+                LOG.info("Class data sharing archive created: " + archive.getAbsolutePath());
+            } else {
+                LOG.warn("Class data sharing archive not created: " + output.getStderr());
+            }
+
+        } catch (ExecutionException | IOException e) {
+            LOG.warn(e);
+        } finally {
+            if (trainingDir != null) {
+                FileUtil.delete(trainingDir);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import java.util.Collection;
+
+/**
+ * Rolling baseline of the wall times of a specification version, built from its previous executions in the
+ * {@link ExecutionHistory}.<br>
+ * A duration is a regression whether the baseline has enough samples and the duration exceeds both the mean plus
+ * <code>sigma</code> standard deviations and the mean plus the minimum ratio (so the fast and very stable
+ * specifications are not flagged by a few milliseconds).
+ */
+final class DurationBaseline {
+
+    private final int samples;
+    private final double mean;
+    private final double standardDeviation;
+
+
+    private DurationBaseline(final int samples, final double mean, final double standardDeviation) {
+        this.samples = samples;
+        this.mean = mean;
+        this.standardDeviation = standardDeviation;
+    }
+
+    /**
+     * @param wallTimes Wall times (ms) of the previous executions.
+     * @return The baseline of the wall times (sample standard deviation).
+     */
+    static DurationBaseline of(final Collection<Long> wallTimes) {
+
+        int samples = wallTimes.size();
+        if (samples == 0) {
+            return new DurationBaseline(0, 0d, 0d);
+        }
+
+        double sum = 0d;
+        for (long wallTime : wallTimes) {
+            sum += wallTime;
+        }
+        double mean = sum / samples;
+
+        double squaredDeviations = 0d;
+        for (long wallTime : wallTimes) {
+            squaredDeviations += (wallTime - mean) * (wallTime - mean);
+        }
+        double standardDeviation = samples > 1 ? Math.sqrt(squaredDeviations / (samples - 1)) : 0d;
+
+        return new DurationBaseline(samples, mean, standardDeviation);
+    }
+
+    /**
+     * @param wallTime   Wall time (ms) of the execution to check.
+     * @param minSamples Minimum number of samples of a significant baseline.
+     * @param sigma      Standard deviations over the mean of a significant slowdown.
+     * @param minRatio   Minimum slowdown relative to the mean (e.g. 0.2 for 20% slower).
+     * @return True whether the wall time is a significant slowdown.
+     */
+    boolean isRegression(final long wallTime, final int minSamples, final double sigma, final double minRatio) {
+        return samples >= minSamples && mean > 0d
+                && wallTime > mean + sigma * standardDeviation
+                && wallTime > mean * (1d + minRatio);
+    }
+
+    /**
+     * @param wallTime Wall time (ms) of an execution.
+     * @return The slowdown of the wall time relative to the mean (negative whether it is faster). 0 without samples.
+     */
+    double getRatio(final long wallTime) {
+        return mean > 0d ? (wallTime - mean) / mean : 0d;
+    }
+
+    int getSamples() {
+        return samples;
+    }
+
+    double getMean() {
+        return mean;
+    }
+
+    double getStandardDeviation() {
+        return standardDeviation;
+    }
+}
@@ -0,0 +1,516 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.concurrency.JobScheduler;
+import com.intellij.execution.ExecutionException;
+import com.intellij.execution.ExecutionListener;
+import com.intellij.execution.ExecutionManager;
+import com.intellij.execution.Executor;
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.configurations.RunProfile;
+import com.intellij.execution.executors.DefaultDebugExecutor;
+import com.intellij.execution.process.ProcessHandler;
+import com.intellij.execution.runners.ExecutionEnvironment;
+import com.intellij.execution.runners.ExecutionEnvironmentBuilder;
+import com.intellij.execution.testframework.ui.TestStatusLine;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.util.ColorProgressBar;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.messages.MessageBusConnection;
+import info.novatec.testit.livingdoc.document.Document;
+import info.novatec.testit.livingdoc.headless.SpecificationTask;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import info.novatec.testit.livingdoc.intellij.domain.ProjectSettings;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUpdater;
+import info.novatec.testit.livingdoc.intellij.runner.SpecificationProgress;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group of LivingDoc executions launched together.<br>
+ * The executions are pipelined in three stages:
+ * <ul>
+ * <li>Download: the specification files of all the executions are downloaded (once per document version) and
+ * written in advance (See {@link SpecificationDocumentLoader})</li>
+ * <li>Execution: at most <code>livingdoc.pipeline.parallel.executions</code> processes run at the same time
+ * (0 for the number of available processors, always 1 to debug). The next one takes a slot as soon as it is free and
+ * its process is launched once its specification file is written, so the environment is never built while the
+ * document is downloading. An execution that cannot be launched is reported as failed. The executions are launched
+ * longest first, according to the {@link ExecutionHistory} (the ones without history go first).</li>
+ * <li>Report: the reports are parsed by the report stage of {@link ProcessListenerLivingDoc} and aggregated in a
+ * single report of the batch (See {@link ExecutionReport})</li>
+ * </ul>
+ * While the batch is executing, the status line shows the finished executions with their results and the cells
+ * executed so far by the running ones (See {@link SpecificationProgress}), coalesced by the
+ * {@link RepositoryViewUpdater}. The fraction adds the elapsed part of the expected duration of the running executions
+ * to the finished ones. The last report shows the final results.<br>
+ * The batch times out after the batch timeout of the project settings (0 without timeout): the running executions
+ * time out (See {@link ExecutionWatchdog}) and the pending ones are cancelled.<br>
+ * The in-process batches download the documents without writing them and execute them one at a time inside the IDE
+ * (See {@link InProcessExecution}).
+ *
+ * @see SpecificationLauncher
+ */
+public class ExecutionBatch {
+
+    private static final Logger LOG = Logger.getInstance(ExecutionBatch.class);
+
+    private final Project project;
+    private final Executor executor;
+    private final int maxParallelExecutions;
+    private final RepositoryViewUpdater repositoryViewUpdater;
+    private final int totalExecutions;
+    private final boolean inProcess;
+
+    private final Deque<RunnerAndConfigurationSettings> pendingExecutions;
+    private final Set<RunProfile> batchProfiles = new HashSet<>();
+    private final Set<RunProfile> runningProfiles = new HashSet<>();
+    private final List<ProcessHandler> processHandlers = new CopyOnWriteArrayList<>();
+    private final Map<RunProfile, CompletableFuture<File>> specificationFiles = new ConcurrentHashMap<>();
+    private final Map<RunProfile, Future<Document>> specificationDocuments = new ConcurrentHashMap<>();
+    private final Map<RunProfile, InProcessExecution> inProcessExecutions = new ConcurrentHashMap<>();
+    private final Map<RunProfile, SpecificationProgress> runningProgress = new HashMap<>();
+    private final Map<RunProfile, Double> runningFractions = new HashMap<>();
+
+    private MessageBusConnection connection;
+    private ScheduledFuture<?> timeoutTask;
+    private boolean cancelled = false;
+
+    private int reportedExecutions = 0;
+    private int rightCount = 0;
+    private int wrongCount = 0;
+    private int ignoredCount = 0;
+    private int exceptionsCount = 0;
+    private boolean processFailed = false;
+
+
+    /**
+     * @param project               Project of the executions.
+     * @param executor              Kind of execution (run or debug).
+     * @param executions            Executions of the batch.
+     * @param repositoryViewUpdater Updates the status line and the nodes of the repository view.
+     * @param inProcess             True to execute the specifications inside the IDE (See {@link InProcessExecution}).
+     */
+    ExecutionBatch(@NotNull final Project project, @NotNull final Executor executor,
+                   @NotNull final List<RunnerAndConfigurationSettings> executions, @NotNull final RepositoryViewUpdater repositoryViewUpdater,
+                   final boolean inProcess) {
+
+        this.project = project;
+        this.executor = executor;
+        this.pendingExecutions = new ArrayDeque<>(executions);
+        this.repositoryViewUpdater = repositoryViewUpdater;
+        this.totalExecutions = executions.size();
+        this.inProcess = inProcess;
+
+        int parallelExecutions = Integer.parseInt(PluginProperties.getValue("livingdoc.pipeline.parallel.executions"));
+        // The debug sessions and the in-process executions run one at a time.
+        if (inProcess || DefaultDebugExecutor.EXECUTOR_ID.equals(executor.getId())) {
+            this.maxParallelExecutions = 1;
+        } else {
+            this.maxParallelExecutions = parallelExecutions > 0 ? parallelExecutions : Runtime.getRuntime().availableProcessors();
+        }
+
+        executions.forEach(settings -> batchProfiles.add(settings.getConfiguration()));
+    }
+
+    /**
+     * @param project    Project of the executions.
+     * @param executions Executions of the batch.
+     * @return The executions sorted by their expected duration, from the longest to the shortest. The sort is stable
+     * and the executions without history are the first ones.
+     */
+    private static List<RunnerAndConfigurationSettings> sortLongestFirst(final Project project,
+                                                                         final List<RunnerAndConfigurationSettings> executions) {
+
+        ExecutionHistory executionHistory = ExecutionHistory.getInstance(project);
+        Map<RunnerAndConfigurationSettings, Long> expectedDurations = new HashMap<>();
+        for (RunnerAndConfigurationSettings settings : executions) {
+            long expectedDuration = executionHistory.getExpectedDuration((RemoteRunConfiguration) settings.getConfiguration());
+            expectedDurations.put(settings, expectedDuration == ExecutionHistory.UNKNOWN_DURATION ? Long.MAX_VALUE : expectedDuration);
+        }
+
+        List<RunnerAndConfigurationSettings> sortedExecutions = new ArrayList<>(executions);
+        sortedExecutions.sort(Comparator.comparing(expectedDurations::get, Comparator.reverseOrder()));
+        return sortedExecutions;
+    }
+
+    /**
+     * Starts the download stage for all the executions and launches the first ones once they are sorted.
+     */
+    void start() {
+
+        connection = project.getMessageBus().connect();
+        connection.subscribe(ExecutionManager.EXECUTION_TOPIC, new ExecutionListener() {
+
+            @Override
+            public void processStarted(@NotNull String executorId, @NotNull ExecutionEnvironment env, @NotNull ProcessHandler handler) {
+                if (batchProfiles.contains(env.getRunProfile())) {
+                    processHandlers.add(handler);
+                }
+            }
+
+            @Override
+            public void processNotStarted(@NotNull String executorId, @NotNull ExecutionEnvironment env) {
+                if (env.getRunProfile() instanceof RemoteRunConfiguration) {
+                    executionNotStarted((RemoteRunConfiguration) env.getRunProfile());
+                }
+            }
+
+            @Override
+            public void processTerminated(@NotNull String executorId, @NotNull ExecutionEnvironment env, @NotNull ProcessHandler handler, int exitCode) {
+                executionFinished(env.getRunProfile());
+            }
+        });
+
+        long timeout = ProjectSettings.getInstance(project).getBatchTimeoutSeconds();
+        if (timeout > 0) {
+            timeoutTask = JobScheduler.getScheduler().schedule(this::timeOut, timeout, TimeUnit.SECONDS);
+        }
+
+        if (isAggregatedReport()) {
+            project.getMessageBus().syncPublisher(ExecutionReport.TOPIC).batchStarted(this, totalExecutions);
+        }
+
+        ApplicationManager.getApplication().executeOnPooledThread(() -> FilesManager.applyRetention(project));
+
+        SpecificationDocumentLoader documentLoader = SpecificationDocumentLoader.getInstance(project);
+
+        // The executions of the same document version (e.g. matrix executions) share the download.
+        Map<String, CompletableFuture<String>> documents = new HashMap<>();
+
+        for (RunnerAndConfigurationSettings settings : pendingExecutions) {
+
+            RemoteRunConfiguration runConfiguration = (RemoteRunConfiguration) settings.getConfiguration();
+            runConfiguration.setExecutionBatch(this);
+            runConfiguration.setRunDirectory(null);
+
+            if (inProcess) {
+                specificationDocuments.put(runConfiguration, documentLoader.fetchDocument(runConfiguration.getRepository(),
+                        runConfiguration.getSpecificationName(), runConfiguration.isCurrentVersion()));
+                continue;
+            }
+
+            CompletableFuture<String> document = documents.computeIfAbsent(SpecificationTask.buildKey(runConfiguration.getRepositoryUID(),
+                    runConfiguration.getSpecificationName(), runConfiguration.isCurrentVersion()),
+                    key -> documentLoader.fetch(runConfiguration.getRepository(), runConfiguration.getSpecificationName(),
+                            runConfiguration.isCurrentVersion()));
+
+            CompletableFuture<File> specificationFile = document.thenApply(content -> {
+                try {
+                    return new FilesManager(runConfiguration).writeSpecificationFile(content);
+                } catch (IOException ioe) {
+                    throw new CompletionException(ioe);
+                }
+            });
+            specificationFiles.put(runConfiguration, specificationFile);
+        }
+
+        // The history is read in a pooled thread (its first read loads the history file).
+        List<RunnerAndConfigurationSettings> executions = new ArrayList<>(pendingExecutions);
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            List<RunnerAndConfigurationSettings> sortedExecutions = sortLongestFirst(project, executions);
+            ApplicationManager.getApplication().invokeLater(() -> launchLongestFirst(sortedExecutions), project.getDisposed());
+        });
+    }
+
+    /**
+     * Starts the execution stage once the executions are sorted (the downloads are already running).
+     */
+    private synchronized void launchLongestFirst(final List<RunnerAndConfigurationSettings> sortedExecutions) {
+
+        if (!cancelled) {
+            pendingExecutions.clear();
+            pendingExecutions.addAll(sortedExecutions);
+        }
+        launchNextExecutions();
+    }
+
+    /**
+     * Cancels the pending executions and destroys the running processes of the batch.
+     */
+    public void cancel() {
+        cancel(Collections.emptySet());
+    }
+
+    /**
+     * @param timedOutProcesses Processes terminated by their watchdog after their thread dump (See {@link ExecutionWatchdog}).
+     */
+    private synchronized void cancel(final Set<ProcessHandler> timedOutProcesses) {
+
+        cancelled = true;
+        pendingExecutions.clear();
+        specificationFiles.values().forEach(specificationFile -> specificationFile.cancel(true));
+        specificationDocuments.values().forEach(specificationDocument -> specificationDocument.cancel(true));
+        inProcessExecutions.values().forEach(InProcessExecution::cancel);
+
+        for (ProcessHandler processHandler : processHandlers) {
+            if (!processHandler.isProcessTerminated() && !timedOutProcesses.contains(processHandler)) {
+                processHandler.destroyProcess();
+            }
+        }
+        disconnectWhenFinished();
+    }
+
+    /**
+     * Times out the running executions and cancels the pending ones.
+     */
+    private void timeOut() {
+
+        List<ExecutionWatchdog> executionWatchdogs = new ArrayList<>();
+        synchronized (this) {
+            if (isFinished()) {
+                return;
+            }
+            for (RunProfile runProfile : runningProfiles) {
+                ExecutionWatchdog executionWatchdog = ((RemoteRunConfiguration) runProfile).getExecutionWatchdog();
+                if (executionWatchdog != null) {
+                    executionWatchdogs.add(executionWatchdog);
+                }
+            }
+        }
+        List<InProcessExecution> runningInProcess = new ArrayList<>(inProcessExecutions.values());
+        LOG.info("Execution batch timed out with " + (executionWatchdogs.size() + runningInProcess.size()) + " running execution(s).");
+
+        // The watchdogs terminate their processes once the threads are dumped.
+        Set<ProcessHandler> timedOutProcesses = new HashSet<>();
+        for (ExecutionWatchdog executionWatchdog : executionWatchdogs) {
+            executionWatchdog.timeOut();
+            timedOutProcesses.add(executionWatchdog.getProcessHandler());
+        }
+        runningInProcess.forEach(InProcessExecution::timeOut);
+        cancel(timedOutProcesses);
+
+        repositoryViewUpdater.updateStatusLine(statusLine -> {
+            statusLine.setText(I18nSupport.getValue("run.execution.timeout.batch"));
+            statusLine.setStatusColor(ColorProgressBar.RED);
+            statusLine.setFraction(1d);
+        });
+    }
+
+    /**
+     * @return True whether the results are shown in an aggregated report (See {@link ExecutionReport}): the batches with
+     * several executions. False to open the result of the single execution in the browser.
+     */
+    boolean isAggregatedReport() {
+        return totalExecutions > 1;
+    }
+
+    /**
+     * @return True whether all the executions of the batch have finished or it was cancelled.
+     */
+    public synchronized boolean isFinished() {
+        return runningProfiles.isEmpty() && (cancelled || pendingExecutions.isEmpty());
+    }
+
+    /**
+     * @param runConfiguration {@link RemoteRunConfiguration} of the batch.
+     * @return The specification file written in the download stage. Null whether the configuration is not part of the batch.
+     */
+    @Nullable
+    Future<File> getSpecificationFile(@NotNull final RemoteRunConfiguration runConfiguration) {
+        return specificationFiles.get(runConfiguration);
+    }
+
+    /**
+     * An execution of the batch has started.
+     */
+    void executionStarted() {
+        scheduleStatusLineUpdate();
+    }
+
+    /**
+     * Progress of a running execution of the batch.
+     *
+     * @param runProfile Configuration of the execution.
+     * @param progress   {@link SpecificationProgress}
+     * @param fraction   Elapsed part of the expected duration of the execution.
+     */
+    void progressAvailable(@NotNull final RunProfile runProfile, @NotNull final SpecificationProgress progress, final double fraction) {
+
+        synchronized (this) {
+            if (!runningProfiles.contains(runProfile)) {
+                return;
+            }
+            runningProgress.put(runProfile, progress);
+            runningFractions.put(runProfile, fraction);
+        }
+        scheduleStatusLineUpdate();
+    }
+
+    /**
+     * The report of an execution has been processed (or the execution failed without report).
+     *
+     * @param failed     True whether the execution has errors.
+     * @param right      Right cells of the execution.
+     * @param wrong      Wrong cells of the execution.
+     * @param ignored    Ignored cells of the execution.
+     * @param exceptions Exceptions of the execution.
+     * @return True whether it is the last report of the batch, which shows the final results. False otherwise.
+     */
+    boolean reportProcessed(final boolean failed, final int right, final int wrong, final int ignored, final int exceptions) {
+
+        boolean lastReport;
+        synchronized (this) {
+            reportedExecutions++;
+            processFailed = processFailed || failed;
+            rightCount += right;
+            wrongCount += wrong;
+            ignoredCount += ignored;
+            exceptionsCount += exceptions;
+            lastReport = reportedExecutions >= totalExecutions;
+        }
+        if (!lastReport) {
+            scheduleStatusLineUpdate();
+        }
+        return lastReport;
+    }
+
+    private void scheduleStatusLineUpdate() {
+
+        if (!cancelled) {
+            repositoryViewUpdater.updateStatusLine(this::updateStatusLine);
+        }
+    }
+
+    private void updateStatusLine(final TestStatusLine statusLine) {
+
+        synchronized (this) {
+            if (cancelled || reportedExecutions >= totalExecutions) {
+                return;
+            }
+            int runningCells = 0;
+            for (SpecificationProgress progress : runningProgress.values()) {
+                runningCells += progress.getCells();
+            }
+            statusLine.setText(I18nSupport.getValue("run.execution.progress", reportedExecutions, totalExecutions,
+                    rightCount, wrongCount, ignoredCount, exceptionsCount, runningCells));
+
+            if (processFailed || wrongCount > 0 || exceptionsCount > 0) {
+                statusLine.setStatusColor(ColorProgressBar.RED);
+            } else if (ignoredCount > 0) {
+                statusLine.setStatusColor(ColorProgressBar.YELLOW);
+            } else {
+                statusLine.setStatusColor(ColorProgressBar.GREEN);
+            }
+            double runningFraction = 0d;
+            for (double fraction : runningFractions.values()) {
+                runningFraction += fraction;
+            }
+            statusLine.setFraction(Math.min(1d, (reportedExecutions + runningFraction) / totalExecutions));
+        }
+    }
+
+    private synchronized void executionFinished(final RunProfile runProfile) {
+
+        if (runningProfiles.remove(runProfile)) {
+            runningProgress.remove(runProfile);
+            runningFractions.remove(runProfile);
+            specificationFiles.remove(runProfile);
+            specificationDocuments.remove(runProfile);
+            ApplicationManager.getApplication().invokeLater(this::launchNextExecutions, project.getDisposed());
+        }
+    }
+
+    private synchronized void launchNextExecutions() {
+
+        while (!cancelled && runningProfiles.size() < maxParallelExecutions && !pendingExecutions.isEmpty()) {
+
+            RunnerAndConfigurationSettings settings = pendingExecutions.poll();
+            RemoteRunConfiguration runConfiguration = (RemoteRunConfiguration) settings.getConfiguration();
+            runningProfiles.add(runConfiguration);
+
+            if (inProcess) {
+                launchInProcess(runConfiguration);
+                continue;
+            }
+
+            specificationFiles.get(runConfiguration).whenComplete((specificationFile, error) ->
+                    ApplicationManager.getApplication().invokeLater(() -> launchProcess(settings, error), project.getDisposed()));
+        }
+
+        disconnectWhenFinished();
+    }
+
+    /**
+     * Launches the process of an execution once its specification file is written.
+     *
+     * @param error Error of the download stage, if any.
+     */
+    private synchronized void launchProcess(final RunnerAndConfigurationSettings settings, @Nullable final Throwable error) {
+
+        RemoteRunConfiguration runConfiguration = (RemoteRunConfiguration) settings.getConfiguration();
+        if (cancelled) {
+            executionFinished(runConfiguration);
+            disconnectWhenFinished();
+            return;
+        }
+        if (error != null) {
+            LOG.warn("The specification " + runConfiguration.getSpecificationName() + " cannot be downloaded.", error);
+            executionNotStarted(runConfiguration);
+            return;
+        }
+
+        try {
+            ExecutionEnvironment environment = ExecutionEnvironmentBuilder.create(executor, settings).build();
+            environment.getRunner().execute(environment);
+
+        } catch (ExecutionException e) {
+            LOG.warn(e);
+            executionNotStarted(runConfiguration);
+        }
+    }
+
+    /**
+     * The execution could not be launched: it is reported as failed, so the batch still finishes, and its slot is
+     * released.
+     */
+    private synchronized void executionNotStarted(final RemoteRunConfiguration runConfiguration) {
+
+        if (!runningProfiles.contains(runConfiguration)) {
+            return;
+        }
+        ProcessListenerLivingDoc processListener = new ProcessListenerLivingDoc(runConfiguration, false);
+        processListener.executionStarted();
+        processListener.executionFailed("run.execution.error.launch");
+
+        executionFinished(runConfiguration);
+    }
+
+    private void launchInProcess(final RemoteRunConfiguration runConfiguration) {
+
+        InProcessExecution inProcessExecution = new InProcessExecution(runConfiguration, specificationDocuments.get(runConfiguration));
+        inProcessExecutions.put(runConfiguration, inProcessExecution);
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            try {
+                inProcessExecution.run();
+            } finally {
+                inProcessExecutions.remove(runConfiguration);
+                executionFinished(runConfiguration);
+            }
+        });
+    }
+
+    private void disconnectWhenFinished() {
+
+        if (connection != null && isFinished()) {
+            connection.disconnect();
+            connection = null;
+
+            if (timeoutTask != null) {
+                timeoutTask.cancel(false);
+            }
+        }
+    }
+}
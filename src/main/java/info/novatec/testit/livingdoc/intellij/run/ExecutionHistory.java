@@ -0,0 +1,270 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.messages.Topic;
+import info.novatec.testit.livingdoc.headless.SpecificationTask;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Project service with the history of the LivingDoc executions of the project (Registered in <b>plugin.xml</b>).<br>
+ * Every finished execution appends an {@link ExecutionRecord} to the history file of the project, in the IDE system
+ * directory. Only the last <code>livingdoc.history.samples</code> records of each specification version are kept in
+ * memory, and the file is compacted to them when it exceeds <code>livingdoc.history.max.records</code> lines.<br>
+ * The expected duration of an execution is the average wall time of its kept records with results (the timed out or
+ * broken executions are not representative), used by the {@link ExecutionBatch} to launch the longest executions
+ * first. The history file is loaded (and compacted whether needed) in a pooled thread when the service is created,
+ * and every read waits for it, so the history must not be read in the Event Dispatch Thread.<br>
+ * The last wall time of every specification version is compared with the baseline of its previous successful or
+ * failed executions (See {@link DurationBaseline}) to detect the slowdowns. The thresholds are
+ * <code>livingdoc.regression.min.samples</code>, <code>livingdoc.regression.sigma</code> and
+ * <code>livingdoc.regression.min.ratio</code>. The subscribers of {@link #TOPIC} are notified after every record.
+ *
+ * @see ProcessListenerLivingDoc
+ */
+public class ExecutionHistory {
+
+    private static final Logger LOG = Logger.getInstance(ExecutionHistory.class);
+
+    /**
+     * Expected duration of a specification without history.
+     */
+    static final long UNKNOWN_DURATION = -1L;
+
+    public static final Topic<Listener> TOPIC = Topic.create("LivingDoc execution history", Listener.class);
+
+    private final Project project;
+    private final Path historyFile;
+    private final int samples;
+    private final int maxRecords;
+    private final int regressionMinSamples;
+    private final double regressionSigma;
+    private final double regressionMinRatio;
+
+    private Map<String, Deque<ExecutionRecord>> records;
+    private int fileRecords;
+
+
+    public ExecutionHistory(@NotNull final Project project) {
+
+        this.project = project;
+        this.historyFile = Paths.get(PathManager.getSystemPath(), "livingdoc", "history", project.getLocationHash() + ".tsv");
+        this.samples = Integer.parseInt(PluginProperties.getValue("livingdoc.history.samples"));
+        this.maxRecords = Integer.parseInt(PluginProperties.getValue("livingdoc.history.max.records"));
+        this.regressionMinSamples = Integer.parseInt(PluginProperties.getValue("livingdoc.regression.min.samples"));
+        this.regressionSigma = Double.parseDouble(PluginProperties.getValue("livingdoc.regression.sigma"));
+        this.regressionMinRatio = Double.parseDouble(PluginProperties.getValue("livingdoc.regression.min.ratio"));
+
+        ApplicationManager.getApplication().executeOnPooledThread(this::preload);
+    }
+
+    public static ExecutionHistory getInstance(@NotNull final Project project) {
+        return ServiceManager.getService(project, ExecutionHistory.class);
+    }
+
+    /**
+     * Appends the record to the history file, compacting it whether it exceeds the maximum number of records.
+     *
+     * @param executionRecord Outcome of a finished execution.
+     * @return The wall time of the execution compared with the baseline of the specification version.
+     */
+    SpecificationDuration record(@NotNull final ExecutionRecord executionRecord) {
+
+        SpecificationDuration specificationDuration;
+        synchronized (this) {
+            specificationDuration = append(executionRecord);
+        }
+        project.getMessageBus().syncPublisher(TOPIC).historyChanged();
+        return specificationDuration;
+    }
+
+    /**
+     * @param repositoryUID     Repository UID.
+     * @param specificationName Specification name.
+     * @param currentVersion    True for the current (working) version. False for the implemented version.
+     * @return The last wall time of the specification version compared with its baseline. Null whether it has not been
+     * executed yet.
+     */
+    @Nullable
+    public synchronized SpecificationDuration getSpecificationDuration(final String repositoryUID, final String specificationName,
+                                                                      final boolean currentVersion) {
+
+        Deque<ExecutionRecord> specificationRecords = getRecords().get(
+                SpecificationTask.buildKey(repositoryUID, specificationName, currentVersion));
+        return specificationRecords == null || specificationRecords.isEmpty() ? null : compareWithBaseline(specificationRecords);
+    }
+
+    /**
+     * @return The last wall time of every executed specification version compared with its baseline.
+     */
+    public synchronized List<SpecificationDuration> getSpecificationDurations() {
+
+        List<SpecificationDuration> specificationDurations = new ArrayList<>();
+        for (Deque<ExecutionRecord> specificationRecords : getRecords().values()) {
+            if (!specificationRecords.isEmpty()) {
+                specificationDurations.add(compareWithBaseline(specificationRecords));
+            }
+        }
+        return specificationDurations;
+    }
+
+    private SpecificationDuration append(final ExecutionRecord executionRecord) {
+
+        keep(getRecords(), executionRecord);
+        try {
+            Files.createDirectories(historyFile.getParent());
+            Files.write(historyFile, Collections.singletonList(executionRecord.toLine()), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            fileRecords++;
+
+            if (fileRecords > maxRecords) {
+                compact();
+            }
+        } catch (IOException ioe) {
+            LOG.warn("Cannot write the execution history " + historyFile, ioe);
+        }
+        return compareWithBaseline(getRecords().get(executionRecord.getKey()));
+    }
+
+    /**
+     * @param specificationRecords Kept records of a specification version (at least one).
+     * @return The last record compared with the baseline of the previous records with results.
+     */
+    private SpecificationDuration compareWithBaseline(final Deque<ExecutionRecord> specificationRecords) {
+
+        ExecutionRecord lastRecord = specificationRecords.getLast();
+
+        List<Long> wallTimes = new ArrayList<>();
+        for (ExecutionRecord executionRecord : specificationRecords) {
+            if (executionRecord != lastRecord && hasResults(executionRecord)) {
+                wallTimes.add(executionRecord.getWallTime());
+            }
+        }
+        DurationBaseline baseline = DurationBaseline.of(wallTimes);
+
+        return new SpecificationDuration(lastRecord, baseline, hasResults(lastRecord)
+                && baseline.isRegression(lastRecord.getWallTime(), regressionMinSamples, regressionSigma, regressionMinRatio));
+    }
+
+    /**
+     * @return True whether the execution finished with results (the timed out or broken ones are not comparable).
+     */
+    private static boolean hasResults(final ExecutionRecord executionRecord) {
+        return executionRecord.getOutcome() == ExecutionRecord.Outcome.SUCCESS
+                || executionRecord.getOutcome() == ExecutionRecord.Outcome.FAILURE;
+    }
+
+    /**
+     * @param runConfiguration LivingDoc run configuration.
+     * @return The average wall time (ms) of the last executions with results of the specification version.
+     * {@link #UNKNOWN_DURATION} whether it has not been executed with results yet.
+     */
+    synchronized long getExpectedDuration(@NotNull final RemoteRunConfiguration runConfiguration) {
+
+        Deque<ExecutionRecord> specificationRecords = getRecords().get(SpecificationTask.buildKey(
+                runConfiguration.getRepositoryUID(), runConfiguration.getSpecificationName(), runConfiguration.isCurrentVersion()));
+
+        if (specificationRecords == null) {
+            return UNKNOWN_DURATION;
+        }
+        long totalTime = 0;
+        int executions = 0;
+        for (ExecutionRecord executionRecord : specificationRecords) {
+            if (hasResults(executionRecord)) {
+                totalTime += executionRecord.getWallTime();
+                executions++;
+            }
+        }
+        return executions == 0 ? UNKNOWN_DURATION : totalTime / executions;
+    }
+
+    private synchronized void preload() {
+        getRecords();
+    }
+
+    /**
+     * @return The last records of each specification version, loaded from the history file the first time.
+     */
+    private Map<String, Deque<ExecutionRecord>> getRecords() {
+
+        if (records == null) {
+            records = new HashMap<>();
+            if (Files.exists(historyFile)) {
+                load();
+            }
+        }
+        return records;
+    }
+
+    private void load() {
+
+        try {
+            List<String> lines = Files.readAllLines(historyFile, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                ExecutionRecord executionRecord = ExecutionRecord.parse(line);
+                if (executionRecord != null) {
+                    keep(records, executionRecord);
+                }
+            }
+            fileRecords = lines.size();
+
+            if (fileRecords > maxRecords) {
+                compact();
+            }
+        } catch (IOException ioe) {
+            LOG.warn("Cannot read the execution history " + historyFile, ioe);
+        }
+    }
+
+    /**
+     * Rewrites the history file with the records kept in memory, in chronological order.
+     */
+    private void compact() throws IOException {
+
+        List<ExecutionRecord> keptRecords = new ArrayList<>();
+        records.values().forEach(keptRecords::addAll);
+        keptRecords.sort(Comparator.comparingLong(ExecutionRecord::getTimestamp));
+
+        List<String> lines = new ArrayList<>(keptRecords.size());
+        keptRecords.forEach(executionRecord -> lines.add(executionRecord.toLine()));
+
+        Path compactedFile = historyFile.resolveSibling(historyFile.getFileName() + ".tmp");
+        Files.write(compactedFile, lines, StandardCharsets.UTF_8);
+        Files.move(compactedFile, historyFile, StandardCopyOption.REPLACE_EXISTING);
+        fileRecords = lines.size();
+    }
+
+    private void keep(final Map<String, Deque<ExecutionRecord>> keptRecords, final ExecutionRecord executionRecord) {
+
+        Deque<ExecutionRecord> specificationRecords = keptRecords.computeIfAbsent(executionRecord.getKey(), key -> new ArrayDeque<>());
+        specificationRecords.addLast(executionRecord);
+        while (specificationRecords.size() > samples) {
+            specificationRecords.removeFirst();
+        }
+    }
+
+    /**
+     * Subscriber of the changes of the execution history.
+     */
+    public interface Listener {
+
+        /**
+         * A record has been added (called in the thread of the finished execution).
+         */
+        void historyChanged();
+    }
+}
@@ -0,0 +1,126 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import info.novatec.testit.livingdoc.headless.SpecificationTask;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Entry of the {@link ExecutionHistory}: outcome of a specification execution, written as a tab separated line:<br>
+ * <code>timestamp repositoryUID specificationName version right wrong ignored exceptions wallTime outcome</code>
+ */
+final class ExecutionRecord {
+
+    enum Outcome {SUCCESS, FAILURE, ERROR, TIMEOUT}
+
+    private static final String SEPARATOR = "\t";
+    private static final String CURRENT_VERSION = "current";
+    private static final String IMPLEMENTED_VERSION = "implemented";
+    private static final int FIELDS = 10;
+
+    private final long timestamp;
+    private final String repositoryUID;
+    private final String specificationName;
+    private final boolean currentVersion;
+    private final int right;
+    private final int wrong;
+    private final int ignored;
+    private final int exceptions;
+    private final long wallTime;
+    private final Outcome outcome;
+
+
+    ExecutionRecord(final long timestamp, @NotNull final String repositoryUID, @NotNull final String specificationName,
+                    final boolean currentVersion, final int right, final int wrong, final int ignored, final int exceptions,
+                    final long wallTime, @NotNull final Outcome outcome) {
+
+        this.timestamp = timestamp;
+        this.repositoryUID = repositoryUID;
+        this.specificationName = specificationName;
+        this.currentVersion = currentVersion;
+        this.right = right;
+        this.wrong = wrong;
+        this.ignored = ignored;
+        this.exceptions = exceptions;
+        this.wallTime = wallTime;
+        this.outcome = outcome;
+    }
+
+    /**
+     * @param line Line of the history file.
+     * @return The record of the line. Null whether the line is not valid.
+     */
+    @Nullable
+    static ExecutionRecord parse(@Nullable final String line) {
+
+        String[] fields = StringUtils.splitPreserveAllTokens(line, SEPARATOR);
+        if (fields == null || fields.length != FIELDS) {
+            return null;
+        }
+        try {
+            return new ExecutionRecord(Long.parseLong(fields[0]), fields[1], fields[2], CURRENT_VERSION.equals(fields[3]),
+                    Integer.parseInt(fields[4]), Integer.parseInt(fields[5]), Integer.parseInt(fields[6]),
+                    Integer.parseInt(fields[7]), Long.parseLong(fields[8]), Outcome.valueOf(fields[9]));
+
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    String toLine() {
+        return StringUtils.join(new Object[]{timestamp, clean(repositoryUID), clean(specificationName),
+                currentVersion ? CURRENT_VERSION : IMPLEMENTED_VERSION, right, wrong, ignored, exceptions, wallTime, outcome}, SEPARATOR);
+    }
+
+    /**
+     * @return The key of the specification version in the history.
+     * @see SpecificationTask#buildKey(String, String, boolean)
+     */
+    String getKey() {
+        return SpecificationTask.buildKey(repositoryUID, specificationName, currentVersion);
+    }
+
+    long getTimestamp() {
+        return timestamp;
+    }
+
+    String getRepositoryUID() {
+        return repositoryUID;
+    }
+
+    String getSpecificationName() {
+        return specificationName;
+    }
+
+    boolean isCurrentVersion() {
+        return currentVersion;
+    }
+
+    int getRight() {
+        return right;
+    }
+
+    int getWrong() {
+        return wrong;
+    }
+
+    int getIgnored() {
+        return ignored;
+    }
+
+    int getExceptions() {
+        return exceptions;
+    }
+
+    long getWallTime() {
+        return wallTime;
+    }
+
+    Outcome getOutcome() {
+        return outcome;
+    }
+
+    private static String clean(final String value) {
+        return StringUtils.replaceChars(value, "\t\r\n", "   ");
+    }
+}
@@ -0,0 +1,123 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.util.messages.Topic;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+
+/**
+ * Result of a specification of an {@link ExecutionBatch} with several executions, published in {@link #TOPIC} for the
+ * aggregated report of the batch instead of opening the result file in the browser.<br>
+ * The result file is only referenced, so the report is loaded when it is shown.
+ *
+ * @see ProcessListenerLivingDoc
+ */
+public class ExecutionReport {
+
+    public static final Topic<Listener> TOPIC = Topic.create("LivingDoc Execution Reports", Listener.class);
+
+    private final ExecutionBatch executionBatch;
+    private final String specificationName;
+    private final String moduleName;
+    private final int right;
+    private final int wrong;
+    private final int ignored;
+    private final int exceptions;
+    private final long wallTime;
+    private final File resultFile;
+    private final String error;
+
+
+    ExecutionReport(@NotNull final ExecutionBatch executionBatch, @NotNull final String specificationName,
+                    @NotNull final String moduleName, final int right, final int wrong, final int ignored,
+                    final int exceptions, final long wallTime, @Nullable final File resultFile, @Nullable final String error) {
+
+        this.executionBatch = executionBatch;
+        this.specificationName = specificationName;
+        this.moduleName = moduleName;
+        this.right = right;
+        this.wrong = wrong;
+        this.ignored = ignored;
+        this.exceptions = exceptions;
+        this.wallTime = wallTime;
+        this.resultFile = resultFile;
+        this.error = error;
+    }
+
+    /**
+     * @return True whether the specification has wrong tests or exceptions, or the execution has no report.
+     */
+    public boolean isFailed() {
+        return error != null || wrong > 0 || exceptions > 0;
+    }
+
+    public ExecutionBatch getExecutionBatch() {
+        return executionBatch;
+    }
+
+    public String getSpecificationName() {
+        return specificationName;
+    }
+
+    public String getModuleName() {
+        return moduleName;
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    public int getWrong() {
+        return wrong;
+    }
+
+    public int getIgnored() {
+        return ignored;
+    }
+
+    public int getExceptions() {
+        return exceptions;
+    }
+
+    public long getWallTime() {
+        return wallTime;
+    }
+
+    /**
+     * @return The HTML result file. Null whether the execution has no report.
+     */
+    @Nullable
+    public File getResultFile() {
+        return resultFile;
+    }
+
+    /**
+     * @return The reason of the execution without report. Null whether it has a report.
+     */
+    @Nullable
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Listener of the reports of the batches.
+     */
+    public interface Listener {
+
+        /**
+         * A batch with an aggregated report has started.
+         *
+         * @param executionBatch  The started batch.
+         * @param totalExecutions Number of executions of the batch.
+         */
+        void batchStarted(@NotNull ExecutionBatch executionBatch, int totalExecutions);
+
+        /**
+         * An execution of the batch has finished (called in the report stage).
+         *
+         * @param executionReport Result of the execution.
+         */
+        void reportAvailable(@NotNull ExecutionReport executionReport);
+    }
+}
@@ -0,0 +1,148 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.concurrency.JobScheduler;
+import com.intellij.execution.ExecutionException;
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.execution.process.*;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.SystemInfo;
+import com.intellij.openapi.util.io.FileUtil;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Timeout of a LivingDoc execution (See {@link RemoteRunConfiguration#getEffectiveTimeoutSeconds()}, 0 without
+ * timeout).<br>
+ * When the execution times out, a thread dump of the forked JVM is written with the <code>jstack</code> tool of its JDK
+ * (or requested with SIGQUIT whether there is no <code>jstack</code>, so it is printed in the console before the
+ * process is terminated a moment later), the specification node is marked as timed out and the process is terminated.
+ * The thread dump and the termination run in a pooled thread: <code>jstack</code> may take seconds, and the timeouts
+ * are fired by the shared scheduler, which only runs short tasks.<br>
+ * The debug sessions have no watchdog: a session paused at a breakpoint is not a hanging execution.
+ *
+ * @see ExecutionBatch
+ */
+class ExecutionWatchdog {
+
+    private static final Logger LOG = Logger.getInstance(ExecutionWatchdog.class);
+
+    private static final int SIGQUIT = 3;
+    private static final int JSTACK_TIMEOUT = 10000;
+
+    /**
+     * Time (ms) the process prints the thread dump requested with SIGQUIT before it is terminated.
+     */
+    private static final long SIGQUIT_DUMP_DELAY = 2000L;
+
+    private final RemoteRunConfiguration runConfiguration;
+    private final OSProcessHandler processHandler;
+    private final String jdkHomePath;
+    private final AtomicBoolean timedOut = new AtomicBoolean(false);
+
+    private ScheduledFuture<?> timeoutTask;
+
+
+    /**
+     * @param runConfiguration {@link RemoteRunConfiguration} of the execution.
+     * @param processHandler   Process of the execution.
+     * @param jdkHomePath      JDK of the execution. Null whether it is unknown.
+     */
+    ExecutionWatchdog(@NotNull final RemoteRunConfiguration runConfiguration, @NotNull final OSProcessHandler processHandler,
+                      @Nullable final String jdkHomePath) {
+
+        this.runConfiguration = runConfiguration;
+        this.processHandler = processHandler;
+        this.jdkHomePath = jdkHomePath;
+    }
+
+    /**
+     * Starts the timeout of the execution. It is cancelled when the process terminates.
+     */
+    void start() {
+
+        long timeout = runConfiguration.getEffectiveTimeoutSeconds();
+        if (timeout <= 0) {
+            return;
+        }
+
+        timeoutTask = JobScheduler.getScheduler().schedule(this::timeOut, timeout, TimeUnit.SECONDS);
+        processHandler.addProcessListener(new ProcessAdapter() {
+            @Override
+            public void processTerminated(ProcessEvent event) {
+                timeoutTask.cancel(false);
+            }
+        });
+    }
+
+    /**
+     * Dumps the threads and terminates the process, whether it is still running.
+     */
+    void timeOut() {
+
+        if (processHandler.isProcessTerminated() || !timedOut.compareAndSet(false, true)) {
+            return;
+        }
+
+        runConfiguration.setTimedOut(true);
+        processHandler.notifyTextAvailable(I18nSupport.getValue("run.execution.timeout.console") + "\n", ProcessOutputTypes.SYSTEM);
+
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            if (dumpThreads()) {
+                processHandler.destroyProcess();
+            } else {
+                JobScheduler.getScheduler().schedule(processHandler::destroyProcess, SIGQUIT_DUMP_DELAY, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    boolean isTimedOut() {
+        return timedOut.get();
+    }
+
+    /**
+     * @return The process of the execution, terminated by the watchdog once it times out.
+     */
+    @NotNull
+    ProcessHandler getProcessHandler() {
+        return processHandler;
+    }
+
+    /**
+     * @return True whether the thread dump is written, so the process can be terminated now. False whether the process
+     * prints it in the console (or it cannot be dumped).
+     */
+    private boolean dumpThreads() {
+
+        try {
+            int pid = OSProcessUtil.getProcessID(processHandler.getProcess());
+
+            File jstack = jdkHomePath == null ? null
+                    : new File(jdkHomePath, "bin" + File.separator + (SystemInfo.isWindows ? "jstack.exe" : "jstack"));
+
+            if (jstack != null && jstack.isFile()) {
+                ProcessOutput output = new CapturingProcessHandler(new GeneralCommandLine(jstack.getPath(), String.valueOf(pid)))
+                        .runProcess(JSTACK_TIMEOUT);
+
+                File threadDumpFile = new FilesManager(runConfiguration).createThreadDumpFile();
+                FileUtil.writeToFile(threadDumpFile, output.getStdout());
+                processHandler.notifyTextAvailable(threadDumpFile.getPath() + "\n", ProcessOutputTypes.SYSTEM);
+                return true;
+
+            } else if (SystemInfo.isUnix) {
+                UnixProcessManager.sendSignal(pid, SIGQUIT);
+            }
+
+        } catch (ExecutionException | IOException | IllegalStateException e) {
+            LOG.warn(e);
+        }
+        return false;
+    }
+}
@@ -1,30 +1,42 @@
 package info.novatec.testit.livingdoc.intellij.run;
 
-import com.intellij.openapi.application.Application;
-import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
 import com.intellij.openapi.diagnostic.Logger;
-import com.intellij.openapi.module.Module;
-import com.intellij.openapi.roots.ModuleRootManager;
-import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.openapi.vfs.VirtualFileManager;
-import com.intellij.util.PathUtil;
+import com.intellij.openapi.project.Project;
+import info.novatec.testit.livingdoc.headless.SpecificationFiles;
 import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import info.novatec.testit.livingdoc.intellij.rest.OfflineCache;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * To create the files used in LivingDoc execution.<br>
- * NOTE: File names are configured in <b>config.properties</b>
+ * Every execution has its own run directory in the system directory of the IDE, outside the content roots of the
+ * project, so the concurrent executions of a specification don't overwrite their files and the files are not indexed
+ * (See {@link #getRunsDirectory(Project)}). The old run directories are deleted by {@link #applyRetention(Project)}.<br>
+ * NOTE: File names are configured in <b>config.properties</b> and built as the ones of the headless executions
+ * (See {@link SpecificationFiles}).
  */
 class FilesManager {
 
     private static final Logger LOG = Logger.getInstance(FilesManager.class);
 
-    private static final String HTML = ".html";
-    private static final String XML = ".xml";
-    private static final String SEPARATOR = "_";
+    private static final String HTML = SpecificationFiles.HTML;
+    private static final String XML = SpecificationFiles.XML;
+    private static final String TXT = SpecificationFiles.TXT;
+    private static final String JFR = ".jfr";
+
+    private static final String RUN_DIRECTORY_PATTERN = "yyyyMMdd-HHmmss-";
 
     private final RemoteRunConfiguration runConfiguration;
 
@@ -47,6 +59,20 @@ class FilesManager {
         return createFile(PluginProperties.getValue("livingdoc.file.specification"), HTML);
     }
 
+    /**
+     * Writes the content into the temporal <b>specification</b> file.
+     *
+     * @param content Specification document in HTML format.
+     * @return {@link File}
+     * @throws IOException If an I/O error occurred
+     */
+    public File writeSpecificationFile(final String content) throws IOException {
+
+        File specificationFile = createSpecificationFile();
+        Files.write(specificationFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return specificationFile;
+    }
+
     /**
      * Return the temporal <b>report</b> file.<br>
      * The file is created whether it doesn't exist.
@@ -71,61 +97,134 @@ class FilesManager {
         return createFile(PluginProperties.getValue("livingdoc.file.results"), HTML);
     }
 
-    private File createFile(final String fileType, final String extension) throws IOException {
+    /**
+     * Return the <b>thread dump</b> file of a timed out execution.<br>
+     * The file is created whether it doesn't exist.
+     *
+     * @return {@link File}
+     * @throws IOException If an I/O error occurred
+     */
+    public File createThreadDumpFile() throws IOException {
+
+        return createFile(PluginProperties.getValue("livingdoc.file.threaddump"), TXT);
+    }
+
+    /**
+     * Return the <b>timing</b> file written by an instrumented execution.<br>
+     * The previous file is deleted, so it only contains the timings of the next execution.
+     *
+     * @return {@link File}
+     * @throws IOException If an I/O error occurred
+     */
+    public File createTimingFile() throws IOException {
+
+        Path timingFile = getRunDirectory().resolve(buildFileName(PluginProperties.getValue("livingdoc.file.timing"), TXT));
+        Files.deleteIfExists(timingFile);
+        return timingFile.toFile();
+    }
 
-        File file = new File(getLivingDocDir(), buildFileName(fileType, extension));
+    /**
+     * Return the Flight Recorder <b>recording</b> file of a profiled execution.<br>
+     * The previous file is deleted, so it only contains the recording of the next execution.
+     *
+     * @return {@link File}
+     * @throws IOException If an I/O error occurred
+     */
+    public File createRecordingFile() throws IOException {
+
+        Path recordingFile = getRunDirectory().resolve(buildFileName(PluginProperties.getValue("livingdoc.file.recording"), JFR));
+        Files.deleteIfExists(recordingFile);
+        return recordingFile.toFile();
+    }
+
+    /**
+     * @return The <b>timing</b> file of the last instrumented execution (it may not exist).
+     * @throws IOException If the run directory cannot be created.
+     */
+    public File getTimingFile() throws IOException {
+        return getRunDirectory().resolve(buildFileName(PluginProperties.getValue("livingdoc.file.timing"), TXT)).toFile();
+    }
+
+    /**
+     * Parent directory of the run directories of the project:
+     * <code>&lt;system directory&gt;/livingdoc/runs/&lt;project location hash&gt;</code>
+     *
+     * @param project Project of the executions.
+     * @return {@link Path}
+     */
+    static Path getRunsDirectory(@NotNull final Project project) {
+        return Paths.get(PathManager.getSystemPath(), "livingdoc", "runs", project.getLocationHash());
+    }
 
-        if (!file.exists() && !file.createNewFile()) {
-            LOG.error("The file " + fileType + " has not been created.");
+    /**
+     * Deletes the run directories of the project, and the documents cached for the offline mode, according to the
+     * retention policy of <b>config.properties</b> (See {@link RunDirectoryRetention}). The cached documents of the
+     * specifications of the cached hierarchies are kept, since the hierarchies never expire and their specifications
+     * are executed offline.
+     *
+     * @param project Project of the executions.
+     */
+    static void applyRetention(@NotNull final Project project) {
+
+        RunDirectoryRetention retention = new RunDirectoryRetention(
+                TimeUnit.DAYS.toMillis(Long.parseLong(PluginProperties.getValue("livingdoc.runs.max.age.days"))),
+                Long.parseLong(PluginProperties.getValue("livingdoc.runs.max.size.megabytes")) * 1024 * 1024,
+                TimeUnit.MINUTES.toMillis(Long.parseLong(PluginProperties.getValue("livingdoc.runs.keep.minutes"))));
+        try {
+            int deleted = retention.apply(getRunsDirectory(project), System.currentTimeMillis());
+            if (deleted > 0) {
+                LOG.info(deleted + " run directories deleted.");
+            }
+        } catch (IOException ioe) {
+            LOG.warn("The retention policy of the run directories has not been applied.", ioe);
         }
+        try {
+            OfflineCache offlineCache = OfflineCache.getInstance(project);
+            int deleted = retention.apply(offlineCache.getDocumentsDirectory(), System.currentTimeMillis(),
+                    offlineCache.getReferencedDocuments());
+            if (deleted > 0) {
+                LOG.info(deleted + " cached documents deleted.");
+            }
+        } catch (IOException ioe) {
+            LOG.warn("The retention policy of the cached documents has not been applied.", ioe);
+        }
+    }
 
-        return file;
+    private File createFile(final String fileType, final String extension) throws IOException {
+
+        Path file = getRunDirectory().resolve(buildFileName(fileType, extension));
+        try {
+            Files.createFile(file);
+        } catch (FileAlreadyExistsException faee) {
+            // Created by a previous stage of the same execution
+        }
+        return file.toFile();
     }
 
     /**
-     * Returns the parent folder path for the created files.<br>
-     * If it does not exist, it is created only once under the select module.
+     * Returns the run directory of the current execution of the configuration.<br>
+     * It is created the first time it is requested, once per execution (See {@link RemoteRunConfiguration#setRunDirectory(Path)}).
      *
-     * @return String
+     * @return {@link Path}
+     * @throws IOException If the directory cannot be created.
      */
-    private String getLivingDocDir() {
-
-        Module selectedModule = runConfiguration.getConfigurationModule().getModule();
-        assert selectedModule != null;
-        String[] contentRootUrls = ModuleRootManager.getInstance(selectedModule).getContentRootUrls();
-
-        VirtualFile parentDir = VirtualFileManager.getInstance().findFileByUrl(contentRootUrls[0]);
-
-        String folderName = PluginProperties.getValue("livingdoc.dir.project");
-        assert parentDir != null;
-        final VirtualFile[] livingDocDir = {parentDir.findChild(folderName)};
-
-        if (livingDocDir[0] == null) {
-            Application application = ApplicationManager.getApplication();
-            Runnable runnable = new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        livingDocDir[0] = parentDir.createChildDirectory(this, folderName);
-                        LOG.info("Folder created: " + livingDocDir[0].getPath());
-
-                    } catch (IOException ioe) {
-                        LOG.error(ioe);
-                    }
-                }
-            };
-            if (application.isDispatchThread()) {
-                application.runWriteAction(runnable);
-            } else {
-                application.invokeLater(() -> application.runWriteAction(runnable));
+    private Path getRunDirectory() throws IOException {
+
+        // The files of an execution can be created from the download stage threads and the process listener.
+        synchronized (runConfiguration) {
+            Path runDirectory = runConfiguration.getRunDirectory();
+            if (runDirectory == null || !Files.isDirectory(runDirectory)) {
+                Path runsDirectory = Files.createDirectories(getRunsDirectory(runConfiguration.getProject()));
+                runDirectory = Files.createTempDirectory(runsDirectory, new SimpleDateFormat(RUN_DIRECTORY_PATTERN).format(new Date()));
+                runConfiguration.setRunDirectory(runDirectory);
+                LOG.debug("Run directory created: " + runDirectory);
             }
+            return runDirectory;
         }
-        return PathUtil.toSystemDependentName(livingDocDir[0].getPath());
     }
 
     private String buildFileName(final String fileType, final String extension) {
-        String prefix = runConfiguration.getRepositoryUID().replaceAll("\\\\", SEPARATOR).replaceAll("/", SEPARATOR).replaceAll("-", SEPARATOR);
-        String altName = runConfiguration.getSpecificationName().replaceAll("\\\\", SEPARATOR).replaceAll("/", SEPARATOR).replaceAll("\"", "''");
-        return String.format("%s_%s_%s%s", prefix, altName, fileType, extension);
+        return SpecificationFiles.buildFileName(runConfiguration.getRepositoryUID(), runConfiguration.getSpecificationName(),
+                fileType, extension);
     }
 }
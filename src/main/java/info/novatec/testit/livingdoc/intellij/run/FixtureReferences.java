@@ -0,0 +1,109 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class to find out which fixture classes a specification references.<br>
+ * LivingDoc resolves the fixture of a table from the cells of its first row (e.g. <code>rule for | Calculator</code>),
+ * so those cells are collected as normalized tokens and compared against the names of the compiled classes.
+ */
+final class FixtureReferences {
+
+    private static final Pattern TABLE = Pattern.compile("<table[^>]*>(.*?)</table>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern ROW = Pattern.compile("<tr[^>]*>(.*?)</tr>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern CELL = Pattern.compile("<t[dh][^>]*>(.*?)</t[dh]>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern ENTITY = Pattern.compile("&[#a-zA-Z0-9]+;");
+    private static final Pattern NOT_ALPHANUMERIC = Pattern.compile("[^a-z0-9]");
+
+    private static final String FIXTURE_SUFFIX = "fixture";
+
+    private FixtureReferences() {
+        // Utility class
+    }
+
+    /**
+     * Returns the normalized content of the first row cells of every table in the specification.
+     *
+     * @param html Specification document in HTML format.
+     * @return Set of tokens. Empty whether the document has no tables.
+     */
+    @NotNull
+    static Set<String> extractTokens(final String html) {
+
+        Set<String> tokens = new HashSet<>();
+        if (StringUtils.isBlank(html)) {
+            return tokens;
+        }
+
+        Matcher tableMatcher = TABLE.matcher(html);
+        while (tableMatcher.find()) {
+            Matcher rowMatcher = ROW.matcher(tableMatcher.group(1));
+            if (rowMatcher.find()) {
+                Matcher cellMatcher = CELL.matcher(rowMatcher.group(1));
+                while (cellMatcher.find()) {
+                    String token = normalize(ENTITY.matcher(TAG.matcher(cellMatcher.group(1)).replaceAll("")).replaceAll(""));
+                    if (!token.isEmpty()) {
+                        tokens.add(token);
+                    }
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the tokens a specification could use to reference the class, that is the fully qualified name, the
+     * simple name and the simple name without the <i>Fixture</i> suffix.
+     *
+     * @param className Fully qualified class name. Inner classes are mapped to their top level class.
+     * @return Set of tokens.
+     */
+    @NotNull
+    static Set<String> candidateTokens(@NotNull final String className) {
+
+        String topLevelName = StringUtils.substringBefore(className, "$");
+        String simpleName = StringUtils.substringAfterLast(topLevelName, ".");
+        if (simpleName.isEmpty()) {
+            simpleName = topLevelName;
+        }
+
+        Set<String> candidates = new HashSet<>();
+        candidates.add(normalize(topLevelName));
+        candidates.add(normalize(simpleName));
+
+        String normalizedSimpleName = normalize(simpleName);
+        if (normalizedSimpleName.endsWith(FIXTURE_SUFFIX) && normalizedSimpleName.length() > FIXTURE_SUFFIX.length()) {
+            candidates.add(StringUtils.removeEnd(normalizedSimpleName, FIXTURE_SUFFIX));
+        }
+        return candidates;
+    }
+
+    /**
+     * @param specificationTokens Tokens of the specification. See {@link #extractTokens(String)}
+     * @param classNames          Fully qualified names of the changed classes.
+     * @return True whether the specification references any of the classes. False otherwise.
+     */
+    static boolean references(@NotNull final Set<String> specificationTokens, @NotNull final Set<String> classNames) {
+
+        for (String className : classNames) {
+            for (String candidate : candidateTokens(className)) {
+                if (specificationTokens.contains(candidate)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(final String text) {
+        return NOT_ALPHANUMERIC.matcher(text.toLowerCase(Locale.ENGLISH)).replaceAll("");
+    }
+}
@@ -0,0 +1,123 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.execution.CantRunException;
+import com.intellij.execution.ExecutionException;
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.execution.configurations.JavaParameters;
+import com.intellij.execution.process.CapturingProcessHandler;
+import com.intellij.execution.process.ProcessAdapter;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessOutput;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.openapi.util.SystemInfo;
+import com.intellij.util.messages.Topic;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+
+/**
+ * Flight Recorder of the profiled executions (JDK 11 or later).<br>
+ * The runner JVM starts a recording with the <code>profile</code> settings, dumped to the recording file when it exits.
+ * Once the process terminates, the recording is summarized with the <code>jfr</code> tool of the same JDK (See
+ * {@link FlightRecordingSummary}) and the summary is published to the subscribers of {@link #TOPIC}.
+ *
+ * @see RunProfileStateLivingDoc
+ */
+public class FlightRecorder extends ProcessAdapter {
+
+    private static final Logger LOG = Logger.getInstance(FlightRecorder.class);
+
+    public static final Topic<Listener> TOPIC = Topic.create("LivingDoc flight recording", Listener.class);
+
+    private static final int FLIGHT_RECORDER_VERSION = 11;
+
+    private final RemoteRunConfiguration runConfiguration;
+    private final String jdkHomePath;
+    private final File recordingFile;
+
+
+    /**
+     * @param runConfiguration {@link RemoteRunConfiguration} of the profiled execution.
+     * @param jdkHomePath      JDK of the execution.
+     * @param recordingFile    Recording file of the execution.
+     */
+    FlightRecorder(@NotNull final RemoteRunConfiguration runConfiguration, @NotNull final String jdkHomePath,
+                   @NotNull final File recordingFile) {
+
+        this.runConfiguration = runConfiguration;
+        this.jdkHomePath = jdkHomePath;
+        this.recordingFile = recordingFile;
+    }
+
+    /**
+     * Starts a recording when the runner JVM starts.
+     *
+     * @param javaParameters Java parameters of the execution, with the module JDK.
+     * @param recordingFile  Recording file of the execution.
+     * @throws CantRunException If the JDK of the execution does not have Flight Recorder.
+     */
+    static void configure(@NotNull final JavaParameters javaParameters, @NotNull final File recordingFile) throws CantRunException {
+
+        Sdk jdk = javaParameters.getJdk();
+        if (jdk == null || ClassDataSharingArchives.getMajorVersion(jdk.getVersionString()) < FLIGHT_RECORDER_VERSION) {
+            throw new CantRunException(I18nSupport.getValue("run.execution.profile.jdk"));
+        }
+        javaParameters.getVMParametersList().add("-XX:StartFlightRecording=settings=profile,dumponexit=true,filename="
+                + recordingFile.getAbsolutePath());
+    }
+
+    @Override
+    public void processTerminated(ProcessEvent event) {
+        ApplicationManager.getApplication().executeOnPooledThread(() -> runConfiguration.getProject().getMessageBus()
+                .syncPublisher(TOPIC).recordingSummarized(summarize()));
+    }
+
+    private FlightRecordingSummary summarize() {
+
+        String specificationName = runConfiguration.getSpecificationName();
+        String recordingPath = recordingFile.getPath();
+
+        File jfr = new File(jdkHomePath, "bin" + File.separator + (SystemInfo.isWindows ? "jfr.exe" : "jfr"));
+        if (!recordingFile.isFile() || !jfr.isFile()) {
+            return FlightRecordingSummary.failed(specificationName, recordingPath,
+                    I18nSupport.getValue("run.execution.profile.unavailable", recordingPath));
+        }
+
+        try {
+            GeneralCommandLine commandLine = new GeneralCommandLine(jfr.getPath(), "print", "--stack-depth", "1", "--events",
+                    String.join(",", FlightRecordingSummary.EXECUTION_SAMPLE, FlightRecordingSummary.ALLOCATION_SAMPLE,
+                            FlightRecordingSummary.ALLOCATION_NEW_TLAB, FlightRecordingSummary.GARBAGE_COLLECTION),
+                    recordingPath);
+
+            ProcessOutput output = new CapturingProcessHandler(commandLine).runProcess(
+                    Integer.parseInt(PluginProperties.getValue("livingdoc.profile.summary.timeout.millis")));
+
+            if (output.isTimeout() || output.getExitCode() != 0) {
+                return FlightRecordingSummary.failed(specificationName, recordingPath, output.isTimeout()
+                        ? I18nSupport.getValue("run.execution.profile.unavailable", recordingPath) : output.getStderr());
+            }
+            return FlightRecordingSummary.parse(specificationName, recordingPath, output.getStdoutLines());
+
+        } catch (ExecutionException e) {
+            LOG.warn(e);
+            return FlightRecordingSummary.failed(specificationName, recordingPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Subscriber of the summaries of the profiled executions.
+     */
+    public interface Listener {
+
+        /**
+         * A profiled execution has finished (called in a pooled thread).
+         *
+         * @param summary Summary of the recording.
+         */
+        void recordingSummarized(FlightRecordingSummary summary);
+    }
+}
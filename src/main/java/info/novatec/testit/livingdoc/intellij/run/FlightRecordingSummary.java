@@ -0,0 +1,287 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Summary of a Flight Recorder recording, parsed from the output of the <code>jfr print</code> tool of the JDK:
+ * <ul>
+ * <li>Top methods: top frames of the <code>jdk.ExecutionSample</code> events.</li>
+ * <li>Allocation hot spots: classes of the <code>jdk.ObjectAllocationSample</code> events (weight), or of the
+ * <code>jdk.ObjectAllocationInNewTLAB</code> events (TLAB size) whether the recording has no allocation samples (JDK
+ * before 16). Both events sample the same allocations, so they are not added together.</li>
+ * <li>GC pauses: <code>jdk.GarbageCollection</code> events by collector.</li>
+ * </ul>
+ *
+ * @see FlightRecorder
+ */
+public class FlightRecordingSummary {
+
+    static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    static final String ALLOCATION_NEW_TLAB = "jdk.ObjectAllocationInNewTLAB";
+    static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+
+    private static final Pattern EVENT_START = Pattern.compile("^(jdk\\.\\w+) \\{$");
+    private static final Pattern FIELD = Pattern.compile("^\\s+(\\w+) = (.*)$");
+    private static final Pattern FRAME_LINE = Pattern.compile("\\s+line: \\d+.*$");
+    private static final Pattern QUANTITY = Pattern.compile("^(-?[\\d.,]+)\\s*(\\S*)");
+
+    private final String specificationName;
+    private final String recordingPath;
+    private final String error;
+    private final Map<String, Item> topMethods = new HashMap<>();
+    private final Map<String, Item> sampledAllocations = new HashMap<>();
+    private final Map<String, Item> tlabAllocations = new HashMap<>();
+    private final Map<String, Item> gcPauses = new HashMap<>();
+
+
+    private FlightRecordingSummary(final String specificationName, final String recordingPath, final String error) {
+        this.specificationName = specificationName;
+        this.recordingPath = recordingPath;
+        this.error = error;
+    }
+
+    /**
+     * @param specificationName Profiled specification.
+     * @param recordingPath     Recording file.
+     * @param lines             Output of <code>jfr print</code> for the summarized events.
+     * @return The summary of the recording.
+     */
+    static FlightRecordingSummary parse(final String specificationName, final String recordingPath, final List<String> lines) {
+
+        FlightRecordingSummary summary = new FlightRecordingSummary(specificationName, recordingPath, null);
+
+        String event = null;
+        Map<String, String> fields = new HashMap<>();
+        String topFrame = null;
+        boolean inStackTrace = false;
+
+        for (String line : lines) {
+
+            Matcher eventStart = EVENT_START.matcher(line);
+            if (eventStart.matches()) {
+                event = eventStart.group(1);
+                fields.clear();
+                topFrame = null;
+                inStackTrace = false;
+
+            } else if (event != null && "}".equals(line.trim()) && !inStackTrace) {
+                summary.addEvent(event, fields, topFrame);
+                event = null;
+
+            } else if (inStackTrace) {
+                String frame = line.trim();
+                if ("]".equals(frame)) {
+                    inStackTrace = false;
+                } else if (topFrame == null && !frame.isEmpty() && !"...".equals(frame)) {
+                    topFrame = FRAME_LINE.matcher(" " + frame).replaceFirst("").trim();
+                }
+
+            } else if (event != null) {
+                Matcher field = FIELD.matcher(line);
+                if (field.matches()) {
+                    if ("stackTrace".equals(field.group(1)) && field.group(2).trim().startsWith("[")) {
+                        inStackTrace = !field.group(2).trim().endsWith("]");
+                    } else {
+                        fields.put(field.group(1), field.group(2).trim());
+                    }
+                }
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * @param specificationName Profiled specification.
+     * @param recordingPath     Recording file (it may not exist).
+     * @param error             Reason why the recording cannot be summarized.
+     * @return A summary without items.
+     */
+    static FlightRecordingSummary failed(final String specificationName, final String recordingPath, final String error) {
+        return new FlightRecordingSummary(specificationName, recordingPath, error);
+    }
+
+    private void addEvent(final String event, final Map<String, String> fields, final String topFrame) {
+
+        switch (event) {
+            case EXECUTION_SAMPLE:
+                if (topFrame != null) {
+                    add(topMethods, topFrame, 1L);
+                }
+                break;
+
+            case ALLOCATION_SAMPLE:
+                add(sampledAllocations, className(fields.get("objectClass")), parseBytes(fields.get("weight")));
+                break;
+
+            case ALLOCATION_NEW_TLAB:
+                add(tlabAllocations, className(fields.get("objectClass")), parseBytes(fields.get("tlabSize")));
+                break;
+
+            case GARBAGE_COLLECTION:
+                add(gcPauses, unquote(fields.get("name")), parseNanos(fields.get("sumOfPauses")));
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private static void add(final Map<String, Item> items, final String name, final long value) {
+        if (name != null && !name.isEmpty()) {
+            items.computeIfAbsent(name, Item::new).add(value);
+        }
+    }
+
+    /**
+     * @param value Class field of an event, e.g. <code>java.lang.String (classLoader = bootstrap)</code>
+     */
+    private static String className(final String value) {
+
+        if (value == null) {
+            return null;
+        }
+        int classLoader = value.indexOf(" (");
+        return classLoader < 0 ? value : value.substring(0, classLoader);
+    }
+
+    private static String unquote(final String value) {
+        return value == null ? null : value.replace("\"", "");
+    }
+
+    /**
+     * @param value Data amount, e.g. <code>1.5 MB</code>
+     * @return The amount in bytes. 0 whether it is not valid.
+     */
+    static long parseBytes(final String value) {
+
+        Matcher quantity = value == null ? null : QUANTITY.matcher(value.trim());
+        if (quantity == null || !quantity.find()) {
+            return 0L;
+        }
+        double amount = parseNumber(quantity.group(1));
+        switch (quantity.group(2)) {
+            case "kB":
+            case "KB":
+                return Math.round(amount * 1024);
+            case "MB":
+                return Math.round(amount * 1024 * 1024);
+            case "GB":
+                return Math.round(amount * 1024 * 1024 * 1024);
+            default:
+                return Math.round(amount);
+        }
+    }
+
+    /**
+     * @param value Duration, e.g. <code>2.35 ms</code>
+     * @return The duration in nanoseconds. 0 whether it is not valid.
+     */
+    static long parseNanos(final String value) {
+
+        Matcher quantity = value == null ? null : QUANTITY.matcher(value.trim());
+        if (quantity == null || !quantity.find()) {
+            return 0L;
+        }
+        double amount = parseNumber(quantity.group(1));
+        switch (quantity.group(2)) {
+            case "us":
+            case "µs":
+                return Math.round(amount * 1_000);
+            case "ms":
+                return Math.round(amount * 1_000_000);
+            case "s":
+                return Math.round(amount * 1_000_000_000);
+            case "min":
+            case "m":
+                return Math.round(amount * 60_000_000_000L);
+            default:
+                return Math.round(amount);
+        }
+    }
+
+    private static double parseNumber(final String number) {
+        try {
+            return Double.parseDouble(number.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return 0d;
+        }
+    }
+
+    private static List<Item> sorted(final Map<String, Item> items) {
+
+        List<Item> sortedItems = new ArrayList<>(items.values());
+        sortedItems.sort(Comparator.comparingLong(Item::getTotal).reversed());
+        return sortedItems;
+    }
+
+    public String getSpecificationName() {
+        return specificationName;
+    }
+
+    public String getRecordingPath() {
+        return recordingPath;
+    }
+
+    /**
+     * @return Reason why the recording cannot be summarized. Null whether it has been summarized.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return Top frames of the execution samples (total: number of samples), from the most sampled.
+     */
+    public List<Item> getTopMethods() {
+        return sorted(topMethods);
+    }
+
+    /**
+     * @return Allocated classes (total: bytes), from the most allocated. The allocation samples, or the TLAB
+     * allocations whether there are no samples.
+     */
+    public List<Item> getAllocations() {
+        return sorted(sampledAllocations.isEmpty() ? tlabAllocations : sampledAllocations);
+    }
+
+    /**
+     * @return Garbage collectors (count: collections, total: pauses in nanoseconds), from the longest pauses.
+     */
+    public List<Item> getGcPauses() {
+        return sorted(gcPauses);
+    }
+
+    /**
+     * Events of the summary with the same name (method, class or collector).
+     */
+    public static final class Item {
+
+        private final String name;
+        private int count;
+        private long total;
+
+        private Item(final String name) {
+            this.name = name;
+        }
+
+        private void add(final long value) {
+            count++;
+            total += value;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+}
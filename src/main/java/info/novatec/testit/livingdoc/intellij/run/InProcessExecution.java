@@ -0,0 +1,207 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.execution.configurations.JavaParameters;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
+import info.novatec.testit.livingdoc.document.CommentTableFilter;
+import info.novatec.testit.livingdoc.document.Document;
+import info.novatec.testit.livingdoc.document.LivingDocTableFilter;
+import info.novatec.testit.livingdoc.intellij.domain.ModuleSettings;
+import info.novatec.testit.livingdoc.intellij.runner.ProgressSystemUnderDevelopment;
+import info.novatec.testit.livingdoc.interpreter.selector.LivingDocInterpreterSelector;
+import info.novatec.testit.livingdoc.report.XmlReport;
+import info.novatec.testit.livingdoc.systemunderdevelopment.DefaultSystemUnderDevelopment;
+import info.novatec.testit.livingdoc.systemunderdevelopment.SystemUnderDevelopment;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * In-process execution of a specification: the LivingDoc interpreter executes the {@link Document} loaded in the
+ * download stage inside the IDE, without launching a process (See {@link SpecificationDocumentLoader#fetchDocument}).<br>
+ * The fixtures are loaded by a disposable class loader with the output and the dependencies of the module
+ * (See {@link ModuleClasspathCache}), closed at the end of the execution. Its parent only exposes the JDK and the
+ * LivingDoc classes of the plugin (See {@link LivingDocApiClassLoader}), so the LivingDoc classes are the same ones of
+ * the loaded document and the other libraries of the plugin do not hide the ones of the module. The report is passed
+ * to the {@link ProcessListenerLivingDoc} without writing and parsing the report file, and so is the progress of the
+ * execution (See {@link ProgressSystemUnderDevelopment}).<br>
+ * The executions run in the JDK of the IDE, one at a time, with the timeout of the processes
+ * (See {@link RemoteRunConfiguration#getEffectiveTimeoutSeconds()}). A timed out or cancelled execution is interrupted and
+ * reported at once, but a fixture ignoring the interruption keeps its thread until it returns.
+ *
+ * @see ExecutionBatch
+ */
+class InProcessExecution implements Runnable {
+
+    private static final Logger LOG = Logger.getInstance(InProcessExecution.class);
+
+    private static final String ERROR_KEY = "run.execution.error.inprocess";
+    private static final String LIVINGDOC_PACKAGE = "info.novatec.testit.livingdoc.";
+    private static final String PLUGIN_PACKAGE = "info.novatec.testit.livingdoc.intellij.";
+
+    private final RemoteRunConfiguration runConfiguration;
+    private final Future<Document> document;
+    private volatile Future<XmlReport> execution;
+
+
+    /**
+     * @param runConfiguration {@link RemoteRunConfiguration} of the specification.
+     * @param document         Specification document of the download stage.
+     */
+    InProcessExecution(@NotNull final RemoteRunConfiguration runConfiguration, @NotNull final Future<Document> document) {
+        this.runConfiguration = runConfiguration;
+        this.document = document;
+    }
+
+    @Override
+    public void run() {
+
+        // The in-process wall times are not comparable with the process ones.
+        ProcessListenerLivingDoc processListener = new ProcessListenerLivingDoc(runConfiguration, false);
+        processListener.executionStarted();
+
+        try {
+            Document specification = document.get();
+            execution = ApplicationManager.getApplication().executeOnPooledThread(() -> execute(specification, processListener));
+
+            long timeout = runConfiguration.getEffectiveTimeoutSeconds();
+            processListener.reportAvailable(timeout > 0 ? execution.get(timeout, TimeUnit.SECONDS) : execution.get());
+
+        } catch (TimeoutException te) {
+            LOG.info("In-process execution timed out: " + runConfiguration.getSpecificationName());
+            timeOut();
+            processListener.executionFailed(ERROR_KEY);
+
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            processListener.executionFailed(ERROR_KEY);
+
+        } catch (CancellationException ce) {
+            processListener.executionFailed(ERROR_KEY);
+
+        } catch (ExecutionException ee) {
+            LOG.warn(ee.getCause());
+            processListener.executionFailed(ERROR_KEY);
+
+        } catch (Exception e) {
+            LOG.warn(e);
+            processListener.executionFailed(ERROR_KEY);
+        }
+    }
+
+    /**
+     * Marks the execution as timed out and interrupts it.
+     */
+    void timeOut() {
+
+        runConfiguration.setTimedOut(true);
+        cancel();
+    }
+
+    /**
+     * Interrupts the execution, whether it is running.
+     */
+    void cancel() {
+
+        Future<XmlReport> runningExecution = execution;
+        if (runningExecution != null) {
+            runningExecution.cancel(true);
+        }
+    }
+
+    private XmlReport execute(final Document specification, final ProcessListenerLivingDoc processListener) throws Exception {
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader contextClassLoader = currentThread.getContextClassLoader();
+
+        try (URLClassLoader classLoader = createClassLoader()) {
+            currentThread.setContextClassLoader(classLoader);
+
+            SystemUnderDevelopment systemUnderDevelopment = new ProgressSystemUnderDevelopment(
+                    createSystemUnderDevelopment(classLoader), processListener::progressAvailable);
+
+            specification.addFilter(new CommentTableFilter());
+            specification.addFilter(new LivingDocTableFilter(false));
+
+            systemUnderDevelopment.onStartDocument(specification);
+            try {
+                specification.execute(new LivingDocInterpreterSelector(systemUnderDevelopment));
+            } finally {
+                systemUnderDevelopment.onEndDocument(specification);
+            }
+
+            XmlReport xmlReport = XmlReport.newInstance(runConfiguration.getSpecificationName());
+            xmlReport.generate(specification);
+            return xmlReport;
+
+        } finally {
+            currentThread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    /**
+     * @return A new class loader with the runtime classpath (classes and tests) of the module.
+     */
+    private URLClassLoader createClassLoader() throws Exception {
+
+        JavaParameters javaParameters = new JavaParameters();
+        ModuleClasspathCache.getInstance(runConfiguration.getProject()).configureModule(
+                runConfiguration.getConfigurationModule(), javaParameters, null);
+
+        List<String> classPath = javaParameters.getClassPath().getPathList();
+        URL[] urls = new URL[classPath.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = new File(classPath.get(i)).toURI().toURL();
+        }
+        return new URLClassLoader(urls, new LivingDocApiClassLoader(InProcessExecution.class.getClassLoader()));
+    }
+
+    /**
+     * The system under development of the module settings, or the default one, loaded from the module classes.
+     */
+    private SystemUnderDevelopment createSystemUnderDevelopment(final ClassLoader classLoader) throws Exception {
+
+        Module module = runConfiguration.getConfigurationModule().getModule();
+        ModuleSettings moduleSettings = module == null ? null : ModuleSettings.getInstance(module);
+
+        if (moduleSettings == null || StringUtils.isBlank(moduleSettings.getSudClassName())) {
+            return new DefaultSystemUnderDevelopment(classLoader);
+        }
+        return ProgressSystemUnderDevelopment.instantiate(moduleSettings.getSudClassName().trim(),
+                StringUtils.split(StringUtils.defaultString(moduleSettings.getSudArgs()), ';'), classLoader);
+    }
+
+    /**
+     * Parent of the module class loader: the JDK classes (its parent is the extension class loader) and the LivingDoc
+     * classes loaded by the plugin, without the plugin classes and its other libraries.
+     */
+    private static final class LivingDocApiClassLoader extends ClassLoader {
+
+        private final ClassLoader pluginClassLoader;
+
+        private LivingDocApiClassLoader(final ClassLoader pluginClassLoader) {
+
+            super(ClassLoader.getSystemClassLoader().getParent());
+            this.pluginClassLoader = pluginClassLoader;
+        }
+
+        @Override
+        protected Class<?> findClass(final String name) throws ClassNotFoundException {
+
+            if (name.startsWith(LIVINGDOC_PACKAGE) && !name.startsWith(PLUGIN_PACKAGE)) {
+                return pluginClassLoader.loadClass(name);
+            }
+            throw new ClassNotFoundException(name);
+        }
+    }
+}
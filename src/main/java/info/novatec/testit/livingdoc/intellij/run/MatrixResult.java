@@ -0,0 +1,169 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.util.messages.Topic;
+import info.novatec.testit.livingdoc.headless.SpecificationTask;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Results of a matrix execution: the selected specifications (rows) executed with the system under test of every
+ * selected module (columns). See {@link SpecificationLauncher#launchMatrix}.<br>
+ * The cells are updated by the {@link ProcessListenerLivingDoc} once every execution is recorded, and the change is
+ * published in {@link #TOPIC}.
+ */
+public class MatrixResult {
+
+    public static final Topic<Listener> TOPIC = Topic.create("LivingDoc Matrix Result", Listener.class);
+
+    private final List<Row> rows;
+    private final List<Column> columns;
+    private final Map<String, Cell> cells = new ConcurrentHashMap<>();
+
+
+    MatrixResult(@NotNull final List<Row> rows, @NotNull final List<Column> columns) {
+        this.rows = Collections.unmodifiableList(new ArrayList<>(rows));
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @param row    Specification.
+     * @param column Module with its system under test.
+     * @return The result of the specification in the module. Null whether it has not finished yet.
+     */
+    @Nullable
+    public Cell getCell(@NotNull final Row row, @NotNull final Column column) {
+        return cells.get(buildKey(row.getKey(), column.getModuleName()));
+    }
+
+    void update(final String specificationKey, final String moduleName, final Cell cell) {
+        cells.put(buildKey(specificationKey, moduleName), cell);
+    }
+
+    private static String buildKey(final String specificationKey, final String moduleName) {
+        return specificationKey + "|" + moduleName;
+    }
+
+    /**
+     * Specification of the matrix.
+     */
+    public static final class Row {
+
+        private final String key;
+        private final String specificationName;
+
+        /**
+         * @param key               Key of the specification (See {@link SpecificationTask#buildKey(String, String)}).
+         * @param specificationName Specification name.
+         */
+        Row(final String key, final String specificationName) {
+            this.key = key;
+            this.specificationName = specificationName;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getSpecificationName() {
+            return specificationName;
+        }
+    }
+
+    /**
+     * Module of the matrix with its system under test.
+     */
+    public static final class Column {
+
+        private final String moduleName;
+        private final String systemUnderTest;
+
+        Column(final String moduleName, final String systemUnderTest) {
+            this.moduleName = moduleName;
+            this.systemUnderTest = systemUnderTest;
+        }
+
+        public String getModuleName() {
+            return moduleName;
+        }
+
+        public String getSystemUnderTest() {
+            return systemUnderTest;
+        }
+
+        /**
+         * @return Title of the column: <code>SUT (module)</code>
+         */
+        public String getTitle() {
+            return systemUnderTest + " (" + moduleName + ")";
+        }
+    }
+
+    /**
+     * Result of a specification with a system under test.
+     */
+    public static final class Cell {
+
+        private final ExecutionRecord.Outcome outcome;
+        private final int right;
+        private final int wrong;
+        private final int ignored;
+        private final int exceptions;
+
+        Cell(final ExecutionRecord.Outcome outcome, final int right, final int wrong, final int ignored, final int exceptions) {
+            this.outcome = outcome;
+            this.right = right;
+            this.wrong = wrong;
+            this.ignored = ignored;
+            this.exceptions = exceptions;
+        }
+
+        /**
+         * @return True whether all the tests are right.
+         */
+        public boolean isSuccessful() {
+            return outcome == ExecutionRecord.Outcome.SUCCESS;
+        }
+
+        /**
+         * @return The counters of the tests, or the reason of the execution without report.
+         */
+        public String getText() {
+
+            if (outcome == ExecutionRecord.Outcome.TIMEOUT) {
+                return I18nSupport.getValue("toolwindows.matrix.cell.timeout");
+            }
+            if (outcome == ExecutionRecord.Outcome.ERROR && right + wrong + ignored + exceptions == 0) {
+                return I18nSupport.getValue("toolwindows.matrix.cell.error");
+            }
+            return I18nSupport.getValue("toolwindows.matrix.cell", right, wrong, ignored, exceptions);
+        }
+    }
+
+    /**
+     * Listener of the matrix results.
+     */
+    public interface Listener {
+
+        /**
+         * A matrix execution has started or a cell has been updated.
+         *
+         * @param matrixResult Results of the matrix execution.
+         */
+        void matrixChanged(@NotNull MatrixResult matrixResult);
+    }
+}
@@ -0,0 +1,97 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.execution.CantRunException;
+import com.intellij.execution.configurations.JavaParameters;
+import com.intellij.execution.configurations.RunConfigurationModule;
+import com.intellij.execution.util.JavaParametersUtil;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.openapi.roots.ProjectRootManager;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Project service with the runtime classpath of the modules (Registered in <b>plugin.xml</b>).<br>
+ * Resolving the classpath of a module ({@link JavaParameters#JDK_AND_CLASSES_AND_TESTS}) walks all its dependencies,
+ * so the result is reused by the next executions until the project roots change
+ * (See {@link ProjectRootManager#getModificationCount()}).
+ *
+ * @see RunProfileStateLivingDoc
+ */
+public class ModuleClasspathCache {
+
+    private final Project project;
+    private final Map<String, ModuleClasspath> moduleClasspaths = new ConcurrentHashMap<>();
+
+
+    public ModuleClasspathCache(@NotNull final Project project) {
+        this.project = project;
+    }
+
+    public static ModuleClasspathCache getInstance(@NotNull final Project project) {
+        return ServiceManager.getService(project, ModuleClasspathCache.class);
+    }
+
+    /**
+     * Sets the JDK, the charset and the classpath (JDK, classes and tests) of the module in the Java parameters.
+     *
+     * @param configurationModule Module of the run configuration.
+     * @param javaParameters      Java parameters of the execution.
+     * @param jreHome             Alternative JRE path. Null for the module JDK.
+     * @throws CantRunException If the module or its JDK is not valid.
+     */
+    public void configureModule(@NotNull final RunConfigurationModule configurationModule,
+                                @NotNull final JavaParameters javaParameters, @Nullable final String jreHome) throws CantRunException {
+
+        Module module = configurationModule.getModule();
+        if (module == null) {
+            // JavaParametersUtil reports the error
+            JavaParametersUtil.configureModule(configurationModule, javaParameters, JavaParameters.JDK_AND_CLASSES_AND_TESTS, jreHome);
+            return;
+        }
+
+        long modificationCount = ProjectRootManager.getInstance(project).getModificationCount();
+        String key = module.getName() + "|" + StringUtils.defaultString(jreHome);
+
+        ModuleClasspath moduleClasspath = moduleClasspaths.get(key);
+        if (moduleClasspath == null || moduleClasspath.modificationCount != modificationCount) {
+
+            JavaParameters moduleParameters = new JavaParameters();
+            JavaParametersUtil.configureModule(configurationModule, moduleParameters, JavaParameters.JDK_AND_CLASSES_AND_TESTS, jreHome);
+
+            moduleClasspath = new ModuleClasspath(modificationCount, moduleParameters.getJdk(),
+                    moduleParameters.getCharset(), moduleParameters.getClassPath().getPathList());
+            moduleClasspaths.put(key, moduleClasspath);
+        }
+
+        javaParameters.setJdk(moduleClasspath.jdk);
+        javaParameters.setCharset(moduleClasspath.charset);
+        javaParameters.getClassPath().addAll(moduleClasspath.classPath);
+    }
+
+    /**
+     * Runtime classpath of a module resolved with the given modification count of the project roots.
+     */
+    private static final class ModuleClasspath {
+
+        private final long modificationCount;
+        private final Sdk jdk;
+        private final Charset charset;
+        private final List<String> classPath;
+
+        private ModuleClasspath(final long modificationCount, final Sdk jdk, final Charset charset, final List<String> classPath) {
+            this.modificationCount = modificationCount;
+            this.jdk = jdk;
+            this.charset = charset;
+            this.classPath = classPath;
+        }
+    }
+}
@@ -2,37 +2,81 @@ package info.novatec.testit.livingdoc.intellij.run;
 
 import com.intellij.execution.process.ProcessAdapter;
 import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessOutputTypes;
 import com.intellij.ide.browsers.BrowserLauncher;
 import com.intellij.ide.browsers.BrowserLauncherImpl;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
 import com.intellij.openapi.progress.util.ColorProgressBar;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.util.ConcurrencyUtil;
+import info.novatec.testit.livingdoc.headless.SpecificationTask;
 import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.common.Icons;
 import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import info.novatec.testit.livingdoc.intellij.domain.ModuleSettings;
+import info.novatec.testit.livingdoc.intellij.domain.ProjectSettings;
+import info.novatec.testit.livingdoc.intellij.domain.SpecificationNode;
 import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUtils;
+import info.novatec.testit.livingdoc.intellij.rest.ExecutionUploader;
+import info.novatec.testit.livingdoc.intellij.runner.ProgressSystemUnderDevelopment;
+import info.novatec.testit.livingdoc.intellij.runner.SpecificationProgress;
 import info.novatec.testit.livingdoc.report.XmlReport;
 import info.novatec.testit.livingdoc.server.domain.Execution;
 import info.novatec.testit.livingdoc.server.domain.Specification;
 import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.xml.sax.SAXException;
 
-import javax.swing.*;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 /**
- * To monitor the execution of a process and capture its output.
+ * To monitor the execution of a process and capture its output.<br>
+ * The report of a finished execution is parsed and written in the report stage (a single thread shared by all the
+ * executions), so the execution slot is released without waiting for it.<br>
+ * The progress printed by the runner at every table and while the cells are executed (See
+ * {@link ProgressSystemUnderDevelopment}) is shown in the status line, or passed to the {@link ExecutionBatch}, which
+ * shows the progress of all its executions until the last report. The fraction of a running execution is the elapsed
+ * part of its expected duration (See {@link ExecutionHistory}), so a specification without history only shows its
+ * tables and cells.<br>
+ * The outcome and the wall time (from the start of the process to its termination) of the plain executions (run
+ * executor, neither instrumented nor profiled, outside a matrix) are recorded in the {@link ExecutionHistory}, and the
+ * specification node shows whether the wall time is a significant slowdown. The other executions are not comparable
+ * with them, so they are not recorded in the same baseline.
+ * The timings of the instrumented executions are published as a {@link TimingReport}.<br>
+ * The results of the batches with several executions are published for their aggregated report (See
+ * {@link ExecutionReport}) instead of opening every result file in the browser.<br>
+ * The results of the matrix executions are only added to their {@link MatrixResult}: the specification node and the
+ * history are not updated by them.<br>
+ * The executions are queued for their upload to the LivingDoc server, whether it is enabled (See {@link ExecutionUploader}).<br>
+ * The in-process executions (See {@link InProcessExecution}) notify the same events without process.
  *
  * @see ProcessAdapter
+ * @see ExecutionBatch
  */
 public class ProcessListenerLivingDoc extends ProcessAdapter {
 
     private static final Logger LOG = Logger.getInstance(ProcessListenerLivingDoc.class);
 
+    /**
+     * Fraction of a running execution reached at its expected duration, until it finishes.
+     */
+    private static final double MAX_EXPECTED_FRACTION = 0.95d;
+
+    private static final ExecutorService REPORT_STAGE = Executors.newSingleThreadExecutor(
+            ConcurrencyUtil.newNamedThreadFactory("LivingDoc Report Stage", true, Thread.NORM_PRIORITY));
+
     private final RemoteRunConfiguration runConfiguration;
     private final FilesManager livingDocFilesManager;
+    private final boolean recorded;
 
     private static int totalErrors = 0;
     private static int failuresCount = 0;
@@ -42,92 +86,350 @@ public class ProcessListenerLivingDoc extends ProcessAdapter {
     private static long endTime;
 
     private boolean hasError = false;
+    private long processStartTime;
+    private long processEndTime;
+    private volatile long expectedDuration = ExecutionHistory.UNKNOWN_DURATION;
+    private final StringBuilder outputLine = new StringBuilder();
 
 
-    public ProcessListenerLivingDoc(final RemoteRunConfiguration runConfiguration) {
+    /**
+     * @param runConfiguration {@link RemoteRunConfiguration} of the execution.
+     * @param recorded         True to record the execution in the {@link ExecutionHistory} (the plain executions only).
+     */
+    public ProcessListenerLivingDoc(final RemoteRunConfiguration runConfiguration, final boolean recorded) {
 
         this.runConfiguration = runConfiguration;
+        this.recorded = recorded;
         this.livingDocFilesManager = new FilesManager(this.runConfiguration);
     }
 
     @Override
     public void startNotified(ProcessEvent event) {
+        executionStarted();
+    }
 
+    /**
+     * The execution has started: the process or the in-process execution (See {@link InProcessExecution}).
+     */
+    void executionStarted() {
+
+        runConfiguration.setTimedOut(false);
+        processStartTime = System.currentTimeMillis();
         if (startTime == 0) { // Set the start time only the first time.
             startTime = System.currentTimeMillis();
         }
 
-        SwingUtilities.invokeLater(() -> {
+        // The history is read in a pooled thread (its first read loads the history file).
+        ApplicationManager.getApplication().executeOnPooledThread(() -> expectedDuration =
+                ExecutionHistory.getInstance(runConfiguration.getProject()).getExpectedDuration(runConfiguration));
+
+        if (runConfiguration.getExecutionBatch() != null) {
+            runConfiguration.getExecutionBatch().executionStarted();
+            return;
+        }
 
-            runConfiguration.getStatusLine().setText(I18nSupport.getValue("run.execution.running.label"));
-            runConfiguration.getStatusLine().setStatusColor(ColorProgressBar.GREEN);
-            runConfiguration.getStatusLine().setFraction(0d);
+        runConfiguration.getRepositoryViewUpdater().updateStatusLine(statusLine -> {
+
+            statusLine.setText(I18nSupport.getValue("run.execution.running.label"));
+            statusLine.setStatusColor(ColorProgressBar.GREEN);
+            statusLine.setFraction(0d);
         });
     }
 
+    @Override
+    public void onTextAvailable(ProcessEvent event, Key outputType) {
+
+        if (!ProcessOutputTypes.STDOUT.equals(outputType) || event.getText() == null) {
+            return;
+        }
+
+        for (char character : event.getText().toCharArray()) {
+            if (character == '\n') {
+                SpecificationProgress progress = SpecificationProgress.parse(outputLine.toString());
+                if (progress != null) {
+                    progressAvailable(progress);
+                }
+                outputLine.setLength(0);
+            } else if (character != '\r') {
+                outputLine.append(character);
+            }
+        }
+    }
+
+    /**
+     * Progress of the running execution: printed by the runner process or passed by the in-process execution.
+     *
+     * @param progress {@link SpecificationProgress}
+     */
+    void progressAvailable(@NotNull final SpecificationProgress progress) {
+
+        double fraction = getExpectedFraction();
+
+        if (runConfiguration.getExecutionBatch() != null) {
+            runConfiguration.getExecutionBatch().progressAvailable(runConfiguration, progress, fraction);
+            return;
+        }
+
+        runConfiguration.getRepositoryViewUpdater().updateStatusLine(statusLine -> {
+
+            statusLine.setText(I18nSupport.getValue("run.execution.running.progress", progress.getTables(),
+                    progress.getFixture(), progress.getCells()));
+            statusLine.setFraction(fraction);
+        });
+    }
+
+    /**
+     * @return The elapsed part of the expected duration of the execution, at most {@link #MAX_EXPECTED_FRACTION}. 0
+     * whether the specification has not been executed with results yet.
+     */
+    private double getExpectedFraction() {
+
+        long expected = expectedDuration;
+        if (expected <= 0) {
+            return 0d;
+        }
+        return Math.min(MAX_EXPECTED_FRACTION, (double) (System.currentTimeMillis() - processStartTime) / expected);
+    }
+
     @Override
     public void processTerminated(ProcessEvent processEvent) {
 
+        if (processEvent.getExitCode() == 0) {
+            executionFinished();
+            REPORT_STAGE.execute(() -> processReport(null));
+
+        } else {
+            executionFailed("run.execution.error.process");
+        }
+    }
+
+    /**
+     * The in-process execution has finished with its report, which is processed in the report stage.
+     *
+     * @param xmlReport Report of the execution.
+     */
+    void reportAvailable(@NotNull final XmlReport xmlReport) {
+
+        executionFinished();
+        REPORT_STAGE.execute(() -> processReport(xmlReport));
+    }
+
+    /**
+     * The execution has finished without report (or it timed out).
+     *
+     * @param messageKey Key of the status line message when the execution did not time out.
+     */
+    void executionFailed(@NotNull final String messageKey) {
+
+        executionFinished();
+
+        boolean timedOut = runConfiguration.isTimedOut();
+        recordExecution(0, 0, 0, 0, timedOut ? ExecutionRecord.Outcome.TIMEOUT : ExecutionRecord.Outcome.ERROR);
+
+        SpecificationNode selectedNode = runConfiguration.getSelectedNode();
+        if (timedOut && isNodeUpdated()) {
+            runConfiguration.getRepositoryViewUpdater().updateNode(selectedNode, treeNode -> selectedNode.setIcon(Icons.TIMEOUT));
+        }
+        if (isAggregatedReport()) {
+            publishReport(0, 0, 0, 0, null, I18nSupport.getValue(timedOut ? "run.execution.timeout" : messageKey));
+        }
+        if (!isLastReport(true, 0, 0, 0, 0)) {
+            return;
+        }
+        runConfiguration.getRepositoryViewUpdater().updateStatusLine(statusLine -> {
+
+            statusLine.setText(I18nSupport.getValue(timedOut ? "run.execution.timeout" : messageKey));
+            statusLine.setStatusColor(ColorProgressBar.RED);
+            statusLine.setFraction(100d);
+        });
+    }
+
+    private void executionFinished() {
+
         endTime = System.currentTimeMillis();
+        processEndTime = endTime;
+    }
 
-        if (processEvent.getExitCode() == 0) {
-            try {
-                Specification specification = buildSpecificationReport();
-                updateStatusLine(specification);
+    /**
+     * @param xmlReport Report of the in-process execution. Null to parse the report file of the process.
+     */
+    private void processReport(@Nullable final XmlReport xmlReport) {
+
+        // The status line update counts the report in the batch: a later failure must not count it again.
+        boolean reportCounted = false;
+        try {
+            XmlReport report = xmlReport != null ? xmlReport : XmlReport.parse(livingDocFilesManager.createReportFile());
+            Specification specification = buildSpecificationReport(report);
+            updateStatusLine(specification);
+            reportCounted = true;
+            uploadExecution(report);
+
+            if (runConfiguration.isInstrumented()) {
+                publishTimingReport();
+            }
 
-                File resultFile = loadResultFile(specification);
+            File resultFile = loadResultFile(specification);
 
+            if (isAggregatedReport()) {
+                Execution execution = specification.getExecutions().iterator().next();
+                publishReport(execution.getSuccess(), execution.getFailures(), execution.getIgnored(), execution.getErrors(),
+                        resultFile, null);
+            } else {
                 BrowserLauncher browser = new BrowserLauncherImpl();
                 browser.open(resultFile.getPath());
+            }
 
-            } catch (IOException | SAXException e) {
-                LOG.error(e);
+        } catch (IOException | SAXException e) {
+            LOG.error(e);
+            if (isAggregatedReport()) {
+                publishReport(0, 0, 0, 0, null, e.getMessage());
+            }
+            if (!reportCounted) {
+                isLastReport(true, 0, 0, 0, 0);
             }
-        } else {
-            runConfiguration.getStatusLine().setText(I18nSupport.getValue("run.execution.error.process"));
-            runConfiguration.getStatusLine().setStatusColor(ColorProgressBar.RED);
-            runConfiguration.getStatusLine().setFraction(100d);
         }
     }
 
+    /**
+     * @param failed True whether the execution has errors.
+     * @return True whether the status line shows the results of this execution: without batch or for the last
+     * report of the batch.
+     */
+    private boolean isLastReport(final boolean failed, final int right, final int wrong, final int ignored, final int exceptions) {
+        return runConfiguration.getExecutionBatch() == null
+                || runConfiguration.getExecutionBatch().reportProcessed(failed, right, wrong, ignored, exceptions);
+    }
+
     private void updateStatusLine(Specification specification) {
 
+        boolean hasException = false;
+        int right = 0;
+        int wrong = 0;
+        int ignored = 0;
+        int exceptions = 0;
+
         for (Execution execution : specification.getExecutions()) {
 
             if (!hasError && (execution.hasException() || execution.hasFailed())) {
                 hasError = true;
             }
-            totalErrors = totalErrors + execution.getErrors();
-            failuresCount = failuresCount + execution.getFailures();
-            finishedTestsCount = finishedTestsCount + execution.getSuccess();
-            ignoreTestsCount = ignoreTestsCount + execution.getIgnored();
+            hasException = hasException || execution.hasException();
+            right += execution.getSuccess();
+            wrong += execution.getFailures();
+            ignored += execution.getIgnored();
+            exceptions += execution.getErrors();
+        }
+        totalErrors = totalErrors + exceptions;
+        failuresCount = failuresCount + wrong;
+        finishedTestsCount = finishedTestsCount + right;
+        ignoreTestsCount = ignoreTestsCount + ignored;
+
+        ExecutionRecord.Outcome outcome = ExecutionRecord.Outcome.SUCCESS;
+        if (hasException) {
+            outcome = ExecutionRecord.Outcome.ERROR;
+        } else if (hasError) {
+            outcome = ExecutionRecord.Outcome.FAILURE;
+        }
+        recordExecution(right, wrong, ignored, exceptions, outcome);
+
+        boolean lastReport = isLastReport(hasError, right, wrong, ignored, exceptions);
+
+        if (isNodeUpdated()) {
+            SpecificationNode selectedNode = runConfiguration.getSelectedNode();
+            runConfiguration.getRepositoryViewUpdater().updateNode(selectedNode,
+                    treeNode -> selectedNode.setIcon(RepositoryViewUtils.getResultIcon(hasError, selectedNode)));
         }
 
-        SwingUtilities.invokeLater(() -> {
+        if (!lastReport) {
+            return;
+        }
+
+        runConfiguration.getRepositoryViewUpdater().updateStatusLine(statusLine -> {
 
             if (hasError) {
-                runConfiguration.getStatusLine().setStatusColor(ColorProgressBar.RED);
+                statusLine.setStatusColor(ColorProgressBar.RED);
 
             } else if (ignoreTestsCount >= 1 || failuresCount >= 1 || totalErrors >= 1) {
-                runConfiguration.getStatusLine().setStatusColor(ColorProgressBar.YELLOW);
+                statusLine.setStatusColor(ColorProgressBar.YELLOW);
 
             } else {
                 ToolWindow toolWindow = ToolWindowManager.getInstance(runConfiguration.getProject())
                         .getToolWindow(PluginProperties.getValue("toolwindows.id"));
                 toolWindow.activate(null);
             }
-            runConfiguration.getStatusLine().formatTestMessage(finishedTestsCount + totalErrors + failuresCount + ignoreTestsCount,
+            statusLine.formatTestMessage(finishedTestsCount + totalErrors + failuresCount + ignoreTestsCount,
                     finishedTestsCount, failuresCount, ignoreTestsCount, endTime - startTime, endTime);
-            runConfiguration.getStatusLine().setFraction(1d);
-
-            runConfiguration.getSelectedNode().setIcon(RepositoryViewUtils.getResultIcon(hasError, runConfiguration.getSelectedNode()));
+            statusLine.setFraction(1d);
         });
     }
 
-    private Specification buildSpecificationReport() throws IOException, SAXException {
+    private void recordExecution(final int right, final int wrong, final int ignored, final int exceptions,
+                                 final ExecutionRecord.Outcome outcome) {
+
+        if (recorded) {
+            SpecificationDuration specificationDuration = ExecutionHistory.getInstance(runConfiguration.getProject()).record(
+                    new ExecutionRecord(processEndTime, runConfiguration.getRepositoryUID(), runConfiguration.getSpecificationName(),
+                            runConfiguration.isCurrentVersion(), right, wrong, ignored, exceptions, processEndTime - processStartTime, outcome));
+
+            SpecificationNode selectedNode = runConfiguration.getSelectedNode();
+            runConfiguration.getRepositoryViewUpdater().updateNode(selectedNode, treeNode -> selectedNode.setDurationRegression(
+                    specificationDuration.isRegression() ? specificationDuration.getRatio() : 0d));
+        }
+
+        MatrixResult matrixResult = runConfiguration.getMatrixResult();
+        if (matrixResult != null) {
+            matrixResult.update(SpecificationTask.buildKey(runConfiguration.getRepositoryUID(), runConfiguration.getSpecificationName()),
+                    runConfiguration.getConfigurationModule().getModuleName(),
+                    new MatrixResult.Cell(outcome, right, wrong, ignored, exceptions));
+            runConfiguration.getProject().getMessageBus().syncPublisher(MatrixResult.TOPIC).matrixChanged(matrixResult);
+        }
+    }
+
+    /**
+     * @return False for the matrix executions: the cells of a specification share its node, so their results are only
+     * shown in the {@link MatrixResult}.
+     */
+    private boolean isNodeUpdated() {
+        return runConfiguration.getMatrixResult() == null;
+    }
+
+    private boolean isAggregatedReport() {
+        return runConfiguration.getExecutionBatch() != null && runConfiguration.getExecutionBatch().isAggregatedReport();
+    }
+
+    private void publishReport(final int right, final int wrong, final int ignored, final int exceptions,
+                               @Nullable final File resultFile, @Nullable final String error) {
+
+        ExecutionReport executionReport = new ExecutionReport(runConfiguration.getExecutionBatch(), runConfiguration.getSpecificationName(),
+                runConfiguration.getConfigurationModule().getModuleName(), right, wrong, ignored, exceptions,
+                processEndTime - processStartTime, resultFile, error);
+        runConfiguration.getProject().getMessageBus().syncPublisher(ExecutionReport.TOPIC).reportAvailable(executionReport);
+    }
+
+    /**
+     * Queues the execution for its upload to the server, whether it is enabled (See {@link ExecutionUploader}).
+     */
+    private void uploadExecution(final XmlReport xmlReport) {
+
+        if (!ProjectSettings.getInstance(runConfiguration.getProject()).isUploadResults()) {
+            return;
+        }
+        Module module = runConfiguration.getConfigurationModule().getModule();
+        ModuleSettings moduleSettings = module == null ? null : ModuleSettings.getInstance(module);
+        if (moduleSettings == null || StringUtils.isAnyBlank(moduleSettings.getProject(), moduleSettings.getSud())) {
+            return;
+        }
+        ExecutionUploader.getInstance(runConfiguration.getProject()).enqueue(runConfiguration.getRepositoryUID(),
+                runConfiguration.getSpecificationName(), moduleSettings.getProject(), moduleSettings.getSud(), xmlReport);
+    }
+
+    private void publishTimingReport() throws IOException {
+
+        TimingReport timingReport = TimingReport.read(runConfiguration.getSpecificationName(), livingDocFilesManager.getTimingFile());
+        runConfiguration.getProject().getMessageBus().syncPublisher(TimingReport.TOPIC).timingReportAvailable(timingReport);
+    }
 
-        File reportFile = livingDocFilesManager.createReportFile();
-        XmlReport xmlReport = XmlReport.parse(reportFile);
+    private Specification buildSpecificationReport(final XmlReport xmlReport) {
 
         Specification specification = Specification.newInstance(runConfiguration.getSpecificationName());
         specification.setRepository(runConfiguration.getRepository());
@@ -10,19 +10,28 @@ import com.intellij.execution.configurations.RunConfiguration;
 import com.intellij.execution.configurations.RunProfileState;
 import com.intellij.execution.configurations.RuntimeConfigurationException;
 import com.intellij.execution.runners.ExecutionEnvironment;
-import com.intellij.execution.testframework.ui.TestStatusLine;
 import com.intellij.openapi.options.SettingsEditor;
+import com.intellij.openapi.util.InvalidDataException;
+import com.intellij.openapi.util.JDOMExternalizerUtil;
+import com.intellij.openapi.util.WriteExternalException;
 import com.intellij.openapi.options.SettingsEditorGroup;
 import com.intellij.openapi.project.Project;
 import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.domain.ProjectSettings;
 import info.novatec.testit.livingdoc.intellij.domain.SpecificationNode;
 import info.novatec.testit.livingdoc.intellij.gui.runconfiguration.RunConfigurationEditor;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUpdater;
+import info.novatec.testit.livingdoc.intellij.runner.InstrumentedSystemUnderDevelopment;
 import info.novatec.testit.livingdoc.server.domain.Repository;
 import info.novatec.testit.livingdoc.server.domain.RepositoryType;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.jdom.Element;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.file.Path;
+
 /**
  * A named run configuration which can be executed. <br>
  * The {@link #getConfigurationEditor()} method returns the settings editor component (user interface) for the run
@@ -31,12 +40,19 @@ import org.jetbrains.annotations.Nullable;
  * <li>{@link RunConfigurationEditor}</li>
  * <li>{@link LogConfigurationPanel}</li>
  * </ul>
+ * The repository and the specification are persisted with the configuration, so it can be executed again after
+ * restarting the IDE.
  *
  * @see ApplicationConfiguration
  * @see RunConfiguration
  */
 public class RemoteRunConfiguration extends ApplicationConfiguration {
 
+    /**
+     * Timeout of a configuration using the one of the project settings.
+     */
+    public static final int PROJECT_TIMEOUT = -1;
+
     private String repositoryUID;
     private String repositoryURL;
     private String repositoryClass;
@@ -44,9 +60,17 @@ public class RemoteRunConfiguration extends ApplicationConfiguration {
     private String specificationName;
 
     private boolean currentVersion;
+    private int timeoutSeconds = PROJECT_TIMEOUT;
 
-    private TestStatusLine statusLine;
+    private RepositoryViewUpdater repositoryViewUpdater;
     private SpecificationNode selectedNode;
+    private ExecutionBatch executionBatch;
+    private ExecutionWatchdog executionWatchdog;
+    private boolean instrumented;
+    private boolean profiling;
+    private volatile boolean timedOut;
+    private MatrixResult matrixResult;
+    private Path runDirectory;
 
 
     public RemoteRunConfiguration(final Project project, final ConfigurationFactory factory, final String name) {
@@ -81,6 +105,36 @@ public class RemoteRunConfiguration extends ApplicationConfiguration {
         super.checkConfiguration();
     }
 
+    @Override
+    public void readExternal(final Element element) throws InvalidDataException {
+
+        super.readExternal(element);
+
+        repositoryUID = JDOMExternalizerUtil.readField(element, "repositoryUID");
+        repositoryURL = JDOMExternalizerUtil.readField(element, "repositoryURL");
+        repositoryClass = JDOMExternalizerUtil.readField(element, "repositoryClass");
+        repositoryName = JDOMExternalizerUtil.readField(element, "repositoryName");
+        specificationName = JDOMExternalizerUtil.readField(element, "specificationName");
+        currentVersion = Boolean.parseBoolean(JDOMExternalizerUtil.readField(element, "currentVersion"));
+        instrumented = Boolean.parseBoolean(JDOMExternalizerUtil.readField(element, "instrumented"));
+        timeoutSeconds = NumberUtils.toInt(JDOMExternalizerUtil.readField(element, "timeoutSeconds"), PROJECT_TIMEOUT);
+    }
+
+    @Override
+    public void writeExternal(final Element element) throws WriteExternalException {
+
+        super.writeExternal(element);
+
+        JDOMExternalizerUtil.writeField(element, "repositoryUID", repositoryUID);
+        JDOMExternalizerUtil.writeField(element, "repositoryURL", repositoryURL);
+        JDOMExternalizerUtil.writeField(element, "repositoryClass", repositoryClass);
+        JDOMExternalizerUtil.writeField(element, "repositoryName", repositoryName);
+        JDOMExternalizerUtil.writeField(element, "specificationName", specificationName);
+        JDOMExternalizerUtil.writeField(element, "currentVersion", String.valueOf(currentVersion));
+        JDOMExternalizerUtil.writeField(element, "instrumented", String.valueOf(instrumented));
+        JDOMExternalizerUtil.writeField(element, "timeoutSeconds", String.valueOf(timeoutSeconds));
+    }
+
     @Nullable
     @Override
     public RunProfileState getState(@NotNull Executor executor, @NotNull ExecutionEnvironment environment) throws ExecutionException {
@@ -141,12 +195,12 @@ public class RemoteRunConfiguration extends ApplicationConfiguration {
         this.repositoryName = repositoryName;
     }
 
-    public TestStatusLine getStatusLine() {
-        return statusLine;
+    public RepositoryViewUpdater getRepositoryViewUpdater() {
+        return repositoryViewUpdater;
     }
 
-    public void setStatusLine(TestStatusLine statusLine) {
-        this.statusLine = statusLine;
+    public void setRepositoryViewUpdater(final RepositoryViewUpdater repositoryViewUpdater) {
+        this.repositoryViewUpdater = repositoryViewUpdater;
     }
 
     public SpecificationNode getSelectedNode() {
@@ -156,4 +210,98 @@ public class RemoteRunConfiguration extends ApplicationConfiguration {
     public void setSelectedNode(final SpecificationNode selectedNode) {
         this.selectedNode = selectedNode;
     }
+
+    public ExecutionBatch getExecutionBatch() {
+        return this.executionBatch;
+    }
+
+    public void setExecutionBatch(final ExecutionBatch executionBatch) {
+        this.executionBatch = executionBatch;
+    }
+
+    /**
+     * @return True whether the execution is instrumented (See {@link InstrumentedSystemUnderDevelopment}).
+     */
+    public boolean isInstrumented() {
+        return instrumented;
+    }
+
+    public void setInstrumented(final boolean instrumented) {
+        this.instrumented = instrumented;
+    }
+
+    /**
+     * @return True whether the execution is profiled with Flight Recorder (See {@link FlightRecorder}).
+     */
+    public boolean isProfiling() {
+        return profiling;
+    }
+
+    public void setProfiling(final boolean profiling) {
+        this.profiling = profiling;
+    }
+
+    /**
+     * @return Timeout (s) of the specification in this configuration (0 without timeout), or {@link #PROJECT_TIMEOUT}.
+     */
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public void setTimeoutSeconds(final int timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * @return Timeout (s) of the execution (0 without timeout): the one of the configuration, or the one of the project
+     * settings.
+     */
+    long getEffectiveTimeoutSeconds() {
+        return timeoutSeconds == PROJECT_TIMEOUT
+                ? ProjectSettings.getInstance(getProject()).getSpecificationTimeoutSeconds() : timeoutSeconds;
+    }
+
+    /**
+     * @return True whether the current execution has timed out (See {@link ExecutionWatchdog}).
+     */
+    boolean isTimedOut() {
+        return timedOut;
+    }
+
+    void setTimedOut(final boolean timedOut) {
+        this.timedOut = timedOut;
+    }
+
+    /**
+     * @return Results of the matrix execution of the configuration. Null outside a matrix execution.
+     */
+    MatrixResult getMatrixResult() {
+        return matrixResult;
+    }
+
+    void setMatrixResult(final MatrixResult matrixResult) {
+        this.matrixResult = matrixResult;
+    }
+
+    /**
+     * @return Directory with the files of the current execution (See {@link FilesManager}). Null until it is created.
+     */
+    Path getRunDirectory() {
+        return runDirectory;
+    }
+
+    /**
+     * @param runDirectory Directory of the current execution, or null so the next execution creates a new one.
+     */
+    void setRunDirectory(final Path runDirectory) {
+        this.runDirectory = runDirectory;
+    }
+
+    ExecutionWatchdog getExecutionWatchdog() {
+        return this.executionWatchdog;
+    }
+
+    void setExecutionWatchdog(final ExecutionWatchdog executionWatchdog) {
+        this.executionWatchdog = executionWatchdog;
+    }
 }
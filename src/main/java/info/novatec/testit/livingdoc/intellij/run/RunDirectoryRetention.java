@@ -0,0 +1,148 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retention policy of the run directories (See {@link FilesManager}), also applied to the documents cached for the
+ * offline mode (See {@link info.novatec.testit.livingdoc.intellij.rest.OfflineCache}). The entries of the parent directory (run directories or cached files):
+ * <ul>
+ * <li>The entries older than the maximum age are deleted.</li>
+ * <li>While the total size is over the maximum size, the oldest entries are deleted.</li>
+ * </ul>
+ * The entries modified in the last minutes (<code>keepMillis</code>) are never deleted, since their executions may
+ * be running. Neither are the kept entries given to {@link #apply(Path, long, Set)} (the cached documents of the
+ * specifications still shown offline).
+ */
+final class RunDirectoryRetention {
+
+    private static final Logger LOG = Logger.getInstance(RunDirectoryRetention.class);
+
+    private final long maxAgeMillis;
+    private final long maxBytes;
+    private final long keepMillis;
+
+
+    /**
+     * @param maxAgeMillis Maximum age (ms) of a run directory.
+     * @param maxBytes     Maximum size of all the run directories.
+     * @param keepMillis   Age (ms) under which a run directory is never deleted.
+     */
+    RunDirectoryRetention(final long maxAgeMillis, final long maxBytes, final long keepMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxBytes = maxBytes;
+        this.keepMillis = keepMillis;
+    }
+
+    /**
+     * @param runsDirectory Parent directory of the run directories (or of the cached files).
+     * @param now           Current time (ms).
+     * @return The number of deleted entries.
+     * @throws IOException If the entries cannot be listed.
+     */
+    int apply(final Path runsDirectory, final long now) throws IOException {
+        return apply(runsDirectory, now, Collections.emptySet());
+    }
+
+    /**
+     * @param runsDirectory Parent directory of the run directories (or of the cached files).
+     * @param now           Current time (ms).
+     * @param keptEntries   Entries of the parent directory never deleted, nor counted in the total size.
+     * @return The number of deleted entries.
+     * @throws IOException If the entries cannot be listed.
+     */
+    int apply(final Path runsDirectory, final long now, final Set<Path> keptEntries) throws IOException {
+
+        if (!Files.isDirectory(runsDirectory)) {
+            return 0;
+        }
+
+        List<RunDirectory> runDirectories = new ArrayList<>();
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(runsDirectory)) {
+            for (Path directory : directories) {
+                if (keptEntries.contains(directory)) {
+                    continue;
+                }
+                runDirectories.add(new RunDirectory(directory, Files.getLastModifiedTime(directory).toMillis(), size(directory)));
+            }
+        }
+        runDirectories.sort(Comparator.comparingLong(runDirectory -> runDirectory.lastModified));
+
+        long totalBytes = runDirectories.stream().mapToLong(runDirectory -> runDirectory.bytes).sum();
+        int deleted = 0;
+
+        for (RunDirectory runDirectory : runDirectories) {
+            long age = now - runDirectory.lastModified;
+            if (age < keepMillis || (age <= maxAgeMillis && totalBytes <= maxBytes)) {
+                continue;
+            }
+            try {
+                delete(runDirectory.path);
+                totalBytes -= runDirectory.bytes;
+                deleted++;
+            } catch (IOException ioe) {
+                LOG.warn("The run directory " + runDirectory.path + " has not been deleted.", ioe);
+            }
+        }
+        return deleted;
+    }
+
+    private static long size(final Path directory) throws IOException {
+
+        AtomicLong bytes = new AtomicLong();
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                bytes.addAndGet(attributes.size());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return bytes.get();
+    }
+
+    private static void delete(final Path directory) throws IOException {
+
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exception) throws IOException {
+                if (exception != null) {
+                    throw exception;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static final class RunDirectory {
+
+        private final Path path;
+        private final long lastModified;
+        private final long bytes;
+
+        private RunDirectory(final Path path, final long lastModified, final long bytes) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.bytes = bytes;
+        }
+    }
+}
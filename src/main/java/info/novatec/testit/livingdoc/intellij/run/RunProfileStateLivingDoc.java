@@ -3,22 +3,31 @@ package info.novatec.testit.livingdoc.intellij.run;
 import com.intellij.execution.ExecutionException;
 import com.intellij.execution.configurations.JavaCommandLineState;
 import com.intellij.execution.configurations.JavaParameters;
+import com.intellij.execution.executors.DefaultDebugExecutor;
+import com.intellij.execution.executors.DefaultRunExecutor;
 import com.intellij.execution.process.OSProcessHandler;
 import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessOutputTypes;
 import com.intellij.execution.runners.ExecutionEnvironment;
 import com.intellij.execution.util.JavaParametersUtil;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.util.ColorProgressBar;
-import info.novatec.testit.livingdoc.document.Document;
+import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.util.PathUtil;
+import info.novatec.testit.livingdoc.headless.HeadlessRunner;
 import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
-import info.novatec.testit.livingdoc.intellij.domain.ProjectSettings;
-import info.novatec.testit.livingdoc.repository.DocumentRepository;
+import info.novatec.testit.livingdoc.intellij.runner.InstrumentedSystemUnderDevelopment;
+import info.novatec.testit.livingdoc.intellij.runner.ProgressSystemUnderDevelopment;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Command line initialization and environment configuration:<br>
@@ -31,14 +40,27 @@ class RunProfileStateLivingDoc extends JavaCommandLineState {
 
     private static final Logger LOG = Logger.getInstance(RunProfileStateLivingDoc.class);
 
+    /**
+     * Time (ms) waiting for the download before checking the cancellation of the progress.
+     */
+    private static final long DOWNLOAD_POLL_TIMEOUT = 200L;
+
     private final RemoteRunConfiguration runConfiguration;
     private final FilesManager livingDocFileManager;
+    private File recordingFile;
+    private String classDataSharingMessage;
 
     RunProfileStateLivingDoc(@NotNull ExecutionEnvironment executionEnvironment) {
 
         super(executionEnvironment);
 
         this.runConfiguration = (RemoteRunConfiguration) executionEnvironment.getRunnerAndConfigurationSettings().getConfiguration();
+
+        // The executions of a batch use the run directory of their download stage.
+        ExecutionBatch executionBatch = runConfiguration.getExecutionBatch();
+        if (executionBatch == null || executionBatch.getSpecificationFile(runConfiguration) == null) {
+            runConfiguration.setRunDirectory(null);
+        }
         this.livingDocFileManager = new FilesManager(runConfiguration);
     }
 
@@ -47,16 +69,57 @@ class RunProfileStateLivingDoc extends JavaCommandLineState {
 
         final JavaParameters javaParameters = addLivingDocProgramParameterList();
 
-        final int classPathType = JavaParameters.JDK_AND_CLASSES_AND_TESTS;
         final String jreHome = runConfiguration.ALTERNATIVE_JRE_PATH_ENABLED ? runConfiguration.ALTERNATIVE_JRE_PATH : null;
-        JavaParametersUtil.configureModule(runConfiguration.getConfigurationModule(), javaParameters, classPathType, jreHome);
+        ModuleClasspathCache.getInstance(runConfiguration.getProject()).configureModule(
+                runConfiguration.getConfigurationModule(), javaParameters, jreHome);
         JavaParametersUtil.configureConfiguration(javaParameters, runConfiguration);
 
+        if (runConfiguration.getConfigurationModule().getModule() != null) {
+            classDataSharingMessage = ClassDataSharingArchives.getInstance(runConfiguration.getProject()).configure(
+                    javaParameters, runConfiguration.getConfigurationModule().getModule().getName());
+        }
+
+        // The system under development reporting the progress is loaded from the plugin classes.
+        javaParameters.getClassPath().add(PathUtil.getJarPathForClass(ProgressSystemUnderDevelopment.class));
+        if (runConfiguration.isInstrumented()) {
+            configureInstrumentation(javaParameters);
+        }
+        if (runConfiguration.isProfiling()) {
+            configureFlightRecorder(javaParameters);
+        }
+
         javaParameters.setMainClass(runConfiguration.MAIN_CLASS_NAME);
 
         return javaParameters;
     }
 
+    /**
+     * The instrumented system under development writes the timings in the timing file (See
+     * {@link InstrumentedSystemUnderDevelopment}).
+     */
+    private void configureInstrumentation(final JavaParameters javaParameters) throws ExecutionException {
+
+        try {
+            javaParameters.getVMParametersList().addProperty(InstrumentedSystemUnderDevelopment.TIMING_FILE_PROPERTY,
+                    livingDocFileManager.createTimingFile().getAbsolutePath());
+
+        } catch (IOException ioe) {
+            LOG.error(ioe);
+            throw new ExecutionException(ioe);
+        }
+    }
+
+    private void configureFlightRecorder(final JavaParameters javaParameters) throws ExecutionException {
+
+        try {
+            recordingFile = livingDocFileManager.createRecordingFile();
+        } catch (IOException ioe) {
+            LOG.error(ioe);
+            throw new ExecutionException(ioe);
+        }
+        FlightRecorder.configure(javaParameters, recordingFile);
+    }
+
     /**
      * {@link ProcessListenerLivingDoc#startNotified(ProcessEvent)} is the listener method for <code>osProcessHandler.startNotify()</code>
      */
@@ -64,11 +127,39 @@ class RunProfileStateLivingDoc extends JavaCommandLineState {
     protected OSProcessHandler startProcess() throws ExecutionException {
 
         OSProcessHandler osProcessHandler = super.startProcess();
-        osProcessHandler.addProcessListener(new ProcessListenerLivingDoc(runConfiguration));
+        osProcessHandler.addProcessListener(new ProcessListenerLivingDoc(runConfiguration, isPlainExecution()));
+
+        Sdk jdk = getJavaParameters().getJdk();
+
+        // A debug session paused at a breakpoint must not time out.
+        if (DefaultDebugExecutor.EXECUTOR_ID.equals(getEnvironment().getExecutor().getId())) {
+            runConfiguration.setExecutionWatchdog(null);
+        } else {
+            ExecutionWatchdog executionWatchdog = new ExecutionWatchdog(runConfiguration, osProcessHandler, jdk == null ? null : jdk.getHomePath());
+            runConfiguration.setExecutionWatchdog(executionWatchdog);
+            executionWatchdog.start();
+        }
+
+        if (recordingFile != null && jdk != null) {
+            osProcessHandler.addProcessListener(new FlightRecorder(runConfiguration, jdk.getHomePath(), recordingFile));
+        }
+
         osProcessHandler.startNotify(); //  start capturing the process output
+        if (classDataSharingMessage != null) {
+            osProcessHandler.notifyTextAvailable(classDataSharingMessage + "\n", ProcessOutputTypes.SYSTEM);
+        }
         return osProcessHandler;
     }
 
+    /**
+     * @return True whether the execution is comparable with the recorded ones (See {@link ExecutionHistory}): run
+     * executor, neither instrumented nor profiled, and outside a matrix execution.
+     */
+    private boolean isPlainExecution() {
+        return DefaultRunExecutor.EXECUTOR_ID.equals(getEnvironment().getExecutor().getId()) && !runConfiguration.isInstrumented()
+                && !runConfiguration.isProfiling() && runConfiguration.getMatrixResult() == null;
+    }
+
     /**
      * <p>To override the default System Under Development class (used for fixture classes instantiation).<br>
      * The library with the specified class should be in the same directory as the runner. </p>
@@ -79,12 +170,11 @@ class RunProfileStateLivingDoc extends JavaCommandLineState {
 
         JavaParameters javaParameters = new JavaParameters();
 
-        // Generate XML report (defaults to plain)
-        javaParameters.getProgramParametersList().add("--xml");
-
+        File specificationFile = new File(getSpecificationInputPath());
         try {
-            javaParameters.getProgramParametersList().add(getSpecificationInputPath());
-            javaParameters.getProgramParametersList().add(getReportOutputPath());
+            // The system under development is in the program parameters of the run configuration.
+            javaParameters.getProgramParametersList().addAll(HeadlessRunner.buildRunnerArguments(null, specificationFile,
+                    livingDocFileManager.createReportFile()));
 
         } catch (Exception e) {
             LOG.error(e);
@@ -93,48 +183,72 @@ class RunProfileStateLivingDoc extends JavaCommandLineState {
         return javaParameters;
     }
 
+    /**
+     * Returns the specification file written in the download stage of the {@link ExecutionBatch}, which launches the
+     * execution once the file is written.
+     * Without batch (e.g. executions launched from the run configurations list) the document is downloaded now, with a
+     * cancellable progress (See {@link #waitForDownload(Future)}).
+     */
     @NotNull
-    private String getReportOutputPath() throws IOException {
-        File reportFile = livingDocFileManager.createReportFile();
-        return reportFile.getAbsolutePath();
-    }
-
-    @NotNull
-    private String getSpecificationInputPath() throws IOException, ExecutionException {
-
-        File specificationFile = livingDocFileManager.createSpecificationFile();
+    private String getSpecificationInputPath() throws ExecutionException {
 
-        buildSpecificationFile(specificationFile);
+        ExecutionBatch executionBatch = runConfiguration.getExecutionBatch();
+        Future<File> batchSpecificationFile = executionBatch == null ? null : executionBatch.getSpecificationFile(runConfiguration);
 
-        return specificationFile.getAbsolutePath();
-    }
-
-    private void buildSpecificationFile(@NotNull final File specificationFile) throws ExecutionException {
+        try {
+            File specificationFile;
+            if (batchSpecificationFile != null) {
+                specificationFile = waitForDownload(batchSpecificationFile);
+            } else {
+                specificationFile = livingDocFileManager.writeSpecificationFile(waitForDownload(
+                        SpecificationDocumentLoader.getInstance(runConfiguration.getProject()).fetch(
+                                runConfiguration.getRepository(), runConfiguration.getSpecificationName(),
+                                runConfiguration.isCurrentVersion())));
+            }
+            return specificationFile.getAbsolutePath();
 
-        ClassLoader classLoader = getClass().getClassLoader();
+        } catch (Exception e) {
+            Throwable cause = e instanceof java.util.concurrent.ExecutionException && e.getCause() != null ? e.getCause() : e;
 
-        ProjectSettings projectSettings = ProjectSettings.getInstance(runConfiguration.getProject());
+            runConfiguration.getRepositoryViewUpdater().updateStatusLine(statusLine -> {
+                statusLine.setText(cause.getMessage());
+                statusLine.setStatusColor(ColorProgressBar.RED);
+                statusLine.setFraction(100d);
+            });
 
-        DocumentRepository documentRepository = runConfiguration.getRepository().asDocumentRepository(
-                classLoader, projectSettings.getUser(), projectSettings.getPassword());
+            LOG.warn(cause);
+            throw new ExecutionException(cause);
+        }
+    }
 
-        String location = runConfiguration.getSpecificationName() + (runConfiguration.isCurrentVersion() ? "?implemented=false" : "");
+    /**
+     * The environment is built in the Event Dispatch Thread: a pending download is awaited in a modal progress, which
+     * the user can cancel, instead of freezing the IDE.
+     *
+     * @param download Pending download.
+     * @return The result of the download.
+     */
+    private <T> T waitForDownload(final Future<T> download) throws Exception {
 
-        try (PrintWriter printWriter = new PrintWriter(specificationFile, String.valueOf(StandardCharsets.UTF_8))) {
+        if (download.isDone() || !ApplicationManager.getApplication().isDispatchThread()) {
+            return download.get();
+        }
 
-            Document document = documentRepository.loadDocument(location);
-            if (document != null) {
-                document.print(printWriter);
-            } else {
-                LOG.error(I18nSupport.getValue("run.execution.error.document.null"));
+        return ProgressManager.getInstance().runProcessWithProgressSynchronously(() -> {
+            try {
+                while (true) {
+                    ProgressManager.checkCanceled();
+                    try {
+                        return download.get(DOWNLOAD_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException te) {
+                        // Still downloading
+                    }
+                }
+            } catch (ProcessCanceledException pce) {
+                download.cancel(true);
+                throw pce;
             }
-        } catch (Exception e) {
-            runConfiguration.getStatusLine().setText(e.getMessage());
-            runConfiguration.getStatusLine().setStatusColor(ColorProgressBar.RED);
-            runConfiguration.getStatusLine().setFraction(100d);
-
-            LOG.error(e);
-            throw new ExecutionException(e);
-        }
+        }, I18nSupport.getValue("run.execution.download.progress", runConfiguration.getSpecificationName()), true,
+                runConfiguration.getProject());
     }
 }
@@ -0,0 +1,308 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.ConcurrencyUtil;
+import info.novatec.testit.livingdoc.document.Document;
+import info.novatec.testit.livingdoc.headless.SpecificationTask;
+import info.novatec.testit.livingdoc.intellij.common.I18nSupport;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import info.novatec.testit.livingdoc.intellij.domain.SpecificationNode;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUtils;
+import info.novatec.testit.livingdoc.intellij.rest.DocumentRepositoryCache;
+import info.novatec.testit.livingdoc.intellij.rest.OfflineCache;
+import info.novatec.testit.livingdoc.intellij.rest.OfflineMode;
+import info.novatec.testit.livingdoc.repository.DocumentRepository;
+import info.novatec.testit.livingdoc.server.domain.Repository;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Project service for the download stage of the LivingDoc executions (Registered in <b>plugin.xml</b>).<br>
+ * The specification documents are loaded from the document repository by a pool of
+ * <code>livingdoc.pipeline.download.threads</code> threads, so the documents of the next specifications are
+ * downloaded while the previous ones are executing.<br>
+ * The documents of the selected specifications can also be downloaded speculatively by a low priority thread
+ * (See {@link #prefetch(Collection)}). A speculative download is used by the next execution of the specification
+ * whether it is not older than <code>livingdoc.prefetch.ttl.seconds</code>.<br>
+ * The in-process executions use the loaded {@link Document} instead of its HTML content
+ * (See {@link #fetchDocument(Repository, String, boolean)}).<br>
+ * The downloaded documents are cached, and the cached ones are used in offline mode or whether the server cannot be
+ * reached (See {@link OfflineCache}).
+ *
+ * @see ExecutionBatch
+ */
+public class SpecificationDocumentLoader implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(SpecificationDocumentLoader.class);
+
+    private final Project project;
+    private final ExecutorService downloadStage;
+    private final ExecutorService prefetchStage;
+    private final long prefetchTimeToLive;
+
+    private final Map<String, PrefetchedDocument> prefetchedDocuments = new ConcurrentHashMap<>();
+
+
+    public SpecificationDocumentLoader(@NotNull final Project project) {
+
+        this.project = project;
+        this.downloadStage = Executors.newFixedThreadPool(
+                Integer.parseInt(PluginProperties.getValue("livingdoc.pipeline.download.threads")),
+                ConcurrencyUtil.newNamedThreadFactory("LivingDoc Download Stage", true, Thread.NORM_PRIORITY));
+        this.prefetchStage = Executors.newSingleThreadExecutor(
+                ConcurrencyUtil.newNamedThreadFactory("LivingDoc Prefetch", true, Thread.MIN_PRIORITY));
+        this.prefetchTimeToLive = TimeUnit.SECONDS.toMillis(
+                Long.parseLong(PluginProperties.getValue("livingdoc.prefetch.ttl.seconds")));
+    }
+
+    public static SpecificationDocumentLoader getInstance(@NotNull final Project project) {
+        return ServiceManager.getService(project, SpecificationDocumentLoader.class);
+    }
+
+    /**
+     * Downloads the specification document in the download stage.<br>
+     * A speculative download of the same document is reused whether it has already started and it is not expired.
+     *
+     * @param repository        Document repository of the specification.
+     * @param specificationName Specification name.
+     * @param currentVersion    True for the current (working) version. False for the implemented version.
+     * @return The document in HTML format once it is downloaded.
+     */
+    @NotNull
+    public CompletableFuture<String> fetch(@NotNull final Repository repository, @NotNull final String specificationName,
+                                           final boolean currentVersion) {
+
+        PrefetchedDocument prefetchedDocument = prefetchedDocuments.remove(SpecificationTask.buildKey(repository.getUid(), specificationName, currentVersion));
+        if (prefetchedDocument != null) {
+            if (!prefetchedDocument.cancelIfNotStarted() && prefetchedDocument.isUsable(prefetchTimeToLive)) {
+                return prefetchedDocument.document;
+            }
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return loadDocument(repository, specificationName, currentVersion);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, downloadStage);
+    }
+
+    /**
+     * Downloads the specification document in the download stage for the in-process executions.<br>
+     * The speculative downloads are not used: the document is executed, so it cannot be shared.
+     *
+     * @param repository        Document repository of the specification.
+     * @param specificationName Specification name.
+     * @param currentVersion    True for the current (working) version. False for the implemented version.
+     * @return The loaded document.
+     */
+    @NotNull
+    CompletableFuture<Document> fetchDocument(@NotNull final Repository repository, @NotNull final String specificationName,
+                                              final boolean currentVersion) {
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Document document = downloadDocument(repository, specificationName, currentVersion);
+                if (document == null) {
+                    throw new IllegalStateException(I18nSupport.getValue("run.execution.error.document.null"));
+                }
+                indexSpecification(repository, specificationName, document);
+                return document;
+
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, downloadStage);
+    }
+
+    /**
+     * Downloads the specification document in the current thread, and caches it for the offline mode.<br>
+     * In offline mode, or whether the server cannot be reached, the cached document is returned instead (See
+     * {@link OfflineMode}).
+     *
+     * @param repository        Document repository of the specification.
+     * @param specificationName Specification name.
+     * @param currentVersion    True for the current (working) version. False for the implemented version.
+     * @return The document in HTML format.
+     * @throws Exception If the document cannot be loaded.
+     */
+    @NotNull
+    public String loadDocument(@NotNull final Repository repository, @NotNull final String specificationName,
+                               final boolean currentVersion) throws Exception {
+
+        if (OfflineMode.getInstance(project).isOffline()) {
+            String content = loadCachedDocument(repository, specificationName, currentVersion);
+            if (content == null) {
+                throw new IllegalStateException(I18nSupport.getValue("run.execution.error.offline.document", specificationName));
+            }
+            return content;
+        }
+
+        Document document;
+        try {
+            document = downloadDocument(repository, specificationName, currentVersion);
+
+        } catch (Exception e) {
+            String content = isConnectionError(e) ? loadCachedDocument(repository, specificationName, currentVersion) : null;
+            if (content == null) {
+                throw e;
+            }
+            LOG.warn("The server cannot be reached, the cached document " + specificationName + " is used: " + e.getMessage());
+            return content;
+        }
+        if (document == null) {
+            LOG.warn(I18nSupport.getValue("run.execution.error.document.null"));
+        }
+        String content = indexSpecification(repository, specificationName, document);
+        if (document != null) {
+            OfflineCache.getInstance(project).saveDocument(repository.getUid(), specificationName, currentVersion, content);
+        }
+        return content;
+    }
+
+    /**
+     * @return The cached document in HTML format, indexed by the watch mode. Null whether it is not cached.
+     */
+    @Nullable
+    private String loadCachedDocument(final Repository repository, final String specificationName, final boolean currentVersion) {
+
+        String content = OfflineCache.getInstance(project).loadDocument(repository.getUid(), specificationName, currentVersion);
+        if (content != null) {
+            WatchModeManager.getInstance(project).indexSpecification(repository.getUid(), specificationName, content);
+        }
+        return content;
+    }
+
+    /**
+     * @return True whether the server cannot be reached: an I/O error or a {@link ResourceAccessException} (e.g. the
+     * open breaker or an exceeded deadline) in the causes of the failure.
+     */
+    private static boolean isConnectionError(final Throwable failure) {
+
+        for (Throwable cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof ResourceAccessException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Downloads speculatively the documents of the specification nodes with their selected version.<br>
+     * The speculative downloads of other nodes that have not started yet are discarded.
+     *
+     * @param specificationNodes Executable specification nodes.
+     */
+    public void prefetch(@NotNull final Collection<SpecificationNode> specificationNodes) {
+
+        Set<String> keys = new HashSet<>();
+
+        for (SpecificationNode specificationNode : specificationNodes) {
+
+            Repository repository = RepositoryViewUtils.getRepositoryNode(specificationNode).getRepository();
+            String key = SpecificationTask.buildKey(repository.getUid(), specificationNode.getName(), specificationNode.isUsingCurrentVersion());
+            keys.add(key);
+
+            prefetchedDocuments.compute(key, (documentKey, prefetchedDocument) ->
+                    prefetchedDocument != null && prefetchedDocument.isUsable(prefetchTimeToLive)
+                            ? prefetchedDocument
+                            : submitPrefetch(repository, specificationNode.getName(), specificationNode.isUsingCurrentVersion()));
+        }
+
+        prefetchedDocuments.entrySet().removeIf(entry -> !entry.getValue().isUsable(prefetchTimeToLive)
+                || (!keys.contains(entry.getKey()) && entry.getValue().cancelIfNotStarted()));
+    }
+
+    @Override
+    public void dispose() {
+        prefetchStage.shutdownNow();
+        downloadStage.shutdownNow();
+    }
+
+    private PrefetchedDocument submitPrefetch(final Repository repository, final String specificationName,
+                                              final boolean currentVersion) {
+
+        PrefetchedDocument prefetchedDocument = new PrefetchedDocument();
+        prefetchedDocument.task = prefetchStage.submit(() -> {
+
+            if (prefetchedDocument.started.compareAndSet(false, true)) {
+                try {
+                    prefetchedDocument.document.complete(loadDocument(repository, specificationName, currentVersion));
+                } catch (Exception e) {
+                    LOG.debug(e);
+                    prefetchedDocument.document.completeExceptionally(e);
+                }
+            }
+        });
+        return prefetchedDocument;
+    }
+
+    @Nullable
+    private Document downloadDocument(final Repository repository, final String specificationName,
+                                      final boolean currentVersion) throws Exception {
+
+        DocumentRepository documentRepository = DocumentRepositoryCache.getInstance(project).getDocumentRepository(repository);
+
+        return documentRepository.loadDocument(SpecificationTask.buildLocation(specificationName, currentVersion));
+    }
+
+    /**
+     * @return The document in HTML format (empty without document), indexed by the watch mode.
+     */
+    private String indexSpecification(final Repository repository, final String specificationName,
+                                      @Nullable final Document document) {
+
+        StringWriter content = new StringWriter();
+        if (document != null) {
+            document.print(new PrintWriter(content));
+        }
+
+        WatchModeManager.getInstance(project).indexSpecification(repository.getUid(), specificationName, content.toString());
+
+        return content.toString();
+    }
+
+    /**
+     * Speculative download of a specification document.
+     */
+    private static final class PrefetchedDocument {
+
+        private final CompletableFuture<String> document = new CompletableFuture<>();
+        private final AtomicBoolean started = new AtomicBoolean(false);
+        private final long creationTime = System.currentTimeMillis();
+        private Future<?> task;
+
+        /**
+         * @return True whether the download was cancelled before starting. False otherwise.
+         */
+        private boolean cancelIfNotStarted() {
+
+            if (started.compareAndSet(false, true)) {
+                task.cancel(false);
+                document.cancel(false);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isUsable(final long timeToLive) {
+            return !document.isCancelled() && !document.isCompletedExceptionally()
+                    && System.currentTimeMillis() - creationTime < timeToLive;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+/**
+ * Last wall time of a specification version compared with its rolling baseline (See {@link DurationBaseline}).
+ *
+ * @see ExecutionHistory#getSpecificationDurations()
+ */
+public class SpecificationDuration {
+
+    private final String repositoryUID;
+    private final String specificationName;
+    private final boolean currentVersion;
+    private final long lastWallTime;
+    private final long baselineWallTime;
+    private final double ratio;
+    private final boolean regression;
+
+
+    SpecificationDuration(final ExecutionRecord lastRecord, final DurationBaseline baseline, final boolean regression) {
+
+        this.repositoryUID = lastRecord.getRepositoryUID();
+        this.specificationName = lastRecord.getSpecificationName();
+        this.currentVersion = lastRecord.isCurrentVersion();
+        this.lastWallTime = lastRecord.getWallTime();
+        this.baselineWallTime = Math.round(baseline.getMean());
+        this.ratio = baseline.getRatio(lastRecord.getWallTime());
+        this.regression = regression;
+    }
+
+    public String getRepositoryUID() {
+        return repositoryUID;
+    }
+
+    public String getSpecificationName() {
+        return specificationName;
+    }
+
+    public boolean isCurrentVersion() {
+        return currentVersion;
+    }
+
+    /**
+     * @return Wall time (ms) of the last execution.
+     */
+    public long getLastWallTime() {
+        return lastWallTime;
+    }
+
+    /**
+     * @return Mean wall time (ms) of the previous executions. 0 without previous executions.
+     */
+    public long getBaselineWallTime() {
+        return baselineWallTime;
+    }
+
+    /**
+     * @return Slowdown of the last execution relative to the baseline (e.g. 0.5 for 50% slower).
+     */
+    public double getRatio() {
+        return ratio;
+    }
+
+    /**
+     * @return True whether the last execution is a significant slowdown.
+     */
+    public boolean isRegression() {
+        return regression;
+    }
+}
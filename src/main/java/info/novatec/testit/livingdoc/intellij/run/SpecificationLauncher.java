@@ -0,0 +1,293 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.execution.Executor;
+import com.intellij.execution.RunManager;
+import com.intellij.execution.RunManagerEx;
+import com.intellij.execution.RunnerAndConfigurationSettings;
+import com.intellij.execution.configurations.ConfigurationFactory;
+import com.intellij.execution.executors.DefaultDebugExecutor;
+import com.intellij.execution.executors.DefaultRunExecutor;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import info.novatec.testit.livingdoc.headless.SpecificationTask;
+import info.novatec.testit.livingdoc.intellij.core.ConfigurationTypeLivingDoc;
+import info.novatec.testit.livingdoc.intellij.domain.ModuleSettings;
+import info.novatec.testit.livingdoc.intellij.domain.ProjectSettings;
+import info.novatec.testit.livingdoc.intellij.domain.RepositoryNode;
+import info.novatec.testit.livingdoc.intellij.domain.SpecificationNode;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUpdater;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUtils;
+import info.novatec.testit.livingdoc.intellij.rest.OfflineMode;
+import info.novatec.testit.livingdoc.intellij.runner.InstrumentedSystemUnderDevelopment;
+import info.novatec.testit.livingdoc.intellij.runner.ProgressSystemUnderDevelopment;
+import info.novatec.testit.livingdoc.runner.Main;
+import info.novatec.testit.livingdoc.server.domain.Repository;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Launches the LivingDoc execution of specification nodes.<br>
+ * A {@link RemoteRunConfiguration} is filled for every node and executed with the given {@link Executor}. It is
+ * shared by the repository view actions and the watch mode.<br>
+ * The run configurations are reused by repository UID and specification name. A new configuration is registered as
+ * temporary when a single specification is executed (the IDE keeps a bounded number of temporary configurations),
+ * while the new configurations of a bulk execution are not registered at all.
+ *
+ * @see ExecutionBatch
+ * @see MatrixResult
+ * @see RemoteRunConfiguration
+ * @see WatchModeManager
+ */
+public class SpecificationLauncher {
+
+    private final Project project;
+    private final RepositoryViewUpdater repositoryViewUpdater;
+
+    /**
+     * @param project               Project owning the repository view.
+     * @param repositoryViewUpdater Updates the status line and the nodes of the repository view during the execution.
+     */
+    public SpecificationLauncher(@NotNull final Project project, @NotNull final RepositoryViewUpdater repositoryViewUpdater) {
+        this.project = project;
+        this.repositoryViewUpdater = repositoryViewUpdater;
+    }
+
+    /**
+     * Executes the specification nodes as a new {@link ExecutionBatch}.
+     *
+     * @param specificationNodes Executable specification nodes.
+     * @param executor           Kind of execution (run or debug).
+     * @return The started {@link ExecutionBatch}
+     */
+    @NotNull
+    public ExecutionBatch launch(@NotNull final List<SpecificationNode> specificationNodes, @NotNull final Executor executor) {
+        return launch(specificationNodes, executor, false);
+    }
+
+    /**
+     * Executes the specification nodes as a new {@link ExecutionBatch}.
+     *
+     * @param specificationNodes Executable specification nodes.
+     * @param executor           Kind of execution (run or debug).
+     * @param profiling          True to profile the executions with Flight Recorder (See {@link FlightRecorder}).
+     * @return The started {@link ExecutionBatch}
+     */
+    @NotNull
+    public ExecutionBatch launch(@NotNull final List<SpecificationNode> specificationNodes, @NotNull final Executor executor,
+                                 final boolean profiling) {
+
+        ProcessListenerLivingDoc.resetCounters();
+
+        RunManager runManager = RunManager.getInstance(project);
+        ConfigurationFactory configurationFactory = ConfigurationTypeLivingDoc.getInstance().getConfigurationFactories()[0];
+
+        List<RunnerAndConfigurationSettings> executions = new ArrayList<>();
+
+        Map<String, RunnerAndConfigurationSettings> registeredSettings = getRegisteredSettings();
+        boolean bulkExecution = specificationNodes.size() > 1;
+
+        for (SpecificationNode specificationNode : specificationNodes) {
+
+            String key = SpecificationTask.buildKey(RepositoryViewUtils.getRepositoryNode(specificationNode).getRepository().getUid(),
+                    specificationNode.getName());
+
+            // Reused at most once per execution
+            RunnerAndConfigurationSettings runnerAndConfigurationSettings = registeredSettings.remove(key);
+            if (runnerAndConfigurationSettings == null) {
+                runnerAndConfigurationSettings = runManager.createRunConfiguration(specificationNode.getName(), configurationFactory);
+                runnerAndConfigurationSettings.setTemporary(true);
+
+                if (!bulkExecution) {
+                    RunManagerEx.getInstanceEx(project).setTemporaryConfiguration(runnerAndConfigurationSettings);
+                }
+            }
+
+            // True to active the "Run" ToolWindow
+            runnerAndConfigurationSettings.setActivateToolWindowBeforeRun(false);
+
+            // True to show the "run configuration UI" before launching LivingDoc
+            runnerAndConfigurationSettings.setEditBeforeRun(DefaultDebugExecutor.EXECUTOR_ID.equals(executor.getId()));
+
+            RemoteRunConfiguration runConfiguration = (RemoteRunConfiguration) runnerAndConfigurationSettings.getConfiguration();
+            fillRunConfiguration(runConfiguration, specificationNode, RepositoryViewUtils.getModuleNode(specificationNode).getModuleName());
+            runConfiguration.setProfiling(profiling);
+            runConfiguration.setMatrixResult(null);
+
+            executions.add(runnerAndConfigurationSettings);
+        }
+
+        ExecutionBatch executionBatch = new ExecutionBatch(project, executor, executions, repositoryViewUpdater,
+                isInProcess(executor, profiling));
+        executionBatch.start();
+        return executionBatch;
+    }
+
+    /**
+     * Executes the specification nodes with the system under test of every module as a new {@link ExecutionBatch}.<br>
+     * The configurations of the matrix are not registered and each document version is downloaded once per batch.
+     *
+     * @param specificationNodes Executable specification nodes.
+     * @param modules            Modules with LivingDoc enabled (each one with its system under test and classpath).
+     * @return The results of the matrix, updated while the batch is executing (See {@link MatrixResult#TOPIC}).
+     */
+    @NotNull
+    public MatrixResult launchMatrix(@NotNull final List<SpecificationNode> specificationNodes, @NotNull final List<Module> modules) {
+
+        ProcessListenerLivingDoc.resetCounters();
+
+        RunManager runManager = RunManager.getInstance(project);
+        ConfigurationFactory configurationFactory = ConfigurationTypeLivingDoc.getInstance().getConfigurationFactories()[0];
+
+        List<MatrixResult.Row> rows = new ArrayList<>();
+        for (SpecificationNode specificationNode : specificationNodes) {
+            rows.add(new MatrixResult.Row(SpecificationTask.buildKey(
+                    RepositoryViewUtils.getRepositoryNode(specificationNode).getRepository().getUid(), specificationNode.getName()),
+                    specificationNode.getName()));
+        }
+        List<MatrixResult.Column> columns = new ArrayList<>();
+        for (Module module : modules) {
+            columns.add(new MatrixResult.Column(module.getName(), StringUtils.defaultString(ModuleSettings.getInstance(module).getSud())));
+        }
+        MatrixResult matrixResult = new MatrixResult(rows, columns);
+
+        List<RunnerAndConfigurationSettings> executions = new ArrayList<>();
+        for (Module module : modules) {
+            for (SpecificationNode specificationNode : specificationNodes) {
+
+                RunnerAndConfigurationSettings runnerAndConfigurationSettings =
+                        runManager.createRunConfiguration(specificationNode.getName() + " (" + module.getName() + ")", configurationFactory);
+                runnerAndConfigurationSettings.setTemporary(true);
+                runnerAndConfigurationSettings.setActivateToolWindowBeforeRun(false);
+                runnerAndConfigurationSettings.setEditBeforeRun(false);
+
+                RemoteRunConfiguration runConfiguration = (RemoteRunConfiguration) runnerAndConfigurationSettings.getConfiguration();
+                fillRunConfiguration(runConfiguration, specificationNode, module.getName());
+                runConfiguration.setMatrixResult(matrixResult);
+
+                executions.add(runnerAndConfigurationSettings);
+            }
+        }
+
+        project.getMessageBus().syncPublisher(MatrixResult.TOPIC).matrixChanged(matrixResult);
+
+        Executor executor = DefaultRunExecutor.getRunExecutorInstance();
+        new ExecutionBatch(project, executor, executions, repositoryViewUpdater, isInProcess(executor, false)).start();
+        return matrixResult;
+    }
+
+    /**
+     * The in-process executions (See {@link InProcessExecution}) are only used to run, without profiling or
+     * instrumentation, which need the process. In offline mode the cached documents are executed by the process.
+     */
+    private boolean isInProcess(final Executor executor, final boolean profiling) {
+
+        ProjectSettings projectSettings = ProjectSettings.getInstance(project);
+        return projectSettings.isInProcessExecution() && !projectSettings.isInstrumentedRun() && !profiling
+                && DefaultRunExecutor.EXECUTOR_ID.equals(executor.getId()) && !OfflineMode.getInstance(project).isOffline();
+    }
+
+    /**
+     * Removes the LivingDoc run configurations that cannot be executed anymore: without repository or specification,
+     * duplicated, or whose specification is not in its loaded repository. The running configurations are never
+     * removed, and they win over their duplicates.
+     *
+     * @param loadedRepositories     UIDs of the repositories loaded in the repository view.
+     * @param loadedSpecifications Keys (repository UID and specification name) of the loaded specifications.
+     */
+    public void removeStaleConfigurations(@NotNull final Set<String> loadedRepositories,
+                                          @NotNull final Set<String> loadedSpecifications) {
+
+        RunManagerEx runManager = RunManagerEx.getInstanceEx(project);
+        List<RunnerAndConfigurationSettings> settingsList = runManager.getConfigurationSettingsList(ConfigurationTypeLivingDoc.getInstance());
+        Set<String> keys = new HashSet<>();
+
+        for (RunnerAndConfigurationSettings settings : settingsList) {
+            RemoteRunConfiguration runConfiguration = (RemoteRunConfiguration) settings.getConfiguration();
+            if (isRunning(runConfiguration)) {
+                keys.add(SpecificationTask.buildKey(runConfiguration.getRepositoryUID(), runConfiguration.getSpecificationName()));
+            }
+        }
+
+        for (RunnerAndConfigurationSettings settings : settingsList) {
+
+            RemoteRunConfiguration runConfiguration = (RemoteRunConfiguration) settings.getConfiguration();
+            if (isRunning(runConfiguration)) {
+                continue;
+            }
+            String key = SpecificationTask.buildKey(runConfiguration.getRepositoryUID(), runConfiguration.getSpecificationName());
+
+            boolean stale = StringUtils.isAnyBlank(runConfiguration.getRepositoryUID(), runConfiguration.getSpecificationName())
+                    || !keys.add(key)
+                    || (loadedRepositories.contains(runConfiguration.getRepositoryUID()) && !loadedSpecifications.contains(key));
+
+            if (stale) {
+                runManager.removeConfiguration(settings);
+            }
+        }
+    }
+
+    private static boolean isRunning(final RemoteRunConfiguration runConfiguration) {
+        return runConfiguration.getExecutionBatch() != null && !runConfiguration.getExecutionBatch().isFinished();
+    }
+
+    private Map<String, RunnerAndConfigurationSettings> getRegisteredSettings() {
+
+        Map<String, RunnerAndConfigurationSettings> registeredSettings = new HashMap<>();
+
+        for (RunnerAndConfigurationSettings settings : RunManager.getInstance(project).getConfigurationSettingsList(ConfigurationTypeLivingDoc.getInstance())) {
+            RemoteRunConfiguration runConfiguration = (RemoteRunConfiguration) settings.getConfiguration();
+
+            // Still executing in a previous batch
+            if (isRunning(runConfiguration)) {
+                continue;
+            }
+            registeredSettings.putIfAbsent(SpecificationTask.buildKey(runConfiguration.getRepositoryUID(),
+                    runConfiguration.getSpecificationName()), settings);
+        }
+        return registeredSettings;
+    }
+
+    /**
+     * @param moduleName Module of the execution: the module of the node, or another one in a matrix execution.
+     */
+    private void fillRunConfiguration(final RemoteRunConfiguration runConfiguration, final SpecificationNode specificationNode,
+                                      final String moduleName) {
+
+        runConfiguration.getAllModules().stream().filter(
+                module -> StringUtils.equals(module.getName(), moduleName)).forEach(runConfiguration::setModule);
+
+        RepositoryNode repositoryNode = RepositoryViewUtils.getRepositoryNode(specificationNode);
+        Repository repository = repositoryNode.getRepository();
+
+        runConfiguration.setRepositoryUID(repository.getUid());
+        runConfiguration.setRepositoryURL(repository.getBaseTestUrl());
+        runConfiguration.setSpecificationName(specificationNode.getName());
+        runConfiguration.setRepositoryClass(repository.getType().getClassName());
+        runConfiguration.setCurrentVersion(specificationNode.isUsingCurrentVersion());
+        runConfiguration.setRepositoryName(repository.getName());
+
+        runConfiguration.MAIN_CLASS_NAME = Main.class.getName();
+
+        runConfiguration.setRepositoryViewUpdater(repositoryViewUpdater);
+        runConfiguration.setSelectedNode(specificationNode);
+
+        runConfiguration.setShowConsoleOnStdOut(true);
+        runConfiguration.setShowConsoleOnStdErr(true);
+
+        ModuleSettings moduleSettings = ModuleSettings.getInstance(runConfiguration.getConfigurationModule().getModule());
+        runConfiguration.setInstrumented(ProjectSettings.getInstance(project).isInstrumentedRun());
+
+        // The system under development reporting the progress (and timing the fixtures) wraps the configured one.
+        Class<?> systemUnderDevelopment = runConfiguration.isInstrumented()
+                ? InstrumentedSystemUnderDevelopment.class : ProgressSystemUnderDevelopment.class;
+        String programParameter = "-f " + systemUnderDevelopment.getName() + ";"
+                + StringUtils.defaultString(moduleSettings.getSudClassName());
+
+        if (StringUtils.isNoneBlank(moduleSettings.getSudClassName(), moduleSettings.getSudArgs())) {
+            programParameter = programParameter + ";" + moduleSettings.getSudArgs();
+        }
+        runConfiguration.setProgramParameters(programParameter);
+    }
+}
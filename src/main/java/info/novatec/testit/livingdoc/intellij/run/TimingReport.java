@@ -0,0 +1,84 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.util.messages.Topic;
+import info.novatec.testit.livingdoc.intellij.runner.InstrumentedSystemUnderDevelopment;
+import info.novatec.testit.livingdoc.intellij.runner.TimingEntry;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Timings of an instrumented execution, read from the timing file written by the
+ * {@link InstrumentedSystemUnderDevelopment}.<br>
+ * The reports are published to the subscribers of {@link #TOPIC} once the execution finishes.
+ *
+ * @see ProcessListenerLivingDoc
+ */
+public class TimingReport {
+
+    public static final Topic<Listener> TOPIC = Topic.create("LivingDoc timing report", Listener.class);
+
+    private final String specificationName;
+    private final List<TimingEntry> timingEntries;
+
+
+    private TimingReport(final String specificationName, final List<TimingEntry> timingEntries) {
+        this.specificationName = specificationName;
+        this.timingEntries = Collections.unmodifiableList(timingEntries);
+    }
+
+    /**
+     * @param specificationName Executed specification.
+     * @param timingFile        Timing file of the execution.
+     * @return The timings of the execution (without entries whether the file does not exist).
+     * @throws IOException If an I/O error occurred
+     */
+    static TimingReport read(@NotNull final String specificationName, @NotNull final File timingFile) throws IOException {
+
+        List<TimingEntry> timingEntries = new ArrayList<>();
+        if (timingFile.exists()) {
+            for (String line : Files.readAllLines(timingFile.toPath(), StandardCharsets.UTF_8)) {
+                TimingEntry timingEntry = TimingEntry.parse(line);
+                if (timingEntry != null) {
+                    timingEntries.add(timingEntry);
+                }
+            }
+        }
+        return new TimingReport(specificationName, timingEntries);
+    }
+
+    public String getSpecificationName() {
+        return specificationName;
+    }
+
+    public List<TimingEntry> getTimingEntries() {
+        return timingEntries;
+    }
+
+    /**
+     * @return Total time (ns) of the tables, i.e. the interpreted part of the document.
+     */
+    public long getTotalTableNanos() {
+        return timingEntries.stream().filter(timingEntry -> timingEntry.getKind() == TimingEntry.Kind.TABLE)
+                .mapToLong(TimingEntry::getTotalNanos).sum();
+    }
+
+    /**
+     * Subscriber of the timing reports.
+     */
+    public interface Listener {
+
+        /**
+         * An instrumented execution has finished (called in the report stage).
+         *
+         * @param timingReport Timings of the execution.
+         */
+        void timingReportAvailable(TimingReport timingReport);
+    }
+}
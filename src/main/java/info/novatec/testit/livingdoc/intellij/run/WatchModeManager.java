@@ -0,0 +1,235 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import com.intellij.execution.executors.DefaultRunExecutor;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.compiler.CompilationStatusListener;
+import com.intellij.openapi.compiler.CompileContext;
+import com.intellij.openapi.compiler.CompilerTopics;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.Alarm;
+import info.novatec.testit.livingdoc.headless.SpecificationTask;
+import info.novatec.testit.livingdoc.intellij.common.PluginProperties;
+import info.novatec.testit.livingdoc.intellij.domain.SpecificationNode;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.RepositoryViewUtils;
+import info.novatec.testit.livingdoc.intellij.gui.toolwindows.ToolWindowPanel;
+import info.novatec.testit.livingdoc.intellij.rest.OfflineCache;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Project service for the watch mode of the repository view (Registered in <b>plugin.xml</b>).<br>
+ * For every watched module, the executable specifications that reference a class generated by the last compilations
+ * are executed again. Compilations in a row are grouped with a delay (<code>livingdoc.watch.debounce.millis</code>)
+ * and the executions still running from a previous compilation are cancelled.<br>
+ * NOTE: The fixtures referenced by a specification are known once its document has been downloaded, that is, once it
+ * has been executed at least once. When a module is watched, its specifications not executed yet in the session are
+ * indexed with their documents cached for the offline mode (See {@link OfflineCache}).
+ *
+ * @see FixtureReferences
+ * @see SpecificationLauncher
+ */
+public class WatchModeManager {
+
+    private static final Logger LOG = Logger.getInstance(WatchModeManager.class);
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    private final Project project;
+    private final Alarm alarm;
+    private final int debounceDelay;
+
+    private final Set<String> watchedModules = ConcurrentHashMap.newKeySet();
+    private final Set<String> compiledClasses = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<String>> fixtureTokens = new ConcurrentHashMap<>();
+
+    private ExecutionBatch lastExecutionBatch;
+
+
+    public WatchModeManager(@NotNull final Project project) {
+
+        this.project = project;
+        this.alarm = new Alarm(Alarm.ThreadToUse.SWING_THREAD, project);
+        this.debounceDelay = Integer.parseInt(PluginProperties.getValue("livingdoc.watch.debounce.millis"));
+
+        project.getMessageBus().connect(project).subscribe(CompilerTopics.COMPILATION_STATUS, new CompilationStatusListener() {
+
+            @Override
+            public void compilationFinished(boolean aborted, int errors, int warnings, CompileContext compileContext) {
+
+                if (aborted || errors > 0) {
+                    compiledClasses.clear();
+                } else if (!watchedModules.isEmpty() && !compiledClasses.isEmpty()) {
+                    alarm.cancelAllRequests();
+                    alarm.addRequest(() -> executeAffectedSpecifications(), debounceDelay);
+                }
+            }
+
+            @Override
+            public void fileGenerated(String outputRoot, String relativePath) {
+
+                if (!watchedModules.isEmpty() && StringUtils.endsWith(relativePath, CLASS_EXTENSION)) {
+                    compiledClasses.add(StringUtils.removeEnd(relativePath, CLASS_EXTENSION).replace('\\', '.').replace('/', '.'));
+                }
+            }
+        });
+    }
+
+    public static WatchModeManager getInstance(@NotNull final Project project) {
+        return ServiceManager.getService(project, WatchModeManager.class);
+    }
+
+    public boolean isWatching(final String moduleName) {
+        return watchedModules.contains(moduleName);
+    }
+
+    public void setWatching(@NotNull final String moduleName, final boolean watching) {
+
+        if (watching) {
+            watchedModules.add(moduleName);
+            indexCachedDocuments(moduleName);
+        } else {
+            watchedModules.remove(moduleName);
+        }
+        if (watchedModules.isEmpty()) {
+            alarm.cancelAllRequests();
+            compiledClasses.clear();
+        }
+    }
+
+    /**
+     * Keeps the fixtures referenced by the specification to find it out after a compilation.
+     *
+     * @param repositoryUID     Repository UID of the specification.
+     * @param specificationName Specification name.
+     * @param content           Specification document in HTML format.
+     */
+    void indexSpecification(final String repositoryUID, final String specificationName, final String content) {
+        fixtureTokens.put(SpecificationTask.buildKey(repositoryUID, specificationName), FixtureReferences.extractTokens(content));
+    }
+
+    /**
+     * Indexes the executable specifications of the module that are not indexed yet with their cached documents. The
+     * documents are read in a pooled thread, and the ones downloaded in the meantime are not replaced.
+     */
+    private void indexCachedDocuments(final String moduleName) {
+
+        ToolWindowPanel toolWindowPanel = RepositoryViewUtils.getToolWindowPanel(project);
+        if (toolWindowPanel == null) {
+            return;
+        }
+
+        List<CachedDocument> cachedDocuments = new ArrayList<>();
+
+        DefaultMutableTreeNode rootNode = (DefaultMutableTreeNode) toolWindowPanel.getRepositoryTree().getModel().getRoot();
+        Enumeration<?> treeNodes = rootNode.depthFirstEnumeration();
+
+        while (treeNodes.hasMoreElements()) {
+            Object userObject = ((DefaultMutableTreeNode) treeNodes.nextElement()).getUserObject();
+
+            if (userObject instanceof SpecificationNode && ((SpecificationNode) userObject).isExecutable()) {
+                SpecificationNode specificationNode = (SpecificationNode) userObject;
+
+                if (moduleName.equals(RepositoryViewUtils.getModuleNode(specificationNode).getModuleName())) {
+                    cachedDocuments.add(new CachedDocument(RepositoryViewUtils.getRepositoryNode(specificationNode).getRepository().getUid(),
+                            specificationNode.getName(), specificationNode.isUsingCurrentVersion()));
+                }
+            }
+        }
+        if (cachedDocuments.isEmpty()) {
+            return;
+        }
+
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+
+            OfflineCache offlineCache = OfflineCache.getInstance(project);
+            int indexed = 0;
+
+            for (CachedDocument cachedDocument : cachedDocuments) {
+                String key = SpecificationTask.buildKey(cachedDocument.repositoryUID, cachedDocument.specificationName);
+                if (fixtureTokens.containsKey(key)) {
+                    continue;
+                }
+                String content = offlineCache.loadDocument(cachedDocument.repositoryUID, cachedDocument.specificationName,
+                        cachedDocument.currentVersion);
+                if (content != null && fixtureTokens.putIfAbsent(key, FixtureReferences.extractTokens(content)) == null) {
+                    indexed++;
+                }
+            }
+            LOG.debug("Watch mode: " + indexed + " specification(s) of " + moduleName + " indexed from the offline cache.");
+        });
+    }
+
+    private void executeAffectedSpecifications() {
+
+        Set<String> classNames = new HashSet<>(compiledClasses);
+        compiledClasses.removeAll(classNames);
+
+        ToolWindowPanel toolWindowPanel = RepositoryViewUtils.getToolWindowPanel(project);
+        if (toolWindowPanel == null || classNames.isEmpty()) {
+            return;
+        }
+
+        List<SpecificationNode> affectedNodes = findAffectedNodes(toolWindowPanel, classNames);
+        if (affectedNodes.isEmpty()) {
+            return;
+        }
+
+        // Superseded executions
+        if (lastExecutionBatch != null) {
+            lastExecutionBatch.cancel();
+        }
+
+        LOG.info("Watch mode: executing " + affectedNodes.size() + " specification(s) after the compilation.");
+        lastExecutionBatch = toolWindowPanel.getSpecificationLauncher().launch(affectedNodes,
+                DefaultRunExecutor.getRunExecutorInstance());
+    }
+
+    private List<SpecificationNode> findAffectedNodes(final ToolWindowPanel toolWindowPanel, final Set<String> classNames) {
+
+        List<SpecificationNode> affectedNodes = new ArrayList<>();
+
+        DefaultMutableTreeNode rootNode = (DefaultMutableTreeNode) toolWindowPanel.getRepositoryTree().getModel().getRoot();
+        Enumeration<?> treeNodes = rootNode.depthFirstEnumeration();
+
+        while (treeNodes.hasMoreElements()) {
+            Object userObject = ((DefaultMutableTreeNode) treeNodes.nextElement()).getUserObject();
+
+            if (userObject instanceof SpecificationNode && ((SpecificationNode) userObject).isExecutable()) {
+                SpecificationNode specificationNode = (SpecificationNode) userObject;
+
+                if (isWatching(RepositoryViewUtils.getModuleNode(specificationNode).getModuleName())) {
+                    Set<String> tokens = fixtureTokens.get(SpecificationTask.buildKey(
+                            RepositoryViewUtils.getRepositoryNode(specificationNode).getRepository().getUid(),
+                            specificationNode.getName()));
+
+                    if (tokens != null && FixtureReferences.references(tokens, classNames)) {
+                        affectedNodes.add(specificationNode);
+                    }
+                }
+            }
+        }
+        return affectedNodes;
+    }
+
+    /**
+     * Specification version whose cached document is indexed.
+     */
+    private static final class CachedDocument {
+
+        private final String repositoryUID;
+        private final String specificationName;
+        private final boolean currentVersion;
+
+        private CachedDocument(final String repositoryUID, final String specificationName, final boolean currentVersion) {
+            this.repositoryUID = repositoryUID;
+            this.specificationName = specificationName;
+            this.currentVersion = currentVersion;
+        }
+    }
+}
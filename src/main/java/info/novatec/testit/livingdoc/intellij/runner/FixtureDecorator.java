@@ -0,0 +1,73 @@
+package info.novatec.testit.livingdoc.intellij.runner;
+
+import info.novatec.testit.livingdoc.reflect.Fixture;
+import info.novatec.testit.livingdoc.reflect.Message;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Proxy of a fixture decorating the messages it returns for the cells (<code>check</code> and <code>send</code>),
+ * and the fixtures returned by <code>fixtureFor</code> with the same decoration.
+ *
+ * @see ProgressSystemUnderDevelopment
+ * @see InstrumentedSystemUnderDevelopment
+ */
+final class FixtureDecorator {
+
+    private static final String CHECK = "check";
+    private static final String SEND = "send";
+    private static final String FIXTURE_FOR = "fixtureFor";
+
+    private FixtureDecorator() {
+    }
+
+    /**
+     * @param fixture          Fixture to decorate (may be null).
+     * @param messageDecorator Decoration of the messages of the cells.
+     * @return The proxy of the fixture, or null without fixture.
+     */
+    static Fixture decorate(final Fixture fixture, final MessageDecorator messageDecorator) {
+
+        if (fixture == null) {
+            return null;
+        }
+        return (Fixture) Proxy.newProxyInstance(Fixture.class.getClassLoader(), new Class<?>[]{Fixture.class},
+                (proxy, method, methodArgs) -> {
+
+                    Object result;
+                    try {
+                        result = method.invoke(fixture, methodArgs);
+                    } catch (InvocationTargetException ite) {
+                        throw ite.getCause();
+                    }
+
+                    if (isMessageCall(method, methodArgs) && result instanceof Message) {
+                        result = messageDecorator.decorate((Message) result, method.getName() + " " + methodArgs[0]);
+                    } else if (FIXTURE_FOR.equals(method.getName()) && result instanceof Fixture) {
+                        result = decorate((Fixture) result, messageDecorator);
+                    }
+                    return result;
+                });
+    }
+
+    private static boolean isMessageCall(final Method method, final Object[] methodArgs) {
+        return (CHECK.equals(method.getName()) || SEND.equals(method.getName()))
+                && methodArgs != null && methodArgs.length == 1 && methodArgs[0] instanceof String;
+    }
+
+    /**
+     * Decoration of the message of a cell.
+     */
+    @FunctionalInterface
+    interface MessageDecorator {
+
+        /**
+         * @param message Message returned by the fixture.
+         * @param call    Call of the fixture returning it (<code>check</code> or <code>send</code> and the cell text).
+         * @return The decorated message.
+         */
+        Message decorate(Message message, String call);
+    }
+}
@@ -0,0 +1,141 @@
+package info.novatec.testit.livingdoc.intellij.runner;
+
+import info.novatec.testit.livingdoc.document.Document;
+import info.novatec.testit.livingdoc.reflect.Fixture;
+import info.novatec.testit.livingdoc.reflect.Message;
+import info.novatec.testit.livingdoc.systemunderdevelopment.SystemUnderDevelopment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * System under development of the instrumented executions. It runs in the LivingDoc runner process (outside of the
+ * IDE), so it only depends on the LivingDoc core classes:<br>
+ * <code>-f InstrumentedSystemUnderDevelopment;CLASS;ARGS</code><br>
+ * It wraps the configured system under development (CLASS instantiated with ARGS, or the default one without CLASS),
+ * reporting the progress like the other executions (See {@link ProgressSystemUnderDevelopment}), and times the instantiation of every fixture, the interpretation of every table and the cells calling every method
+ * of the fixtures (See {@link TimingEntry}). The tables are interpreted sequentially, so the time of a table runs until
+ * the next fixture is instantiated. The time of a cell is the time of the messages sent to the fixture: the messages
+ * returned by the fixture for the cells are wrapped, so the header lookups are not timed.<br>
+ * At the end of the document, the timings are written in the file of the system property {@link #TIMING_FILE_PROPERTY}.
+ */
+public class InstrumentedSystemUnderDevelopment implements SystemUnderDevelopment {
+
+    public static final String TIMING_FILE_PROPERTY = "livingdoc.timing.file";
+
+    private final SystemUnderDevelopment delegate;
+    private final Map<String, TimingEntry> timingEntries = new LinkedHashMap<>();
+
+    private String currentFixture;
+    private long tableStart;
+
+
+    /**
+     * @param args Class name of the configured system under development (blank for the default one) and its arguments.
+     * @throws Exception If the configured system under development cannot be instantiated.
+     */
+    public InstrumentedSystemUnderDevelopment(final String... args) throws Exception {
+        delegate = new ProgressSystemUnderDevelopment(args);
+    }
+
+    @Override
+    public Fixture getFixture(final String name, final String... params) throws Throwable {
+
+        long start = System.nanoTime();
+        finishTable(start);
+
+        Fixture fixture = delegate.getFixture(name, params);
+
+        long end = System.nanoTime();
+        timingEntry(TimingEntry.Kind.FIXTURE, name, "").add(end - start);
+        currentFixture = name;
+        tableStart = end;
+
+        return FixtureDecorator.decorate(fixture, (message, call) -> new TimedMessage(message, name, call));
+    }
+
+    @Override
+    public void addImport(final String packageName) {
+        delegate.addImport(packageName);
+    }
+
+    @Override
+    public void onStartDocument(final Document document) {
+        delegate.onStartDocument(document);
+    }
+
+    @Override
+    public void onEndDocument(final Document document) {
+
+        delegate.onEndDocument(document);
+        finishTable(System.nanoTime());
+        writeTimingFile();
+    }
+
+    private void finishTable(final long now) {
+
+        if (currentFixture != null) {
+            timingEntry(TimingEntry.Kind.TABLE, currentFixture, "").add(now - tableStart);
+            currentFixture = null;
+        }
+    }
+
+    private TimingEntry timingEntry(final TimingEntry.Kind kind, final String fixture, final String message) {
+        return timingEntries.computeIfAbsent(TimingEntry.buildKey(kind, fixture, message),
+                key -> new TimingEntry(kind, fixture, message));
+    }
+
+    private void writeTimingFile() {
+
+        String timingFile = System.getProperty(TIMING_FILE_PROPERTY);
+        if (timingFile == null || timingFile.isEmpty()) {
+            return;
+        }
+
+        List<String> lines = new ArrayList<>(timingEntries.size());
+        timingEntries.values().forEach(timingEntry -> lines.add(timingEntry.toLine()));
+        try {
+            Files.write(Paths.get(timingFile), lines, StandardCharsets.UTF_8);
+        } catch (IOException ioe) {
+            System.err.println("LivingDoc timings not written in " + timingFile + ": " + ioe.getMessage());
+        }
+    }
+
+    /**
+     * Message of a cell timing every call sent to the fixture, whether it fails or not.
+     */
+    private class TimedMessage implements Message {
+
+        private final Message delegate;
+        private final String fixtureName;
+        private final String message;
+
+        TimedMessage(final Message delegate, final String fixtureName, final String message) {
+            this.delegate = delegate;
+            this.fixtureName = fixtureName;
+            this.message = message;
+        }
+
+        @Override
+        public int getArity() {
+            return delegate.getArity();
+        }
+
+        @Override
+        public Object send(final String... args) throws Exception {
+
+            long start = System.nanoTime();
+            try {
+                return delegate.send(args);
+            } finally {
+                timingEntry(TimingEntry.Kind.MESSAGE, fixtureName, message).add(System.nanoTime() - start);
+            }
+        }
+    }
+}
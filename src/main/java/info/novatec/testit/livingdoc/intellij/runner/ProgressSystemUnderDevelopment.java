@@ -0,0 +1,162 @@
+package info.novatec.testit.livingdoc.intellij.runner;
+
+import info.novatec.testit.livingdoc.document.Document;
+import info.novatec.testit.livingdoc.reflect.Fixture;
+import info.novatec.testit.livingdoc.reflect.Message;
+import info.novatec.testit.livingdoc.systemunderdevelopment.DefaultSystemUnderDevelopment;
+import info.novatec.testit.livingdoc.systemunderdevelopment.SystemUnderDevelopment;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * System under development of the executions launched by the IDE, reporting their progress. It runs in the LivingDoc
+ * runner process (outside of the IDE), so it only depends on the LivingDoc core classes:<br>
+ * <code>-f ProgressSystemUnderDevelopment;CLASS;ARGS</code><br>
+ * It wraps the configured system under development (CLASS instantiated with ARGS, or the default one without CLASS)
+ * and counts the tables (the instantiated fixtures) and the cells (the messages sent to the fixtures). The progress is
+ * printed in the standard output (See {@link SpecificationProgress}) at every table and at most every
+ * {@link #PRINT_INTERVAL_MILLIS} ms while the cells are executed, so a long specification shows how far it is.<br>
+ * The in-process executions pass the progress to a consumer instead of printing it.
+ */
+public class ProgressSystemUnderDevelopment implements SystemUnderDevelopment {
+
+    private static final long PRINT_INTERVAL_MILLIS = 250L;
+
+    private final SystemUnderDevelopment delegate;
+    private final Consumer<SpecificationProgress> progressConsumer;
+
+    private int tables;
+    private int cells;
+    private String currentFixture;
+    private long lastProgress;
+
+
+    /**
+     * @param args Class name of the configured system under development (blank for the default one) and its arguments.
+     * @throws Exception If the configured system under development cannot be instantiated.
+     */
+    public ProgressSystemUnderDevelopment(final String... args) throws Exception {
+
+        this(args.length == 0 || args[0].trim().isEmpty() ? new DefaultSystemUnderDevelopment()
+                        : instantiate(args[0].trim(), Arrays.copyOfRange(args, 1, args.length),
+                        ProgressSystemUnderDevelopment.class.getClassLoader()),
+                progress -> {
+                    System.out.println(progress.toLine());
+                    System.out.flush();
+                });
+    }
+
+    /**
+     * @param delegate         Configured system under development.
+     * @param progressConsumer Receives the progress of the execution.
+     */
+    public ProgressSystemUnderDevelopment(final SystemUnderDevelopment delegate,
+                                          final Consumer<SpecificationProgress> progressConsumer) {
+        this.delegate = delegate;
+        this.progressConsumer = progressConsumer;
+    }
+
+    @Override
+    public Fixture getFixture(final String name, final String... params) throws Throwable {
+
+        Fixture fixture = delegate.getFixture(name, params);
+
+        tables++;
+        currentFixture = name;
+        publishProgress();
+
+        return FixtureDecorator.decorate(fixture, (message, call) -> new CountedMessage(message));
+    }
+
+    @Override
+    public void addImport(final String packageName) {
+        delegate.addImport(packageName);
+    }
+
+    @Override
+    public void onStartDocument(final Document document) {
+        delegate.onStartDocument(document);
+    }
+
+    @Override
+    public void onEndDocument(final Document document) {
+        delegate.onEndDocument(document);
+    }
+
+    private void cellExecuted() {
+
+        cells++;
+        if (System.currentTimeMillis() - lastProgress >= PRINT_INTERVAL_MILLIS) {
+            publishProgress();
+        }
+    }
+
+    private void publishProgress() {
+
+        lastProgress = System.currentTimeMillis();
+        progressConsumer.accept(new SpecificationProgress(tables, cells, currentFixture));
+    }
+
+    /**
+     * Instantiates the configured system under development with a constructor of String arguments: the variable
+     * arguments one, the one with the same number of parameters or the default one.<br>
+     * It is also used by the in-process executions, with the class loader of the module.
+     *
+     * @param className   Class name of the system under development.
+     * @param args        Arguments of the constructor.
+     * @param classLoader Class loader of the system under development.
+     * @return The new instance.
+     * @throws Exception If the class cannot be loaded or instantiated.
+     */
+    public static SystemUnderDevelopment instantiate(final String className, final String[] args,
+                                                     final ClassLoader classLoader) throws Exception {
+
+        Class<?> type = Class.forName(className, true, classLoader);
+
+        for (Constructor<?> constructor : type.getConstructors()) {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+
+            if (parameterTypes.length == 1 && parameterTypes[0] == String[].class) {
+                return (SystemUnderDevelopment) constructor.newInstance((Object) args);
+            }
+        }
+        for (Constructor<?> constructor : type.getConstructors()) {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+
+            if (parameterTypes.length == args.length && Arrays.stream(parameterTypes).allMatch(String.class::equals)) {
+                return (SystemUnderDevelopment) constructor.newInstance((Object[]) args);
+            }
+        }
+        return (SystemUnderDevelopment) type.getConstructor().newInstance();
+    }
+
+    /**
+     * Message of a cell counting every call sent to the fixture.
+     */
+    private class CountedMessage implements Message {
+
+        private final Message delegate;
+
+        CountedMessage(final Message delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int getArity() {
+            return delegate.getArity();
+        }
+
+        @Override
+        public Object send(final String... args) throws Exception {
+
+            try {
+                return delegate.send(args);
+            } finally {
+                cellExecuted();
+            }
+        }
+    }
+}
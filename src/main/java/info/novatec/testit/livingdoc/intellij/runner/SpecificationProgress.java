@@ -0,0 +1,64 @@
+package info.novatec.testit.livingdoc.intellij.runner;
+
+/**
+ * Progress of the execution of a specification, printed in the output of the runner as a tab separated line:<br>
+ * <code>LivingDoc progress tables cells fixture</code><br>
+ * The tables are the fixtures instantiated so far, the cells the messages sent to the fixtures and the fixture the one
+ * of the table being executed.
+ *
+ * @see ProgressSystemUnderDevelopment
+ */
+public final class SpecificationProgress {
+
+    private static final String PREFIX = "LivingDoc progress";
+    private static final String SEPARATOR = "\t";
+    private static final int FIELDS = 4;
+
+    private final int tables;
+    private final int cells;
+    private final String fixture;
+
+
+    public SpecificationProgress(final int tables, final int cells, final String fixture) {
+        this.tables = tables;
+        this.cells = cells;
+        this.fixture = fixture == null ? "" : fixture.replace('\t', ' ').replace('\r', ' ').replace('\n', ' ');
+    }
+
+    /**
+     * @param line Line of the runner output.
+     * @return The progress of the line. Null whether the line is not a progress line.
+     */
+    public static SpecificationProgress parse(final String line) {
+
+        if (line == null || !line.startsWith(PREFIX + SEPARATOR)) {
+            return null;
+        }
+        String[] fields = line.split(SEPARATOR, -1);
+        if (fields.length != FIELDS) {
+            return null;
+        }
+        try {
+            return new SpecificationProgress(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), fields[3]);
+
+        } catch (NumberFormatException nfe) {
+            return null;
+        }
+    }
+
+    public String toLine() {
+        return PREFIX + SEPARATOR + tables + SEPARATOR + cells + SEPARATOR + fixture;
+    }
+
+    public int getTables() {
+        return tables;
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    public String getFixture() {
+        return fixture;
+    }
+}
@@ -0,0 +1,112 @@
+package info.novatec.testit.livingdoc.intellij.runner;
+
+/**
+ * Accumulated time of a fixture of the instrumented executions, written in the timing file as a tab separated line:<br>
+ * <code>kind fixture message count totalNanos maxNanos</code>
+ *
+ * @see InstrumentedSystemUnderDevelopment
+ */
+public final class TimingEntry {
+
+    /**
+     * <ul>
+     * <li>FIXTURE: instantiation of the fixture by the system under development.</li>
+     * <li>TABLE: interpretation of the table (all its rows), from the instantiation of its fixture to the next one.</li>
+     * <li>MESSAGE: cells calling a method of the fixture, the time of the message sent to the fixture.</li>
+     * </ul>
+     */
+    public enum Kind {FIXTURE, TABLE, MESSAGE}
+
+    private static final String SEPARATOR = "\t";
+    private static final int FIELDS = 6;
+
+    private final Kind kind;
+    private final String fixture;
+    private final String message;
+    private int count;
+    private long totalNanos;
+    private long maxNanos;
+
+
+    public TimingEntry(final Kind kind, final String fixture, final String message) {
+        this.kind = kind;
+        this.fixture = clean(fixture);
+        this.message = clean(message);
+    }
+
+    /**
+     * @param line Line of the timing file.
+     * @return The entry of the line. Null whether the line is not valid.
+     */
+    public static TimingEntry parse(final String line) {
+
+        if (line == null) {
+            return null;
+        }
+        String[] fields = line.split(SEPARATOR, -1);
+        if (fields.length != FIELDS) {
+            return null;
+        }
+        try {
+            TimingEntry timingEntry = new TimingEntry(Kind.valueOf(fields[0]), fields[1], fields[2]);
+            timingEntry.count = Integer.parseInt(fields[3]);
+            timingEntry.totalNanos = Long.parseLong(fields[4]);
+            timingEntry.maxNanos = Long.parseLong(fields[5]);
+            return timingEntry;
+
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param kind    Kind of the entry.
+     * @param fixture Fixture name.
+     * @param message Method of the fixture (empty for the fixture and table entries).
+     * @return The key of the entry.
+     */
+    public static String buildKey(final Kind kind, final String fixture, final String message) {
+        return kind + SEPARATOR + clean(fixture) + SEPARATOR + clean(message);
+    }
+
+    /**
+     * @param nanos Elapsed time (ns) of one more occurrence.
+     */
+    public void add(final long nanos) {
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public String toLine() {
+        return buildKey(kind, fixture, message) + SEPARATOR + count + SEPARATOR + totalNanos + SEPARATOR + maxNanos;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getFixture() {
+        return fixture;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    private static String clean(final String value) {
+        return value == null ? "" : value.replace('\t', ' ').replace('\r', ' ').replace('\n', ' ');
+    }
+}
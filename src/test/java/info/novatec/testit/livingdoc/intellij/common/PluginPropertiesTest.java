@@ -8,9 +8,21 @@ public class PluginPropertiesTest {
     @Test
     public void getValue() {
 
-        String propertyValue = PluginProperties.getValue("livingdoc.dir.project");
+        String propertyValue = PluginProperties.getValue("livingdoc.runs.max.age.days");
 
         Assert.assertNotNull(propertyValue);
-        Assert.assertEquals("LivingDoc", propertyValue);
+        Assert.assertEquals("7", propertyValue);
+    }
+
+    @Test
+    public void systemPropertyOverridesValue() {
+
+        System.setProperty("livingdoc.server.retries", "5");
+        try {
+            Assert.assertEquals("5", PluginProperties.getValue("livingdoc.server.retries"));
+        } finally {
+            System.clearProperty("livingdoc.server.retries");
+        }
+        Assert.assertEquals("2", PluginProperties.getValue("livingdoc.server.retries"));
     }
 }
\ No newline at end of file
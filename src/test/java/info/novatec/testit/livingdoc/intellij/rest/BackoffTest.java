@@ -0,0 +1,31 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class BackoffTest {
+
+    @Test
+    public void delayGrowsExponentiallyWithJitter() {
+
+        Backoff backoff = new Backoff(1000, 60000, new Random(42));
+
+        for (int attempt = 1; attempt <= 4; attempt++) {
+            long delay = backoff.delayMillis(attempt);
+            long expected = 1000L << (attempt - 1);
+            Assert.assertTrue(delay >= expected / 2);
+            Assert.assertTrue(delay <= expected);
+        }
+    }
+
+    @Test
+    public void delayIsCapped() {
+
+        Backoff backoff = new Backoff(1000, 60000, new Random(42));
+
+        Assert.assertTrue(backoff.delayMillis(40) <= 60000);
+        Assert.assertTrue(backoff.delayMillis(40) >= 30000);
+    }
+}
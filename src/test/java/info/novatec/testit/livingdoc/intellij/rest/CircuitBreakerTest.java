@@ -0,0 +1,96 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CircuitBreakerTest {
+
+    private long now;
+    private List<CircuitBreaker.State> changes;
+    private CircuitBreaker circuitBreaker;
+
+    @Before
+    public void setUp() {
+        now = 1000L;
+        changes = new ArrayList<>();
+        circuitBreaker = new CircuitBreaker(3, 500L, () -> now, breaker -> changes.add(breaker.getState()));
+    }
+
+    @Test
+    public void opensAfterTheFailureThreshold() {
+
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        Assert.assertTrue(circuitBreaker.allowRequest());
+
+        circuitBreaker.recordFailure();
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assert.assertFalse(circuitBreaker.allowRequest());
+        Assert.assertEquals(1500L, circuitBreaker.getRetryTime());
+    }
+
+    @Test
+    public void successResetsTheFailures() {
+
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assert.assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void halfOpenAllowsASingleTrial() {
+
+        openBreaker();
+        now += 500L;
+
+        Assert.assertTrue(circuitBreaker.allowRequest());
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Assert.assertFalse(circuitBreaker.allowRequest());
+
+        circuitBreaker.recordSuccess();
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assert.assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    public void failedTrialOpensAgain() {
+
+        openBreaker();
+        now += 600L;
+
+        Assert.assertTrue(circuitBreaker.allowRequest());
+        circuitBreaker.recordFailure();
+
+        Assert.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assert.assertEquals(2100L, circuitBreaker.getRetryTime());
+        Assert.assertFalse(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    public void notifiesEveryChangeOfState() {
+
+        openBreaker();
+        now += 500L;
+        circuitBreaker.allowRequest();
+        circuitBreaker.recordSuccess();
+
+        Assert.assertEquals(3, changes.size());
+        Assert.assertEquals(CircuitBreaker.State.OPEN, changes.get(0));
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, changes.get(1));
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, changes.get(2));
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+public class ExecutionUploadQueueTest {
+
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("uploads");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void entriesAreReadInOrder() throws IOException {
+
+        ExecutionUploadQueue queue = new ExecutionUploadQueue(directory.resolve("queue"));
+        Assert.assertEquals(0, queue.size());
+
+        queue.add(data("First"), "<documents/>");
+        queue.add(data("Second"), "<documents>\n</documents>");
+        queue.add(data("Third"), "");
+
+        List<Path> entries = queue.peek(2);
+        Assert.assertEquals(2, entries.size());
+
+        Properties first = ExecutionUploadQueue.read(entries.get(0));
+        Assert.assertEquals("First", first.getProperty("specification"));
+        Assert.assertEquals("<documents/>", first.getProperty(ExecutionUploadQueue.REPORT));
+
+        Properties second = ExecutionUploadQueue.read(entries.get(1));
+        Assert.assertEquals("Second", second.getProperty("specification"));
+        Assert.assertEquals("<documents>\n</documents>", second.getProperty(ExecutionUploadQueue.REPORT));
+    }
+
+    @Test
+    public void removedEntriesAreNotRead() throws IOException {
+
+        ExecutionUploadQueue queue = new ExecutionUploadQueue(directory);
+        Path entry = queue.add(data("First"), "<documents/>");
+        queue.add(data("Second"), "<documents/>");
+
+        queue.remove(entry);
+
+        Assert.assertEquals(1, queue.size());
+        Assert.assertEquals("Second", ExecutionUploadQueue.read(queue.peek(10).get(0)).getProperty("specification"));
+    }
+
+    @Test
+    public void parkedEntriesLeaveTheQueue() throws IOException {
+
+        ExecutionUploadQueue queue = new ExecutionUploadQueue(directory);
+        Path entry = queue.add(data("Rejected"), "<documents/>");
+        queue.add(data("Next"), "<documents/>");
+
+        Path parkedEntry = queue.park(entry, ExecutionUploadQueue.REJECTED);
+
+        Assert.assertEquals(1, queue.size());
+        Assert.assertEquals("Next", ExecutionUploadQueue.read(queue.peek(10).get(0)).getProperty("specification"));
+        Assert.assertEquals(directory.resolve(ExecutionUploadQueue.REJECTED), parkedEntry.getParent());
+        Assert.assertEquals("Rejected", ExecutionUploadQueue.read(parkedEntry).getProperty("specification"));
+    }
+
+    @Test
+    public void entriesSurviveANewQueue() throws IOException {
+
+        new ExecutionUploadQueue(directory).add(data("First"), "<documents/>");
+
+        Assert.assertEquals(1, new ExecutionUploadQueue(directory).size());
+    }
+
+    private static Properties data(final String specificationName) {
+
+        Properties data = new Properties();
+        data.setProperty("specification", specificationName);
+        return data;
+    }
+}
@@ -0,0 +1,60 @@
+package info.novatec.testit.livingdoc.intellij.rest;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+public class SpecificationHierarchyTest {
+
+    private static final String HIERARCHY = "R\tUID-1\tProject (Space)\tSpace\thttp://confluence/space\tConfluenceRepository\n"
+            + "1\t-\tFolder\n"
+            + "2\tEI\tFirst specification\n"
+            + "2\tE\tSecond specification\n"
+            + "1\tE\tThird specification\n"
+            + "R\tUID-2\tOther\tOther\thttp://confluence/other\tConfluenceRepository\n"
+            + "1\tE\tFourth specification\n";
+
+    @Test
+    public void readHierarchy() throws IOException {
+
+        SpecificationHierarchy hierarchy = SpecificationHierarchy.read(new StringReader(HIERARCHY));
+
+        Assert.assertEquals(2, hierarchy.getRepositories().size());
+
+        SpecificationHierarchy.RepositoryEntry repository = hierarchy.getRepositories().get(0);
+        Assert.assertEquals("UID-1", repository.getUid());
+        Assert.assertEquals("Project (Space)", repository.getName());
+        Assert.assertEquals(2, repository.getChildren().size());
+
+        SpecificationHierarchy.Entry folder = repository.getChildren().get(0);
+        Assert.assertFalse(folder.isExecutable());
+        Assert.assertEquals(2, folder.getChildren().size());
+        Assert.assertTrue(folder.getChildren().get(0).isCanBeImplemented());
+        Assert.assertFalse(folder.getChildren().get(1).isCanBeImplemented());
+
+        Assert.assertEquals("Third specification", repository.getChildren().get(1).getTitle());
+        Assert.assertEquals("Fourth specification", hierarchy.getRepositories().get(1).getChildren().get(0).getTitle());
+    }
+
+    @Test
+    public void writeHierarchy() throws IOException {
+
+        StringWriter writer = new StringWriter();
+        SpecificationHierarchy.read(new StringReader(HIERARCHY)).write(writer);
+
+        Assert.assertEquals(HIERARCHY, writer.toString());
+    }
+
+    @Test(expected = IOException.class)
+    public void nodeWithoutRepository() throws IOException {
+        SpecificationHierarchy.read(new StringReader("1\tE\tSpecification\n"));
+    }
+
+    @Test(expected = IOException.class)
+    public void nodeWithoutParent() throws IOException {
+        SpecificationHierarchy.read(new StringReader("R\tUID\tName\tName\turl\tclass\n2\tE\tSpecification\n"));
+    }
+}
@@ -0,0 +1,80 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ClassDataSharingArchivesTest {
+
+    @Test
+    public void getMajorVersion() {
+
+        Assert.assertEquals(8, ClassDataSharingArchives.getMajorVersion("java version \"1.8.0_152\""));
+        Assert.assertEquals(13, ClassDataSharingArchives.getMajorVersion("java version \"13.0.2\""));
+        Assert.assertEquals(17, ClassDataSharingArchives.getMajorVersion("17"));
+    }
+
+    @Test
+    public void getMajorVersionUnknown() {
+
+        Assert.assertEquals(0, ClassDataSharingArchives.getMajorVersion(null));
+        Assert.assertEquals(0, ClassDataSharingArchives.getMajorVersion("unknown"));
+    }
+
+    @Test
+    public void fingerprintOfRebuiltJar() throws IOException {
+
+        Path jarFile = Files.createTempFile("livingdoc", ".jar");
+        try {
+            List<String> jarFiles = Collections.singletonList(jarFile.toString());
+            String fingerprint = ClassDataSharingArchives.buildFingerprint("/jdk", jarFiles);
+
+            Assert.assertEquals(fingerprint, ClassDataSharingArchives.buildFingerprint("/jdk", jarFiles));
+            Assert.assertNotEquals(fingerprint, ClassDataSharingArchives.buildFingerprint("/other-jdk", jarFiles));
+
+            Files.write(jarFile, new byte[]{1, 2, 3});
+            Assert.assertNotEquals(fingerprint, ClassDataSharingArchives.buildFingerprint("/jdk", jarFiles));
+        } finally {
+            Files.delete(jarFile);
+        }
+    }
+
+    @Test
+    public void findShadowedEntry() throws IOException {
+
+        Path directory = Files.createTempDirectory("classes");
+        try {
+            Files.createDirectories(directory.resolve("com/acme"));
+            Files.write(directory.resolve("com/acme/Bank.class"), new byte[0]);
+            Files.createDirectories(directory.resolve("META-INF"));
+            Files.write(directory.resolve("META-INF/MANIFEST.MF"), new byte[0]);
+            List<String> directories = Arrays.asList(directory.toString(), directory.resolve("missing").toString());
+
+            Assert.assertNull(ClassDataSharingArchives.findShadowedEntry(directories,
+                    new HashSet<>(Arrays.asList("com/acme/Account.class", "META-INF/MANIFEST.MF"))));
+            Assert.assertEquals("com/acme/Bank.class", ClassDataSharingArchives.findShadowedEntry(directories,
+                    new HashSet<>(Collections.singletonList("com/acme/Bank.class"))));
+        } finally {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    public void isArchiveOf() {
+
+        Assert.assertTrue(ClassDataSharingArchives.isArchiveOf("app-0cc175b9-c0f1-36a8-b1c0-c9d8a3b6e2f1.jsa", "app"));
+        Assert.assertFalse(ClassDataSharingArchives.isArchiveOf("app-core-0cc175b9-c0f1-36a8-b1c0-c9d8a3b6e2f1.jsa", "app"));
+        Assert.assertFalse(ClassDataSharingArchives.isArchiveOf("app-0cc175b9-c0f1-36a8-b1c0-c9d8a3b6e2f1.jsa.tmp", "app"));
+    }
+}
@@ -0,0 +1,52 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class DurationBaselineTest {
+
+    @Test
+    public void meanAndStandardDeviation() {
+
+        DurationBaseline baseline = DurationBaseline.of(Arrays.asList(900L, 1000L, 1100L));
+
+        Assert.assertEquals(3, baseline.getSamples());
+        Assert.assertEquals(1000d, baseline.getMean(), 0.001d);
+        Assert.assertEquals(100d, baseline.getStandardDeviation(), 0.001d);
+        Assert.assertEquals(0.5d, baseline.getRatio(1500L), 0.001d);
+    }
+
+    @Test
+    public void significantSlowdown() {
+
+        DurationBaseline baseline = DurationBaseline.of(Arrays.asList(900L, 1000L, 1100L));
+
+        Assert.assertTrue(baseline.isRegression(1500L, 3, 3d, 0.2d));
+        // Within three standard deviations.
+        Assert.assertFalse(baseline.isRegression(1250L, 3, 3d, 0.2d));
+        // Not enough samples.
+        Assert.assertFalse(baseline.isRegression(1500L, 4, 3d, 0.2d));
+    }
+
+    @Test
+    public void stableSpecificationNeedsMinimumRatio() {
+
+        DurationBaseline baseline = DurationBaseline.of(Arrays.asList(100L, 100L, 100L));
+
+        Assert.assertFalse(baseline.isRegression(110L, 3, 3d, 0.2d));
+        Assert.assertTrue(baseline.isRegression(130L, 3, 3d, 0.2d));
+    }
+
+    @Test
+    public void emptyBaseline() {
+
+        DurationBaseline baseline = DurationBaseline.of(Collections.emptyList());
+
+        Assert.assertEquals(0, baseline.getSamples());
+        Assert.assertEquals(0d, baseline.getRatio(100L), 0d);
+        Assert.assertFalse(baseline.isRegression(100L, 0, 3d, 0.2d));
+    }
+}
@@ -0,0 +1,36 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import info.novatec.testit.livingdoc.headless.SpecificationTask;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExecutionRecordTest {
+
+    @Test
+    public void parseLine() {
+
+        ExecutionRecord executionRecord = new ExecutionRecord(1500000000000L, "Confluence-LIVINGDOC", "Bank\tAccount", true,
+                9, 1, 2, 0, 3500L, ExecutionRecord.Outcome.FAILURE);
+
+        ExecutionRecord parsed = ExecutionRecord.parse(executionRecord.toLine());
+
+        Assert.assertNotNull(parsed);
+        Assert.assertEquals(1500000000000L, parsed.getTimestamp());
+        Assert.assertEquals("Bank Account", parsed.getSpecificationName());
+        Assert.assertTrue(parsed.isCurrentVersion());
+        Assert.assertEquals(9, parsed.getRight());
+        Assert.assertEquals(1, parsed.getWrong());
+        Assert.assertEquals(3500L, parsed.getWallTime());
+        Assert.assertEquals(ExecutionRecord.Outcome.FAILURE, parsed.getOutcome());
+        Assert.assertEquals(SpecificationTask.buildKey("Confluence-LIVINGDOC", "Bank Account", true), parsed.getKey());
+    }
+
+    @Test
+    public void parseInvalidLine() {
+
+        Assert.assertNull(ExecutionRecord.parse(null));
+        Assert.assertNull(ExecutionRecord.parse("1500000000000\tConfluence-LIVINGDOC"));
+        Assert.assertNull(ExecutionRecord.parse("x\tuid\tname\tcurrent\t1\t0\t0\t0\t10\tSUCCESS"));
+        Assert.assertNull(ExecutionRecord.parse("1\tuid\tname\tcurrent\t1\t0\t0\t0\t10\tUNKNOWN"));
+    }
+}
@@ -0,0 +1,54 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+public class FixtureReferencesTest {
+
+    private static final String SPECIFICATION = "<html><body><p>Calculator</p>"
+            + "<table><tr><td>rule for</td><td><b>Bank&nbsp;Account</b></td></tr>"
+            + "<tr><td>balance</td><td>name</td></tr></table>"
+            + "<table border=\"1\"><tr><th>do with</th><th>com.example.Calculator</th></tr></table>"
+            + "</body></html>";
+
+    @Test
+    public void extractTokens() {
+
+        Set<String> tokens = FixtureReferences.extractTokens(SPECIFICATION);
+
+        Assert.assertTrue(tokens.contains("rulefor"));
+        Assert.assertTrue(tokens.contains("bankaccount"));
+        Assert.assertTrue(tokens.contains("comexamplecalculator"));
+        Assert.assertFalse(tokens.contains("balance"));
+    }
+
+    @Test
+    public void extractTokensWithoutTables() {
+
+        Assert.assertTrue(FixtureReferences.extractTokens(null).isEmpty());
+        Assert.assertTrue(FixtureReferences.extractTokens("<p>rule for</p>").isEmpty());
+    }
+
+    @Test
+    public void candidateTokens() {
+
+        Set<String> candidates = FixtureReferences.candidateTokens("com.example.BankAccountFixture$Row");
+
+        Assert.assertTrue(candidates.contains("comexamplebankaccountfixture"));
+        Assert.assertTrue(candidates.contains("bankaccountfixture"));
+        Assert.assertTrue(candidates.contains("bankaccount"));
+    }
+
+    @Test
+    public void references() {
+
+        Set<String> tokens = FixtureReferences.extractTokens(SPECIFICATION);
+
+        Assert.assertTrue(FixtureReferences.references(tokens, Collections.singleton("com.example.BankAccountFixture")));
+        Assert.assertTrue(FixtureReferences.references(tokens, Collections.singleton("com.example.Calculator")));
+        Assert.assertFalse(FixtureReferences.references(tokens, Collections.singleton("com.example.Balance")));
+    }
+}
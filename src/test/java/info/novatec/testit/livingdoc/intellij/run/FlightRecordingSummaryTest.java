@@ -0,0 +1,103 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class FlightRecordingSummaryTest {
+
+    private static final List<String> OUTPUT = Arrays.asList(
+            "jdk.ExecutionSample {",
+            "  startTime = 13:41:07.846 (2020-01-01)",
+            "  sampledThread = \"main\" (javaThreadId = 1)",
+            "  state = \"STATE_RUNNABLE\"",
+            "  stackTrace = [",
+            "    java.util.HashMap.putVal(int, Object, Object, boolean, boolean) line: 627",
+            "    ...",
+            "  ]",
+            "}",
+            "",
+            "jdk.ExecutionSample {",
+            "  startTime = 13:41:07.866 (2020-01-01)",
+            "  stackTrace = [",
+            "    java.util.HashMap.putVal(int, Object, Object, boolean, boolean) line: 631",
+            "  ]",
+            "}",
+            "jdk.ExecutionSample {",
+            "  stackTrace = [",
+            "    com.acme.BankFixture.deposit(String) line: 12",
+            "  ]",
+            "}",
+            "jdk.ObjectAllocationSample {",
+            "  objectClass = java.lang.String (classLoader = bootstrap)",
+            "  weight = 1.5 MB",
+            "}",
+            "jdk.ObjectAllocationInNewTLAB {",
+            "  objectClass = byte[] (classLoader = bootstrap)",
+            "  allocationSize = 24 bytes",
+            "  tlabSize = 512.0 kB",
+            "}",
+            "jdk.GarbageCollection {",
+            "  name = \"G1New\"",
+            "  sumOfPauses = 2.50 ms",
+            "  longestPause = 2.50 ms",
+            "}",
+            "jdk.GarbageCollection {",
+            "  name = \"G1New\"",
+            "  sumOfPauses = 500 us",
+            "}");
+
+    @Test
+    public void topMethods() {
+
+        FlightRecordingSummary summary = FlightRecordingSummary.parse("Bank", "bank.jfr", OUTPUT);
+
+        Assert.assertNull(summary.getError());
+        Assert.assertEquals(2, summary.getTopMethods().size());
+        Assert.assertEquals("java.util.HashMap.putVal(int, Object, Object, boolean, boolean)", summary.getTopMethods().get(0).getName());
+        Assert.assertEquals(2L, summary.getTopMethods().get(0).getTotal());
+        Assert.assertEquals("com.acme.BankFixture.deposit(String)", summary.getTopMethods().get(1).getName());
+    }
+
+    @Test
+    public void allocationsAndGcPauses() {
+
+        FlightRecordingSummary summary = FlightRecordingSummary.parse("Bank", "bank.jfr", OUTPUT);
+
+        Assert.assertEquals(1, summary.getAllocations().size());
+        Assert.assertEquals("java.lang.String", summary.getAllocations().get(0).getName());
+        Assert.assertEquals(1572864L, summary.getAllocations().get(0).getTotal());
+
+        Assert.assertEquals(1, summary.getGcPauses().size());
+        Assert.assertEquals("G1New", summary.getGcPauses().get(0).getName());
+        Assert.assertEquals(2, summary.getGcPauses().get(0).getCount());
+        Assert.assertEquals(3000000L, summary.getGcPauses().get(0).getTotal());
+    }
+
+    @Test
+    public void tlabAllocationsWithoutSamples() {
+
+        FlightRecordingSummary summary = FlightRecordingSummary.parse("Bank", "bank.jfr", Arrays.asList(
+                "jdk.ObjectAllocationInNewTLAB {",
+                "  objectClass = byte[] (classLoader = bootstrap)",
+                "  tlabSize = 512.0 kB",
+                "}"));
+
+        Assert.assertEquals(1, summary.getAllocations().size());
+        Assert.assertEquals("byte[]", summary.getAllocations().get(0).getName());
+        Assert.assertEquals(524288L, summary.getAllocations().get(0).getTotal());
+    }
+
+    @Test
+    public void quantities() {
+
+        Assert.assertEquals(1024L, FlightRecordingSummary.parseBytes("1 kB"));
+        Assert.assertEquals(1234L, FlightRecordingSummary.parseBytes("1,234 bytes"));
+        Assert.assertEquals(0L, FlightRecordingSummary.parseBytes("N/A"));
+        Assert.assertEquals(1500L, FlightRecordingSummary.parseNanos("1.5 us"));
+        Assert.assertEquals(2000000000L, FlightRecordingSummary.parseNanos("2 s"));
+        Assert.assertEquals(0L, FlightRecordingSummary.parseNanos(null));
+    }
+}
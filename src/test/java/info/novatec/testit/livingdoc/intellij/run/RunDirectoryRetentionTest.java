@@ -0,0 +1,118 @@
+package info.novatec.testit.livingdoc.intellij.run;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class RunDirectoryRetentionTest {
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long NOW = 1000 * MINUTE;
+
+    private Path runsDirectory;
+
+    @Before
+    public void createRunsDirectory() throws IOException {
+        runsDirectory = Files.createTempDirectory("runs");
+    }
+
+    @After
+    public void deleteRunsDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(runsDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void oldDirectoriesAreDeleted() throws IOException {
+
+        Path oldRun = createRun("old", 100, NOW - 200 * MINUTE);
+        Path recentRun = createRun("recent", 100, NOW - 50 * MINUTE);
+
+        int deleted = new RunDirectoryRetention(100 * MINUTE, Long.MAX_VALUE, 10 * MINUTE).apply(runsDirectory, NOW);
+
+        Assert.assertEquals(1, deleted);
+        Assert.assertFalse(Files.exists(oldRun));
+        Assert.assertTrue(Files.exists(recentRun));
+    }
+
+    @Test
+    public void oldestDirectoriesAreDeletedOverMaximumSize() throws IOException {
+
+        Path firstRun = createRun("first", 100, NOW - 30 * MINUTE);
+        Path secondRun = createRun("second", 100, NOW - 20 * MINUTE);
+        Path thirdRun = createRun("third", 100, NOW - 15 * MINUTE);
+
+        int deleted = new RunDirectoryRetention(Long.MAX_VALUE, 200, 10 * MINUTE).apply(runsDirectory, NOW);
+
+        Assert.assertEquals(1, deleted);
+        Assert.assertFalse(Files.exists(firstRun));
+        Assert.assertTrue(Files.exists(secondRun));
+        Assert.assertTrue(Files.exists(thirdRun));
+    }
+
+    @Test
+    public void recentDirectoriesAreKept() throws IOException {
+
+        Path runningRun = createRun("running", 1000, NOW - MINUTE);
+
+        int deleted = new RunDirectoryRetention(0, 0, 10 * MINUTE).apply(runsDirectory, NOW);
+
+        Assert.assertEquals(0, deleted);
+        Assert.assertTrue(Files.exists(runningRun));
+    }
+
+    @Test
+    public void oldFilesAreDeleted() throws IOException {
+
+        Path oldDocument = Files.write(runsDirectory.resolve("old.html"), new byte[100]);
+        Files.setLastModifiedTime(oldDocument, FileTime.fromMillis(NOW - 200 * MINUTE));
+        Path recentDocument = Files.write(runsDirectory.resolve("recent.html"), new byte[100]);
+        Files.setLastModifiedTime(recentDocument, FileTime.fromMillis(NOW - 50 * MINUTE));
+
+        int deleted = new RunDirectoryRetention(100 * MINUTE, Long.MAX_VALUE, 10 * MINUTE).apply(runsDirectory, NOW);
+
+        Assert.assertEquals(1, deleted);
+        Assert.assertFalse(Files.exists(oldDocument));
+        Assert.assertTrue(Files.exists(recentDocument));
+    }
+
+    @Test
+    public void keptEntriesAreNotDeleted() throws IOException {
+
+        Path keptDocument = Files.write(runsDirectory.resolve("kept.html"), new byte[100]);
+        Files.setLastModifiedTime(keptDocument, FileTime.fromMillis(NOW - 200 * MINUTE));
+        Path oldDocument = Files.write(runsDirectory.resolve("old.html"), new byte[100]);
+        Files.setLastModifiedTime(oldDocument, FileTime.fromMillis(NOW - 200 * MINUTE));
+
+        int deleted = new RunDirectoryRetention(100 * MINUTE, Long.MAX_VALUE, 10 * MINUTE)
+                .apply(runsDirectory, NOW, Collections.singleton(keptDocument));
+
+        Assert.assertEquals(1, deleted);
+        Assert.assertTrue(Files.exists(keptDocument));
+        Assert.assertFalse(Files.exists(oldDocument));
+    }
+
+    @Test
+    public void missingRunsDirectory() throws IOException {
+
+        Assert.assertEquals(0, new RunDirectoryRetention(0, 0, 0).apply(runsDirectory.resolve("missing"), NOW));
+    }
+
+    private Path createRun(final String name, final int bytes, final long lastModified) throws IOException {
+
+        Path runDirectory = Files.createDirectory(runsDirectory.resolve(name));
+        Files.write(runDirectory.resolve("report.xml"), new byte[bytes]);
+        Files.setLastModifiedTime(runDirectory, FileTime.fromMillis(lastModified));
+        return runDirectory;
+    }
+}
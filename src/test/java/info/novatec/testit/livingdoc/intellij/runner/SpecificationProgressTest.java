@@ -0,0 +1,27 @@
+package info.novatec.testit.livingdoc.intellij.runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpecificationProgressTest {
+
+    @Test
+    public void printAndParse() {
+
+        SpecificationProgress parsed = SpecificationProgress.parse(new SpecificationProgress(3, 420, "Bank\tAccount").toLine());
+
+        Assert.assertNotNull(parsed);
+        Assert.assertEquals(3, parsed.getTables());
+        Assert.assertEquals(420, parsed.getCells());
+        Assert.assertEquals("Bank Account", parsed.getFixture());
+    }
+
+    @Test
+    public void parseOtherLines() {
+
+        Assert.assertNull(SpecificationProgress.parse(null));
+        Assert.assertNull(SpecificationProgress.parse("12 tests: 9 right, 1 wrong, 2 ignored, 0 exception(s)"));
+        Assert.assertNull(SpecificationProgress.parse("LivingDoc progress\t3\t420"));
+        Assert.assertNull(SpecificationProgress.parse("LivingDoc progress\t3\tx\tBank"));
+    }
+}
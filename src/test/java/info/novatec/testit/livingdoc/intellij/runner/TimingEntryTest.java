@@ -0,0 +1,45 @@
+package info.novatec.testit.livingdoc.intellij.runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimingEntryTest {
+
+    @Test
+    public void accumulateAndParse() {
+
+        TimingEntry timingEntry = new TimingEntry(TimingEntry.Kind.MESSAGE, "Bank", "check balance");
+        timingEntry.add(300L);
+        timingEntry.add(700L);
+
+        TimingEntry parsed = TimingEntry.parse(timingEntry.toLine());
+
+        Assert.assertNotNull(parsed);
+        Assert.assertEquals(TimingEntry.Kind.MESSAGE, parsed.getKind());
+        Assert.assertEquals("Bank", parsed.getFixture());
+        Assert.assertEquals("check balance", parsed.getMessage());
+        Assert.assertEquals(2, parsed.getCount());
+        Assert.assertEquals(1000L, parsed.getTotalNanos());
+        Assert.assertEquals(700L, parsed.getMaxNanos());
+    }
+
+    @Test
+    public void parseInvalidLine() {
+
+        Assert.assertNull(TimingEntry.parse(null));
+        Assert.assertNull(TimingEntry.parse("TABLE\tBank"));
+        Assert.assertNull(TimingEntry.parse("ROW\tBank\t\t1\t10\t10"));
+        Assert.assertNull(TimingEntry.parse("TABLE\tBank\t\tx\t10\t10"));
+    }
+
+    @Test
+    public void separatorsInNames() {
+
+        TimingEntry timingEntry = new TimingEntry(TimingEntry.Kind.FIXTURE, "Bank\tAccount", null);
+
+        Assert.assertEquals("Bank Account", timingEntry.getFixture());
+        Assert.assertEquals("", timingEntry.getMessage());
+        Assert.assertEquals(TimingEntry.buildKey(TimingEntry.Kind.FIXTURE, "Bank Account", ""),
+                TimingEntry.buildKey(timingEntry.getKind(), timingEntry.getFixture(), timingEntry.getMessage()));
+    }
+}